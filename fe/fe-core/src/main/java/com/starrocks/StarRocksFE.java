@@ -40,6 +40,7 @@ import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.ExecuteEnv;
 import com.starrocks.service.FeServer;
 import com.starrocks.service.FrontendOptions;
+import com.starrocks.sql.parser.SqlParser;
 import org.apache.commons.cli.BasicParser;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -114,6 +115,9 @@ public class StarRocksFE {
 
             FrontendOptions.saveStartType();
 
+            // fill the DFA cache of the sql parser before serving
+            SqlParser.warmUp();
+
             // init and start:
             // 1. QeService for MySQL Server
             // 2. FeServer for Thrift Server
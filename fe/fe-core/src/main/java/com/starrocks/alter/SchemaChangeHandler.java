@@ -21,6 +21,7 @@
 
 package com.starrocks.alter;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -82,6 +83,7 @@ import com.starrocks.common.util.ListComparator;
 import com.starrocks.common.util.PropertyAnalyzer;
 import com.starrocks.common.util.Util;
 import com.starrocks.mysql.privilege.PrivPredicate;
+import com.starrocks.persist.TableAddOrDropColumnsInfo;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.ShowResultSet;
 import com.starrocks.server.GlobalStateMgr;
@@ -1544,10 +1546,134 @@ public class SchemaChangeHandler extends AlterHandler {
             }
         } // end for alter clauses
 
+        if (Config.enable_fast_schema_evolution && propertyMap.isEmpty()
+                && isFastSchemaEvolution(olapTable, alterClauses, indexSchemaMap, newIndexes)) {
+            modifyTableAddOrDropColumns(db, olapTable, indexSchemaMap);
+            return null;
+        }
         createJob(db.getId(), olapTable, indexSchemaMap, propertyMap, newIndexes);
         return null;
     }
 
+    /**
+     * Whether the ADD/DROP COLUMN can be done by only changing the schemas in the metadata. The key columns and
+     * the remaining columns must be unchanged and in the same order, and the added columns must be value columns
+     * which are nullable or have a default value, so that the rows of the old rowsets could be read with the
+     * default values of the added columns. The changes of the indexes, the bloom filter columns, the primary key
+     * tables and the materialized views keep the schema change job.
+     */
+    @VisibleForTesting
+    static boolean isFastSchemaEvolution(OlapTable olapTable, List<AlterClause> alterClauses,
+                                         Map<Long, LinkedList<Column>> indexSchemaMap, List<Index> newIndexes) {
+        if (olapTable.isLakeTable() || olapTable.getKeysType() == KeysType.PRIMARY_KEYS) {
+            return false;
+        }
+        for (AlterClause alterClause : alterClauses) {
+            if (!(alterClause instanceof AddColumnClause) && !(alterClause instanceof AddColumnsClause)
+                    && !(alterClause instanceof DropColumnClause)) {
+                return false;
+            }
+        }
+        // the indexes on the dropped columns are dropped
+        if (newIndexes.size() != olapTable.getIndexes().size()) {
+            return false;
+        }
+        Set<String> bfColumns = olapTable.getCopiedBfColumns();
+        if (bfColumns != null) {
+            for (String bfColumn : bfColumns) {
+                if (indexSchemaMap.get(olapTable.getBaseIndexId()).stream().noneMatch(c -> c.nameEquals(bfColumn, true))) {
+                    return false;
+                }
+            }
+        }
+        for (Map.Entry<Long, LinkedList<Column>> entry : indexSchemaMap.entrySet()) {
+            MaterializedIndexMeta indexMeta = olapTable.getIndexMetaByIndexId(entry.getKey());
+            if (indexMeta.getSchema().equals(entry.getValue())) {
+                continue;
+            }
+            if (indexMeta.getOriginStmt() != null
+                    || !isAddOrDropValueColumns(indexMeta.getSchema(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAddOrDropValueColumns(List<Column> originSchema, List<Column> alterSchema) {
+        int lastOriginIdx = -1;
+        int keyNum = 0;
+        for (Column alterColumn : alterSchema) {
+            int originIdx = originSchema.indexOf(alterColumn);
+            if (originIdx < 0) {
+                // added column
+                if (alterColumn.isKey() || (!alterColumn.isAllowNull()
+                        && alterColumn.getDefaultValueType() != Column.DefaultValueType.CONST)) {
+                    return false;
+                }
+                continue;
+            }
+            if (originIdx < lastOriginIdx) {
+                return false;
+            }
+            lastOriginIdx = originIdx;
+            if (alterColumn.isKey()) {
+                keyNum++;
+            }
+        }
+        // no key column is dropped
+        return keyNum == originSchema.stream().filter(Column::isKey).count();
+    }
+
+    private void modifyTableAddOrDropColumns(Database db, OlapTable olapTable,
+                                             Map<Long, LinkedList<Column>> indexSchemaMap) throws DdlException {
+        if (olapTable.getState() != OlapTableState.NORMAL) {
+            throw new DdlException("Table[" + olapTable.getName() + "]'s state is not NORMAL: "
+                    + olapTable.getState().name());
+        }
+        if (this.hasUnfinishedAlterJob(olapTable.getId())) {
+            throw new DdlException("Table[" + olapTable.getName() + "]'s is doing ALTER job");
+        }
+
+        Map<Long, List<Column>> indexIdToSchema = Maps.newHashMap();
+        Map<Long, Integer> indexIdToSchemaVersion = Maps.newHashMap();
+        for (Map.Entry<Long, LinkedList<Column>> entry : indexSchemaMap.entrySet()) {
+            MaterializedIndexMeta indexMeta = olapTable.getIndexMetaByIndexId(entry.getKey());
+            if (!indexMeta.getSchema().equals(entry.getValue())) {
+                indexIdToSchema.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+                indexIdToSchemaVersion.put(entry.getKey(), indexMeta.getSchemaVersion() + 1);
+            }
+        }
+        TableAddOrDropColumnsInfo info = new TableAddOrDropColumnsInfo(db.getId(), olapTable.getId(),
+                indexIdToSchema, indexIdToSchemaVersion);
+        applyAddOrDropColumns(olapTable, info);
+        GlobalStateMgr.getCurrentState().getEditLog().logModifyTableAddOrDropColumns(info);
+        LOG.info("finished to add or drop columns of table {} without schema change job, schema versions: {}",
+                olapTable.getName(), indexIdToSchemaVersion);
+    }
+
+    private static void applyAddOrDropColumns(OlapTable olapTable, TableAddOrDropColumnsInfo info) {
+        for (Map.Entry<Long, List<Column>> entry : info.getIndexIdToSchema().entrySet()) {
+            long indexId = entry.getKey();
+            MaterializedIndexMeta indexMeta = olapTable.getIndexMetaByIndexId(indexId);
+            // the schema hash is unchanged, as the tablets are not rewritten
+            olapTable.setIndexMeta(indexId, null, entry.getValue(), info.getIndexIdToSchemaVersion().get(indexId),
+                    indexMeta.getSchemaHash(), indexMeta.getShortKeyColumnCount(), null, indexMeta.getKeysType());
+        }
+        olapTable.rebuildFullSchema();
+    }
+
+    public void replayModifyTableAddOrDropColumns(TableAddOrDropColumnsInfo info) {
+        Database db = GlobalStateMgr.getCurrentState().getDb(info.getDbId());
+        db.writeLock();
+        try {
+            OlapTable olapTable = (OlapTable) db.getTable(info.getTableId());
+            applyAddOrDropColumns(olapTable, info);
+        } finally {
+            db.writeUnlock();
+        }
+        LOG.debug("finish replay add or drop columns of table {}", info.getTableId());
+    }
+
     private void sendClearAlterTask(Database db, OlapTable olapTable) {
         AgentBatchTask batchTask = new AgentBatchTask();
         db.readLock();
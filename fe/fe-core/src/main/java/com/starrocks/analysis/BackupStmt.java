@@ -18,6 +18,7 @@
 package com.starrocks.analysis;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
 import com.google.common.collect.Maps;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.ErrorCode;
@@ -30,12 +31,18 @@ import java.util.Map;
 
 public class BackupStmt extends AbstractBackupStmt {
     private static final String PROP_TYPE = "type";
+    private static final String PROP_BASE_SNAPSHOT = "base_snapshot";
+    private static final String PROP_BASE_BACKUP_TIMESTAMP = "base_backup_timestamp";
 
     public enum BackupType {
         INCREMENTAL, FULL
     }
 
     private BackupType type = BackupType.FULL;
+    // the snapshot which the incremental backup is based on
+    private String baseSnapshot;
+    // the backup timestamp of the base snapshot, null means the latest one
+    private String baseBackupTimestamp;
 
     public BackupStmt(LabelName labelName, String repoName, List<TableRef> tblRefs, Map<String, String> properties) {
         super(labelName, repoName, tblRefs, properties);
@@ -49,6 +56,14 @@ public class BackupStmt extends AbstractBackupStmt {
         return type;
     }
 
+    public String getBaseSnapshot() {
+        return baseSnapshot;
+    }
+
+    public String getBaseBackupTimestamp() {
+        return baseBackupTimestamp;
+    }
+
     @Override
     public void analyze(Analyzer analyzer) throws UserException {
         super.analyze(analyzer);
@@ -78,6 +93,19 @@ public class BackupStmt extends AbstractBackupStmt {
             copiedProperties.remove(PROP_TYPE);
         }
 
+        // base snapshot of incremental backup
+        baseSnapshot = copiedProperties.remove(PROP_BASE_SNAPSHOT);
+        baseBackupTimestamp = copiedProperties.remove(PROP_BASE_BACKUP_TIMESTAMP);
+        if (type == BackupType.INCREMENTAL && Strings.isNullOrEmpty(baseSnapshot)) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                    "Property " + PROP_BASE_SNAPSHOT + " is required for incremental backup");
+        }
+        if (type == BackupType.FULL && (baseSnapshot != null || baseBackupTimestamp != null)) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                    "Property " + PROP_BASE_SNAPSHOT + " and " + PROP_BASE_BACKUP_TIMESTAMP
+                            + " are only for incremental backup");
+        }
+
         if (!copiedProperties.isEmpty()) {
             ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
                     "Unknown backup job properties: " + copiedProperties.keySet());
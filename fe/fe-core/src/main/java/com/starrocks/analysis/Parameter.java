@@ -0,0 +1,88 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.analysis;
+
+import com.starrocks.common.AnalysisException;
+import com.starrocks.sql.ast.AstVisitor;
+import com.starrocks.thrift.TExprNode;
+
+/**
+ * The parameter marker '?' of a prepared statement, which is bound to a literal by each execution.
+ */
+public class Parameter extends Expr {
+    // the bound literal, shared by the clones of the parameter which are made by the analyzer
+    private static class Binding {
+        private LiteralExpr value;
+    }
+
+    // the offset of the '?' in the statement
+    private final int offset;
+    private final Binding binding;
+
+    public Parameter(int offset) {
+        this.offset = offset;
+        this.binding = new Binding();
+    }
+
+    protected Parameter(Parameter other) {
+        super(other);
+        offset = other.offset;
+        binding = other.binding;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public LiteralExpr getValue() {
+        return binding.value;
+    }
+
+    public void setValue(LiteralExpr value) {
+        binding.value = value;
+    }
+
+    @Override
+    protected void analyzeImpl(Analyzer analyzer) throws AnalysisException {
+        if (binding.value == null) {
+            throw new AnalysisException("The parameter is not bound");
+        }
+        type = binding.value.getType();
+    }
+
+    @Override
+    protected String toSqlImpl() {
+        return "?";
+    }
+
+    @Override
+    protected void toThrift(TExprNode msg) {
+        binding.value.toThrift(msg);
+    }
+
+    @Override
+    public Expr clone() {
+        return new Parameter(this);
+    }
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitParameter(this, context);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return offset == ((Parameter) o).offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(offset);
+    }
+}
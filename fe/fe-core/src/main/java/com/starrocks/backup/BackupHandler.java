@@ -342,31 +342,15 @@ public class BackupHandler extends MasterDaemon implements Writable {
             ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, st.getErrMsg());
         }
         if (existSnapshotNames.contains(stmt.getLabel())) {
-            if (stmt.getType() == BackupType.FULL) {
-                ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Snapshot with name '"
-                        + stmt.getLabel() + "' already exist in repository");
-            } else {
-                ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Currently does not support "
-                        + "incremental backup");
-
-                // TODO:
-                // This is a incremental backup, the existing snapshot in repository will be treated
-                // as base snapshot.
-                // But first we need to check if the existing snapshot has same meta.
-                List<BackupMeta> backupMetas = Lists.newArrayList();
-                st = repository.getSnapshotMetaFile(stmt.getLabel(), backupMetas, -1, -1);
-                if (!st.ok()) {
-                    ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
-                            "Failed to get existing meta info for repository: "
-                                    + st.getErrMsg());
-                }
-                Preconditions.checkState(backupMetas.size() == 1);
+            ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Snapshot with name '"
+                    + stmt.getLabel() + "' already exist in repository");
+        }
 
-                if (!curBackupMeta.compatibleWith(backupMetas.get(0))) {
-                    ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
-                            "Can not make incremental backup. Meta does not compatible");
-                }
-            }
+        // An incremental backup only makes snapshots of the partitions changed since the base snapshot,
+        // the files of the other partitions are referenced from the base snapshot.
+        BackupJobInfo baseJobInfo = null;
+        if (stmt.getType() == BackupType.INCREMENTAL) {
+            baseJobInfo = getBaseJobInfo(repository, db, stmt.getBaseSnapshot(), stmt.getBaseBackupTimestamp());
         }
 
         // Create a backup job
@@ -374,6 +358,7 @@ public class BackupHandler extends MasterDaemon implements Writable {
                 ClusterNamespace.getNameFromFullName(db.getFullName()),
                 tblRefs, stmt.getTimeoutMs(),
                 globalStateMgr, repository.getId());
+        backupJob.setBaseJobInfo(baseJobInfo);
         // write log
         globalStateMgr.getEditLog().logBackupJob(backupJob);
 
@@ -383,6 +368,38 @@ public class BackupHandler extends MasterDaemon implements Writable {
         LOG.info("finished to submit backup job: {}", backupJob);
     }
 
+    private BackupJobInfo getBaseJobInfo(Repository repository, Database db, String baseSnapshot,
+                                         String baseBackupTimestamp) throws DdlException {
+        if (baseBackupTimestamp == null) {
+            List<String> timestamps = Lists.newArrayList();
+            Status st = repository.getLatestBackupTimestamp(baseSnapshot, timestamps);
+            if (!st.ok()) {
+                ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
+                        "Failed to get base snapshot '" + baseSnapshot + "' because: " + st.getErrMsg());
+            }
+            baseBackupTimestamp = timestamps.get(0);
+        }
+
+        List<BackupJobInfo> infos = Lists.newArrayList();
+        Status st = repository.getSnapshotInfoFile(baseSnapshot, baseBackupTimestamp, infos);
+        if (!st.ok()) {
+            ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
+                    "Failed to get info of base snapshot '" + baseSnapshot + "' because: " + st.getErrMsg()
+                            + ". Maybe specified wrong backup timestamp");
+        }
+        Preconditions.checkState(infos.size() == 1);
+        BackupJobInfo baseJobInfo = infos.get(0);
+        // the files are matched by the ids of the tablets
+        if (baseJobInfo.dbId != db.getId()) {
+            ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
+                    "Base snapshot '" + baseSnapshot + "' is not backed up from database "
+                            + ClusterNamespace.getNameFromFullName(db.getFullName()));
+        }
+        LOG.info("get base snapshot {} of backup timestamp {} for incremental backup", baseSnapshot,
+                baseBackupTimestamp);
+        return baseJobInfo;
+    }
+
     private void restore(Repository repository, Database db, RestoreStmt stmt) throws DdlException {
         // Check if snapshot exist in repository
         List<BackupJobInfo> infos = Lists.newArrayList();
@@ -42,9 +42,12 @@ import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Table.TableType;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Config;
+import com.starrocks.common.StarRocksFEMetaVersion;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.util.TimeUtils;
 import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.task.AgentBatchTask;
 import com.starrocks.task.AgentTask;
@@ -107,6 +110,12 @@ public class BackupJob extends AbstractJob {
     private BackupMeta backupMeta;
     // job info file content
     private BackupJobInfo jobInfo;
+    // job info of the base snapshot of incremental backup, null for full backup
+    private BackupJobInfo baseJobInfo;
+    // the tablets not changed since the base snapshot, and the estimated bytes of the tablets to upload.
+    // only for metrics, not persisted.
+    private int skippedTabletNum = 0;
+    private long estimatedUploadBytes = 0;
 
     // save the local dir of this backup job
     // after job is done, this dir should be deleted
@@ -138,6 +147,14 @@ public class BackupJob extends AbstractJob {
         return jobInfo;
     }
 
+    public BackupJobInfo getBaseJobInfo() {
+        return baseJobInfo;
+    }
+
+    public void setBaseJobInfo(BackupJobInfo baseJobInfo) {
+        this.baseJobInfo = baseJobInfo;
+    }
+
     public String getLocalJobInfoFilePath() {
         return localJobInfoFilePath;
     }
@@ -380,6 +397,8 @@ public class BackupJob extends AbstractJob {
             unfinishedTaskIds.clear();
             taskProgress.clear();
             taskErrMsg.clear();
+            skippedTabletNum = 0;
+            estimatedUploadBytes = 0;
             // create snapshot tasks
             for (TableRef tblRef : tableRefs) {
                 String tblName = tblRef.getName().getTbl();
@@ -398,6 +417,14 @@ public class BackupJob extends AbstractJob {
                 for (Partition partition : partitions) {
                     long visibleVersion = partition.getVisibleVersion();
                     List<MaterializedIndex> indexes = partition.getMaterializedIndices(IndexExtState.VISIBLE);
+                    if (isUnchangedSinceBase(tbl, partition)) {
+                        for (MaterializedIndex index : indexes) {
+                            skippedTabletNum += index.getTablets().size();
+                        }
+                        LOG.info("skip snapshot for partition {} not changed since base snapshot {}, version: {}",
+                                partition.getId(), baseJobInfo.name, visibleVersion);
+                        continue;
+                    }
                     for (MaterializedIndex index : indexes) {
                         int schemaHash = tbl.getSchemaHashByIndexId(index.getId());
                         for (Tablet tablet : index.getTablets()) {
@@ -415,6 +442,7 @@ public class BackupJob extends AbstractJob {
                                     schemaHash, timeoutMs, false /* not restore task */);
                             batchTask.addTask(task);
                             unfinishedTaskIds.put(tablet.getId(), replica.getBackendId());
+                            estimatedUploadBytes += replica.getDataSize();
                         }
                     }
 
@@ -456,6 +484,38 @@ public class BackupJob extends AbstractJob {
         LOG.info("finished to send snapshot tasks to backend. {}", this);
     }
 
+    // Whether the partition is not changed since the base snapshot, so its files can be referenced from the
+    // base snapshot instead of being uploaded again. The tablets of a partition share the visible version,
+    // and a rollup or schema change creates new indexes and tablets, so the partition is unchanged if it has
+    // the same version, indexes and tablets as the base snapshot.
+    private boolean isUnchangedSinceBase(OlapTable tbl, Partition partition) {
+        if (baseJobInfo == null) {
+            return false;
+        }
+        BackupJobInfo.BackupPartitionInfo basePartInfo = baseJobInfo.getPartInfo(tbl.getId(), partition.getId());
+        if (basePartInfo == null || basePartInfo.version != partition.getVisibleVersion()) {
+            return false;
+        }
+        List<MaterializedIndex> indexes = partition.getMaterializedIndices(IndexExtState.VISIBLE);
+        if (indexes.size() != basePartInfo.indexes.size()) {
+            return false;
+        }
+        for (MaterializedIndex index : indexes) {
+            BackupJobInfo.BackupIndexInfo baseIdxInfo = basePartInfo.getIdx(index.getId());
+            List<Tablet> tablets = index.getTablets();
+            if (baseIdxInfo == null || baseIdxInfo.schemaHash != tbl.getSchemaHashByIndexId(index.getId())
+                    || baseIdxInfo.tablets.size() != tablets.size()) {
+                return false;
+            }
+            for (int i = 0; i < tablets.size(); i++) {
+                if (baseIdxInfo.tablets.get(i).id != tablets.get(i).getId()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private void waitingAllSnapshotsFinished() {
         if (unfinishedTaskIds.isEmpty()) {
             snapshotFinishedTime = System.currentTimeMillis();
@@ -486,8 +546,8 @@ public class BackupJob extends AbstractJob {
         for (Long beId : beToSnapshots.keySet()) {
             List<SnapshotInfo> infos = beToSnapshots.get(beId);
             int totalNum = infos.size();
-            // each backend allot at most 3 tasks
-            int batchNum = Math.min(totalNum, 3);
+            // each backend allot at most backup_restore_task_num_per_be tasks
+            int batchNum = Math.min(totalNum, Math.max(1, Config.backup_restore_task_num_per_be));
             // each task contains several upload sub tasks
             int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
             LOG.info("backend {} has {} batch, total {} tasks, {}", beId, batchNum, totalNum, this);
@@ -538,7 +598,16 @@ public class BackupJob extends AbstractJob {
 
             // log
             globalStateMgr.getEditLog().logBackupJob(this);
-            LOG.info("finished uploading snapshots. {}", this);
+            long uploadTimeMs = Math.max(1, snapshopUploadFinishedTime - snapshotFinishedTime);
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_BACKUP_UPLOAD_TABLETS.increase((long) snapshotInfos.size());
+                MetricRepo.COUNTER_BACKUP_SKIPPED_TABLETS.increase((long) skippedTabletNum);
+                MetricRepo.COUNTER_BACKUP_UPLOAD_BYTES.increase(estimatedUploadBytes);
+            }
+            LOG.info("finished uploading snapshots. uploaded tablets: {}, skipped tablets: {}, "
+                            + "estimated bytes: {}, throughput: {} MB/s. {}",
+                    snapshotInfos.size(), skippedTabletNum, estimatedUploadBytes,
+                    String.format("%.2f", estimatedUploadBytes / 1024.0 / 1024.0 / (uploadTimeMs / 1000.0)), this);
             return;
         }
 
@@ -580,7 +649,7 @@ public class BackupJob extends AbstractJob {
 
             // 3. save job info file
             jobInfo = BackupJobInfo.fromCatalog(createTime, label, dbName, dbId, backupMeta.getTables().values(),
-                    snapshotInfos);
+                    snapshotInfos, baseJobInfo);
             LOG.debug("job info: {}. {}", jobInfo, this);
             File jobInfoFile = new File(jobDir, Repository.PREFIX_JOB_INFO + createTimeStr);
             if (!jobInfoFile.createNewFile()) {
@@ -813,6 +882,14 @@ public class BackupJob extends AbstractJob {
             out.writeBoolean(true);
             Text.writeString(out, localJobInfoFilePath);
         }
+
+        // base job info of incremental backup
+        if (baseJobInfo == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            baseJobInfo.write(out);
+        }
     }
 
     public void readFields(DataInput in) throws IOException {
@@ -856,6 +933,12 @@ public class BackupJob extends AbstractJob {
         if (in.readBoolean()) {
             localJobInfoFilePath = Text.readString(in);
         }
+
+        if (GlobalStateMgr.getCurrentStateStarRocksJournalVersion() >= StarRocksFEMetaVersion.VERSION_4) {
+            if (in.readBoolean()) {
+                baseJobInfo = BackupJobInfo.read(in);
+            }
+        }
     }
 
     @Override
@@ -152,11 +152,23 @@ public class BackupJobInfo implements Writable {
         public String name;
         public long id;
         public long version;
+        // the label of the snapshot which stores the files of the partition, for the partitions not changed
+        // since the base snapshot of an incremental backup. null means the files are stored in this snapshot.
+        public String snapshot;
         public Map<String, BackupIndexInfo> indexes = Maps.newHashMap();
 
         public BackupIndexInfo getIdx(String idxName) {
             return indexes.get(idxName);
         }
+
+        public BackupIndexInfo getIdx(long idxId) {
+            for (BackupIndexInfo idxInfo : indexes.values()) {
+                if (idxInfo.id == idxId) {
+                    return idxInfo;
+                }
+            }
+            return null;
+        }
     }
 
     public static class BackupIndexInfo {
@@ -180,6 +192,26 @@ public class BackupJobInfo implements Writable {
         public List<String> files = Lists.newArrayList();
     }
 
+    public BackupPartitionInfo getPartInfo(long tblId, long partId) {
+        for (BackupTableInfo tblInfo : tables.values()) {
+            if (tblInfo.id != tblId) {
+                continue;
+            }
+            for (BackupPartitionInfo partInfo : tblInfo.partitions.values()) {
+                if (partInfo.id == partId) {
+                    return partInfo;
+                }
+            }
+        }
+        return null;
+    }
+
+    // the label of the snapshot which stores the files of the tablet
+    public String getSnapshotLabel(IdChain ids) {
+        BackupPartitionInfo partInfo = getPartInfo(ids.getTblId(), ids.getPartId());
+        return partInfo == null || partInfo.snapshot == null ? name : partInfo.snapshot;
+    }
+
     // eg: __db_10001/__tbl_10002/__part_10003/__idx_10002/__10004
     public String getFilePath(String db, String tbl, String part, String idx, long tabletId) {
         if (!db.equalsIgnoreCase(dbName)) {
@@ -229,6 +261,16 @@ public class BackupJobInfo implements Writable {
 
     public static BackupJobInfo fromCatalog(long backupTime, String label, String dbName, long dbId,
                                             Collection<Table> tbls, Map<Long, SnapshotInfo> snapshotInfos) {
+        return fromCatalog(backupTime, label, dbName, dbId, tbls, snapshotInfos, null);
+    }
+
+    /**
+     * The partitions without snapshot infos are not changed since the base snapshot of an incremental backup,
+     * their files are referenced from the base snapshot.
+     */
+    public static BackupJobInfo fromCatalog(long backupTime, String label, String dbName, long dbId,
+                                            Collection<Table> tbls, Map<Long, SnapshotInfo> snapshotInfos,
+                                            BackupJobInfo baseJobInfo) {
 
         BackupJobInfo jobInfo = new BackupJobInfo();
         jobInfo.backupTime = backupTime;
@@ -253,6 +295,14 @@ public class BackupJobInfo implements Writable {
                 partitionInfo.name = partition.getName();
                 partitionInfo.version = partition.getVisibleVersion();
                 tableInfo.partitions.put(partitionInfo.name, partitionInfo);
+                BackupPartitionInfo basePartitionInfo = null;
+                if (baseJobInfo != null && isPartitionSkipped(partition, snapshotInfos)) {
+                    basePartitionInfo = baseJobInfo.getPartInfo(tbl.getId(), partition.getId());
+                    Preconditions.checkNotNull(basePartitionInfo, "partition " + partition.getId()
+                            + " does not exist in base snapshot " + baseJobInfo.name);
+                    partitionInfo.snapshot = basePartitionInfo.snapshot == null ? baseJobInfo.name
+                            : basePartitionInfo.snapshot;
+                }
                 // indexes
                 for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
                     BackupIndexInfo idxInfo = new BackupIndexInfo();
@@ -264,7 +314,12 @@ public class BackupJobInfo implements Writable {
                     for (Tablet tablet : index.getTablets()) {
                         BackupTabletInfo tabletInfo = new BackupTabletInfo();
                         tabletInfo.id = tablet.getId();
-                        tabletInfo.files.addAll(snapshotInfos.get(tablet.getId()).getFiles());
+                        if (basePartitionInfo == null) {
+                            tabletInfo.files.addAll(snapshotInfos.get(tablet.getId()).getFiles());
+                        } else {
+                            BackupIndexInfo baseIdxInfo = basePartitionInfo.getIdx(index.getId());
+                            tabletInfo.files.addAll(baseIdxInfo.getTablet(tablet.getId()).files);
+                        }
                         idxInfo.tablets.add(tabletInfo);
                     }
                 }
@@ -274,6 +329,17 @@ public class BackupJobInfo implements Writable {
         return jobInfo;
     }
 
+    private static boolean isPartitionSkipped(Partition partition, Map<Long, SnapshotInfo> snapshotInfos) {
+        for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
+            for (Tablet tablet : index.getTablets()) {
+                if (snapshotInfos.containsKey(tablet.getId())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public static BackupJobInfo fromFile(String path) throws IOException {
         byte[] bytes = Files.readAllBytes(Paths.get(path));
         String json = new String(bytes, StandardCharsets.UTF_8);
@@ -359,6 +425,7 @@ public class BackupJobInfo implements Writable {
                 JSONObject part = parts.getJSONObject(partName);
                 partInfo.id = part.getLong("id");
                 partInfo.version = part.getLong("version");
+                partInfo.snapshot = part.optString("snapshot", null);
                 JSONObject indexes = part.getJSONObject("indexes");
                 String[] indexNames = JSONObject.getNames(indexes);
                 for (String idxName : indexNames) {
@@ -457,6 +524,9 @@ public class BackupJobInfo implements Writable {
                     part.put("version", partInfo.version);
                     // write a version_hash for compatibility
                     part.put("version_hash", 0);
+                    if (partInfo.snapshot != null) {
+                        part.put("snapshot", partInfo.snapshot);
+                    }
                     JSONObject indexes = new JSONObject();
                     part.put("indexes", indexes);
                     for (BackupIndexInfo idxInfo : partInfo.indexes.values()) {
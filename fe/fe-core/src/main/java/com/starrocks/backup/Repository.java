@@ -334,6 +334,36 @@ public class Repository implements Writable {
         return Status.OK;
     }
 
+    // get the backup timestamp of the latest job info file of the snapshot
+    public Status getLatestBackupTimestamp(String label, List<String> timestamps) {
+        // path eg: /location/__palo_repository_repo_name/__ss_my_snap/__info_*
+        String infoFilePath = assembleJobInfoFilePath(label, -1);
+        List<RemoteFile> results = Lists.newArrayList();
+        Status st = storage.list(infoFilePath + "*", results);
+        if (!st.ok()) {
+            return st;
+        }
+
+        String latest = null;
+        for (RemoteFile file : results) {
+            // __info_2018-04-18-20-11-00.Jdwnd9312sfdn1294343
+            Pair<String, String> pureFileName = decodeFileNameWithChecksum(file.getName());
+            if (pureFileName == null) {
+                continue;
+            }
+            // the timestamps are in the format of yyyy-MM-dd-HH-mm-ss-SSS, which can be compared as strings
+            String timestamp = disjoinPrefix(PREFIX_JOB_INFO, pureFileName.first);
+            if (latest == null || timestamp.compareTo(latest) > 0) {
+                latest = timestamp;
+            }
+        }
+        if (latest == null) {
+            return new Status(ErrCode.NOT_FOUND, "no job info file of snapshot " + label);
+        }
+        timestamps.add(latest);
+        return Status.OK;
+    }
+
     public Status getSnapshotMetaFile(String label, List<BackupMeta> backupMetas, int metaVersion,
                                       int starrocksMetaVersion) {
         String remoteMetaFilePath = assembleMetaInfoFilePath(label);
@@ -63,6 +63,7 @@ import com.starrocks.common.Pair;
 import com.starrocks.common.io.Text;
 import com.starrocks.common.util.DynamicPartitionUtil;
 import com.starrocks.common.util.TimeUtils;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.task.AgentBatchTask;
 import com.starrocks.task.AgentTask;
@@ -1015,8 +1016,8 @@ public class RestoreJob extends AbstractJob {
                 for (Long beId : beToSnapshots.keySet()) {
                     List<SnapshotInfo> beSnapshotInfos = beToSnapshots.get(beId);
                     int totalNum = beSnapshotInfos.size();
-                    // each backend allot at most 3 tasks
-                    int batchNum = Math.min(totalNum, 3);
+                    // each backend allot at most backup_restore_task_num_per_be tasks
+                    int batchNum = Math.min(totalNum, Math.max(1, Config.backup_restore_task_num_per_be));
                     // each task contains several upload sub tasks
                     int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
                     LOG.debug("backend {} has {} batch, total {} tasks, {}",
@@ -1093,7 +1094,9 @@ public class RestoreJob extends AbstractJob {
                             // eg:
                             // bos://location/__starrocks_repository_my_repo/_ss_my_ss/_ss_content/__db_10000/
                             // __tbl_10001/__part_10002/_idx_10001/__10003
-                            String src = repo.getRepoPath(label, repoTabletPath);
+                            // the files of the partitions not changed since the base snapshot of an incremental
+                            // backup are stored in the base snapshot
+                            String src = repo.getRepoPath(jobInfo.getSnapshotLabel(repoIds), repoTabletPath);
                             SnapshotInfo snapshotInfo = snapshotInfos.get(info.getTabletId(), info.getBeId());
                             Preconditions.checkNotNull(snapshotInfo, info.getTabletId() + "-" + info.getBeId());
                             // download to previous exist snapshot dir
@@ -1130,6 +1133,9 @@ public class RestoreJob extends AbstractJob {
         if (unfinishedSignatureToId.isEmpty()) {
             downloadFinishedTime = System.currentTimeMillis();
             state = RestoreJobState.COMMIT;
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_RESTORE_DOWNLOAD_TABLETS.increase((long) snapshotInfos.size());
+            }
 
             // backupMeta is useless now
             backupMeta = null;
@@ -3,6 +3,8 @@
 package com.starrocks.catalog;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -25,9 +27,12 @@ import com.starrocks.server.GlobalStateMgr;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
@@ -35,6 +40,12 @@ import java.util.stream.Collectors;
  * StarOSAgent is responsible for
  * 1. Encapsulation of StarClient api.
  * 2. Maintenance of StarOS worker to StarRocks backend map.
+ * 3. Cache of the shard replicas got from StarMgr.
+ * <p>
+ * The worker to backend map is read without lock, and only updated under the write lock.
+ * The replicas of at most shard_location_cache_max_size shards are cached for shard_location_cache_expire_second,
+ * and the replicas of many shards are got from StarMgr by one request. The cache is cleared once the workers are
+ * changed, and the entries got from StarMgr before that are dropped by the location version recorded in them.
  */
 public class StarOSAgent {
     private static final Logger LOG = LogManager.getLogger(StarOSAgent.class);
@@ -47,6 +58,24 @@ public class StarOSAgent {
     private Map<Long, Long> workerToBackend;
     private ReentrantReadWriteLock rwLock;
 
+    // shard id -> replicas
+    private final Cache<Long, CachedShardReplicas> shardToReplicas = CacheBuilder.newBuilder()
+            .expireAfterWrite(Config.shard_location_cache_expire_second, TimeUnit.SECONDS)
+            .maximumSize(Config.shard_location_cache_max_size)
+            .build();
+    // increased when the workers are changed
+    private final AtomicLong locationVersion = new AtomicLong();
+
+    private static class CachedShardReplicas {
+        private final List<ReplicaInfo> replicas;
+        private final long version;
+
+        CachedShardReplicas(List<ReplicaInfo> replicas, long version) {
+            this.replicas = replicas;
+            this.version = version;
+        }
+    }
+
     public StarOSAgent() {
         serviceId = -1;
         // check if Config.starmanager_address == FE address
@@ -60,8 +89,8 @@ public class StarOSAgent {
         client = new StarClient();
         client.connectServer(Config.starmgr_address);
 
-        workerToId = Maps.newHashMap();
-        workerToBackend = Maps.newHashMap();
+        workerToId = Maps.newConcurrentMap();
+        workerToBackend = Maps.newConcurrentMap();
         rwLock = new ReentrantReadWriteLock();
     }
 
@@ -199,6 +228,7 @@ public class StarOSAgent {
             }
             workerToId.put(workerIpPort, workerId);
             workerToBackend.put(workerId, backendId);
+            invalidateShardLocations();
             LOG.info("add worker {} success, backendId is {}", workerId, backendId);
         }
     }
@@ -226,6 +256,7 @@ public class StarOSAgent {
         try (LockCloseable lock = new LockCloseable(rwLock.writeLock())) {
             workerToBackend.remove(workerId);
             workerToId.remove(workerIpPort);
+            invalidateShardLocations();
         }
 
         LOG.info("remove worker {} success from StarMgr", workerIpPort);
@@ -258,79 +289,140 @@ public class StarOSAgent {
         return shardInfos.stream().map(ShardInfo::getShardId).collect(Collectors.toList());
     }
 
-    private List<ReplicaInfo> getShardReplicas(long shardId) throws UserException {
+    /**
+     * Clear the cached shard replicas, called when the workers are changed.
+     */
+    public void invalidateShardLocations() {
+        // the replicas being got from StarMgr are not cached with the old version
+        locationVersion.incrementAndGet();
+        shardToReplicas.invalidateAll();
+    }
+
+    /**
+     * Get the replicas of the shards from cache, the missing ones are got from StarMgr by one request.
+     */
+    public Map<Long, List<ReplicaInfo>> getShardReplicas(Collection<Long> shardIds) throws UserException {
+        Map<Long, List<ReplicaInfo>> shardIdToReplicas = Maps.newHashMapWithExpectedSize(shardIds.size());
+        Set<Long> missingShardIds = Sets.newLinkedHashSet();
+        long version = locationVersion.get();
+        for (long shardId : shardIds) {
+            CachedShardReplicas cached = shardToReplicas.getIfPresent(shardId);
+            if (cached != null && cached.version == version) {
+                shardIdToReplicas.put(shardId, cached.replicas);
+            } else {
+                missingShardIds.add(shardId);
+            }
+        }
+        if (missingShardIds.isEmpty()) {
+            return shardIdToReplicas;
+        }
+
         prepare();
+        List<ShardInfo> shardInfos;
         try {
-            List<ShardInfo> shardInfos = client.getShardInfo(serviceId, Lists.newArrayList(shardId));
-            Preconditions.checkState(shardInfos.size() == 1);
-            return shardInfos.get(0).getReplicaInfoList();
+            shardInfos = client.getShardInfo(serviceId, Lists.newArrayList(missingShardIds));
         } catch (StarClientException e) {
             throw new UserException("Failed to get shard info. error: " + e.getMessage());
         }
+        Preconditions.checkState(shardInfos.size() == missingShardIds.size());
+        for (ShardInfo shardInfo : shardInfos) {
+            List<ReplicaInfo> replicas = shardInfo.getReplicaInfoList();
+            shardIdToReplicas.put(shardInfo.getShardId(), replicas);
+            shardToReplicas.put(shardInfo.getShardId(), new CachedShardReplicas(replicas, version));
+        }
+        LOG.debug("get replicas of {} shards from starMgr, {} shards are cached", missingShardIds.size(),
+                shardIdToReplicas.size() - missingShardIds.size());
+        return shardIdToReplicas;
     }
 
-    public long getPrimaryBackendIdByShard(long shardId) throws UserException {
-        List<ReplicaInfo> replicas = getShardReplicas(shardId);
+    private List<ReplicaInfo> getShardReplicas(long shardId) throws UserException {
+        List<ReplicaInfo> replicas = getShardReplicas(Lists.newArrayList(shardId)).get(shardId);
+        Preconditions.checkState(replicas != null);
+        return replicas;
+    }
+
+    // returns -1 if no backend of the worker
+    private long getBackendIdByWorker(WorkerInfo workerInfo) {
+        long workerId = workerInfo.getWorkerId();
+        Long backendId = workerToBackend.get(workerId);
+        if (backendId != null) {
+            return backendId;
+        }
+
+        // get backendId from system info by host & starletPort
+        String workerAddr = workerInfo.getIpPort();
+        String[] pair = workerAddr.split(":");
+        long newBackendId = GlobalStateMgr.getCurrentSystemInfo()
+                .getBackendIdWithStarletPort(pair[0], Integer.parseInt(pair[1]));
+        if (newBackendId == -1L) {
+            return -1L;
+        }
 
+        // put it into map
         try (LockCloseable lock = new LockCloseable(rwLock.writeLock())) {
-            for (ReplicaInfo replicaInfo : replicas) {
-                if (replicaInfo.getReplicaRole() == ReplicaRole.PRIMARY) {
-                    WorkerInfo workerInfo = replicaInfo.getWorkerInfo();
-                    long workerId = workerInfo.getWorkerId();
-                    if (!workerToBackend.containsKey(workerId)) {
-                        // get backendId from system info by host & starletPort
-                        String workerAddr = workerInfo.getIpPort();
-                        String[] pair = workerAddr.split(":");
-                        long backendId = GlobalStateMgr.getCurrentSystemInfo()
-                                .getBackendIdWithStarletPort(pair[0], Integer.parseInt(pair[1]));
-
-                        if (backendId == -1L) {
-                            throw new UserException("Failed to get backend by worker. worker id: " + workerId);
-                        }
-
-                        // put it into map
-                        workerToId.put(workerAddr, workerId);
-                        workerToBackend.put(workerId, backendId);
-                        return backendId;
-                    }
+            workerToId.put(workerAddr, workerId);
+            workerToBackend.put(workerId, newBackendId);
+        }
+        return newBackendId;
+    }
 
-                    return workerToBackend.get(workerId);
+    public long getPrimaryBackendIdByShard(long shardId) throws UserException {
+        return getPrimaryBackendIdByShard(shardId, getShardReplicas(shardId));
+    }
+
+    private long getPrimaryBackendIdByShard(long shardId, List<ReplicaInfo> replicas) throws UserException {
+        for (ReplicaInfo replicaInfo : replicas) {
+            if (replicaInfo.getReplicaRole() == ReplicaRole.PRIMARY) {
+                long backendId = getBackendIdByWorker(replicaInfo.getWorkerInfo());
+                if (backendId == -1L) {
+                    // the worker may be moved, get the replicas from starMgr next time
+                    shardToReplicas.invalidate(shardId);
+                    throw new UserException("Failed to get backend by worker. worker id: "
+                            + replicaInfo.getWorkerInfo().getWorkerId());
                 }
+                return backendId;
             }
         }
         throw new UserException("Failed to get primary backend. shard id: " + shardId);
     }
 
+    /**
+     * Get the primary backends of the shards, the replicas of the shards are got from StarMgr by one request.
+     */
+    public Map<Long, Long> getPrimaryBackendIdsByShards(Collection<Long> shardIds) throws UserException {
+        Map<Long, Long> shardIdToBackendId = Maps.newHashMapWithExpectedSize(shardIds.size());
+        for (Map.Entry<Long, List<ReplicaInfo>> entry : getShardReplicas(shardIds).entrySet()) {
+            shardIdToBackendId.put(entry.getKey(), getPrimaryBackendIdByShard(entry.getKey(), entry.getValue()));
+        }
+        return shardIdToBackendId;
+    }
+
     public Set<Long> getBackendIdsByShard(long shardId) throws UserException {
-        List<ReplicaInfo> replicas = getShardReplicas(shardId);
+        return getBackendIdsByShard(getShardReplicas(shardId));
+    }
 
+    private Set<Long> getBackendIdsByShard(List<ReplicaInfo> replicas) {
         Set<Long> backendIds = Sets.newHashSet();
-        try (LockCloseable lock = new LockCloseable(rwLock.writeLock())) {
-            for (ReplicaInfo replicaInfo : replicas) {
-                // TODO: check worker state
-                WorkerInfo workerInfo = replicaInfo.getWorkerInfo();
-                long workerId = workerInfo.getWorkerId();
-                if (!workerToBackend.containsKey(workerId)) {
-                    // get backendId from system info
-                    String workerAddr = workerInfo.getIpPort();
-                    String[] pair = workerAddr.split(":");
-                    long backendId = GlobalStateMgr.getCurrentSystemInfo()
-                            .getBackendIdWithStarletPort(pair[0], Integer.parseInt(pair[1]));
-
-                    if (backendId == -1L) {
-                        LOG.warn("backendId for {} is -1", workerAddr);
-                        continue;
-                    }
-
-                    // put it into map
-                    workerToId.put(workerAddr, workerId);
-                    workerToBackend.put(workerId, backendId);
-                    backendIds.add(backendId);
-                } else {
-                    backendIds.add(workerToBackend.get(workerId));
-                }
+        for (ReplicaInfo replicaInfo : replicas) {
+            // TODO: check worker state
+            long backendId = getBackendIdByWorker(replicaInfo.getWorkerInfo());
+            if (backendId == -1L) {
+                LOG.warn("backendId for {} is -1", replicaInfo.getWorkerInfo().getIpPort());
+                continue;
             }
+            backendIds.add(backendId);
         }
         return backendIds;
     }
+
+    /**
+     * Get the backends of the shards, the replicas of the shards are got from StarMgr by one request.
+     */
+    public Map<Long, Set<Long>> getBackendIdsByShards(Collection<Long> shardIds) throws UserException {
+        Map<Long, Set<Long>> shardIdToBackendIds = Maps.newHashMapWithExpectedSize(shardIds.size());
+        for (Map.Entry<Long, List<ReplicaInfo>> entry : getShardReplicas(shardIds).entrySet()) {
+            shardIdToBackendIds.put(entry.getKey(), getBackendIdsByShard(entry.getValue()));
+        }
+        return shardIdToBackendIds;
+    }
 }
@@ -117,6 +117,31 @@ public class Config extends ConfigBase {
     @ConfField
     public static String audit_log_delete_age = "30d";
 
+    /**
+     * The capacity of the ring buffer of the audit events, rounded up to a power of 2.
+     * The events audited when the ring buffer is full are dropped and counted by the metric
+     * audit_event_dropped, instead of blocking the queries.
+     */
+    @ConfField
+    public static int audit_event_queue_size = 65536;
+
+    /**
+     * The max number of audit events passed to the audit plugins in a batch.
+     */
+    @ConfField(mutable = true)
+    public static int audit_event_batch_size = 1024;
+
+    /**
+     * Whether to write the audit events to the local append-only binary file fe.audit.bin in audit_log_dir,
+     * which is rotated by audit_binary_log_max_size_mb and keeps audit_binary_log_roll_num old files.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_audit_binary_log = false;
+    @ConfField(mutable = true)
+    public static long audit_binary_log_max_size_mb = 1024;
+    @ConfField(mutable = true)
+    public static int audit_binary_log_roll_num = 10;
+
     /**
      * dump_log_dir:
      * This specifies FE dump log dir.
@@ -255,6 +280,32 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int edit_log_roll_num = 50000;
 
+    /**
+     * If set to true, the image is compressed by deflate when downloaded by the non-master FE.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_image_transfer_compression = true;
+
+    /**
+     * If set to true, the non-master FE only downloads the chunks of the image which are not in its last image,
+     * and copies the others from local.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_image_chunk_dedup = true;
+
+    /**
+     * The average size of the content-defined chunks of the image, used to check the image and deduplicate
+     * the image transfer. It takes effect on the next checkpoint.
+     */
+    @ConfField(mutable = true)
+    public static int image_chunk_avg_size_kb = 1024;
+
+    /**
+     * The max retries of downloading a range of the image, each retry resumes from the downloaded bytes.
+     */
+    @ConfField(mutable = true)
+    public static int image_transfer_max_retries = 3;
+
     /**
      * whether ignore unknown log id
      * when fe rolls back to low version, there may be log id that low version fe can not recognise
@@ -271,6 +322,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int meta_delay_toleration_second = 300;    // 5 min
 
+    /**
+     * The number of journals deserialized ahead of the replay by the deserializing threads, 0 to deserialize
+     * the journals by the replayer thread.
+     */
+    @ConfField(mutable = true)
+    public static int replay_journal_prefetch_num = 256;
+
+    /**
+     * The number of threads to deserialize journals ahead of the replay.
+     */
+    @ConfField
+    public static int replay_journal_deserialize_threads = 4;
+
+    /**
+     * The number of threads to apply the transaction journals of different databases concurrently when replaying,
+     * 0 to apply all the journals by the replayer thread.
+     */
+    @ConfField
+    public static int replay_journal_apply_threads = 4;
+
     /**
      * Master FE sync policy of bdbje.
      * If you only deploy one Follower FE, set this to 'SYNC'. If you deploy more than 3 Follower FE,
@@ -539,6 +610,32 @@ public class Config extends ConfigBase {
     @ConfField
     public static int max_mysql_service_task_threads_num = 4096;
 
+    /**
+     * max num of the idle buffers kept for each size of the buffers of mysql connections.
+     * The buffers of a connection of nio mysql service are borrowed from the pool for each command, and given back
+     * when the command is finished, so that the idle connections hold no buffer.
+     */
+    @ConfField(mutable = true)
+    public static int mysql_channel_buffer_pool_size = 256;
+
+    /**
+     * max num of the statements prepared by COM_STMT_PREPARE of a connection.
+     */
+    @ConfField(mutable = true)
+    public static int max_prepared_statements_per_connection = 1024;
+
+    /**
+     * The max total size of the query results cached in FE, see the session variable enable_query_result_cache.
+     */
+    @ConfField(mutable = true)
+    public static long query_result_cache_max_size_mb = 128;
+
+    /**
+     * The result of a query is not cached if its size exceeds this.
+     */
+    @ConfField(mutable = true)
+    public static long query_result_cache_max_entry_size_kb = 1024;
+
     /**
      * node(FE or BE) will be considered belonging to the same StarRocks cluster if they have same cluster id.
      * Cluster id is usually a random integer generated when master FE start at first time.
@@ -647,6 +744,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int max_stream_load_timeout_second = 259200; // 3days
 
+    /**
+     * If set to true, stream loads are redirected to the backend with the least load, measured by the running
+     * loads, load memory and disk usage of the backends, preferring the backends with the replicas of
+     * the loaded partition. Otherwise, stream loads are redirected to the backends by round-robin.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_load_aware_stream_load_redirect = true;
+
     /**
      * Max load timeout applicable to all type of load except for stream load
      */
@@ -743,6 +848,15 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int alter_table_timeout_second = 86400; // 1day
 
+    /**
+     * Whether ADD/DROP COLUMN of the value columns only changes the schema in the metadata, instead of creating a
+     * schema change job to rewrite all the tablets. The schema version of the changed indexes is increased, and
+     * the rows of the old rowsets are read with the default values of the added columns, without the dropped ones.
+     * It requires the backends reading the rowsets by the schema version of the query, so it's disabled by default.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_fast_schema_evolution = false;
+
     /**
      * The alter handler max worker threads
      */
@@ -935,6 +1049,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int backup_job_default_timeout_ms = 86400 * 1000; // 1 day
 
+    /**
+     * The max number of upload tasks of a backup job, or download tasks of a restore job, sent to each backend.
+     * The tablets of the backend are divided into these tasks, which run in parallel on the backend.
+     */
+    @ConfField(mutable = true)
+    public static int backup_restore_task_num_per_be = 3;
+
     // If use k8s deploy manager locally, set this to true and prepare the certs files
     @ConfField
     public static boolean with_k8s_certs = false;
@@ -1066,6 +1187,14 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean enable_metric_calculator = true;
 
+    /**
+     * The metrics rendered for a /metrics request are served to the requests with the same parameters
+     * in this period, so that concurrent scrapers do not render the metrics of all tables repeatedly.
+     * Set to 0 to render the metrics for every request.
+     */
+    @ConfField(mutable = true)
+    public static long metrics_snapshot_ttl_ms = 1000;
+
     /**
      * the max routine load job num, including NEED_SCHEDULED, RUNNING, PAUSE
      */
@@ -1280,6 +1409,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long max_planner_scalar_rewrite_num = 100000;
 
+    /**
+     * Scan the rows of a large INSERT ... VALUES statement by hand instead of the ANTLR parser,
+     * if all the values are simple literals.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_fast_parse_insert_values = true;
+
     /**
      * a period of create statistics table automatically by the StatisticsMetaManager
      */
@@ -1396,6 +1532,26 @@ public class Config extends ConfigBase {
     @ConfField
     public static long hive_meta_cache_ttl_s = 3600L * 24L;
 
+    /**
+     * If set to true, the files listed from hive partition directories are cached by directory, and reused
+     * when the partition meta is reloaded and the names, lengths and modification times of the files are unchanged.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_hive_file_listing_cache = true;
+
+    /**
+     * Max num of directories in the file listing cache of each hive metastore.
+     */
+    @ConfField
+    public static long hive_file_listing_cache_size = 100000;
+
+    /**
+     * If set to true, the files in the sub directories of hive partition directories are also read,
+     * like mapreduce.input.fileinputformat.input.dir.recursive of hive.
+     */
+    @ConfField(mutable = true)
+    public static boolean hive_list_directories_recursively = false;
+
     /**
      * Hive MetaStore Client socket timeout in seconds.
      */
@@ -1445,6 +1601,17 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long hive_max_split_size = 64L * 1024L * 1024L;
 
+    /**
+     * Num of threads to generate the scan ranges of hive and hudi tables.
+     * The scan ranges of a scan with at least hive_scan_range_parallel_min_partitions partitions
+     * are generated by batches of partitions in parallel.
+     */
+    @ConfField
+    public static int hive_scan_range_generate_threads = 8;
+
+    @ConfField(mutable = true)
+    public static int hive_scan_range_parallel_min_partitions = 64;
+
     /**
      * size of iceberg worker pool
      */
@@ -1457,6 +1624,19 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long iceberg_worker_num_threads = 64;
 
+    /**
+     * If set to true, the data files of iceberg manifests are cached after decoded, and the manifests
+     * of a snapshot are read in parallel by the iceberg worker pool when planning iceberg scans.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_iceberg_manifest_cache = true;
+
+    /**
+     * Max num of data files in the iceberg manifest cache.
+     */
+    @ConfField
+    public static long iceberg_manifest_cache_max_num_files = 1000000;
+
     /**
      * fe will call es api to get es index shard info every es_state_sync_interval_secs
      */
@@ -1497,7 +1677,8 @@ public class Config extends ConfigBase {
 
     /**
      * Whether to collect routine load process metrics.
-     * Be careful to turn this on, because this will call kafka api to get the partition's latest offset.
+     * Be careful to turn this on when enable_routine_load_kafka_offset_tracker is false,
+     * because this will call kafka api to get the partition's latest offset.
      */
     @ConfField(mutable = true)
     public static boolean enable_routine_load_lag_metrics = false;
@@ -1505,6 +1686,16 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static boolean enable_collect_query_detail_info = false;
 
+    /**
+     * The query details are kept for 30 seconds in a ring buffer of query_detail_queue_max_num entries,
+     * and the oldest ones are removed earlier if there are more entries, or the estimated memory of
+     * the entries exceeds query_detail_queue_max_bytes.
+     */
+    @ConfField
+    public static int query_detail_queue_max_num = 262144;
+    @ConfField(mutable = true)
+    public static long query_detail_queue_max_bytes = 256L * 1024 * 1024;
+
     /**
      * Min lag of routine load job to show in metrics
      * Only show the routine load job whose lag is larger than min_routine_load_lag_for_metrics
@@ -1512,6 +1703,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long min_routine_load_lag_for_metrics = 10000;
 
+    /**
+     * Whether to fetch the latest offsets of all kafka routine load jobs in batch periodically
+     * and decide whether a routine load task is ready to execute from the cached offsets.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_routine_load_kafka_offset_tracker = true;
+
+    /**
+     * The interval of refreshing the cached kafka offsets of routine load jobs.
+     * Cached offsets older than twice of this interval will not be used.
+     */
+    @ConfField(mutable = true)
+    public static long routine_load_kafka_offset_refresh_interval_ms = 5000;
+
+    /**
+     * The max number of topics whose offsets are fetched in one batch proxy request.
+     */
+    @ConfField(mutable = true)
+    public static int routine_load_kafka_offset_batch_size = 100;
+
     /**
      * The heartbeat timeout of be/broker/fe.
      * the default is 5 seconds
@@ -1526,6 +1737,22 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int heartbeat_retry_times = 3;
 
+    /**
+     * The max rounds of heartbeat to skip for a backend, compute node or broker which has been healthy for
+     * heartbeat_stable_rounds rounds, to reduce the heartbeat load of a large cluster.
+     * A down node is detected at most (heartbeat_max_skip_rounds + 1) rounds later than the default,
+     * the default is 0, no round is skipped.
+     */
+    @ConfField(mutable = true)
+    public static int heartbeat_max_skip_rounds = 0;
+
+    /**
+     * The num of continuous successful heartbeats before a node is regarded as stable,
+     * see heartbeat_max_skip_rounds.
+     */
+    @ConfField(mutable = true)
+    public static int heartbeat_stable_rounds = 10;
+
     /**
      * Temporary use, it will be removed later.
      * Set true if using StarOS to manage tablets for StarRocks lake table.
@@ -1537,6 +1764,19 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean integrate_starmgr = false;
 
+    /**
+     * The seconds to cache the shard replicas got from StarMgr, 0 to get them from StarMgr every time.
+     * The cache is also invalidated when the workers are changed.
+     */
+    @ConfField
+    public static int shard_location_cache_expire_second = 10;
+
+    /**
+     * The max number of shards whose replicas are cached, the least recently used ones are evicted first.
+     */
+    @ConfField
+    public static long shard_location_cache_max_size = 100000;
+
     /**
      * default bucket number when create OLAP table without buckets info
      */
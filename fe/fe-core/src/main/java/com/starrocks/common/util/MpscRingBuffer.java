@@ -0,0 +1,109 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free ring buffer for multiple producers and a single consumer.
+ * <p>
+ * Each slot has a sequence number telling whether it is free for the producer of a position, or published for
+ * the consumer. A producer claims a position by CAS on the tail, writes the element and publishes the slot;
+ * offer fails instead of blocking when the ring is full. The consumer drains the published slots in order
+ * without any CAS. Only one thread may call {@link #poll()} and {@link #drainTo(List, int)}.
+ */
+public class MpscRingBuffer<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // only written by the consumer, volatile for size()
+    private volatile long head = 0;
+
+    public MpscRingBuffer(int capacity) {
+        Preconditions.checkArgument(capacity > 0 && capacity <= (1 << 30), "invalid capacity " + capacity);
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add the element to the tail, returns false if the ring is full.
+     */
+    public boolean offer(E element) {
+        Preconditions.checkNotNull(element);
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, element);
+                    // publish the slot, the volatile write orders the element before it
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // the slot is not consumed yet since the last round
+                return false;
+            } else {
+                // another producer has claimed the position
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the element at the head, returns null if the ring is empty.
+     */
+    public E poll() {
+        long pos = head;
+        int index = (int) (pos & mask);
+        if (sequences.get(index) != pos + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        // free the slot for the producer of the next round
+        sequences.set(index, pos + capacity);
+        head = pos + 1;
+        return element;
+    }
+
+    /**
+     * Move at most maxElements elements from the head to the list, returns the number of moved elements.
+     */
+    public int drainTo(List<? super E> list, int maxElements) {
+        int num = 0;
+        E element;
+        while (num < maxElements && (element = poll()) != null) {
+            list.add(element);
+            num++;
+        }
+        return num;
+    }
+
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -3,11 +3,13 @@
 package com.starrocks.external;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.starrocks.analysis.DescriptorTable;
 import com.starrocks.catalog.HiveMetaStoreTable;
 import com.starrocks.catalog.PartitionKey;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.external.hive.HdfsFileBlockDesc;
 import com.starrocks.external.hive.HdfsFileDesc;
@@ -26,89 +28,136 @@ import org.apache.logging.log4j.Logger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Generate the scan range locations of the files of the selected partitions of a hive or hudi table.
+ * <p>
+ * A scan may select tens of thousands of partitions with thousands of files each, so
+ * 1. the scan ranges of many partitions are generated by batches of partitions in parallel, and
+ * 2. the objects which are the same for all the splits of a file or a block, such as the text file
+ * format and the locations, are shared by the splits instead of being created for each split.
+ */
 public class RemoteScanRangeLocations {
     private static final Logger LOG = LogManager.getLogger(RemoteScanRangeLocations.class);
 
+    private static class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+                Config.hive_scan_range_generate_threads, Integer.MAX_VALUE, "remote-scan-range-pool", true);
+    }
+
     private final List<TScanRangeLocations> result = new ArrayList<>();
 
-    private void addScanRangeLocations(long partitionId, HivePartition partition, HdfsFileDesc fileDesc,
-                                       HdfsFileBlockDesc blockDesc
-    ) {
-        // NOTE: Config.hive_max_split_size should be extracted to a local variable,
-        // because it may be changed before calling 'splitScanRangeLocations'
-        // and after needSplit has been calculated.
-        long splitSize = Config.hive_max_split_size;
-        boolean needSplit = fileDesc.isSplittable() && blockDesc.getLength() > splitSize;
-        if (needSplit) {
-            splitScanRangeLocations(partitionId, partition, fileDesc, blockDesc, splitSize);
-        } else {
-            createScanRangeLocationsForSplit(partitionId, partition, fileDesc, blockDesc, blockDesc.getOffset(),
-                    blockDesc.getLength());
+    /**
+     * Generates the scan ranges of some partitions, each generator is used by only one thread.
+     */
+    private static class ScanRangeGenerator {
+        private final List<TScanRangeLocations> scanRangeLocations = new ArrayList<>();
+        // datanode host -> location, shared by all the blocks on the host
+        private final Map<String, TScanRangeLocation> hostToLocation = Maps.newHashMap();
+
+        private void addPartition(long partitionId, HivePartition partition) {
+            for (HdfsFileDesc fileDesc : partition.getFiles()) {
+                if (fileDesc.getLength() == 0) {
+                    continue;
+                }
+                THdfsScanRange fileScanRange = createFileScanRange(partitionId, partition, fileDesc);
+                for (HdfsFileBlockDesc blockDesc : fileDesc.getBlockDescs()) {
+                    addScanRangeLocations(partition, fileDesc, blockDesc, fileScanRange);
+                    LOG.debug("Add scan range success. partition: {}, file: {}, block: {}-{}",
+                            partition.getFullPath(), fileDesc.getFileName(), blockDesc.getOffset(),
+                            blockDesc.getLength());
+                }
+            }
         }
-    }
 
-    private void splitScanRangeLocations(long partitionId, HivePartition partition,
-                                         HdfsFileDesc fileDesc,
-                                         HdfsFileBlockDesc blockDesc,
-                                         long splitSize) {
-        long remainingBytes = blockDesc.getLength();
-        long length = blockDesc.getLength();
-        long offset = blockDesc.getOffset();
-        do {
-            if (remainingBytes <= splitSize) {
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes,
-                        remainingBytes);
-                remainingBytes = 0;
-            } else if (remainingBytes <= 2 * splitSize) {
-                long mid = (remainingBytes + 1) / 2;
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes, mid);
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes + mid,
-                        remainingBytes - mid);
-                remainingBytes = 0;
-            } else {
-                createScanRangeLocationsForSplit(partitionId, partition, fileDesc,
-                        blockDesc, offset + length - remainingBytes,
-                        splitSize);
-                remainingBytes -= splitSize;
+        // The fields which are the same for all the splits of the file
+        private THdfsScanRange createFileScanRange(long partitionId, HivePartition partition, HdfsFileDesc fileDesc) {
+            THdfsScanRange hdfsScanRange = new THdfsScanRange();
+            hdfsScanRange.setRelative_path(fileDesc.getFileName());
+            hdfsScanRange.setPartition_id(partitionId);
+            hdfsScanRange.setFile_length(fileDesc.getLength());
+            hdfsScanRange.setFile_format(partition.getFormat().toThrift());
+            hdfsScanRange.setText_file_desc(fileDesc.getTextFileFormatDesc().toThrift());
+            return hdfsScanRange;
+        }
+
+        private void addScanRangeLocations(HivePartition partition, HdfsFileDesc fileDesc,
+                                           HdfsFileBlockDesc blockDesc, THdfsScanRange fileScanRange) {
+            if (blockDesc.getReplicaHostIds().length == 0) {
+                String message = String.format("hdfs file block has no host. file = %s/%s",
+                        partition.getFullPath(), fileDesc.getFileName());
+                throw new StarRocksPlannerException(message, ErrorType.INTERNAL_ERROR);
+            }
+            // all the splits of the block have the same locations
+            List<TScanRangeLocation> locations = new ArrayList<>(blockDesc.getReplicaHostIds().length);
+            for (long hostId : blockDesc.getReplicaHostIds()) {
+                String host = blockDesc.getDataNodeIp(hostId);
+                locations.add(hostToLocation.computeIfAbsent(host,
+                        h -> new TScanRangeLocation(new TNetworkAddress(h, -1))));
             }
-        } while (remainingBytes > 0);
-    }
 
-    private void createScanRangeLocationsForSplit(long partitionId, HivePartition partition,
-                                                  HdfsFileDesc fileDesc,
-                                                  HdfsFileBlockDesc blockDesc,
-                                                  long offset, long length) {
-        TScanRangeLocations scanRangeLocations = new TScanRangeLocations();
-
-        THdfsScanRange hdfsScanRange = new THdfsScanRange();
-        hdfsScanRange.setRelative_path(fileDesc.getFileName());
-        hdfsScanRange.setOffset(offset);
-        hdfsScanRange.setLength(length);
-        hdfsScanRange.setPartition_id(partitionId);
-        hdfsScanRange.setFile_length(fileDesc.getLength());
-        hdfsScanRange.setFile_format(partition.getFormat().toThrift());
-        hdfsScanRange.setText_file_desc(fileDesc.getTextFileFormatDesc().toThrift());
-        TScanRange scanRange = new TScanRange();
-        scanRange.setHdfs_scan_range(hdfsScanRange);
-        scanRangeLocations.setScan_range(scanRange);
-
-        if (blockDesc.getReplicaHostIds().length == 0) {
-            String message = String.format("hdfs file block has no host. file = %s/%s",
-                    partition.getFullPath(), fileDesc.getFileName());
-            throw new StarRocksPlannerException(message, ErrorType.INTERNAL_ERROR);
+            // NOTE: Config.hive_max_split_size should be extracted to a local variable,
+            // because it may be changed before calling 'splitScanRangeLocations'
+            // and after needSplit has been calculated.
+            long splitSize = Config.hive_max_split_size;
+            boolean needSplit = fileDesc.isSplittable() && blockDesc.getLength() > splitSize;
+            if (needSplit) {
+                splitScanRangeLocations(blockDesc, fileScanRange, locations, splitSize);
+            } else {
+                createScanRangeLocationsForSplit(fileScanRange, locations, blockDesc.getOffset(),
+                        blockDesc.getLength());
+            }
         }
 
-        for (long hostId : blockDesc.getReplicaHostIds()) {
-            String host = blockDesc.getDataNodeIp(hostId);
-            TScanRangeLocation scanRangeLocation = new TScanRangeLocation(new TNetworkAddress(host, -1));
-            scanRangeLocations.addToLocations(scanRangeLocation);
+        private void splitScanRangeLocations(HdfsFileBlockDesc blockDesc, THdfsScanRange fileScanRange,
+                                             List<TScanRangeLocation> locations, long splitSize) {
+            long remainingBytes = blockDesc.getLength();
+            long length = blockDesc.getLength();
+            long offset = blockDesc.getOffset();
+            do {
+                if (remainingBytes <= splitSize) {
+                    createScanRangeLocationsForSplit(fileScanRange, locations,
+                            offset + length - remainingBytes, remainingBytes);
+                    remainingBytes = 0;
+                } else if (remainingBytes <= 2 * splitSize) {
+                    long mid = (remainingBytes + 1) / 2;
+                    createScanRangeLocationsForSplit(fileScanRange, locations,
+                            offset + length - remainingBytes, mid);
+                    createScanRangeLocationsForSplit(fileScanRange, locations,
+                            offset + length - remainingBytes + mid, remainingBytes - mid);
+                    remainingBytes = 0;
+                } else {
+                    createScanRangeLocationsForSplit(fileScanRange, locations,
+                            offset + length - remainingBytes, splitSize);
+                    remainingBytes -= splitSize;
+                }
+            } while (remainingBytes > 0);
         }
 
-        result.add(scanRangeLocations);
+        private void createScanRangeLocationsForSplit(THdfsScanRange fileScanRange,
+                                                      List<TScanRangeLocation> locations,
+                                                      long offset, long length) {
+            // shallow copy, the text file desc of the file is shared by all the splits
+            THdfsScanRange hdfsScanRange = new THdfsScanRange();
+            hdfsScanRange.setRelative_path(fileScanRange.getRelative_path());
+            hdfsScanRange.setOffset(offset);
+            hdfsScanRange.setLength(length);
+            hdfsScanRange.setPartition_id(fileScanRange.getPartition_id());
+            hdfsScanRange.setFile_length(fileScanRange.getFile_length());
+            hdfsScanRange.setFile_format(fileScanRange.getFile_format());
+            hdfsScanRange.setText_file_desc(fileScanRange.getText_file_desc());
+            TScanRange scanRange = new TScanRange();
+            scanRange.setHdfs_scan_range(hdfsScanRange);
+
+            TScanRangeLocations scanRangeLocations = new TScanRangeLocations();
+            scanRangeLocations.setScan_range(scanRange);
+            scanRangeLocations.setLocations(locations);
+            this.scanRangeLocations.add(scanRangeLocations);
+        }
     }
 
     public void setupScanRangeLocations(DescriptorTable descTbl, Table table,
@@ -128,23 +177,57 @@ public class RemoteScanRangeLocations {
             partitionInfos.add(new DescriptorTable.ReferencedPartitionInfo(partitionId, partitionKey));
         }
         List<HivePartition> partitions = hiveMetaStoreTable.getPartitions(partitionKeys);
-
         for (int i = 0; i < partitions.size(); i++) {
             descTbl.addReferencedPartitions(table, partitionInfos.get(i));
-            for (HdfsFileDesc fileDesc : partitions.get(i).getFiles()) {
-                if (fileDesc.getLength() == 0) {
-                    continue;
-                }
-                for (HdfsFileBlockDesc blockDesc : fileDesc.getBlockDescs()) {
-                    addScanRangeLocations(partitionInfos.get(i).getId(), partitions.get(i), fileDesc, blockDesc);
-                    LOG.debug("Add scan range success. partition: {}, file: {}, block: {}-{}",
-                            partitions.get(i).getFullPath(), fileDesc.getFileName(), blockDesc.getOffset(),
-                            blockDesc.getLength());
+        }
+
+        int threads = Config.hive_scan_range_generate_threads;
+        if (threads <= 1 || partitions.size() < Math.max(1, Config.hive_scan_range_parallel_min_partitions)) {
+            ScanRangeGenerator generator = new ScanRangeGenerator();
+            for (int i = 0; i < partitions.size(); i++) {
+                generator.addPartition(partitionInfos.get(i).getId(), partitions.get(i));
+            }
+            result.addAll(generator.scanRangeLocations);
+        } else {
+            generateInParallel(partitionInfos, partitions, threads);
+        }
+        LOG.debug("Get {} scan range locations of {} partitions cost: {} ms",
+                getScanRangeLocationsSize(), partitions.size(), (System.currentTimeMillis() - start));
+    }
+
+    private void generateInParallel(List<DescriptorTable.ReferencedPartitionInfo> partitionInfos,
+                                    List<HivePartition> partitions, int threads) throws UserException {
+        // several batches per thread to balance the partitions with different number of files
+        int batchSize = Math.max(1, (partitions.size() + threads * 4 - 1) / (threads * 4));
+        List<Future<List<TScanRangeLocations>>> futures = Lists.newArrayList();
+        for (int begin = 0; begin < partitions.size(); begin += batchSize) {
+            int from = begin;
+            int to = Math.min(begin + batchSize, partitions.size());
+            futures.add(ExecutorHolder.EXECUTOR.submit(() -> {
+                ScanRangeGenerator generator = new ScanRangeGenerator();
+                for (int i = from; i < to; i++) {
+                    generator.addPartition(partitionInfos.get(i).getId(), partitions.get(i));
                 }
+                return generator.scanRangeLocations;
+            }));
+        }
+
+        // keep the order of the partitions
+        try {
+            for (Future<List<TScanRangeLocations>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new UserException("Interrupted when generating scan ranges", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new UserException("Failed to generate scan ranges: " + e.getCause().getMessage(), e.getCause());
         }
-        LOG.debug("Get {} scan range locations cost: {} ms",
-                getScanRangeLocationsSize(), (System.currentTimeMillis() - start));
     }
 
     public List<TScanRangeLocations> getScanRangeLocations(long maxScanRangeLength) {
@@ -5,6 +5,8 @@ package com.starrocks.external.hive;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -89,11 +91,19 @@ public class HiveMetaCache {
                     }
                 }, executor));
 
+        // the file listing of a partition is not used any more once the partition is removed from the cache, such as
+        // by expiration, refresh or clear, and it's invalidated too, a reloaded partition lists the directory again
+        // or validates the cached listing
         partitionsCache = newCacheBuilder(MAX_PARTITION_CACHE_SIZE)
+                .removalListener((RemovalListener<HivePartitionKey, HivePartition>) notification -> {
+                    if (notification.getCause() != RemovalCause.REPLACED && notification.getValue() != null) {
+                        client.invalidateFileListing(notification.getValue().getFullPath());
+                    }
+                })
                 .build(asyncReloading(new CacheLoader<HivePartitionKey, HivePartition>() {
                     @Override
                     public HivePartition load(HivePartitionKey key) throws Exception {
-                        return loadPartition(key);
+                        return loadPartition(key, false);
                     }
                 }, executor));
 
@@ -176,11 +186,13 @@ public class HiveMetaCache {
         return ImmutableMap.copyOf(partitionKeys);
     }
 
-    private HivePartition loadPartition(HivePartitionKey key) throws DdlException {
+    // forceRefresh: list the partition directory again regardless of the file listing cache
+    private HivePartition loadPartition(HivePartitionKey key, boolean forceRefresh) throws DdlException {
         if (key.getTableType() == Table.TableType.HUDI) {
             return client.getHudiPartition(key.getDatabaseName(), key.getTableName(), key.getPartitionValues());
         } else {
-            return client.getPartition(key.getDatabaseName(), key.getTableName(), key.getPartitionValues());
+            return client.getPartition(key.getDatabaseName(), key.getTableName(), key.getPartitionValues(),
+                    forceRefresh);
         }
     }
 
@@ -370,7 +382,8 @@ public class HiveMetaCache {
         String path = ObjectStorageUtils.formatObjectStoragePath(sd.getLocation());
         boolean isSplittable = ObjectStorageUtils.isObjectStorage(path) ||
                 HdfsFileFormat.isSplittable(sd.getInputFormat());
-        List<HdfsFileDesc> fileDescs = client.getHdfsFileDescs(path, isSplittable, sd);
+        // the partition is changed, list it again regardless of the file listing cache
+        List<HdfsFileDesc> fileDescs = client.getHdfsFileDescs(path, isSplittable, sd, true);
         return new HivePartition(format, ImmutableList.copyOf(fileDescs), path);
     }
 
@@ -455,7 +468,7 @@ public class HiveMetaCache {
             if (partColumns.size() <= 0) {
                 HivePartitionKey hivePartitionKey =
                         new HivePartitionKey(dbName, tableName, tableType, new ArrayList<>());
-                partitionsCache.put(hivePartitionKey, loadPartition(hivePartitionKey));
+                partitionsCache.put(hivePartitionKey, loadPartition(hivePartitionKey, true));
                 partitionStatsCache.put(hivePartitionKey, loadPartitionStats(hivePartitionKey));
             }
         } catch (Exception e) {
@@ -473,7 +486,7 @@ public class HiveMetaCache {
                 List<String> partValues = client.partitionNameToVals(partName);
                 HivePartitionKey key = new HivePartitionKey(hmsTable.getDb(), hmsTable.getTable(),
                         hmsTable.getTableType(), partValues);
-                partitionsCache.put(key, loadPartition(key));
+                partitionsCache.put(key, loadPartition(key, true));
                 partitionStatsCache.put(key, loadPartitionStats(key));
             }
         } catch (Exception e) {
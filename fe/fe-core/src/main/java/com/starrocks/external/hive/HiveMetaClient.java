@@ -3,6 +3,7 @@
 package com.starrocks.external.hive;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -96,6 +97,8 @@ public class HiveMetaClient {
     private long storageId = 0;
     private static final int UNKNOWN_STORAGE_ID = -1;
     private final AtomicLong partitionIdGen = new AtomicLong(0L);
+    private final RemoteFileListingCache fileListingCache =
+            new RemoteFileListingCache(Config.hive_file_listing_cache_size);
 
     private long baseHmsEventId;
 
@@ -248,6 +251,14 @@ public class HiveMetaClient {
     }
 
     public HivePartition getPartition(String dbName, String tableName, List<String> partValues) throws DdlException {
+        return getPartition(dbName, tableName, partValues, false);
+    }
+
+    /**
+     * @param forceRefresh list the partition directory even if there is a valid listing in the file listing cache
+     */
+    public HivePartition getPartition(String dbName, String tableName, List<String> partValues,
+                                      boolean forceRefresh) throws DdlException {
         try (AutoCloseClient client = getClient()) {
             StorageDescriptor sd;
             if (partValues.size() > 0) {
@@ -265,7 +276,7 @@ public class HiveMetaClient {
             String path = ObjectStorageUtils.formatObjectStoragePath(sd.getLocation());
             List<HdfsFileDesc> fileDescs = getHdfsFileDescs(path,
                     ObjectStorageUtils.isObjectStorage(path) || HdfsFileFormat.isSplittable(sd.getInputFormat()),
-                    sd);
+                    sd, forceRefresh);
             return new HivePartition(format, ImmutableList.copyOf(fileDescs), path);
         } catch (NoSuchObjectException e) {
             throw new DdlException("get hive partition meta data failed: "
@@ -657,30 +668,77 @@ public class HiveMetaClient {
 
     public List<HdfsFileDesc> getHdfsFileDescs(String dirPath, boolean isSplittable,
                                                StorageDescriptor sd) throws Exception {
+        return getHdfsFileDescs(dirPath, isSplittable, sd, false);
+    }
+
+    /**
+     * @param forceRefresh list the directory even if there is a valid listing in the file listing cache,
+     *                     used when the partition is known to be changed, such as by metastore events
+     */
+    public List<HdfsFileDesc> getHdfsFileDescs(String dirPath, boolean isSplittable,
+                                               StorageDescriptor sd, boolean forceRefresh) throws Exception {
         URI uri = new URI(dirPath.replace(" ", "%20"));
         FileSystem fileSystem = getFileSystem(uri);
-        List<HdfsFileDesc> fileDescs = Lists.newArrayList();
+        Path path = new Path(uri.getPath());
+        boolean recursive = Config.hive_list_directories_recursively;
+        List<RemoteFileListingCache.RemoteFile> files = fileListingCache.getFiles(fileSystem, dirPath, recursive,
+                () -> listDirectory(fileSystem, dirPath, path, recursive), forceRefresh);
+
+        TextFileFormatDesc textFileFormatDesc = getTextFileFormatDesc(sd);
+        List<HdfsFileDesc> fileDescs = Lists.newArrayListWithCapacity(files.size());
+        for (RemoteFileListingCache.RemoteFile file : files) {
+            fileDescs.add(new HdfsFileDesc(file.getName(), "", file.getLength(), file.getBlockDescs(),
+                    isSplittable, textFileFormatDesc));
+        }
+        return fileDescs;
+    }
+
+    private RemoteFileListingCache.Listing listDirectory(FileSystem fileSystem, String dirPath, Path path,
+                                                         boolean recursive) throws IOException {
+        ImmutableList.Builder<RemoteFileListingCache.RemoteFile> files = ImmutableList.builder();
+        Map<Path, Long> dirToFingerprint = Maps.newHashMap();
+        try {
+            listDirectory(fileSystem, dirPath, path, recursive, files, dirToFingerprint);
+        } catch (FileNotFoundException ignored) {
+            // hive empty partition may not create directory
+            dirToFingerprint.clear();
+        }
+        // checking the files of object storage costs as much as listing them, the listing is not cached
+        if (ObjectStorageUtils.isObjectStorage(dirPath)) {
+            dirToFingerprint.clear();
+        }
+        return new RemoteFileListingCache.Listing(files.build(), ImmutableMap.copyOf(dirToFingerprint));
+    }
 
+    private void listDirectory(FileSystem fileSystem, String dirPath, Path path, boolean recursive,
+                               ImmutableList.Builder<RemoteFileListingCache.RemoteFile> files,
+                               Map<Path, Long> dirToFingerprint) throws IOException {
         // fileSystem.listLocatedStatus is an api to list all statuses and
         // block locations of the files in the given path in one operation.
         // The performance is better than getting status and block location one by one.
-        try {
-            RemoteIterator<LocatedFileStatus> blockIterator = fileSystem.listLocatedStatus(new Path(uri.getPath()));
-            while (blockIterator.hasNext()) {
-                LocatedFileStatus locatedFileStatus = blockIterator.next();
-                if (!isValidDataFile(locatedFileStatus)) {
-                    continue;
-                }
-                String fileName = Utils.getSuffixName(dirPath, locatedFileStatus.getPath().toString());
-                BlockLocation[] blockLocations = locatedFileStatus.getBlockLocations();
-                List<HdfsFileBlockDesc> fileBlockDescs = getHdfsFileBlockDescs(blockLocations);
-                fileDescs.add(new HdfsFileDesc(fileName, "", locatedFileStatus.getLen(),
-                        ImmutableList.copyOf(fileBlockDescs), isSplittable, getTextFileFormatDesc(sd)));
+        RemoteIterator<LocatedFileStatus> blockIterator = fileSystem.listLocatedStatus(path);
+        long fingerprint = 0;
+        while (blockIterator.hasNext()) {
+            LocatedFileStatus locatedFileStatus = blockIterator.next();
+            fingerprint += RemoteFileListingCache.fingerprint(locatedFileStatus);
+            if (recursive && locatedFileStatus.isDirectory() && !isHiddenFile(locatedFileStatus)) {
+                listDirectory(fileSystem, dirPath, locatedFileStatus.getPath(), true, files, dirToFingerprint);
+                continue;
             }
-        } catch (FileNotFoundException ignored) {
-            // hive empty partition may not create directory
+            if (!isValidDataFile(locatedFileStatus)) {
+                continue;
+            }
+            String fileName = Utils.getSuffixName(dirPath, locatedFileStatus.getPath().toString());
+            BlockLocation[] blockLocations = locatedFileStatus.getBlockLocations();
+            List<HdfsFileBlockDesc> fileBlockDescs = getHdfsFileBlockDescs(blockLocations);
+            files.add(new RemoteFileListingCache.RemoteFile(fileName, locatedFileStatus.getLen(),
+                    ImmutableList.copyOf(fileBlockDescs)));
         }
-        return fileDescs;
+        dirToFingerprint.put(path, fingerprint);
+    }
+
+    public void invalidateFileListing(String dirPath) {
+        fileListingCache.invalidate(dirPath);
     }
 
     public CurrentNotificationEventId getCurrentNotificationEventId() throws DdlException {
@@ -706,10 +764,13 @@ public class HiveMetaClient {
         if (fileStatus.isDirectory()) {
             return false;
         }
+        return !isHiddenFile(fileStatus);
+    }
 
+    private boolean isHiddenFile(FileStatus fileStatus) {
         String lcFileName = fileStatus.getPath().getName().toLowerCase();
-        return !(lcFileName.startsWith(".") || lcFileName.startsWith("_") ||
-                lcFileName.endsWith(".copying") || lcFileName.endsWith(".tmp"));
+        return lcFileName.startsWith(".") || lcFileName.startsWith("_") ||
+                lcFileName.endsWith(".copying") || lcFileName.endsWith(".tmp");
     }
 
     private List<HdfsFileBlockDesc> getHdfsFileBlockDescs(BlockLocation[] blockLocations) throws IOException {
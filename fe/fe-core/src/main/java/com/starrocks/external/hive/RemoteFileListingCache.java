@@ -0,0 +1,189 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.external.hive;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.starrocks.common.Config;
+import com.starrocks.metric.MetricRepo;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Cache of the files listed from the partition directories of hive tables.
+ * <p>
+ * The partition meta cache is reloaded periodically and by metastore events, and each reload used to list the
+ * partition directory again, which is slow on a busy NameNode or object storage. The listing is cached by
+ * directory path together with a fingerprint of the entries of each listed directory, i.e. their names, lengths
+ * and modification times. A cached listing is reused only if the fingerprints of all the directories are
+ * unchanged, which are checked by listStatus, a much cheaper call than listing the files with their block
+ * locations. So a file appended or overwritten in place, which doesn't change the modification time of the
+ * directory, is listed again. A listing is also not reused if it's listed recursively or not differently from
+ * the current listing, as hive_list_directories_recursively is mutable.
+ * <p>
+ * The listings without any fingerprint, such as the listings of object storage, are never cached.
+ */
+public class RemoteFileListingCache {
+    private static final Logger LOG = LogManager.getLogger(RemoteFileListingCache.class);
+
+    public interface Lister {
+        Listing list() throws IOException;
+    }
+
+    public static class RemoteFile {
+        // relative to the partition directory
+        private final String name;
+        private final long length;
+        private final ImmutableList<HdfsFileBlockDesc> blockDescs;
+
+        public RemoteFile(String name, long length, ImmutableList<HdfsFileBlockDesc> blockDescs) {
+            this.name = name;
+            this.length = length;
+            this.blockDescs = blockDescs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public ImmutableList<HdfsFileBlockDesc> getBlockDescs() {
+            return blockDescs;
+        }
+    }
+
+    public static class Listing {
+        private final ImmutableList<RemoteFile> files;
+        // all the listed directories, including the sub directories of recursive listing, see fingerprint
+        private final ImmutableMap<Path, Long> dirToFingerprint;
+
+        public Listing(ImmutableList<RemoteFile> files, ImmutableMap<Path, Long> dirToFingerprint) {
+            this.files = files;
+            this.dirToFingerprint = dirToFingerprint;
+        }
+
+        public ImmutableList<RemoteFile> getFiles() {
+            return files;
+        }
+
+        boolean isCacheable() {
+            return !dirToFingerprint.isEmpty();
+        }
+    }
+
+    private static class Entry {
+        private final Listing listing;
+        private final boolean recursive;
+
+        private Entry(Listing listing, boolean recursive) {
+            this.listing = listing;
+            this.recursive = recursive;
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public RemoteFileListingCache(long maxSize) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Config.hive_meta_cache_ttl_s, SECONDS)
+                .build();
+    }
+
+    /**
+     * Get the files of the directory, from the cache if the cached listing is still valid,
+     * otherwise list the directory by the lister and cache it. The recursive is whether the lister lists
+     * the sub directories recursively.
+     */
+    public ImmutableList<RemoteFile> getFiles(FileSystem fileSystem, String dirPath, boolean recursive,
+                                              Lister lister, boolean forceRefresh) throws IOException {
+        if (Config.enable_hive_file_listing_cache && !forceRefresh) {
+            Entry cached = cache.getIfPresent(dirPath);
+            if (cached != null && cached.recursive == recursive && isValid(fileSystem, cached.listing)) {
+                if (MetricRepo.isInit) {
+                    MetricRepo.COUNTER_HIVE_FILE_LISTING_CACHE_HIT.increase(1L);
+                }
+                return cached.listing.getFiles();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        Listing listing = lister.list();
+        long elapsed = System.currentTimeMillis() - start;
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_HIVE_FILE_LISTING_CACHE_MISS.increase(1L);
+            MetricRepo.HISTO_HIVE_FILE_LISTING_LATENCY.update(elapsed);
+        }
+        LOG.debug("list {} files in {} cost {} ms", listing.getFiles().size(), dirPath, elapsed);
+
+        if (Config.enable_hive_file_listing_cache && listing.isCacheable()) {
+            cache.put(dirPath, new Entry(listing, recursive));
+        } else {
+            cache.invalidate(dirPath);
+        }
+        return listing.getFiles();
+    }
+
+    /**
+     * The fingerprint of an entry of a listed directory. The fingerprint of the directory is the sum of the
+     * fingerprints of all its entries, so it doesn't depend on the order of the listed entries.
+     */
+    public static long fingerprint(FileStatus status) {
+        return Hashing.murmur3_128().newHasher()
+                .putString(status.getPath().getName(), StandardCharsets.UTF_8)
+                .putBoolean(status.isDirectory())
+                .putLong(status.getLen())
+                .putLong(status.getModificationTime())
+                .hash().asLong();
+    }
+
+    private boolean isValid(FileSystem fileSystem, Listing listing) {
+        for (Map.Entry<Path, Long> entry : listing.dirToFingerprint.entrySet()) {
+            try {
+                long fingerprint = 0;
+                for (FileStatus status : fileSystem.listStatus(entry.getKey())) {
+                    fingerprint += fingerprint(status);
+                }
+                if (fingerprint != entry.getValue()) {
+                    return false;
+                }
+            } catch (FileNotFoundException e) {
+                return false;
+            } catch (IOException e) {
+                LOG.warn("get file status of {} failed", entry.getKey(), e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void invalidate(String dirPath) {
+        cache.invalidate(dirPath);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @VisibleForTesting
+    long size() {
+        return cache.size();
+    }
+}
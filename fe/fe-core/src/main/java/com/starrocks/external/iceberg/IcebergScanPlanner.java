@@ -0,0 +1,273 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.external.iceberg;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.starrocks.common.Config;
+import com.starrocks.sql.PlannerProfile;
+import org.apache.iceberg.CombinedScanTask;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.TableProperties;
+import org.apache.iceberg.expressions.Evaluator;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.expressions.InclusiveMetricsEvaluator;
+import org.apache.iceberg.expressions.ManifestEvaluator;
+import org.apache.iceberg.expressions.Projections;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.iceberg.util.ThreadPools;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Plans the data files to scan of an iceberg snapshot.
+ * <p>
+ * TableScan of iceberg decodes the avro manifests of the snapshot for each query, and IcebergCachingFileIO
+ * only saves the reading of the raw bytes. Manifests are immutable once written, so the data files decoded
+ * from a manifest, with their partition values and column bounds, are cached by the manifest path and shared
+ * by all the snapshots containing the manifest. The manifests not cached are read in parallel by the iceberg
+ * worker pool, then the manifests and data files are pruned by the partition summaries, partition values and
+ * column bounds, the same as TableScan does. The selected files are passed to the consumer in the order of
+ * the manifests as soon as each manifest is done, so the caller can build the scan ranges while the remaining
+ * manifests are still being read.
+ * <p>
+ * Snapshots with delete files are planned by TableScan, which applies the delete files to the data files.
+ */
+public class IcebergScanPlanner {
+    private static final Logger LOG = LogManager.getLogger(IcebergScanPlanner.class);
+
+    private static final Cache<String, ImmutableList<DataFile>> MANIFEST_CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(Config.iceberg_manifest_cache_max_num_files)
+            .weigher((String path, ImmutableList<DataFile> files) -> Math.max(1, files.size()))
+            .build();
+
+    public static class FileSplit {
+        private final DataFile file;
+        private final long start;
+        private final long length;
+
+        public FileSplit(DataFile file, long start, long length) {
+            this.file = file;
+            this.start = start;
+            this.length = length;
+        }
+
+        public DataFile getFile() {
+            return file;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+
+    private final Table table;
+    private final Snapshot snapshot;
+    private final Expression filter;
+
+    private final AtomicInteger cachedManifests = new AtomicInteger();
+    private int totalManifests = 0;
+    private int readManifests = 0;
+    private long totalFiles = 0;
+    private long selectedFiles = 0;
+
+    public IcebergScanPlanner(Table table, Snapshot snapshot, List<Expression> icebergPredicates) {
+        this.table = table;
+        this.snapshot = snapshot;
+        this.filter = icebergPredicates.stream().reduce(Expressions.alwaysTrue(), Expressions::and);
+    }
+
+    private boolean useManifestCache() {
+        return Config.enable_iceberg_manifest_cache && snapshot.deleteManifests().isEmpty();
+    }
+
+    /**
+     * Plan the data files matching the predicates.
+     */
+    public void planFiles(Consumer<DataFile> consumer) {
+        if (!useManifestCache()) {
+            try (CloseableIterable<FileScanTask> tasks = IcebergUtil.getTableScan(table, snapshot,
+                    ImmutableList.of(filter)).planFiles()) {
+                for (FileScanTask task : tasks) {
+                    consumer.accept(task.file());
+                }
+            } catch (IOException e) {
+                throw new StarRocksIcebergException("Plan files of " + table.name() + " failed", e);
+            }
+            return;
+        }
+
+        try (PlannerProfile.ScopedTimer _ = PlannerProfile.getScopedTimer("Iceberg.planFiles")) {
+            planFilesFromManifests(consumer);
+        }
+        PlannerProfile.addCustomProperties("Iceberg.Manifests",
+                String.format("%d/%d (%d cached)", readManifests, totalManifests, cachedManifests.get()));
+        PlannerProfile.addCustomProperties("Iceberg.DataFiles", selectedFiles + "/" + totalFiles);
+        LOG.debug("plan files of {} snapshot {}: manifests {}/{} ({} cached), data files {}/{}",
+                table.name(), snapshot.snapshotId(), readManifests, totalManifests, cachedManifests.get(),
+                selectedFiles, totalFiles);
+    }
+
+    /**
+     * Plan the data files matching the predicates, and split the files by the split size of the table.
+     */
+    public void planSplits(Consumer<FileSplit> consumer) {
+        if (!useManifestCache()) {
+            try (CloseableIterable<CombinedScanTask> tasks = IcebergUtil.getTableScan(table, snapshot,
+                    ImmutableList.of(filter)).planTasks()) {
+                for (CombinedScanTask combinedScanTask : tasks) {
+                    for (FileScanTask task : combinedScanTask.files()) {
+                        consumer.accept(new FileSplit(task.file(), task.start(), task.length()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new StarRocksIcebergException("Plan tasks of " + table.name() + " failed", e);
+            }
+            return;
+        }
+
+        long splitSize = PropertyUtil.propertyAsLong(table.properties(), TableProperties.SPLIT_SIZE,
+                TableProperties.SPLIT_SIZE_DEFAULT);
+        planFiles(file -> splitFile(file, splitSize, consumer));
+    }
+
+    private void planFilesFromManifests(Consumer<DataFile> consumer) {
+        Map<Integer, PartitionSpec> specsById = table.specs();
+        Map<Integer, ManifestEvaluator> manifestEvaluators = new HashMap<>();
+        Map<Integer, Evaluator> partitionEvaluators = new HashMap<>();
+        InclusiveMetricsEvaluator metricsEvaluator = new InclusiveMetricsEvaluator(table.schema(), filter, false);
+
+        List<ManifestFile> manifests = new ArrayList<>();
+        for (ManifestFile manifest : snapshot.dataManifests()) {
+            totalManifests++;
+            if (!manifest.hasAddedFiles() && !manifest.hasExistingFiles()) {
+                continue;
+            }
+            PartitionSpec spec = specsById.get(manifest.partitionSpecId());
+            ManifestEvaluator manifestEvaluator = manifestEvaluators.computeIfAbsent(manifest.partitionSpecId(),
+                    id -> ManifestEvaluator.forRowFilter(filter, spec, false));
+            if (manifestEvaluator.eval(manifest)) {
+                manifests.add(manifest);
+            }
+        }
+        readManifests = manifests.size();
+
+        List<Future<ImmutableList<DataFile>>> futures = new ArrayList<>(manifests.size());
+        for (ManifestFile manifest : manifests) {
+            futures.add(ThreadPools.getWorkerPool().submit(() -> getDataFiles(manifest, specsById)));
+        }
+
+        for (int i = 0; i < manifests.size(); i++) {
+            ImmutableList<DataFile> files;
+            try {
+                files = futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                throw new StarRocksIcebergException("Plan files of " + table.name() + " is interrupted", e);
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw new StarRocksIcebergException("Read manifest " + manifests.get(i).path() + " failed",
+                        e.getCause());
+            }
+
+            PartitionSpec spec = specsById.get(manifests.get(i).partitionSpecId());
+            Evaluator partitionEvaluator = partitionEvaluators.computeIfAbsent(spec.specId(),
+                    id -> new Evaluator(spec.partitionType(), Projections.inclusive(spec, false).project(filter),
+                            false));
+            totalFiles += files.size();
+            for (DataFile file : files) {
+                if (partitionEvaluator.eval(file.partition()) && metricsEvaluator.eval(file)) {
+                    selectedFiles++;
+                    consumer.accept(file);
+                }
+            }
+        }
+    }
+
+    private ImmutableList<DataFile> getDataFiles(ManifestFile manifest, Map<Integer, PartitionSpec> specsById)
+            throws IOException {
+        ImmutableList<DataFile> files = MANIFEST_CACHE.getIfPresent(manifest.path());
+        if (files != null) {
+            cachedManifests.incrementAndGet();
+            return files;
+        }
+
+        ImmutableList.Builder<DataFile> builder = ImmutableList.builder();
+        try (ManifestReader<DataFile> reader = ManifestFiles.read(manifest, table.io(), specsById)) {
+            for (DataFile file : reader) {
+                // the reader reuses the file object
+                builder.add(file.copy());
+            }
+        }
+        files = builder.build();
+        MANIFEST_CACHE.put(manifest.path(), files);
+        return files;
+    }
+
+    /**
+     * Split the file by the split offsets if any, such as the row groups of parquet files,
+     * otherwise by the fixed split size.
+     */
+    @VisibleForTesting
+    static void splitFile(DataFile file, long splitSize, Consumer<FileSplit> consumer) {
+        long fileSize = file.fileSizeInBytes();
+        if (!file.format().isSplittable() || fileSize <= splitSize) {
+            consumer.accept(new FileSplit(file, 0, fileSize));
+            return;
+        }
+
+        List<Long> offsets = file.splitOffsets();
+        if (offsets != null && !offsets.isEmpty()) {
+            long start = offsets.get(0);
+            for (int i = 1; i < offsets.size(); i++) {
+                long offset = offsets.get(i);
+                if (offset - start >= splitSize) {
+                    consumer.accept(new FileSplit(file, start, offset - start));
+                    start = offset;
+                }
+            }
+            consumer.accept(new FileSplit(file, start, fileSize - start));
+            return;
+        }
+
+        for (long start = 0; start < fileSize; start += splitSize) {
+            consumer.accept(new FileSplit(file, start, Math.min(splitSize, fileSize - start)));
+        }
+    }
+
+    @VisibleForTesting
+    static void invalidateManifestCache() {
+        MANIFEST_CACHE.invalidateAll();
+    }
+
+    @VisibleForTesting
+    static long getManifestCacheSize() {
+        return MANIFEST_CACHE.size();
+    }
+}
@@ -107,16 +107,21 @@ public abstract class BaseAction implements IAction {
         // HttpResponseStatus.CONTINUE));
         // }
 
-        FullHttpResponse responseObj = null;
+        byte[] content = null;
         try {
-            responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
-                    Unpooled.wrappedBuffer(response.getContent().toString().getBytes("UTF-8")));
+            content = response.getContent().toString().getBytes("UTF-8");
         } catch (UnsupportedEncodingException e) {
             LOG.warn("get exception.", e);
-            responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
-                    Unpooled.wrappedBuffer(response.getContent().toString().getBytes()));
+            content = response.getContent().toString().getBytes();
         }
-        Preconditions.checkNotNull(responseObj);
+        writeResponse(request, response, status, content);
+    }
+
+    // write the content instead of the content of the response, the content is wrapped without copy
+    protected void writeResponse(BaseRequest request, BaseResponse response, HttpResponseStatus status,
+                                 byte[] content) {
+        FullHttpResponse responseObj = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status,
+                Unpooled.wrappedBuffer(content));
         HttpMethod method = request.getRequest().method();
 
         checkDefaultContentTypeHeader(response, responseObj);
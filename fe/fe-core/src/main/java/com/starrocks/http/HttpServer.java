@@ -39,6 +39,7 @@ import com.starrocks.http.meta.GlobalDictMetaService;
 import com.starrocks.http.meta.MetaService.CheckAction;
 import com.starrocks.http.meta.MetaService.DumpAction;
 import com.starrocks.http.meta.MetaService.ImageAction;
+import com.starrocks.http.meta.MetaService.ImageManifestAction;
 import com.starrocks.http.meta.MetaService.InfoAction;
 import com.starrocks.http.meta.MetaService.JournalIdAction;
 import com.starrocks.http.meta.MetaService.PutAction;
@@ -164,6 +165,7 @@ public class HttpServer {
         // meta service action
         File imageDir = MetaHelper.getMasterImageDir();
         ImageAction.registerAction(controller, imageDir);
+        ImageManifestAction.registerAction(controller, imageDir);
         InfoAction.registerAction(controller, imageDir);
         VersionAction.registerAction(controller, imageDir);
         PutAction.registerAction(controller, imageDir);
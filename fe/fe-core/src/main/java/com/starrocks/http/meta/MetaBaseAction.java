@@ -21,6 +21,7 @@
 
 package com.starrocks.http.meta;
 
+import com.google.common.io.ByteStreams;
 import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
 import com.starrocks.http.BaseResponse;
@@ -28,11 +29,32 @@ import com.starrocks.http.action.WebBaseAction;
 import com.starrocks.master.MetaHelper;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Frontend;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedFile;
+import io.netty.handler.stream.ChunkedStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
 
 public class MetaBaseAction extends WebBaseAction {
     private static final Logger LOG = LogManager.getLogger(MetaBaseAction.class);
@@ -91,6 +113,95 @@ public class MetaBaseAction extends WebBaseAction {
         return;
     }
 
+    /**
+     * Write length bytes of the file from offset, compressed by deflate if compress is true. The compressed
+     * content is sent by chunked transfer encoding, because its length is unknown until all compressed.
+     */
+    protected void writeFileRangeResponse(BaseRequest request, BaseResponse response, File file, long offset,
+                                          long length, boolean compress) {
+        if (file == null || !file.exists()) {
+            response.appendContent("File does not exist.");
+            writeResponse(request, response, HttpResponseStatus.NOT_FOUND);
+            return;
+        }
+        if (offset < 0 || length < 0 || offset + length > file.length()) {
+            response.appendContent("Invalid range, file size is " + file.length());
+            writeResponse(request, response, HttpResponseStatus.BAD_REQUEST);
+            return;
+        }
+
+        ChannelHandlerContext ctx = request.getContext();
+        HttpResponse responseObj = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        boolean keepAlive = HttpUtil.isKeepAlive(request.getRequest());
+        if (keepAlive) {
+            response.updateHeader(HttpHeaderNames.CONNECTION.toString(), HttpHeaderValues.KEEP_ALIVE.toString());
+        }
+        response.updateHeader(HttpHeaderNames.CONTENT_TYPE.toString(),
+                HttpHeaderValues.APPLICATION_OCTET_STREAM.toString());
+        response.updateHeader(CONTENT_DISPOSITION, "attachment; filename=" + file.getName());
+        response.updateHeader(MetaHelper.X_IMAGE_SIZE, String.valueOf(file.length()));
+
+        RandomAccessFile rafFile = null;
+        try {
+            rafFile = new RandomAccessFile(file, "r");
+            Object writable;
+            if (compress) {
+                rafFile.seek(offset);
+                InputStream in = ByteStreams.limit(Channels.newInputStream(rafFile.getChannel()), length);
+                in = new DeflaterInputStream(in, new Deflater(Deflater.BEST_SPEED)) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            def.end();
+                        }
+                    }
+                };
+                response.updateHeader(MetaHelper.X_IMAGE_ENCODING, MetaHelper.DEFLATE);
+                HttpUtil.setTransferEncodingChunked(responseObj, true);
+                writable = new HttpChunkedInput(new ChunkedStream(in, MetaHelper.CHUNK_BYTES));
+            } else {
+                response.updateHeader(HttpHeaderNames.CONTENT_LENGTH.toString(), String.valueOf(length));
+                if (ctx.pipeline().get(SslHandler.class) == null) {
+                    // use zero-copy file transfer.
+                    writable = new DefaultFileRegion(rafFile.getChannel(), offset, length);
+                } else {
+                    writable = new HttpChunkedInput(new ChunkedFile(rafFile, offset, length, MetaHelper.CHUNK_BYTES));
+                }
+            }
+            writeCustomHeaders(response, responseObj);
+            ctx.write(responseObj);
+
+            ChannelFuture lastContentFuture;
+            if (writable instanceof DefaultFileRegion) {
+                ctx.write(writable);
+                lastContentFuture = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            } else {
+                // HttpChunkedInput will write the end marker (LastHttpContent) for us.
+                lastContentFuture = ctx.writeAndFlush(writable);
+            }
+            lastContentFuture.addListener((ChannelFutureListener) future -> {
+                if (!future.isSuccess()) {
+                    LOG.warn("failed to send {}, offset: {}, length: {}", file, offset, length, future.cause());
+                }
+            });
+            if (!keepAlive) {
+                lastContentFuture.addListener(ChannelFutureListener.CLOSE);
+            }
+        } catch (IOException e) {
+            LOG.warn("failed to send {}, offset: {}, length: {}", file, offset, length, e);
+            if (rafFile != null) {
+                try {
+                    rafFile.close();
+                } catch (IOException ignored) {
+                    // ignore
+                }
+            }
+            writeResponse(request, response, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     private boolean isFromValidFe(BaseRequest request) {
         String clientHost = request.getHostString();
         Frontend fe = GlobalStateMgr.getCurrentState().getFeByHost(clientHost);
@@ -29,6 +29,7 @@ import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
 import com.starrocks.http.BaseResponse;
 import com.starrocks.http.IllegalArgException;
+import com.starrocks.master.ImageManifest;
 import com.starrocks.master.MetaHelper;
 import com.starrocks.persist.MetaCleaner;
 import com.starrocks.persist.Storage;
@@ -43,13 +44,15 @@ import org.apache.logging.log4j.Logger;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.OutputStream;
 
 public class MetaService {
     private static final int TIMEOUT_SECOND = 10;
 
     public static class ImageAction extends MetaBaseAction {
         private static final String VERSION = "version";
+        private static final String OFFSET = "offset";
+        private static final String LENGTH = "length";
+        private static final String COMPRESS = "compress";
 
         public ImageAction(ActionController controller, File imageDir) {
             super(controller, imageDir);
@@ -81,7 +84,66 @@ public class MetaService {
                 return;
             }
 
-            writeFileResponse(request, response, imageFile);
+            // the range and compression are requested by the FE which downloads the image by its manifest
+            String offsetStr = request.getSingleParameter(OFFSET);
+            String lengthStr = request.getSingleParameter(LENGTH);
+            String compressStr = request.getSingleParameter(COMPRESS);
+            if (Strings.isNullOrEmpty(offsetStr) && Strings.isNullOrEmpty(lengthStr)
+                    && Strings.isNullOrEmpty(compressStr)) {
+                writeFileResponse(request, response, imageFile);
+                return;
+            }
+            long offset = Strings.isNullOrEmpty(offsetStr) ? 0 : checkLongParam(offsetStr);
+            long length = Strings.isNullOrEmpty(lengthStr) ? imageFile.length() - offset : checkLongParam(lengthStr);
+            boolean compress = MetaHelper.DEFLATE.equalsIgnoreCase(compressStr);
+            writeFileRangeResponse(request, response, imageFile, offset, length, compress);
+        }
+    }
+
+    public static class ImageManifestAction extends MetaBaseAction {
+        private static final Logger LOG = LogManager.getLogger(ImageManifestAction.class);
+        private static final String VERSION = "version";
+
+        public ImageManifestAction(ActionController controller, File imageDir) {
+            super(controller, imageDir);
+        }
+
+        public static void registerAction(ActionController controller, File imageDir)
+                throws IllegalArgException {
+            controller.registerHandler(HttpMethod.GET, "/image_manifest", new ImageManifestAction(controller, imageDir));
+        }
+
+        @Override
+        public void executeGet(BaseRequest request, BaseResponse response) {
+            String versionStr = request.getSingleParameter(VERSION);
+            if (Strings.isNullOrEmpty(versionStr)) {
+                response.appendContent("Miss version parameter");
+                writeResponse(request, response, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+
+            long version = checkLongParam(versionStr);
+            if (version < 0) {
+                writeResponse(request, response, HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+
+            File imageFile = Storage.getImageFile(imageDir, version);
+            if (!imageFile.exists()) {
+                writeResponse(request, response, HttpResponseStatus.NOT_FOUND);
+                return;
+            }
+
+            try {
+                // computed by checkpoint usually
+                ImageManifest manifest = ImageManifest.getOrCompute(imageFile, Config.image_chunk_avg_size_kb * 1024);
+                response.setContentType("application/json");
+                response.appendContent(manifest.toJson());
+                writeResponse(request, response);
+            } catch (IOException e) {
+                LOG.warn("failed to get the manifest of {}", imageFile, e);
+                writeResponse(request, response, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+            }
         }
     }
 
@@ -195,22 +257,19 @@ public class MetaService {
                 return;
             }
 
-            String url = "http://" + machine + ":" + portStr
-                    + "/image?version=" + versionStr;
+            String hostPort = machine + ":" + portStr;
             String filename = Storage.IMAGE + "." + versionStr;
 
             File dir = new File(GlobalStateMgr.getCurrentState().getImageDir());
             try {
-                OutputStream out = MetaHelper.getOutputStream(filename, dir);
-                MetaHelper.getRemoteFile(url, TIMEOUT_SECOND * 1000, out);
-                MetaHelper.complete(filename, dir);
+                MetaHelper.downloadImage(hostPort, version, dir, TIMEOUT_SECOND * 1000);
                 writeResponse(request, response);
             } catch (FileNotFoundException e) {
                 LOG.warn("file not found. file: {}", filename, e);
                 writeResponse(request, response, HttpResponseStatus.NOT_FOUND);
                 return;
             } catch (IOException e) {
-                LOG.warn("failed to get remote file. url: {}", url, e);
+                LOG.warn("failed to get image.{} from {}", versionStr, hostPort, e);
                 writeResponse(request, response, HttpResponseStatus.INTERNAL_SERVER_ERROR);
                 return;
             }
@@ -21,6 +21,7 @@
 
 package com.starrocks.http.rest;
 
+import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.starrocks.cluster.ClusterNamespace;
 import com.starrocks.common.DdlException;
@@ -28,9 +29,9 @@ import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
 import com.starrocks.http.BaseResponse;
 import com.starrocks.http.IllegalArgException;
+import com.starrocks.load.StreamLoadBackendSelector;
 import com.starrocks.mysql.privilege.PrivPredicate;
 import com.starrocks.qe.ConnectContext;
-import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.Backend;
 import com.starrocks.thrift.TNetworkAddress;
 import io.netty.handler.codec.http.HttpHeaders;
@@ -42,6 +43,7 @@ import java.util.List;
 
 public class LoadAction extends RestBaseAction {
     private static final Logger LOG = LogManager.getLogger(LoadAction.class);
+    private static final String PARTITIONS_KEY = "partitions";
 
     public LoadAction(ActionController controller) {
         super(controller);
@@ -83,13 +85,13 @@ public class LoadAction extends RestBaseAction {
         // check auth
         checkTblAuth(ConnectContext.get().getCurrentUserIdentity(), fullDbName, tableName, PrivPredicate.LOAD);
 
-        // Choose a backend sequentially.
-        List<Long> backendIds = GlobalStateMgr.getCurrentSystemInfo().seqChooseBackendIds(1, true, false);
-        if (backendIds == null) {
-            throw new DdlException("No backend alive.");
+        // Choose a backend by the load of the backends and the locality of the tablets.
+        List<String> partitionNames = null;
+        String partitions = request.getRequest().headers().get(PARTITIONS_KEY);
+        if (!Strings.isNullOrEmpty(partitions)) {
+            partitionNames = Splitter.on(',').trimResults().omitEmptyStrings().splitToList(partitions);
         }
-
-        Backend backend = GlobalStateMgr.getCurrentSystemInfo().getBackend(backendIds.get(0));
+        Backend backend = StreamLoadBackendSelector.getInstance().chooseBackend(fullDbName, tableName, partitionNames);
         if (backend == null) {
             throw new DdlException("No backend alive.");
         }
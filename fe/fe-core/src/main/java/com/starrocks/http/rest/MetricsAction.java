@@ -21,9 +21,13 @@
 
 package com.starrocks.http.rest;
 
+import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.starrocks.analysis.UserIdentity;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.common.CaseSensibility;
 import com.starrocks.common.DdlException;
+import com.starrocks.common.PatternMatcher;
 import com.starrocks.http.ActionController;
 import com.starrocks.http.BaseRequest;
 import com.starrocks.http.BaseResponse;
@@ -35,9 +39,12 @@ import com.starrocks.metric.PrometheusMetricVisitor;
 import com.starrocks.metric.SimpleCoreMetricVisitor;
 import com.starrocks.mysql.privilege.PrivPredicate;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
+import java.util.function.Supplier;
+
 //fehost:port/metrics
 //fehost:port/metrics?type=core
 //fehost:port/metrics?type=json
@@ -50,6 +57,10 @@ public class MetricsAction extends RestBaseAction {
     protected static final String WITH_TABLE_METRICS_PARAM = "with_table_metrics";
     protected static final String WITH_TABLE_METRICS_MINIFIED = "minified";
     protected static final String WITH_TABLE_METRICS_ALL = "all";
+    // filter the table metrics by the patterns of db name and table name, in the syntax of LIKE
+    // `db_pattern=db%&table_pattern=tbl_%`
+    protected static final String DB_PATTERN_PARAM = "db_pattern";
+    protected static final String TABLE_PATTERN_PARAM = "table_pattern";
     public static final String API_PATH = "/metrics";
 
     public MetricsAction(ActionController controller) {
@@ -63,13 +74,14 @@ public class MetricsAction extends RestBaseAction {
     @Override
     public void execute(BaseRequest request, BaseResponse response) throws DdlException {
         String type = request.getSingleParameter(TYPE_PARAM);
-        MetricVisitor visitor = null;
+        Supplier<MetricVisitor> visitorSupplier = null;
         if (!Strings.isNullOrEmpty(type) && type.equalsIgnoreCase("core")) {
-            visitor = new SimpleCoreMetricVisitor("starrocks_fe");
+            visitorSupplier = () -> new SimpleCoreMetricVisitor("starrocks_fe");
         } else if (!Strings.isNullOrEmpty(type) && type.equalsIgnoreCase("json")) {
-            visitor = new JsonMetricVisitor("starrocks_fe");
+            visitorSupplier = () -> new JsonMetricVisitor("starrocks_fe");
         } else {
-            visitor = new PrometheusMetricVisitor("starrocks_fe");
+            type = "prometheus";
+            visitorSupplier = () -> new PrometheusMetricVisitor("starrocks_fe");
         }
         boolean collectTableMetrics = false;
         boolean minifyTableMetrics = true;
@@ -89,8 +101,29 @@ public class MetricsAction extends RestBaseAction {
                 LOG.warn("`Admin_priv` is needed to view the table-level metrics.");
             }
         }
+        PatternMatcher dbMatcher = null;
+        PatternMatcher tableMatcher = null;
+        String dbPattern = request.getSingleParameter(DB_PATTERN_PARAM);
+        String tablePattern = request.getSingleParameter(TABLE_PATTERN_PARAM);
+        if (collectTableMetrics) {
+            try {
+                if (!Strings.isNullOrEmpty(dbPattern)) {
+                    dbMatcher = PatternMatcher.createMysqlPattern(dbPattern, CaseSensibility.DATABASE.getCaseSensibility());
+                }
+                if (!Strings.isNullOrEmpty(tablePattern)) {
+                    tableMatcher = PatternMatcher.createMysqlPattern(tablePattern,
+                            CaseSensibility.TABLE.getCaseSensibility());
+                }
+            } catch (AnalysisException e) {
+                throw new DdlException(e.getMessage());
+            }
+        }
+
+        String snapshotKey = Joiner.on('|').useForNull("").join(type.toLowerCase(), collectTableMetrics,
+                minifyTableMetrics, dbMatcher == null ? null : dbPattern, tableMatcher == null ? null : tablePattern);
+        byte[] content = MetricRepo.getMetricSnapshot(snapshotKey, visitorSupplier, collectTableMetrics,
+                minifyTableMetrics, dbMatcher, tableMatcher);
         response.setContentType("text/plain");
-        response.getContent().append(MetricRepo.getMetric(visitor, collectTableMetrics, minifyTableMetrics));
-        sendResult(request, response);
+        writeResponse(request, response, HttpResponseStatus.OK, content);
     }
 }
@@ -17,6 +17,8 @@
 
 package com.starrocks.journal;
 
+import java.util.concurrent.ExecutorService;
+
 // This class is like JDBC ResultSet.
 public interface JournalCursor {
 
@@ -28,4 +30,9 @@ public interface JournalCursor {
 
     public void close();
 
+    // Deserialize at most num journals ahead of next() by the pool, in parallel with replaying the returned ones.
+    // The cursor may ignore it and deserialize the journal in next().
+    public default void setPrefetch(ExecutorService pool, int num) {
+    }
+
 }
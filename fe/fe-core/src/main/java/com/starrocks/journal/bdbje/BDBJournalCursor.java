@@ -32,13 +32,20 @@ import com.starrocks.journal.JournalCursor;
 import com.starrocks.journal.JournalEntity;
 import com.starrocks.journal.JournalException;
 import com.starrocks.journal.JournalInconsistentException;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.persist.OperationType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class BDBJournalCursor implements JournalCursor {
     private static final Logger LOG = LogManager.getLogger(JournalCursor.class);
@@ -52,6 +59,16 @@ public class BDBJournalCursor implements JournalCursor {
     private CloseSafeDatabase database;
     private int nextDbPositionIndex;
 
+    // the journals read but not returned yet, being deserialized by prefetchPool
+    private final Deque<Future<JournalEntity>> prefetched = new ArrayDeque<>();
+    private ExecutorService prefetchPool;
+    private int prefetchNum;
+    // stop reading ahead after reaching the end or a journal not found
+    private boolean reachEnd = false;
+    // the meta version journal read ahead, the journals after it are deserialized by the meta version in it,
+    // which is set to the meta context when it's applied, so stop reading ahead until it's returned and applied
+    private Future<JournalEntity> metaVersionBarrier = null;
+
     public static BDBJournalCursor getJournalCursor(BDBEnvironment env, long fromKey, long toKey) throws
             JournalException {
         if (toKey < fromKey || fromKey < 0) {
@@ -136,7 +153,7 @@ public class BDBJournalCursor implements JournalCursor {
         throw exception;
     }
 
-    protected JournalEntity deserializeData(DatabaseEntry data) throws JournalException {
+    protected JournalEntity deserializeData(long key, DatabaseEntry data) throws JournalException {
         DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.getData()));
         JournalEntity ret = new JournalEntity();
         try {
@@ -144,7 +161,7 @@ public class BDBJournalCursor implements JournalCursor {
         } catch (IOException e) {
             // bad data, will not retry
             String errMsg = String.format("fail to read journal entity key=%s, data=%s",
-                    currentKey, data);
+                    key, data);
             LOG.error(errMsg, e);
             JournalException exception = new JournalException(errMsg);
             exception.initCause(e);
@@ -153,8 +170,77 @@ public class BDBJournalCursor implements JournalCursor {
         return ret;
     }
 
+    @Override
+    public void setPrefetch(ExecutorService pool, int num) {
+        this.prefetchPool = pool;
+        this.prefetchNum = num;
+    }
+
     @Override
     public JournalEntity next() throws InterruptedException, JournalException, JournalInconsistentException {
+        if (prefetchPool == null || prefetchNum <= 0) {
+            DatabaseEntry data = readNext();
+            return data == null ? null : deserializeData(currentKey - 1, data);
+        }
+
+        // keep prefetchNum journals being deserialized ahead, the caller applies the returned journal
+        // before calling next() again, so the meta version returned last time has been applied now
+        while (!reachEnd && metaVersionBarrier == null && prefetched.size() < prefetchNum) {
+            DatabaseEntry data = readNext();
+            if (data == null) {
+                reachEnd = true;
+                break;
+            }
+            long key = currentKey - 1;
+            MetaContext metaContext = MetaContext.get();
+            Future<JournalEntity> future = prefetchPool.submit(() -> {
+                // the journal version is got from the meta context
+                if (metaContext != null) {
+                    metaContext.setThreadLocalInfo();
+                }
+                try {
+                    return deserializeData(key, data);
+                } finally {
+                    MetaContext.remove();
+                }
+            });
+            prefetched.add(future);
+            if (isMetaVersion(data)) {
+                metaVersionBarrier = future;
+            }
+        }
+        Future<JournalEntity> future = prefetched.poll();
+        if (future == null) {
+            return null;
+        }
+        if (future == metaVersionBarrier) {
+            metaVersionBarrier = null;
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JournalException) {
+                throw (JournalException) e.getCause();
+            }
+            JournalException exception = new JournalException("failed to deserialize journal " + e.getMessage());
+            exception.initCause(e.getCause());
+            throw exception;
+        }
+    }
+
+    private static boolean isMetaVersion(DatabaseEntry data) {
+        // the op code is the first short of the journal
+        byte[] bytes = data.getData();
+        if (bytes == null || bytes.length < 2) {
+            return false;
+        }
+        short opCode = (short) (((bytes[0] & 0xff) << 8) | (bytes[1] & 0xff));
+        return opCode == OperationType.OP_META_VERSION || opCode == OperationType.OP_META_VERSION_V2;
+    }
+
+    // Return the data of the journal of currentKey and move to the next key.
+    // Return null when there is no more journals, or if need to retry from outside.
+    private DatabaseEntry readNext() throws InterruptedException, JournalException, JournalInconsistentException {
         // EOF
         if (currentKey > toKey) {
             return null;
@@ -182,10 +268,8 @@ public class BDBJournalCursor implements JournalCursor {
                 OperationStatus operationStatus = database.get(null, theKey, theData, LockMode.READ_COMMITTED);
 
                 if (operationStatus == OperationStatus.SUCCESS) {
-                    // 3. serialized
-                    JournalEntity entity = deserializeData(theData);
                     currentKey++;
-                    return entity;
+                    return theData;
                 } else if (operationStatus == OperationStatus.NOTFOUND) {
                     // In the case:
                     // On non-master FE, the replayer will first get the max journal id,
@@ -234,5 +318,10 @@ public class BDBJournalCursor implements JournalCursor {
 
     @Override
     public void close() {
+        for (Future<JournalEntity> future : prefetched) {
+            future.cancel(true);
+        }
+        prefetched.clear();
+        metaVersionBarrier = null;
     }
 }
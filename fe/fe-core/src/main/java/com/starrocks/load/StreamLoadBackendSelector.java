@@ -0,0 +1,184 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Config;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.Backend;
+import com.starrocks.system.SystemInfoService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Choose the backend to redirect a stream load to.
+ * <p>
+ * Round-robin is blind to the load of the backends, so during ingestion spikes some backends are saturated
+ * with memtable flushes while others are idle. The backend with the lowest score is chosen, where the score is
+ * the sum of
+ * 1. the running loads per cpu core, counted by the running transactions coordinated by the backend, plus
+ * the loads redirected to the backend since the counting, which have not begun their transactions yet
+ * 2. the ratio of the load memory consumption to its limit, reported by heartbeat
+ * 3. the max used ratio of the disks
+ * minus the ratio of the tablets with replicas on the backend, if a single partition is loaded. The coordinator
+ * of a load writes one replica of each tablet, so a backend with local replicas sends less data over network.
+ */
+public class StreamLoadBackendSelector {
+    private static final Logger LOG = LogManager.getLogger(StreamLoadBackendSelector.class);
+
+    private static final long RUNNING_LOADS_REFRESH_INTERVAL_MS = 1000;
+
+    private static final StreamLoadBackendSelector INSTANCE = new StreamLoadBackendSelector();
+
+    // backend host -> running transactions coordinated by the backend
+    private volatile Map<String, Integer> hostToRunningLoads = ImmutableMap.of();
+    private volatile long lastRefreshTimeMs = 0;
+    // backend id -> loads redirected to the backend since the last refresh of hostToRunningLoads
+    private final ConcurrentMap<Long, AtomicInteger> backendToPendingLoads = new ConcurrentHashMap<>();
+
+    public static StreamLoadBackendSelector getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Choose a backend to load the partitions of the table, the table and partitions are optional.
+     * Returns null if no backend is available.
+     */
+    public Backend chooseBackend(String fullDbName, String tableName, List<String> partitionNames) {
+        SystemInfoService systemInfoService = GlobalStateMgr.getCurrentSystemInfo();
+        if (!Config.enable_load_aware_stream_load_redirect) {
+            List<Long> backendIds = systemInfoService.seqChooseBackendIds(1, true, false);
+            return backendIds == null ? null : systemInfoService.getBackend(backendIds.get(0));
+        }
+
+        List<Backend> candidates = Lists.newArrayList();
+        for (Backend backend : systemInfoService.getBackends()) {
+            if (backend.isAlive() && !backend.isDecommissioned() && !backend.diskExceedLimit()) {
+                candidates.add(backend);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        refreshRunningLoads();
+        Map<Long, Double> backendToLocalTabletRatio = getLocalTabletRatio(fullDbName, tableName, partitionNames);
+        return chooseBackend(candidates, backendToLocalTabletRatio);
+    }
+
+    @VisibleForTesting
+    Backend chooseBackend(List<Backend> candidates, Map<Long, Double> backendToLocalTabletRatio) {
+        // break the ties randomly, so the loads are spread when all the backends are idle
+        List<Backend> backends = Lists.newArrayList(candidates);
+        Collections.shuffle(backends);
+        Backend chosen = null;
+        double minScore = Double.MAX_VALUE;
+        for (Backend backend : backends) {
+            double score = getScore(backend, backendToLocalTabletRatio.getOrDefault(backend.getId(), 0.0));
+            if (score < minScore) {
+                minScore = score;
+                chosen = backend;
+            }
+        }
+        backendToPendingLoads.computeIfAbsent(chosen.getId(), k -> new AtomicInteger()).incrementAndGet();
+        LOG.debug("choose backend {} with score {} for stream load", chosen.getId(), minScore);
+        return chosen;
+    }
+
+    private double getScore(Backend backend, double localTabletRatio) {
+        AtomicInteger pendingLoads = backendToPendingLoads.get(backend.getId());
+        int loads = hostToRunningLoads.getOrDefault(backend.getHost(), 0) +
+                (pendingLoads == null ? 0 : pendingLoads.get());
+        double score = loads / (double) Math.max(1, backend.getCpuCores());
+        if (backend.getLoadMemLimit() > 0 && backend.getLoadMemConsumption() >= 0) {
+            score += backend.getLoadMemConsumption() / (double) backend.getLoadMemLimit();
+        }
+        score += backend.getMaxDiskUsedPct();
+        return score - localTabletRatio;
+    }
+
+    private void refreshRunningLoads() {
+        long now = System.currentTimeMillis();
+        if (now - lastRefreshTimeMs < RUNNING_LOADS_REFRESH_INTERVAL_MS) {
+            return;
+        }
+        synchronized (this) {
+            if (now - lastRefreshTimeMs < RUNNING_LOADS_REFRESH_INTERVAL_MS) {
+                return;
+            }
+            hostToRunningLoads = ImmutableMap.copyOf(
+                    GlobalStateMgr.getCurrentGlobalTransactionMgr().getRunningTxnNumByCoordinateBe());
+            // the redirected loads have begun their transactions or failed by now
+            backendToPendingLoads.clear();
+            lastRefreshTimeMs = now;
+        }
+    }
+
+    // backend id -> ratio of the tablets of the loaded partition with replicas on the backend
+    private Map<Long, Double> getLocalTabletRatio(String fullDbName, String tableName, List<String> partitionNames) {
+        if (fullDbName == null || tableName == null) {
+            return ImmutableMap.of();
+        }
+        Database db = GlobalStateMgr.getCurrentState().getDb(fullDbName);
+        if (db == null) {
+            return ImmutableMap.of();
+        }
+
+        Map<Long, Integer> backendToTabletNum = Maps.newHashMap();
+        int tabletNum = 0;
+        db.readLock();
+        try {
+            Table table = db.getTable(tableName);
+            // the backends of lake tablets are got from StarOS by rpc, which is too heavy here
+            if (!(table instanceof OlapTable) || table.isLakeTable()) {
+                return ImmutableMap.of();
+            }
+            OlapTable olapTable = (OlapTable) table;
+            Partition partition = null;
+            if (partitionNames != null && partitionNames.size() == 1) {
+                partition = olapTable.getPartition(partitionNames.get(0));
+            } else if ((partitionNames == null || partitionNames.isEmpty()) && !olapTable.isPartitioned()) {
+                partition = olapTable.getPartitions().stream().findFirst().orElse(null);
+            }
+            if (partition == null) {
+                return ImmutableMap.of();
+            }
+            for (Tablet tablet : partition.getBaseIndex().getTablets()) {
+                tabletNum++;
+                for (long backendId : tablet.getBackendIds()) {
+                    backendToTabletNum.merge(backendId, 1, Integer::sum);
+                }
+            }
+        } finally {
+            db.readUnlock();
+        }
+
+        Map<Long, Double> backendToRatio = Maps.newHashMap();
+        for (Map.Entry<Long, Integer> entry : backendToTabletNum.entrySet()) {
+            backendToRatio.put(entry.getKey(), entry.getValue() / (double) tabletNum);
+        }
+        return backendToRatio;
+    }
+
+    @VisibleForTesting
+    void setRunningLoads(Map<String, Integer> hostToRunningLoads) {
+        this.hostToRunningLoads = ImmutableMap.copyOf(hostToRunningLoads);
+        this.backendToPendingLoads.clear();
+        this.lastRefreshTimeMs = Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,302 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load.routineload;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.common.Config;
+import com.starrocks.common.DdlException;
+import com.starrocks.common.UserException;
+import com.starrocks.common.util.KafkaUtil;
+import com.starrocks.common.util.MasterDaemon;
+import com.starrocks.proto.PKafkaOffsetProxyRequest;
+import com.starrocks.proto.PKafkaOffsetProxyResult;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * KafkaOffsetTracker periodically fetches the beginning and latest offsets of all the kafka topics consumed by
+ * NEED_SCHEDULE and RUNNING routine load jobs, using batched getBatchOffsets proxy calls instead of one call per
+ * task. The cached offsets are used by KafkaTaskInfo to decide whether a task is ready to execute, and by
+ * MetricRepo to report the lag of each job.
+ * Jobs sharing the same (broker list, topic, properties) share one cache entry.
+ */
+public class KafkaOffsetTracker extends MasterDaemon {
+    private static final Logger LOG = LogManager.getLogger(KafkaOffsetTracker.class);
+
+    private final RoutineLoadManager routineLoadManager;
+
+    private final Map<TopicKey, TopicOffsets> topicToOffsets = new ConcurrentHashMap<>();
+
+    // job id -> lag calculated in the last refresh
+    private final Map<Long, JobLag> jobIdToLag = new ConcurrentHashMap<>();
+
+    public KafkaOffsetTracker(RoutineLoadManager routineLoadManager) {
+        super("Kafka offset tracker", Config.routine_load_kafka_offset_refresh_interval_ms);
+        this.routineLoadManager = routineLoadManager;
+    }
+
+    @Override
+    protected void runAfterCatalogReady() {
+        // refresh interval is mutable
+        setInterval(Config.routine_load_kafka_offset_refresh_interval_ms);
+        if (!Config.enable_routine_load_kafka_offset_tracker) {
+            topicToOffsets.clear();
+            jobIdToLag.clear();
+            return;
+        }
+        try {
+            refresh();
+        } catch (Throwable e) {
+            LOG.warn("Failed to refresh kafka offsets", e);
+        }
+    }
+
+    @VisibleForTesting
+    void refresh() {
+        List<RoutineLoadJob> jobs = routineLoadManager.getRoutineLoadJobByState(
+                Sets.newHashSet(RoutineLoadJob.JobState.NEED_SCHEDULE, RoutineLoadJob.JobState.RUNNING));
+
+        // merge the partitions of all jobs consuming the same topic
+        Map<TopicKey, Set<Integer>> topicToPartitions = Maps.newHashMap();
+        Map<TopicKey, List<KafkaRoutineLoadJob>> topicToJobs = Maps.newHashMap();
+        for (RoutineLoadJob job : jobs) {
+            if (!(job instanceof KafkaRoutineLoadJob) || !((KafkaProgress) job.getProgress()).hasPartition()) {
+                continue;
+            }
+            KafkaRoutineLoadJob kJob = (KafkaRoutineLoadJob) job;
+            try {
+                kJob.convertCustomProperties(false);
+            } catch (DdlException e) {
+                LOG.warn("convert custom properties of routine load job {} failed", kJob.getId(), e);
+                continue;
+            }
+            TopicKey key = TopicKey.of(kJob);
+            topicToPartitions.computeIfAbsent(key, k -> Sets.newHashSet())
+                    .addAll(((KafkaProgress) kJob.getProgress()).getPartitionIdToOffset().keySet());
+            topicToJobs.computeIfAbsent(key, k -> Lists.newArrayList()).add(kJob);
+        }
+
+        // remove the topics no longer consumed by any job
+        topicToOffsets.keySet().retainAll(topicToPartitions.keySet());
+        if (topicToPartitions.isEmpty()) {
+            jobIdToLag.clear();
+            return;
+        }
+
+        List<TopicKey> keys = new ArrayList<>(topicToPartitions.keySet());
+        int batchSize = Math.max(1, Config.routine_load_kafka_offset_batch_size);
+        for (List<TopicKey> batch : Lists.partition(keys, batchSize)) {
+            List<PKafkaOffsetProxyRequest> requests = new ArrayList<>(batch.size());
+            for (TopicKey key : batch) {
+                PKafkaOffsetProxyRequest request = new PKafkaOffsetProxyRequest();
+                request.kafkaInfo = KafkaUtil.genPKafkaLoadInfo(key.brokerList, key.topic, key.properties);
+                request.partitionIds = new ArrayList<>(topicToPartitions.get(key));
+                requests.add(request);
+            }
+
+            List<PKafkaOffsetProxyResult> results;
+            try {
+                results = KafkaUtil.getBatchOffsets(requests);
+            } catch (UserException e) {
+                LOG.warn("get batch offsets of {} topics failed", batch.size(), e);
+                continue;
+            }
+
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < batch.size() && i < results.size(); i++) {
+                PKafkaOffsetProxyResult result = results.get(i);
+                Map<Integer, Long> beginningOffsets = Maps.newHashMap();
+                Map<Integer, Long> latestOffsets = Maps.newHashMap();
+                for (int j = 0; j < result.partitionIds.size(); j++) {
+                    beginningOffsets.put(result.partitionIds.get(j), result.beginningOffsets.get(j));
+                    latestOffsets.put(result.partitionIds.get(j), result.latestOffsets.get(j));
+                }
+                topicToOffsets.put(batch.get(i), new TopicOffsets(beginningOffsets, latestOffsets, now));
+            }
+        }
+
+        updateJobLags(topicToJobs);
+    }
+
+    private void updateJobLags(Map<TopicKey, List<KafkaRoutineLoadJob>> topicToJobs) {
+        Map<Long, JobLag> newJobIdToLag = Maps.newHashMap();
+        for (Map.Entry<TopicKey, List<KafkaRoutineLoadJob>> entry : topicToJobs.entrySet()) {
+            TopicOffsets offsets = topicToOffsets.get(entry.getKey());
+            if (offsets == null) {
+                continue;
+            }
+            for (KafkaRoutineLoadJob kJob : entry.getValue()) {
+                newJobIdToLag.put(kJob.getId(), calculateLag((KafkaProgress) kJob.getProgress(), offsets));
+            }
+        }
+        jobIdToLag.keySet().retainAll(newJobIdToLag.keySet());
+        jobIdToLag.putAll(newJobIdToLag);
+    }
+
+    @VisibleForTesting
+    static JobLag calculateLag(KafkaProgress progress, TopicOffsets offsets) {
+        long maxLag = 0;
+        long totalLag = 0;
+        for (Map.Entry<Integer, Long> entry : progress.getPartitionIdToOffset().entrySet()) {
+            Long latestOffset = offsets.latestOffsets.get(entry.getKey());
+            if (latestOffset == null) {
+                continue;
+            }
+            long consumedOffset = entry.getValue();
+            if (consumedOffset == KafkaProgress.OFFSET_BEGINNING_VAL) {
+                Long beginningOffset = offsets.beginningOffsets.get(entry.getKey());
+                if (beginningOffset == null) {
+                    continue;
+                }
+                consumedOffset = beginningOffset;
+            } else if (consumedOffset == KafkaProgress.OFFSET_END_VAL) {
+                continue;
+            }
+            long lag = Math.max(0, latestOffset - consumedOffset);
+            maxLag = Math.max(maxLag, lag);
+            totalLag += lag;
+        }
+        return new JobLag(maxLag, totalLag, offsets.updateTimeMs);
+    }
+
+    /**
+     * Get the cached latest offsets of the given partitions.
+     * Return null if the tracker is disabled, any partition is missing or the cache entry is stale,
+     * in which case the caller should fetch the offsets from kafka by itself.
+     */
+    public Map<Integer, Long> getCachedLatestOffsets(KafkaRoutineLoadJob job, List<Integer> partitions) {
+        if (!Config.enable_routine_load_kafka_offset_tracker) {
+            return null;
+        }
+        TopicOffsets offsets = topicToOffsets.get(TopicKey.of(job));
+        if (offsets == null || System.currentTimeMillis() - offsets.updateTimeMs > getStaleThresholdMs()) {
+            return null;
+        }
+        Map<Integer, Long> result = Maps.newHashMapWithExpectedSize(partitions.size());
+        for (Integer partition : partitions) {
+            Long offset = offsets.latestOffsets.get(partition);
+            if (offset == null) {
+                return null;
+            }
+            result.put(partition, offset);
+        }
+        return result;
+    }
+
+    /**
+     * Merge the latest offsets fetched by the caller into the cache, so that other jobs consuming
+     * the same topic can reuse them.
+     * The update time is only advanced if all the cached partitions are fetched again, otherwise the offsets
+     * of the other partitions would be regarded as fresh.
+     */
+    public void updateLatestOffsets(KafkaRoutineLoadJob job, Map<Integer, Long> latestOffsets) {
+        if (!Config.enable_routine_load_kafka_offset_tracker) {
+            return;
+        }
+        topicToOffsets.compute(TopicKey.of(job), (key, old) -> {
+            long now = System.currentTimeMillis();
+            if (old == null) {
+                return new TopicOffsets(Collections.emptyMap(), latestOffsets, now);
+            }
+            Map<Integer, Long> merged = Maps.newHashMap(old.latestOffsets);
+            merged.putAll(latestOffsets);
+            long updateTimeMs = latestOffsets.keySet().containsAll(old.latestOffsets.keySet()) ? now : old.updateTimeMs;
+            return new TopicOffsets(old.beginningOffsets, merged, updateTimeMs);
+        });
+    }
+
+    public JobLag getJobLag(long jobId) {
+        return jobIdToLag.get(jobId);
+    }
+
+    private static long getStaleThresholdMs() {
+        return 2 * Config.routine_load_kafka_offset_refresh_interval_ms;
+    }
+
+    static class TopicKey {
+        private final String brokerList;
+        private final String topic;
+        private final ImmutableMap<String, String> properties;
+
+        TopicKey(String brokerList, String topic, Map<String, String> properties) {
+            this.brokerList = brokerList;
+            this.topic = topic;
+            // sort properties so that the key does not depend on the map implementation
+            this.properties = properties == null ? ImmutableMap.of() : ImmutableMap.copyOf(new TreeMap<>(properties));
+        }
+
+        static TopicKey of(KafkaRoutineLoadJob job) {
+            return new TopicKey(job.getBrokerList(), job.getTopic(), job.getConvertedCustomPropertiesSnapshot());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TopicKey that = (TopicKey) o;
+            return Objects.equals(brokerList, that.brokerList) && Objects.equals(topic, that.topic) &&
+                    Objects.equals(properties, that.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(brokerList, topic, properties);
+        }
+    }
+
+    static class TopicOffsets {
+        private final Map<Integer, Long> beginningOffsets;
+        private final Map<Integer, Long> latestOffsets;
+        private final long updateTimeMs;
+
+        TopicOffsets(Map<Integer, Long> beginningOffsets, Map<Integer, Long> latestOffsets, long updateTimeMs) {
+            this.beginningOffsets = beginningOffsets;
+            this.latestOffsets = latestOffsets;
+            this.updateTimeMs = updateTimeMs;
+        }
+    }
+
+    public static class JobLag {
+        // max lag among all partitions of the job
+        private final long maxLag;
+        // sum of lag of all partitions of the job
+        private final long totalLag;
+        // the time when the latest offsets were fetched from kafka
+        private final long updateTimeMs;
+
+        public JobLag(long maxLag, long totalLag, long updateTimeMs) {
+            this.maxLag = maxLag;
+            this.totalLag = totalLag;
+            this.updateTimeMs = updateTimeMs;
+        }
+
+        public long getMaxLag() {
+            return maxLag;
+        }
+
+        public long getTotalLag() {
+            return totalLag;
+        }
+
+        public long getUpdateTimeMs() {
+            return updateTimeMs;
+        }
+    }
+}
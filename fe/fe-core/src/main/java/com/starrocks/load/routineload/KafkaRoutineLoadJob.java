@@ -112,6 +112,11 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         return convertedCustomProperties;
     }
 
+    // the properties are rebuilt by convertCustomProperties, copy them under the same lock
+    public synchronized ImmutableMap<String, String> getConvertedCustomPropertiesSnapshot() {
+        return ImmutableMap.copyOf(convertedCustomProperties);
+    }
+
     @Override
     public void prepare() throws UserException {
         super.prepare();
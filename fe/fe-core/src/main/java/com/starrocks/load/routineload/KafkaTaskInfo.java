@@ -22,7 +22,6 @@
 package com.starrocks.load.routineload;
 
 import com.google.common.base.Joiner;
-import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.Table;
@@ -83,10 +82,25 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         }
 
         KafkaRoutineLoadJob kafkaRoutineLoadJob = (KafkaRoutineLoadJob) routineLoadJob;
-        Map<Integer, Long> latestOffsets = KafkaUtil.getLatestOffsets(kafkaRoutineLoadJob.getBrokerList(),
-                kafkaRoutineLoadJob.getTopic(),
-                ImmutableMap.copyOf(kafkaRoutineLoadJob.getConvertedCustomProperties()),
-                new ArrayList<>(partitionIdToOffset.keySet()));
+        List<Integer> partitions = new ArrayList<>(partitionIdToOffset.keySet());
+        KafkaOffsetTracker offsetTracker = GlobalStateMgr.getCurrentState().getKafkaOffsetTracker();
+        Map<Integer, Long> latestOffsets = null;
+        if (offsetTracker != null) {
+            latestOffsets = offsetTracker.getCachedLatestOffsets(kafkaRoutineLoadJob, partitions);
+            // the cached offsets may be older than the consumed offsets, fetch them again in this case
+            if (latestOffsets != null && isAnyPartitionAhead(latestOffsets)) {
+                latestOffsets = null;
+            }
+        }
+        if (latestOffsets == null) {
+            latestOffsets = KafkaUtil.getLatestOffsets(kafkaRoutineLoadJob.getBrokerList(),
+                    kafkaRoutineLoadJob.getTopic(),
+                    kafkaRoutineLoadJob.getConvertedCustomPropertiesSnapshot(),
+                    partitions);
+            if (offsetTracker != null) {
+                offsetTracker.updateLatestOffsets(kafkaRoutineLoadJob, latestOffsets);
+            }
+        }
         for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
             int partitionId = entry.getKey();
             Long latestOffset = latestOffsets.get(partitionId);
@@ -105,6 +119,16 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         return false;
     }
 
+    private boolean isAnyPartitionAhead(Map<Integer, Long> latestOffsets) {
+        for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
+            Long latestOffset = latestOffsets.get(entry.getKey());
+            if (latestOffset != null && latestOffset < entry.getValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean isProgressKeepUp(RoutineLoadProgress progress) {
         KafkaProgress kProgress = (KafkaProgress) progress;
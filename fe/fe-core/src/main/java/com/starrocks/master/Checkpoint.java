@@ -34,6 +34,7 @@ import org.apache.commons.io.output.NullOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -111,6 +112,14 @@ public class Checkpoint extends MasterDaemon {
             GlobalStateMgr.destroyCheckpoint();
         }
 
+        // compute the manifest before the other nodes download the image by it
+        try {
+            ImageManifest.getOrCompute(Storage.getImageFile(new File(imageDir), replayedJournalId),
+                    Config.image_chunk_avg_size_kb * 1024);
+        } catch (IOException e) {
+            LOG.warn("failed to compute the manifest of image.{}", replayedJournalId, e);
+        }
+
         // push image file to all the other non master nodes
         // DO NOT get other nodes from HaProtocol, because node may not in bdbje replication group yet.
         List<Frontend> allFrontends = GlobalStateMgr.getServingState().getFrontends(null);
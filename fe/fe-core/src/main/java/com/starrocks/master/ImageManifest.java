@@ -0,0 +1,201 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.master;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.persist.gson.GsonUtils;
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The size, md5 and content-defined chunks of an image file.
+ * <p>
+ * The image is cut into chunks by a gear rolling hash over the content, so a chunk boundary only depends on
+ * the bytes before it. When some objects of the image change, the chunks of the other objects keep their
+ * checksums even if their offsets are shifted, and the non-master FE can copy them from its last image
+ * instead of downloading them again. The md5 of the whole file checks the downloaded image.
+ * <p>
+ * The manifest of an image is computed once and cached, by the master after checkpoint and by the non-master
+ * FE after downloading.
+ */
+public class ImageManifest {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // the table must be the same on all the FEs
+        Random random = new Random(0x53524946L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    // file path -> manifest
+    private static final Map<String, ImageManifest> CACHE = new ConcurrentHashMap<>();
+
+    public static class Chunk {
+        @SerializedName("offset")
+        private long offset;
+        @SerializedName("length")
+        private long length;
+        @SerializedName("md5")
+        private String md5;
+
+        public Chunk(long offset, long length, String md5) {
+            this.offset = offset;
+            this.length = length;
+            this.md5 = md5;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getEnd() {
+            return offset + length;
+        }
+
+        public String getMd5() {
+            return md5;
+        }
+    }
+
+    @SerializedName("fileSize")
+    private long fileSize;
+    @SerializedName("lastModified")
+    private long lastModified;
+    @SerializedName("avgChunkSize")
+    private int avgChunkSize;
+    @SerializedName("md5")
+    private String md5;
+    @SerializedName("chunks")
+    private List<Chunk> chunks = new ArrayList<>();
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public int getAvgChunkSize() {
+        return avgChunkSize;
+    }
+
+    public String getMd5() {
+        return md5;
+    }
+
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public String toJson() {
+        return GsonUtils.GSON.toJson(this);
+    }
+
+    public static ImageManifest fromJson(String json) {
+        return GsonUtils.GSON.fromJson(json, ImageManifest.class);
+    }
+
+    /**
+     * Get the cached manifest of the file, or compute it if the file is changed or the chunk size is different.
+     */
+    public static synchronized ImageManifest getOrCompute(File file, int avgChunkSize) throws IOException {
+        ImageManifest manifest = CACHE.get(file.getAbsolutePath());
+        if (manifest != null && manifest.avgChunkSize == avgChunkSize && manifest.fileSize == file.length()
+                && manifest.lastModified == file.lastModified()) {
+            return manifest;
+        }
+        manifest = compute(file, avgChunkSize);
+        cache(file, manifest);
+        return manifest;
+    }
+
+    /**
+     * Cache the manifest of a downloaded file, which is checked against the manifest.
+     */
+    public static void cache(File file, ImageManifest manifest) {
+        manifest.lastModified = file.lastModified();
+        // the old images are deleted by MetaCleaner
+        Iterator<String> iter = CACHE.keySet().iterator();
+        while (iter.hasNext()) {
+            if (!new File(iter.next()).exists()) {
+                iter.remove();
+            }
+        }
+        CACHE.put(file.getAbsolutePath(), manifest);
+    }
+
+    public static ImageManifest compute(File file, int avgChunkSize) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            ImageManifest manifest = compute(in, avgChunkSize);
+            manifest.lastModified = file.lastModified();
+            return manifest;
+        }
+    }
+
+    public static ImageManifest compute(InputStream in, int avgChunkSize) throws IOException {
+        Preconditions.checkArgument(avgChunkSize >= 64, "invalid chunk size " + avgChunkSize);
+        // cut at the position whose hash has the highest bits all 0, about 1 / avgChunkSize of the positions
+        int bits = 31 - Integer.numberOfLeadingZeros(avgChunkSize);
+        int minChunkSize = avgChunkSize / 4;
+        int maxChunkSize = avgChunkSize * 4;
+
+        ImageManifest manifest = new ImageManifest();
+        manifest.avgChunkSize = avgChunkSize;
+        MessageDigest fileDigest = newMd5();
+        MessageDigest chunkDigest = newMd5();
+        byte[] buf = new byte[BUFFER_BYTES];
+        long offset = 0;
+        long chunkOffset = 0;
+        long hash = 0;
+        int n;
+        while ((n = in.read(buf)) >= 0) {
+            fileDigest.update(buf, 0, n);
+            int begin = 0;
+            for (int i = 0; i < n; i++) {
+                hash = (hash << 1) + GEAR[buf[i] & 0xff];
+                long chunkLength = offset + i + 1 - chunkOffset;
+                if ((chunkLength >= minChunkSize && (hash >>> (64 - bits)) == 0) || chunkLength >= maxChunkSize) {
+                    chunkDigest.update(buf, begin, i + 1 - begin);
+                    manifest.chunks.add(new Chunk(chunkOffset, chunkLength, Hex.encodeHexString(chunkDigest.digest())));
+                    chunkOffset += chunkLength;
+                    begin = i + 1;
+                    hash = 0;
+                }
+            }
+            chunkDigest.update(buf, begin, n - begin);
+            offset += n;
+        }
+        if (offset > chunkOffset) {
+            manifest.chunks.add(new Chunk(chunkOffset, offset - chunkOffset, Hex.encodeHexString(chunkDigest.digest())));
+        }
+        manifest.fileSize = offset;
+        manifest.md5 = Hex.encodeHexString(fileDigest.digest());
+        return manifest;
+    }
+
+    public static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
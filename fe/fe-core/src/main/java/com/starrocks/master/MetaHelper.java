@@ -21,21 +21,42 @@
 
 package com.starrocks.master;
 
+import com.google.common.io.ByteStreams;
+import com.starrocks.common.Config;
 import com.starrocks.common.io.IOUtils;
+import com.starrocks.persist.Storage;
 import com.starrocks.server.GlobalStateMgr;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.InflaterInputStream;
 
 public class MetaHelper {
+    private static final Logger LOG = LogManager.getLogger(MetaHelper.class);
+
     private static final String PART_SUFFIX = ".part";
     public static final String X_IMAGE_SIZE = "X-Image-Size";
+    public static final String X_IMAGE_ENCODING = "X-Image-Encoding";
+    public static final String DEFLATE = "deflate";
+    public static final int CHUNK_BYTES = 64 * 1024;
     private static final int BUFFER_BYTES = 8 * 1024;
     private static final int CHECKPOINT_LIMIT_BYTES = 30 * 1024 * 1024;
 
@@ -100,4 +121,189 @@ public class MetaHelper {
         }
     }
 
+    /**
+     * Download the image of the version from the FE at hostPort into dir.
+     * <p>
+     * The image is downloaded by its manifest. The chunks which are also in the last local image are copied
+     * from local if enable_image_chunk_dedup is true, the others are downloaded by range requests, compressed
+     * if enable_image_transfer_compression is true. A failed range request is retried from the downloaded
+     * bytes, and the image.version.part left by a failed download is resumed by the next download of the same
+     * version. The downloaded file is checked by the md5 in the manifest.
+     * <p>
+     * Falls back to download the whole file if the FE does not provide the manifest.
+     */
+    public static void downloadImage(String hostPort, long version, File dir, int timeout) throws IOException {
+        String filename = Storage.IMAGE + "." + version;
+        String imageUrl = "http://" + hostPort + "/image?version=" + version;
+        ImageManifest manifest;
+        try {
+            manifest = ImageManifest.fromJson(getRemoteString("http://" + hostPort + "/image_manifest?version="
+                    + version, timeout));
+        } catch (IOException e) {
+            LOG.warn("failed to get the manifest of image.{} from {}, download the whole file", version, hostPort, e);
+            getRemoteFile(imageUrl, timeout, getOutputStream(filename, dir));
+            complete(filename, dir);
+            return;
+        }
+
+        // the chunks of the last local image, md5 -> chunk
+        Map<String, ImageManifest.Chunk> localChunks = new HashMap<>();
+        File localImage = null;
+        if (Config.enable_image_chunk_dedup) {
+            try {
+                long localVersion = new Storage(dir.getAbsolutePath()).getImageJournalId();
+                if (localVersion > 0 && localVersion != version) {
+                    localImage = Storage.getImageFile(dir, localVersion);
+                    for (ImageManifest.Chunk chunk : ImageManifest.getOrCompute(localImage,
+                            manifest.getAvgChunkSize()).getChunks()) {
+                        localChunks.put(chunk.getMd5(), chunk);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warn("failed to get the manifest of the local image, download all the chunks", e);
+                localImage = null;
+                localChunks.clear();
+            }
+        }
+
+        File partFile = new File(dir, filename + PART_SUFFIX);
+        long downloadedBytes = 0;
+        long copiedBytes = 0;
+        try (RandomAccessFile out = new RandomAccessFile(partFile, "rw");
+                RandomAccessFile local = localImage == null ? null : new RandomAccessFile(localImage, "r")) {
+            // resume from the bytes written by the last download
+            long written = out.length() <= manifest.getFileSize() ? out.length() : 0;
+            out.setLength(written);
+            out.seek(written);
+            if (written > 0) {
+                LOG.info("resume downloading image.{} from offset {}", version, written);
+            }
+
+            List<ImageManifest.Chunk> chunks = manifest.getChunks();
+            int i = 0;
+            while (i < chunks.size()) {
+                ImageManifest.Chunk chunk = chunks.get(i);
+                if (chunk.getEnd() <= written) {
+                    i++;
+                    continue;
+                }
+                ImageManifest.Chunk localChunk = localChunks.get(chunk.getMd5());
+                if (localChunk != null && localChunk.getLength() == chunk.getLength()) {
+                    long begin = Math.max(written, chunk.getOffset());
+                    local.seek(localChunk.getOffset() + begin - chunk.getOffset());
+                    copyBytes(local, out, chunk.getEnd() - begin);
+                    copiedBytes += chunk.getEnd() - begin;
+                    written = chunk.getEnd();
+                    i++;
+                    continue;
+                }
+                // download the following chunks which are not in the local image by one request
+                int j = i + 1;
+                while (j < chunks.size() && !localChunks.containsKey(chunks.get(j).getMd5())) {
+                    j++;
+                }
+                long end = chunks.get(j - 1).getEnd();
+                long begin = Math.max(written, chunk.getOffset());
+                getRemoteRange(imageUrl, end, out, timeout);
+                downloadedBytes += end - begin;
+                written = end;
+                i = j;
+            }
+        }
+
+        long size = partFile.length();
+        String md5 = md5Hex(partFile);
+        if (size != manifest.getFileSize() || !md5.equals(manifest.getMd5())) {
+            // download the whole file next time
+            if (!partFile.delete()) {
+                LOG.warn("failed to delete {}", partFile);
+            }
+            throw new IOException("Unexpected image." + version + ", expected size: " + manifest.getFileSize()
+                    + ", md5: " + manifest.getMd5() + ", actual size: " + size + ", md5: " + md5);
+        }
+        File imageFile = complete(filename, dir);
+        ImageManifest.cache(imageFile, manifest);
+        LOG.info("finished downloading image.{} from {}, size: {}, downloaded: {}, copied from local: {}",
+                version, hostPort, manifest.getFileSize(), downloadedBytes, copiedBytes);
+    }
+
+    // download the image from the file pointer of out to end, retry from the written bytes
+    private static void getRemoteRange(String imageUrl, long end, RandomAccessFile out, int timeout)
+            throws IOException {
+        int retries = 0;
+        while (true) {
+            long offset = out.getFilePointer();
+            String url = imageUrl + "&offset=" + offset + "&length=" + (end - offset);
+            if (Config.enable_image_transfer_compression) {
+                url += "&compress=" + DEFLATE;
+            }
+            HttpURLConnection conn = null;
+            try {
+                conn = (HttpURLConnection) new URL(url).openConnection();
+                conn.setConnectTimeout(timeout);
+                conn.setReadTimeout(timeout);
+                InputStream in = new BufferedInputStream(conn.getInputStream(), CHUNK_BYTES);
+                if (DEFLATE.equals(conn.getHeaderField(X_IMAGE_ENCODING))) {
+                    in = new InflaterInputStream(in);
+                }
+                // do not close out
+                IOUtils.copyBytes(ByteStreams.limit(in, end - offset), Channels.newOutputStream(out.getChannel()),
+                        CHUNK_BYTES, CHECKPOINT_LIMIT_BYTES, false);
+                in.close();
+                if (out.getFilePointer() != end) {
+                    throw new IOException("Unexpected end of " + url + ", downloaded to " + out.getFilePointer());
+                }
+                return;
+            } catch (IOException e) {
+                if (++retries > Config.image_transfer_max_retries) {
+                    throw e;
+                }
+                LOG.warn("failed to download {}, retry from offset {}", url, out.getFilePointer(), e);
+            } finally {
+                if (conn != null) {
+                    conn.disconnect();
+                }
+            }
+        }
+    }
+
+    private static void copyBytes(RandomAccessFile in, RandomAccessFile out, long length) throws IOException {
+        byte[] buf = new byte[CHUNK_BYTES];
+        while (length > 0) {
+            int n = in.read(buf, 0, (int) Math.min(buf.length, length));
+            if (n < 0) {
+                throw new IOException("Unexpected end of local image");
+            }
+            out.write(buf, 0, n);
+            length -= n;
+        }
+    }
+
+    private static String getRemoteString(String urlStr, int timeout) throws IOException {
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) new URL(urlStr).openConnection();
+            conn.setConnectTimeout(timeout);
+            conn.setReadTimeout(timeout);
+            try (InputStream in = conn.getInputStream()) {
+                return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+            }
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
+
+    private static String md5Hex(File file) throws IOException {
+        MessageDigest digest = ImageManifest.newMd5();
+        byte[] buf = new byte[CHUNK_BYTES];
+        try (InputStream in = new FileInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                digest.update(buf, 0, n);
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
 }
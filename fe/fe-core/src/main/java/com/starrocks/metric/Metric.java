@@ -52,6 +52,8 @@ public abstract class Metric<T> {
     protected MetricUnit unit;
     protected List<MetricLabel> labels = Lists.newArrayList();
     protected String description;
+    // labels in prometheus format, cached since the labels are rarely changed, reset when the labels are changed
+    private volatile String prometheusLabels;
 
     public Metric(String name, MetricType type, MetricUnit unit, String description) {
         this.name = name;
@@ -81,12 +83,41 @@ public abstract class Metric<T> {
             return this;
         }
         labels.add(label);
+        prometheusLabels = null;
         return this;
     }
 
+    public void setLabels(List<MetricLabel> labels) {
+        this.labels = Lists.newArrayList(labels);
+        prometheusLabels = null;
+    }
+
     public List<MetricLabel> getLabels() {
         return labels;
     }
 
+    /**
+     * Get the labels in prometheus format, such as {job="load", type="mini"}, empty if no label.
+     */
+    public String getPrometheusLabels() {
+        String result = prometheusLabels;
+        if (result == null) {
+            if (labels.isEmpty()) {
+                result = "";
+            } else {
+                StringBuilder sb = new StringBuilder("{");
+                for (int i = 0; i < labels.size(); i++) {
+                    if (i > 0) {
+                        sb.append(", ");
+                    }
+                    sb.append(labels.get(i).getKey()).append("=\"").append(labels.get(i).getValue()).append("\"");
+                }
+                result = sb.append("}").toString();
+            }
+            prometheusLabels = result;
+        }
+        return result;
+    }
+
     public abstract T getValue();
 }
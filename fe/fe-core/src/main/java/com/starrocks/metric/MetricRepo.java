@@ -21,6 +21,7 @@
 
 package com.starrocks.metric;
 
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableMap;
@@ -32,12 +33,14 @@ import com.starrocks.catalog.Table;
 import com.starrocks.catalog.TabletInvertedIndex;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
+import com.starrocks.common.PatternMatcher;
 import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.KafkaUtil;
 import com.starrocks.load.EtlJobType;
 import com.starrocks.load.loadv2.JobState;
 import com.starrocks.load.loadv2.LoadManager;
+import com.starrocks.load.routineload.KafkaOffsetTracker;
 import com.starrocks.load.routineload.KafkaProgress;
 import com.starrocks.load.routineload.KafkaRoutineLoadJob;
 import com.starrocks.load.routineload.RoutineLoadJob;
@@ -55,12 +58,16 @@ import com.starrocks.system.SystemInfoService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public final class MetricRepo {
@@ -69,6 +76,10 @@ public final class MetricRepo {
     private static final MetricRegistry METRIC_REGISTER = new MetricRegistry();
     private static final StarRocksMetricRegistry STARROCKS_METRIC_REGISTER = new StarRocksMetricRegistry();
 
+    private static final String HEARTBEAT_RTT_MS = "heartbeat_rtt_ms";
+    // node type and address -> the rtt histogram of the heartbeats of the node
+    private static final Map<String, LabeledHistogram> HEARTBEAT_RTT_HISTOGRAMS = new ConcurrentHashMap<>();
+
     public static volatile boolean isInit = false;
     public static final SystemMetrics SYSTEM_METRICS = new SystemMetrics();
 
@@ -81,6 +92,11 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_TIMEOUT;
     public static LongCounterMetric COUNTER_QUERY_SUCCESS;
     public static LongCounterMetric COUNTER_SLOW_QUERY;
+    public static LongCounterMetric COUNTER_AUDIT_EVENT_DROPPED;
+    public static LongCounterMetric COUNTER_BACKUP_UPLOAD_TABLETS;
+    public static LongCounterMetric COUNTER_BACKUP_SKIPPED_TABLETS;
+    public static LongCounterMetric COUNTER_BACKUP_UPLOAD_BYTES;
+    public static LongCounterMetric COUNTER_RESTORE_DOWNLOAD_TABLETS;
     public static LongCounterMetric COUNTER_LOAD_ADD;
     public static LongCounterMetric COUNTER_LOAD_FINISHED;
     public static LongCounterMetric COUNTER_EDIT_LOG_WRITE;
@@ -96,12 +112,27 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_RECEIVED_BYTES;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ERROR_ROWS;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
+    public static LongCounterMetric COUNTER_HIVE_FILE_LISTING_CACHE_HIT;
+    public static LongCounterMetric COUNTER_HIVE_FILE_LISTING_CACHE_MISS;
+    public static LongCounterMetric COUNTER_PREPARED_STMT_PREPARE;
+    public static LongCounterMetric COUNTER_PREPARED_STMT_EXECUTE;
+    public static LongCounterMetric COUNTER_PREPARED_STMT_REEXECUTE;
+    public static LongCounterMetric COUNTER_QUERY_RESULT_CACHE_HIT;
+    public static LongCounterMetric COUNTER_QUERY_RESULT_CACHE_MISS;
+    public static LongCounterMetric COUNTER_QUERY_RESULT_CACHE_HIT_BYTES;
 
     public static Histogram HISTO_QUERY_LATENCY;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
+    public static Histogram HISTO_EDIT_LOG_REPLAY_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_LATENCY;
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
     public static Histogram HISTO_JOURNAL_WRITE_BYTES;
+    public static Histogram HISTO_HIVE_FILE_LISTING_LATENCY;
+    public static Histogram HISTO_AUDIT_EVENT_QUEUE_LATENCY;
+    public static Histogram HISTO_FORWARD_RPC_LATENCY;
+    public static Histogram HISTO_FORWARD_REPLAY_WAIT_LATENCY;
+    public static Histogram HISTO_MYSQL_HANDSHAKE_LATENCY;
+    public static Histogram HISTO_MYSQL_TASK_QUEUE_LATENCY;
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
@@ -205,6 +236,20 @@ public final class MetricRepo {
         };
         STARROCKS_METRIC_REGISTER.addMetric(maxJournalId);
 
+        // the journals not replayed yet by the non-master frontend
+        GaugeMetric<Long> journalReplayLag = new GaugeMetric<Long>(
+                "journal_replay_lag", MetricUnit.NOUNIT, "number of journals not replayed yet of this frontend") {
+            @Override
+            public Long getValue() {
+                GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+                if (globalStateMgr.isMaster()) {
+                    return 0L;
+                }
+                return Math.max(0L, globalStateMgr.getMaxJournalId() - globalStateMgr.getReplayedJournalId());
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(journalReplayLag);
+
         // meta log total count
         GaugeMetric<Long> metaLogCount = new GaugeMetric<Long>(
                 "meta_log_count", MetricUnit.NOUNIT, "meta log total count") {
@@ -325,6 +370,39 @@ public final class MetricRepo {
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_SUCCESS);
         COUNTER_SLOW_QUERY = new LongCounterMetric("slow_query", MetricUnit.REQUESTS, "total slow query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SLOW_QUERY);
+        COUNTER_AUDIT_EVENT_DROPPED = new LongCounterMetric("audit_event_dropped", MetricUnit.REQUESTS,
+                "total audit events dropped because the audit event queue is full");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_AUDIT_EVENT_DROPPED);
+        COUNTER_PREPARED_STMT_PREPARE = new LongCounterMetric("prepared_statement_prepare", MetricUnit.REQUESTS,
+                "total statements prepared by COM_STMT_PREPARE");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PREPARED_STMT_PREPARE);
+        COUNTER_PREPARED_STMT_EXECUTE = new LongCounterMetric("prepared_statement_execute", MetricUnit.REQUESTS,
+                "total executions of the prepared statements");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PREPARED_STMT_EXECUTE);
+        COUNTER_PREPARED_STMT_REEXECUTE = new LongCounterMetric("prepared_statement_reexecute",
+                MetricUnit.REQUESTS, "total executions of the prepared statements which are executed before");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_PREPARED_STMT_REEXECUTE);
+        COUNTER_QUERY_RESULT_CACHE_HIT = new LongCounterMetric("query_result_cache_hit", MetricUnit.REQUESTS,
+                "total queries answered by the query result cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_RESULT_CACHE_HIT);
+        COUNTER_QUERY_RESULT_CACHE_MISS = new LongCounterMetric("query_result_cache_miss", MetricUnit.REQUESTS,
+                "total cacheable queries not found in the query result cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_RESULT_CACHE_MISS);
+        COUNTER_QUERY_RESULT_CACHE_HIT_BYTES = new LongCounterMetric("query_result_cache_hit_bytes", MetricUnit.BYTES,
+                "total bytes of the results sent from the query result cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_RESULT_CACHE_HIT_BYTES);
+        COUNTER_BACKUP_UPLOAD_TABLETS = new LongCounterMetric("backup_upload_tablets", MetricUnit.NOUNIT,
+                "total tablets uploaded by backup jobs");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_BACKUP_UPLOAD_TABLETS);
+        COUNTER_BACKUP_SKIPPED_TABLETS = new LongCounterMetric("backup_skipped_tablets", MetricUnit.NOUNIT,
+                "total tablets not uploaded by incremental backup jobs because they are not changed");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_BACKUP_SKIPPED_TABLETS);
+        COUNTER_BACKUP_UPLOAD_BYTES = new LongCounterMetric("backup_upload_bytes", MetricUnit.BYTES,
+                "total estimated bytes uploaded by backup jobs");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_BACKUP_UPLOAD_BYTES);
+        COUNTER_RESTORE_DOWNLOAD_TABLETS = new LongCounterMetric("restore_download_tablets", MetricUnit.NOUNIT,
+                "total tablets downloaded by restore jobs");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_RESTORE_DOWNLOAD_TABLETS);
         COUNTER_LOAD_ADD = new LongCounterMetric("load_add", MetricUnit.REQUESTS, "total load submit");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_ADD);
         COUNTER_ROUTINE_LOAD_PAUSED =
@@ -367,17 +445,37 @@ public final class MetricRepo {
         COUNTER_ROUTINE_LOAD_ERROR_ROWS = new LongCounterMetric("routine_load_error_rows", MetricUnit.ROWS,
                 "total error rows of routine load");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_ERROR_ROWS);
+        COUNTER_HIVE_FILE_LISTING_CACHE_HIT = new LongCounterMetric("hive_file_listing_cache_hit",
+                MetricUnit.REQUESTS, "total hive partition directory listings served by the file listing cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_HIVE_FILE_LISTING_CACHE_HIT);
+        COUNTER_HIVE_FILE_LISTING_CACHE_MISS = new LongCounterMetric("hive_file_listing_cache_miss",
+                MetricUnit.REQUESTS, "total hive partition directory listings from the file system");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_HIVE_FILE_LISTING_CACHE_MISS);
 
         // 3. histogram
         HISTO_QUERY_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("query", "latency", "ms"));
         HISTO_EDIT_LOG_WRITE_LATENCY =
                 METRIC_REGISTER.histogram(MetricRegistry.name("editlog", "write", "latency", "ms"));
+        HISTO_EDIT_LOG_REPLAY_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("editlog", "replay", "latency", "ms"));
         HISTO_JOURNAL_WRITE_LATENCY =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "latency", "ms"));
         HISTO_JOURNAL_WRITE_BATCH =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "batch"));
         HISTO_JOURNAL_WRITE_BYTES =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "bytes"));
+        HISTO_HIVE_FILE_LISTING_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("hive", "file_listing", "latency", "ms"));
+        HISTO_AUDIT_EVENT_QUEUE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("audit_event", "queue", "latency", "ms"));
+        HISTO_FORWARD_RPC_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("forward", "rpc", "latency", "ms"));
+        HISTO_FORWARD_REPLAY_WAIT_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("forward", "replay_wait", "latency", "ms"));
+        HISTO_MYSQL_HANDSHAKE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("mysql", "handshake", "latency", "ms"));
+        HISTO_MYSQL_TASK_QUEUE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("mysql", "task_queue", "latency", "ms"));
 
         // init system metrics
         initSystemMetrics();
@@ -485,8 +583,87 @@ public final class MetricRepo {
         } // end for backends
     }
 
+    // the rtt histogram of the heartbeats of a node, all the nodes share the metric heartbeat_rtt_ms,
+    // e.g. heartbeat_rtt_ms{type="backend", node="192.168.1.1:9050"}
+    public static Histogram getHeartbeatRttHistogram(String nodeType, String host, int port) {
+        return HEARTBEAT_RTT_HISTOGRAMS.computeIfAbsent(getHeartbeatRttKey(nodeType, host, port),
+                key -> new LabeledHistogram(Arrays.asList(new MetricLabel("type", nodeType),
+                        new MetricLabel("node", host + ":" + port)))).histogram;
+    }
+
+    public static void removeHeartbeatRttHistogram(String nodeType, String host, int port) {
+        HEARTBEAT_RTT_HISTOGRAMS.remove(getHeartbeatRttKey(nodeType, host, port));
+    }
+
+    private static String getHeartbeatRttKey(String nodeType, String host, int port) {
+        return nodeType + "_" + host + ":" + port;
+    }
+
+    private static class LabeledHistogram {
+        private final List<MetricLabel> labels;
+        private final Histogram histogram = new Histogram(new ExponentiallyDecayingReservoir());
+
+        private LabeledHistogram(List<MetricLabel> labels) {
+            this.labels = labels;
+        }
+    }
+
+    private static class MetricSnapshot {
+        private final long createTimeMs;
+        private final byte[] content;
+
+        private MetricSnapshot(long createTimeMs, byte[] content) {
+            this.createTimeMs = createTimeMs;
+            this.content = content;
+        }
+
+        private boolean isExpired(long nowMs) {
+            return nowMs - createTimeMs >= Config.metrics_snapshot_ttl_ms;
+        }
+    }
+
+    // snapshot key -> metrics rendered recently, to serve the concurrent scrapers
+    private static final Map<String, MetricSnapshot> METRIC_SNAPSHOTS = new ConcurrentHashMap<>();
+
+    /**
+     * Get the metrics rendered by the visitor in UTF-8. Rendering the metrics of many tables is expensive,
+     * so the result is shared by the requests with the same key in metrics_snapshot_ttl_ms, and only one
+     * request renders the metrics when the snapshot is expired.
+     */
+    public static byte[] getMetricSnapshot(String key, Supplier<MetricVisitor> visitorSupplier,
+                                           boolean collectTableMetrics, boolean minifyTableMetrics,
+                                           PatternMatcher dbMatcher, PatternMatcher tableMatcher) {
+        MetricSnapshot snapshot = METRIC_SNAPSHOTS.get(key);
+        if (snapshot != null && !snapshot.isExpired(System.currentTimeMillis())) {
+            return snapshot.content;
+        }
+        synchronized (MetricRepo.class) {
+            snapshot = METRIC_SNAPSHOTS.get(key);
+            if (snapshot != null && !snapshot.isExpired(System.currentTimeMillis())) {
+                return snapshot.content;
+            }
+            String metrics = getMetric(visitorSupplier.get(), collectTableMetrics, minifyTableMetrics,
+                    dbMatcher, tableMatcher);
+            long nowMs = System.currentTimeMillis();
+            snapshot = new MetricSnapshot(nowMs, metrics.getBytes(StandardCharsets.UTF_8));
+            METRIC_SNAPSHOTS.values().removeIf(s -> s.isExpired(nowMs));
+            if (Config.metrics_snapshot_ttl_ms > 0) {
+                METRIC_SNAPSHOTS.put(key, snapshot);
+            }
+            return snapshot.content;
+        }
+    }
+
+    public static String getMetric(MetricVisitor visitor, boolean collectTableMetrics, boolean minifyTableMetrics) {
+        return getMetric(visitor, collectTableMetrics, minifyTableMetrics, null, null);
+    }
+
+    /**
+     * Visit the metrics by the visitor, the table metrics are filtered by the db and table matchers if not null.
+     */
     public static synchronized String getMetric(MetricVisitor visitor, boolean collectTableMetrics,
-                                                boolean minifyTableMetrics) {
+                                                boolean minifyTableMetrics, PatternMatcher dbMatcher,
+                                                PatternMatcher tableMatcher) {
         if (!isInit) {
             return "";
         }
@@ -506,7 +683,7 @@ public final class MetricRepo {
 
         // table metrics
         if (collectTableMetrics) {
-            collectTableMetrics(visitor, minifyTableMetrics);
+            collectTableMetrics(visitor, minifyTableMetrics, dbMatcher, tableMatcher);
         }
 
         // histogram
@@ -514,6 +691,9 @@ public final class MetricRepo {
         for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
             visitor.visitHistogram(entry.getKey(), entry.getValue());
         }
+        for (LabeledHistogram histogram : HEARTBEAT_RTT_HISTOGRAMS.values()) {
+            visitor.visitHistogram(HEARTBEAT_RTT_MS, histogram.labels, histogram.histogram);
+        }
         ResourceGroupMetricMgr.visitQueryLatency();
 
         // collect routine load process metrics
@@ -532,33 +712,41 @@ public final class MetricRepo {
     }
 
     // collect table-level metrics
-    private static void collectTableMetrics(MetricVisitor visitor, boolean minifyTableMetrics) {
+    private static void collectTableMetrics(MetricVisitor visitor, boolean minifyTableMetrics,
+                                            PatternMatcher dbMatcher, PatternMatcher tableMatcher) {
         GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
         List<String> dbNames = globalStateMgr.getDbNames();
         for (String dbName : dbNames) {
+            String dbShortName = dbName.replace("default_cluster:", "");
+            if (dbMatcher != null && !dbMatcher.match(dbShortName)) {
+                continue;
+            }
             Database db = GlobalStateMgr.getCurrentState().getDb(dbName);
             if (null == db) {
                 continue;
             }
-            String dbShortName = dbName.replace("default_cluster:", "");
+            // visit the metrics out of the db lock, the metrics of a table are not protected by the db lock
+            List<Table> tables;
             db.readLock();
             try {
-                for (Table table : db.getTables()) {
-                    TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntity(table.getId());
-                    for (Metric m : entity.getMetrics()) {
-                        if (minifyTableMetrics && (null == m.getValue() ||
-                                (MetricType.COUNTER == m.type && ((Long) m.getValue()).longValue() == 0L))) {
-                            continue;
-                        }
-                        m.addLabel(new MetricLabel("db_name", dbShortName))
-                                .addLabel(new MetricLabel("tbl_name", table.getName()))
-                                .addLabel(new MetricLabel("tbl_id", String.valueOf(table.getId())));
-                        visitor.visit(m);
-                    }
-                }
+                tables = db.getTables();
             } finally {
                 db.readUnlock();
             }
+            for (Table table : tables) {
+                if (tableMatcher != null && !tableMatcher.match(table.getName())) {
+                    continue;
+                }
+                TableMetricsEntity entity = TableMetricsRegistry.getInstance().getMetricsEntity(table.getId());
+                entity.setTableLabels(dbShortName, table.getName(), table.getId());
+                for (Metric m : entity.getMetrics()) {
+                    if (minifyTableMetrics && (null == m.getValue() ||
+                            (MetricType.COUNTER == m.type && ((Long) m.getValue()).longValue() == 0L))) {
+                        continue;
+                    }
+                    visitor.visit(m);
+                }
+            }
         }
     }
 
@@ -575,6 +763,31 @@ public final class MetricRepo {
             return;
         }
 
+        // use the lag calculated from the offsets cached by the tracker, to avoid calling kafka api on every visit
+        KafkaOffsetTracker offsetTracker = GlobalStateMgr.getCurrentState().getKafkaOffsetTracker();
+        if (Config.enable_routine_load_kafka_offset_tracker && offsetTracker != null) {
+            for (RoutineLoadJob job : kafkaJobs) {
+                KafkaOffsetTracker.JobLag lag = offsetTracker.getJobLag(job.getId());
+                if (lag == null || lag.getMaxLag() < Config.min_routine_load_lag_for_metrics) {
+                    continue;
+                }
+                GaugeMetricImpl<Long> maxLagMetric =
+                        new GaugeMetricImpl<>("routine_load_max_lag_of_partition", MetricUnit.NOUNIT,
+                                "routine load kafka lag");
+                maxLagMetric.addLabel(new MetricLabel("job_name", job.getName()));
+                maxLagMetric.setValue(lag.getMaxLag());
+                visitor.visit(maxLagMetric);
+
+                GaugeMetricImpl<Long> totalLagMetric =
+                        new GaugeMetricImpl<>("routine_load_total_lag", MetricUnit.NOUNIT,
+                                "routine load kafka lag of all partitions");
+                totalLagMetric.addLabel(new MetricLabel("job_name", job.getName()));
+                totalLagMetric.setValue(lag.getTotalLag());
+                visitor.visit(totalLagMetric);
+            }
+            return;
+        }
+
         // get all partitions offset in a batch api
         List<PKafkaOffsetProxyRequest> requests = new ArrayList<>();
         for (RoutineLoadJob job : kafkaJobs) {
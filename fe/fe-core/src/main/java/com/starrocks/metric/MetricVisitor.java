@@ -24,6 +24,8 @@ package com.starrocks.metric;
 import com.codahale.metrics.Histogram;
 import com.starrocks.monitor.jvm.JvmStats;
 
+import java.util.List;
+
 /*
  * MetricVisitor will visit the metrics in metric repo and print them in StringBuilder
  */
@@ -41,6 +43,10 @@ public abstract class MetricVisitor {
 
     public abstract void visitHistogram(String name, Histogram histogram);
 
+    // visit one of the histograms which share the name and are distinguished by the labels
+    public void visitHistogram(String name, List<MetricLabel> labels, Histogram histogram) {
+    }
+
     public abstract void getNodeInfo();
 
     public abstract String build();
@@ -35,7 +35,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /*
  * Like this:
@@ -57,12 +56,16 @@ public class PrometheusMetricVisitor extends MetricVisitor {
     private static final String HELP = "# HELP ";
     private static final String TYPE = "# TYPE ";
 
+    // length of the last built output, to allocate the buffer of enough capacity at once,
+    // instead of growing the buffer by copying many times
+    private static volatile int lastBuildLength = 0;
+
     private StringBuilder sb;
     private Set<String> metricNames = new HashSet();
 
     public PrometheusMetricVisitor(String prefix) {
         super(prefix);
-        sb = new StringBuilder();
+        sb = new StringBuilder(lastBuildLength + lastBuildLength / 8);
     }
 
     @Override
@@ -167,15 +170,7 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         sb.append(fullName);
 
         // name
-        @SuppressWarnings("unchecked")
-        List<MetricLabel> labels = metric.getLabels();
-        if (!labels.isEmpty()) {
-            sb.append("{");
-            List<String> labelStrs = labels.stream().map(l -> l.getKey() + "=\"" + l.getValue()
-                    + "\"").collect(Collectors.toList());
-            sb.append(Joiner.on(", ").join(labelStrs));
-            sb.append("}");
-        }
+        sb.append(metric.getPrometheusLabels());
 
         // value
         sb.append(" ").append(metric.getValue().toString()).append("\n");
@@ -199,6 +194,37 @@ public class PrometheusMetricVisitor extends MetricVisitor {
         return;
     }
 
+    @Override
+    public void visitHistogram(String name, List<MetricLabel> labels, Histogram histogram) {
+        final String fullName = prefix + "_" + name;
+        if (!metricNames.contains(fullName)) {
+            sb.append(HELP).append(fullName).append(" ").append("\n");
+            sb.append(TYPE).append(fullName).append(" ").append("summary\n");
+            metricNames.add(fullName);
+        }
+
+        StringBuilder labelsBuilder = new StringBuilder();
+        for (MetricLabel label : labels) {
+            labelsBuilder.append(label.getKey()).append("=\"").append(label.getValue()).append("\", ");
+        }
+        final String labelStr = labelsBuilder.toString();
+        Snapshot snapshot = histogram.getSnapshot();
+        appendQuantile(fullName, labelStr, "0.75", snapshot.get75thPercentile());
+        appendQuantile(fullName, labelStr, "0.95", snapshot.get95thPercentile());
+        appendQuantile(fullName, labelStr, "0.98", snapshot.get98thPercentile());
+        appendQuantile(fullName, labelStr, "0.99", snapshot.get99thPercentile());
+        appendQuantile(fullName, labelStr, "0.999", snapshot.get999thPercentile());
+        String noQuantileLabelStr = "{" + labelStr.substring(0, Math.max(0, labelStr.length() - 2)) + "} ";
+        sb.append(fullName).append("_sum").append(noQuantileLabelStr)
+                .append(histogram.getCount() * snapshot.getMean()).append("\n");
+        sb.append(fullName).append("_count").append(noQuantileLabelStr).append(histogram.getCount()).append("\n");
+    }
+
+    private void appendQuantile(String fullName, String labelStr, String quantile, double value) {
+        sb.append(fullName).append("{").append(labelStr).append("quantile=\"").append(quantile).append("\"} ")
+                .append(value).append("\n");
+    }
+
     @Override
     public void getNodeInfo() {
         final String NODE_INFO = "node_info";
@@ -225,6 +251,7 @@ public class PrometheusMetricVisitor extends MetricVisitor {
 
     @Override
     public String build() {
+        lastBuildLength = sb.length();
         return sb.toString();
     }
 }
@@ -24,6 +24,9 @@ public final class TableMetricsEntity {
     private static final String TABLE_LOAD_FINISHED_COMMENT = "total loaded times of this table";
 
     private List<Metric> metrics;
+    // the db name and table name in the labels of the metrics
+    private String labeledDbName;
+    private String labeledTableName;
 
     public LongCounterMetric counterScanBytesTotal;
     public LongCounterMetric counterScanRowsTotal;
@@ -57,6 +60,22 @@ public final class TableMetricsEntity {
         return metrics;
     }
 
+    /**
+     * Set the labels of the metrics to the table, only if the table is changed, such as renamed.
+     */
+    public synchronized void setTableLabels(String dbName, String tableName, long tableId) {
+        if (dbName.equals(labeledDbName) && tableName.equals(labeledTableName)) {
+            return;
+        }
+        List<MetricLabel> labels = Lists.newArrayList(new MetricLabel("db_name", dbName),
+                new MetricLabel("tbl_name", tableName), new MetricLabel("tbl_id", String.valueOf(tableId)));
+        for (Metric metric : metrics) {
+            metric.setLabels(labels);
+        }
+        labeledDbName = dbName;
+        labeledTableName = tableName;
+    }
+
     protected void initTableMetrics() {
         metrics = Lists.newArrayList();
 
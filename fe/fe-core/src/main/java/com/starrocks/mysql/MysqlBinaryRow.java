@@ -0,0 +1,175 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Convert a row of the text protocol to the binary protocol, which is the result of COM_STMT_EXECUTE.
+ * https://dev.mysql.com/doc/internals/en/binary-protocol-resultset-row.html
+ * <p>
+ * The values of a text row are length encoded strings, the values of a binary row are encoded by the types of
+ * the columns sent in the column definitions, the numbers and the date times are in binary, the others are still
+ * length encoded strings.
+ */
+public class MysqlBinaryRow {
+    private static final int NULL_VALUE = 251;
+    // the first 2 bits of the null bitmap of a binary row are reserved
+    private static final int NULL_BITMAP_OFFSET = 2;
+
+    private MysqlBinaryRow() {
+    }
+
+    public static ByteBuffer encode(ByteBuffer textRow, List<MysqlColType> types) throws IOException {
+        ByteBuffer row = textRow.duplicate();
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        byte[] nullBitmap = new byte[(types.size() + 7 + NULL_BITMAP_OFFSET) / 8];
+        byte[][] values = new byte[types.size()][];
+        for (int i = 0; i < types.size(); i++) {
+            if (!row.hasRemaining()) {
+                throw new IOException("the number of values of the row is less than " + types.size());
+            }
+            if ((row.get(row.position()) & 0xFF) == NULL_VALUE) {
+                row.get();
+                int bit = i + NULL_BITMAP_OFFSET;
+                nullBitmap[bit / 8] |= (byte) (1 << (bit % 8));
+            } else {
+                values[i] = MysqlProto.readLenEncodedString(row);
+            }
+        }
+
+        // packet header
+        serializer.writeInt1(0x00);
+        serializer.writeBytes(nullBitmap);
+        for (int i = 0; i < types.size(); i++) {
+            if (values[i] != null) {
+                writeValue(serializer, types.get(i), new String(values[i], StandardCharsets.UTF_8), values[i]);
+            }
+        }
+        return serializer.toByteBuffer();
+    }
+
+    private static void writeValue(MysqlSerializer serializer, MysqlColType type, String text, byte[] bytes)
+            throws IOException {
+        try {
+            switch (type) {
+                case MYSQL_TYPE_TINY:
+                    serializer.writeInt1((int) parseLong(text));
+                    break;
+                case MYSQL_TYPE_SHORT:
+                case MYSQL_TYPE_YEAR:
+                    serializer.writeInt2((int) parseLong(text));
+                    break;
+                case MYSQL_TYPE_LONG:
+                case MYSQL_TYPE_INT24:
+                    serializer.writeInt4((int) parseLong(text));
+                    break;
+                case MYSQL_TYPE_LONGLONG:
+                    serializer.writeInt8(parseLong(text));
+                    break;
+                case MYSQL_TYPE_FLOAT:
+                    serializer.writeInt4(Float.floatToIntBits((float) parseDouble(text)));
+                    break;
+                case MYSQL_TYPE_DOUBLE:
+                    serializer.writeInt8(Double.doubleToLongBits(parseDouble(text)));
+                    break;
+                case MYSQL_TYPE_DATE:
+                case MYSQL_TYPE_DATETIME:
+                case MYSQL_TYPE_TIMESTAMP:
+                    writeDateTime(serializer, text);
+                    break;
+                case MYSQL_TYPE_TIME:
+                    writeTime(serializer, text);
+                    break;
+                default:
+                    serializer.writeVInt(bytes.length);
+                    serializer.writeBytes(bytes);
+                    break;
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("invalid value '" + text + "' of type " + type, e);
+        }
+    }
+
+    private static long parseLong(String text) {
+        if (text.length() < 19) {
+            return Long.parseLong(text);
+        }
+        // unsigned bigint is sent by its bits
+        return new BigInteger(text).longValue();
+    }
+
+    private static double parseDouble(String text) {
+        switch (text.toLowerCase()) {
+            case "inf":
+                return Double.POSITIVE_INFINITY;
+            case "-inf":
+                return Double.NEGATIVE_INFINITY;
+            case "nan":
+                return Double.NaN;
+            default:
+                return Double.parseDouble(text);
+        }
+    }
+
+    // yyyy-MM-dd[ HH:mm:ss[.ffffff]]
+    private static void writeDateTime(MysqlSerializer serializer, String text) {
+        int year = Integer.parseInt(text.substring(0, 4));
+        int month = Integer.parseInt(text.substring(5, 7));
+        int day = Integer.parseInt(text.substring(8, 10));
+        if (text.length() <= 10) {
+            serializer.writeInt1(4);
+            serializer.writeInt2(year);
+            serializer.writeInt1(month);
+            serializer.writeInt1(day);
+            return;
+        }
+        int hour = Integer.parseInt(text.substring(11, 13));
+        int minute = Integer.parseInt(text.substring(14, 16));
+        int second = Integer.parseInt(text.substring(17, 19));
+        int microsecond = text.length() > 20 ? parseMicrosecond(text.substring(20)) : 0;
+        serializer.writeInt1(microsecond == 0 ? 7 : 11);
+        serializer.writeInt2(year);
+        serializer.writeInt1(month);
+        serializer.writeInt1(day);
+        serializer.writeInt1(hour);
+        serializer.writeInt1(minute);
+        serializer.writeInt1(second);
+        if (microsecond != 0) {
+            serializer.writeInt4(microsecond);
+        }
+    }
+
+    // [-]HH:mm:ss[.ffffff], the hours may be more than 24
+    private static void writeTime(MysqlSerializer serializer, String text) {
+        boolean isNegative = text.startsWith("-");
+        String[] parts = (isNegative ? text.substring(1) : text).split(":");
+        int hours = Integer.parseInt(parts[0]);
+        int minutes = Integer.parseInt(parts[1]);
+        String[] secondParts = parts[2].split("\\.");
+        int seconds = Integer.parseInt(secondParts[0]);
+        int microsecond = secondParts.length > 1 ? parseMicrosecond(secondParts[1]) : 0;
+        serializer.writeInt1(microsecond == 0 ? 8 : 12);
+        serializer.writeInt1(isNegative ? 1 : 0);
+        serializer.writeInt4(hours / 24);
+        serializer.writeInt1(hours % 24);
+        serializer.writeInt1(minutes);
+        serializer.writeInt1(seconds);
+        if (microsecond != 0) {
+            serializer.writeInt4(microsecond);
+        }
+    }
+
+    private static int parseMicrosecond(String fraction) {
+        String digits = fraction.length() > 6 ? fraction.substring(0, 6) : fraction;
+        int value = Integer.parseInt(digits);
+        for (int i = digits.length(); i < 6; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,55 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql;
+
+import com.starrocks.common.Config;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of the byte buffers of the same size used by mysql channels.
+ * <p>
+ * A channel borrows its buffers when a command arrives and gives them back when the command is finished, so the
+ * idle connections hold no buffer. At most mysql_channel_buffer_pool_size buffers are kept in the pool, the
+ * others are left to the GC.
+ */
+public class MysqlBufferPool {
+    private final int bufferSize;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferNum = new AtomicInteger(0);
+
+    public MysqlBufferPool(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getBufferNum() {
+        return bufferNum.get();
+    }
+
+    public ByteBuffer borrow() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(bufferSize);
+        }
+        bufferNum.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    // the buffers of other sizes are not pooled
+    public void giveBack(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize
+                || bufferNum.get() >= Config.mysql_channel_buffer_pool_size) {
+            return;
+        }
+        bufferNum.incrementAndGet();
+        buffers.offer(buffer);
+    }
+}
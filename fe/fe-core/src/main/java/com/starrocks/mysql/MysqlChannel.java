@@ -41,6 +41,10 @@ public class MysqlChannel {
     // MySQL packet header length
     protected static final int PACKET_HEADER_LEN = 4;
     protected static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    protected static final int MIN_SEND_BUFFER_SIZE = 256 * 1024;
+    protected static final int MAX_SEND_BUFFER_SIZE = 2 * 1024 * 1024;
+    protected static final MysqlBufferPool PACKET_BUFFER_POOL = new MysqlBufferPool(DEFAULT_BUFFER_SIZE);
+    protected static final MysqlBufferPool SEND_BUFFER_POOL = new MysqlBufferPool(MIN_SEND_BUFFER_SIZE);
     // logger for this class
     protected static final Logger LOG = LogManager.getLogger(MysqlChannel.class);
     // next sequence id to receive or send
@@ -49,8 +53,8 @@ public class MysqlChannel {
     protected SocketChannel channel;
     // used to receive/send header, avoiding new this many time.
     protected ByteBuffer headerByteBuffer = ByteBuffer.allocate(PACKET_HEADER_LEN);
-    // default packet byte buffer for most packet
-    protected ByteBuffer defaultBuffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+    // default packet byte buffer for most packet, borrowed from PACKET_BUFFER_POOL
+    protected ByteBuffer defaultBuffer;
     protected ByteBuffer sendBuffer;
     // for log and show
     protected String remoteHostPortString;
@@ -141,6 +145,9 @@ public class MysqlChannel {
     // NOTE: all of the following code is assumed that the channel is in block mode.
     public ByteBuffer fetchOnePacket() throws IOException {
         int readLen;
+        if (defaultBuffer == null) {
+            defaultBuffer = PACKET_BUFFER_POOL.borrow();
+        }
         ByteBuffer result = defaultBuffer;
         result.clear();
 
@@ -219,9 +226,25 @@ public class MysqlChannel {
     public void initBuffer(int bufferSize) {
         if (this.sendBuffer == null) {
             // The buffer size shouldn't too large or shouldn't too small
-            bufferSize = Math.min(bufferSize, 2 * 1024 * 1024);
-            bufferSize = Math.max(bufferSize, 256 * 1024);
-            this.sendBuffer = ByteBuffer.allocate(bufferSize);
+            bufferSize = Math.min(bufferSize, MAX_SEND_BUFFER_SIZE);
+            bufferSize = Math.max(bufferSize, MIN_SEND_BUFFER_SIZE);
+            if (bufferSize == SEND_BUFFER_POOL.getBufferSize()) {
+                this.sendBuffer = SEND_BUFFER_POOL.borrow();
+            } else {
+                this.sendBuffer = ByteBuffer.allocate(bufferSize);
+            }
+        }
+    }
+
+    // give back the buffers to the pools when the command is finished, they are borrowed again by the next command
+    public void releaseBuffers() {
+        if (sendBuffer != null && sendBuffer.position() == 0) {
+            SEND_BUFFER_POOL.giveBack(sendBuffer);
+            sendBuffer = null;
+        }
+        if (defaultBuffer != null) {
+            PACKET_BUFFER_POOL.giveBack(defaultBuffer);
+            defaultBuffer = null;
         }
     }
 
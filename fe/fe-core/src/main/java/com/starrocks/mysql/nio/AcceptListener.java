@@ -20,6 +20,7 @@
 // under the License.
 package com.starrocks.mysql.nio;
 
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.mysql.MysqlProto;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.ConnectProcessor;
@@ -54,6 +55,7 @@ public class AcceptListener implements ChannelListener<AcceptingChannel<StreamCo
             LOG.info("Connection established. remote={}", connection.getPeerAddress());
             // connection has been established, so need to call context.cleanup()
             // if exception happens.
+            long acceptTime = System.currentTimeMillis();
             NConnectContext context = new NConnectContext(connection);
             context.setGlobalStateMgr(GlobalStateMgr.getCurrentState());
             connectScheduler.submit(context);
@@ -77,7 +79,12 @@ public class AcceptListener implements ChannelListener<AcceptingChannel<StreamCo
                             MysqlProto.sendResponsePacket(context);
                             throw new AfterConnectedException("Reach limit of connections");
                         }
+                        if (MetricRepo.isInit) {
+                            MetricRepo.HISTO_MYSQL_HANDSHAKE_LATENCY.update(System.currentTimeMillis() - acceptTime);
+                        }
                         context.setStartTime();
+                        // the connection holds no buffer until the first command arrives
+                        context.getMysqlChannel().releaseBuffers();
                         ConnectProcessor processor = new ConnectProcessor(context);
                         context.startAcceptQuery(processor);
                     } catch (AfterConnectedException e) {
@@ -33,6 +33,10 @@ import java.nio.ByteBuffer;
 public class NMysqlChannel extends MysqlChannel {
     protected static final Logger LOG = LogManager.getLogger(NMysqlChannel.class);
     private StreamConnection conn;
+    // the data of the next command read by the io thread in advance, it's in write mode when the io thread is
+    // reading it, and in read mode when the task thread is processing the command
+    private ByteBuffer readAheadBuffer;
+    private boolean isReadAheadFlipped = false;
 
     public NMysqlChannel(StreamConnection connection) {
         super();
@@ -50,7 +54,8 @@ public class NMysqlChannel extends MysqlChannel {
 
     /**
      * read packet until whole dstBuf is filled, unless block.
-     * Todo: find a better way to avoid block read here.
+     * The data read in advance by the io thread is read first, so a command never blocks here,
+     * only the handshake packets are read in block mode.
      *
      * @param dstBuf
      * @return
@@ -59,6 +64,14 @@ public class NMysqlChannel extends MysqlChannel {
     @Override
     protected int readAll(ByteBuffer dstBuf) throws IOException {
         int readLen = 0;
+        if (isReadAheadFlipped && readAheadBuffer.hasRemaining()) {
+            int len = Math.min(dstBuf.remaining(), readAheadBuffer.remaining());
+            ByteBuffer src = readAheadBuffer.duplicate();
+            src.limit(src.position() + len);
+            dstBuf.put(src);
+            readAheadBuffer.position(readAheadBuffer.position() + len);
+            readLen += len;
+        }
         while (dstBuf.remaining() != 0) {
             int ret = Channels.readBlocking(conn.getSourceChannel(), dstBuf);
             // return -1 when remote peer close the channel
@@ -88,6 +101,84 @@ public class NMysqlChannel extends MysqlChannel {
         isSend = true;
     }
 
+    /**
+     * Read the available data of the channel without blocking, called by the io thread when the channel is
+     * readable. Returns true if a whole command packet is read, or the channel is closed by the remote peer,
+     * then the command should be processed by a task thread.
+     */
+    public boolean readAhead() throws IOException {
+        if (readAheadBuffer == null) {
+            readAheadBuffer = PACKET_BUFFER_POOL.borrow();
+        }
+        while (commandPacketLength(readAheadBuffer) < 0) {
+            if (!readAheadBuffer.hasRemaining()) {
+                ByteBuffer newBuffer = ByteBuffer.allocate(readAheadBuffer.capacity() * 2);
+                readAheadBuffer.flip();
+                newBuffer.put(readAheadBuffer);
+                PACKET_BUFFER_POOL.giveBack(readAheadBuffer);
+                readAheadBuffer = newBuffer;
+            }
+            int ret = conn.getSourceChannel().read(readAheadBuffer);
+            if (ret == -1) {
+                // let the task thread find the channel is closed
+                break;
+            } else if (ret == 0) {
+                return false;
+            }
+        }
+        readAheadBuffer.flip();
+        isReadAheadFlipped = true;
+        return true;
+    }
+
+    /**
+     * Whether there is another whole command packet in the data read in advance, called by the task thread when
+     * a command is finished, e.g. the client sends the commands without waiting the results.
+     */
+    public boolean hasReadAheadCommand() {
+        if (!isReadAheadFlipped) {
+            return false;
+        }
+        readAheadBuffer.compact();
+        isReadAheadFlipped = false;
+        if (commandPacketLength(readAheadBuffer) < 0) {
+            return false;
+        }
+        readAheadBuffer.flip();
+        isReadAheadFlipped = true;
+        return true;
+    }
+
+    @Override
+    public void releaseBuffers() {
+        super.releaseBuffers();
+        if (readAheadBuffer != null && !isReadAheadFlipped && readAheadBuffer.position() == 0) {
+            PACKET_BUFFER_POOL.giveBack(readAheadBuffer);
+            readAheadBuffer = null;
+        }
+    }
+
+    /**
+     * Returns the length of the logical packet, including the headers of its physical packets, at the beginning
+     * of the data in [0, position) of the buffer, or -1 if the packet is incomplete.
+     */
+    static int commandPacketLength(ByteBuffer buffer) {
+        int offset = 0;
+        int end = buffer.position();
+        while (end - offset >= PACKET_HEADER_LEN) {
+            int packetLen = (buffer.get(offset) & 0xFF) | ((buffer.get(offset + 1) & 0xFF) << 8)
+                    | ((buffer.get(offset + 2) & 0xFF) << 16);
+            offset += PACKET_HEADER_LEN + packetLen;
+            if (offset > end) {
+                break;
+            }
+            if (packetLen != MAX_PHYSICAL_PACKET_LENGTH) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
     @Override
     public void close() {
         try {
@@ -20,6 +20,7 @@
 // under the License.
 package com.starrocks.mysql.nio;
 
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.ConnectProcessor;
 import org.apache.logging.log4j.LogManager;
@@ -28,6 +29,8 @@ import org.xnio.ChannelListener;
 import org.xnio.XnioIoThread;
 import org.xnio.conduits.ConduitStreamSourceChannel;
 
+import java.io.IOException;
+
 /**
  * listener for handle mysql cmd.
  */
@@ -43,16 +46,34 @@ public class ReadListener implements ChannelListener<ConduitStreamSourceChannel>
 
     @Override
     public void handleEvent(ConduitStreamSourceChannel channel) {
+        XnioIoThread.requireCurrentThread();
+        // read the command in the io thread, so that no task thread is blocked by a slow client
+        try {
+            if (!ctx.getMysqlChannel().readAhead()) {
+                return;
+            }
+        } catch (IOException e) {
+            LOG.warn("Exception happened when reading command of session(" + ctx + ").", e);
+            ctx.setKilled();
+            ctx.cleanup();
+            return;
+        }
         // suspend must be call sync in current thread (the IO-Thread notify the read event),
         // otherwise multi handler(task thread) would be waked up by once query.
-        XnioIoThread.requireCurrentThread();
         ctx.suspendAcceptQuery();
         // start async query handle in task thread.
+        long submitTime = System.currentTimeMillis();
         try {
             channel.getWorker().execute(() -> {
+                if (MetricRepo.isInit) {
+                    MetricRepo.HISTO_MYSQL_TASK_QUEUE_LATENCY.update(System.currentTimeMillis() - submitTime);
+                }
                 ctx.setThreadLocalInfo();
                 try {
-                    connectProcessor.processOnce();
+                    do {
+                        connectProcessor.processOnce();
+                    } while (!ctx.isKilled() && ctx.getMysqlChannel().hasReadAheadCommand());
+                    ctx.getMysqlChannel().releaseBuffers();
                     if (!ctx.isKilled()) {
                         ctx.resumeAcceptQuery();
                     } else {
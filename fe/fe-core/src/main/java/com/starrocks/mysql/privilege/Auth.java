@@ -75,6 +75,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class Auth implements Writable {
@@ -100,6 +102,10 @@ public class Auth implements Writable {
     private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private Class<?> authClazz = null;
 
+    // the privileges of the users for checking without lock, dropped when the privilege tables are changed
+    private final Map<UserIdentity, UserPrivCache> userPrivCaches = new ConcurrentHashMap<>();
+    private final AtomicLong privVersion = new AtomicLong(0);
+
     private void readLock() {
         lock.readLock().lock();
     }
@@ -113,9 +119,35 @@ public class Auth implements Writable {
     }
 
     private void writeUnlock() {
+        // all the changes of the privilege tables are made with write lock
+        invalidateUserPrivCaches();
         lock.writeLock().unlock();
     }
 
+    private void invalidateUserPrivCaches() {
+        privVersion.incrementAndGet();
+        userPrivCaches.clear();
+    }
+
+    private UserPrivCache getUserPrivCache(UserIdentity currentUser) {
+        UserPrivCache cache = userPrivCaches.get(currentUser);
+        if (cache != null && cache.getVersion() == privVersion.get()) {
+            return cache;
+        }
+        readLock();
+        try {
+            PrivBitSet globalPrivs = PrivBitSet.of();
+            userPrivTable.getPrivs(currentUser, globalPrivs);
+            // the version can't be changed with read lock
+            cache = new UserPrivCache(privVersion.get(), globalPrivs);
+        } finally {
+            readUnlock();
+        }
+        // a cache put after invalidation is ignored by the version check
+        userPrivCaches.put(currentUser, cache);
+        return cache;
+    }
+
     public enum PrivLevel {
         GLOBAL, DATABASE, TABLE, RESOURCE
     }
@@ -330,8 +362,8 @@ public class Auth implements Writable {
         if (!Config.enable_auth_check) {
             return true;
         }
-        PrivBitSet savedPrivs = PrivBitSet.of();
-        if (checkGlobalInternal(currentUser, wanted, savedPrivs)) {
+        PrivBitSet savedPrivs = getUserPrivCache(currentUser).getGlobalPrivs();
+        if (Privilege.satisfy(savedPrivs, wanted)) {
             return true;
         }
 
@@ -357,14 +389,15 @@ public class Auth implements Writable {
             return false;
         }
 
-        PrivBitSet savedPrivs = PrivBitSet.of();
-        if (checkGlobalInternal(currentUser, wanted, savedPrivs)
-                || checkDbInternal(currentUser, db, wanted, savedPrivs)) {
+        UserPrivCache cache = getUserPrivCache(currentUser);
+        PrivBitSet savedPrivs = getDbPrivs(currentUser, cache, db);
+        if (Privilege.satisfy(savedPrivs, wanted)) {
             return true;
         }
 
         // if user has any privs of table in this db, and the wanted priv is SHOW, return true
-        if (db != null && wanted == PrivPredicate.SHOW && checkTblWithDb(currentUser, db)) {
+        if (db != null && wanted == PrivPredicate.SHOW
+                && cache.hasTblPrivsOfDb(db, k -> checkTblWithDb(currentUser, k))) {
             return true;
         }
 
@@ -399,10 +432,15 @@ public class Auth implements Writable {
             return false;
         }
 
-        PrivBitSet savedPrivs = PrivBitSet.of();
-        if (checkGlobalInternal(currentUser, wanted, savedPrivs)
-                || checkDbInternal(currentUser, db, wanted, savedPrivs)
-                || checkTblInternal(currentUser, db, tbl, wanted, savedPrivs)) {
+        UserPrivCache cache = getUserPrivCache(currentUser);
+        PrivBitSet savedPrivs;
+        if (db == null || tbl == null) {
+            savedPrivs = getTblPrivsInternal(currentUser, getDbPrivs(currentUser, cache, db), db, tbl);
+        } else {
+            savedPrivs = cache.getTblPrivs(db, tbl,
+                    k -> getTblPrivsInternal(currentUser, getDbPrivs(currentUser, cache, db), db, k));
+        }
+        if (Privilege.satisfy(savedPrivs, wanted)) {
             return true;
         }
 
@@ -419,9 +457,15 @@ public class Auth implements Writable {
             return true;
         }
 
-        PrivBitSet savedPrivs = PrivBitSet.of();
-        if (checkGlobalInternal(currentUser, wanted, savedPrivs)
-                || checkResourceInternal(currentUser, resourceName, wanted, savedPrivs)) {
+        UserPrivCache cache = getUserPrivCache(currentUser);
+        PrivBitSet savedPrivs;
+        if (resourceName == null) {
+            savedPrivs = getResourcePrivsInternal(currentUser, cache.getGlobalPrivs(), null);
+        } else {
+            savedPrivs = cache.getResourcePrivs(resourceName,
+                    k -> getResourcePrivsInternal(currentUser, cache.getGlobalPrivs(), k));
+        }
+        if (Privilege.satisfy(savedPrivs, wanted)) {
             return true;
         }
 
@@ -502,59 +546,46 @@ public class Auth implements Writable {
         return false;
     }
 
-    private boolean checkGlobalInternal(UserIdentity currentUser, PrivPredicate wanted, PrivBitSet savedPrivs) {
-        readLock();
-        try {
-            userPrivTable.getPrivs(currentUser, savedPrivs);
-            if (Privilege.satisfy(savedPrivs, wanted)) {
-                return true;
-            }
-            return false;
-        } finally {
-            readUnlock();
+    // global and db privs
+    private PrivBitSet getDbPrivs(UserIdentity currentUser, UserPrivCache cache, String db) {
+        if (db == null) {
+            return getDbPrivsInternal(currentUser, cache.getGlobalPrivs(), null);
         }
+        return cache.getDbPrivs(db, k -> getDbPrivsInternal(currentUser, cache.getGlobalPrivs(), k));
     }
 
-    private boolean checkDbInternal(UserIdentity currentUser, String db, PrivPredicate wanted,
-                                    PrivBitSet savedPrivs) {
+    private PrivBitSet getDbPrivsInternal(UserIdentity currentUser, PrivBitSet globalPrivs, String db) {
+        PrivBitSet savedPrivs = globalPrivs.copy();
         readLock();
         try {
             dbPrivTable.getPrivs(currentUser, db, savedPrivs);
-            if (Privilege.satisfy(savedPrivs, wanted)) {
-                return true;
-            }
         } finally {
             readUnlock();
         }
-        return false;
+        return savedPrivs;
     }
 
-    private boolean checkTblInternal(UserIdentity currentUser, String db, String tbl,
-                                     PrivPredicate wanted, PrivBitSet savedPrivs) {
+    private PrivBitSet getTblPrivsInternal(UserIdentity currentUser, PrivBitSet dbPrivs, String db, String tbl) {
+        PrivBitSet savedPrivs = dbPrivs.copy();
         readLock();
         try {
             tablePrivTable.getPrivs(currentUser, db, tbl, savedPrivs);
-            if (Privilege.satisfy(savedPrivs, wanted)) {
-                return true;
-            }
-            return false;
         } finally {
             readUnlock();
         }
+        return savedPrivs;
     }
 
-    private boolean checkResourceInternal(UserIdentity currentUser, String resourceName,
-                                          PrivPredicate wanted, PrivBitSet savedPrivs) {
+    private PrivBitSet getResourcePrivsInternal(UserIdentity currentUser, PrivBitSet globalPrivs,
+                                                String resourceName) {
+        PrivBitSet savedPrivs = globalPrivs.copy();
         readLock();
         try {
             resourcePrivTable.getPrivs(currentUser, resourceName, savedPrivs);
-            if (Privilege.satisfy(savedPrivs, wanted)) {
-                return true;
-            }
-            return false;
         } finally {
             readUnlock();
         }
+        return savedPrivs;
     }
 
     // for test only
@@ -563,6 +594,7 @@ public class Auth implements Writable {
         dbPrivTable.clear();
         tablePrivTable.clear();
         resourcePrivTable.clear();
+        invalidateUserPrivCaches();
     }
 
     // create user
@@ -1712,6 +1744,7 @@ public class Auth implements Writable {
             resourcePrivTable = (ResourcePrivTable) PrivTable.read(in);
         }
         propertyMgr = UserPropertyMgr.read(in);
+        invalidateUserPrivCaches();
 
         if (userPrivTable.isEmpty()) {
             // init root and admin user
@@ -0,0 +1,88 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql.privilege;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * The privileges of a user, merged from the privilege tables and memorized by db and table.
+ * <p>
+ * The privileges granted by roles are already added to the entries of the users, and the privileges of the
+ * levels are monotonic, so the privileges of a table are the union of the global, db and table privileges, and
+ * a check on a table is a single lookup once it's memorized. The cache of a user is built lazily by Auth, and
+ * is dropped as a whole when the privilege tables are changed.
+ */
+class UserPrivCache {
+    // do not memorize more than this number of dbs or tables of a user, the others are computed every time
+    static final int MAX_ENTRY_NUM = 100000;
+
+    private final long version;
+    private final PrivBitSet globalPrivs;
+    // db -> global and db privs
+    private final Map<String, PrivBitSet> dbPrivs = new ConcurrentHashMap<>();
+    // db -> whether there are table privs in the db
+    private final Map<String, Boolean> dbHasTblPrivs = new ConcurrentHashMap<>();
+    // db -> tbl -> global, db and table privs
+    private final Map<String, Map<String, PrivBitSet>> tblPrivs = new ConcurrentHashMap<>();
+    // resource -> global and resource privs
+    private final Map<String, PrivBitSet> resourcePrivs = new ConcurrentHashMap<>();
+    private final AtomicInteger tblNum = new AtomicInteger(0);
+
+    UserPrivCache(long version, PrivBitSet globalPrivs) {
+        this.version = version;
+        this.globalPrivs = globalPrivs;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    PrivBitSet getGlobalPrivs() {
+        return globalPrivs;
+    }
+
+    PrivBitSet getDbPrivs(String db, Function<String, PrivBitSet> loader) {
+        return get(dbPrivs, db, loader);
+    }
+
+    boolean hasTblPrivsOfDb(String db, Function<String, Boolean> loader) {
+        return get(dbHasTblPrivs, db, loader);
+    }
+
+    PrivBitSet getTblPrivs(String db, String tbl, Function<String, PrivBitSet> loader) {
+        Map<String, PrivBitSet> privs = tblPrivs.get(db);
+        if (privs == null) {
+            if (tblPrivs.size() >= MAX_ENTRY_NUM) {
+                return loader.apply(tbl);
+            }
+            privs = tblPrivs.computeIfAbsent(db, k -> new ConcurrentHashMap<>());
+        }
+        PrivBitSet result = privs.get(tbl);
+        if (result == null) {
+            result = loader.apply(tbl);
+            if (tblNum.get() < MAX_ENTRY_NUM) {
+                privs.put(tbl, result);
+                tblNum.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    PrivBitSet getResourcePrivs(String resource, Function<String, PrivBitSet> loader) {
+        return get(resourcePrivs, resource, loader);
+    }
+
+    private static <T> T get(Map<String, T> map, String key, Function<String, T> loader) {
+        T result = map.get(key);
+        if (result == null) {
+            result = loader.apply(key);
+            if (map.size() < MAX_ENTRY_NUM) {
+                map.put(key, result);
+            }
+        }
+        return result;
+    }
+}
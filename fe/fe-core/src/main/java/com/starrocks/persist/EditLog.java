@@ -818,6 +818,11 @@ public class EditLog {
                     globalStateMgr.getAlterInstance().replaySwapTable(log);
                     break;
                 }
+                case OperationType.OP_MODIFY_TABLE_ADD_OR_DROP_COLUMNS: {
+                    TableAddOrDropColumnsInfo info = (TableAddOrDropColumnsInfo) journal.getData();
+                    globalStateMgr.getSchemaChangeHandler().replayModifyTableAddOrDropColumns(info);
+                    break;
+                }
                 case OperationType.OP_ADD_ANALYZER_JOB: {
                     AnalyzeJob analyzeJob = (AnalyzeJob) journal.getData();
                     globalStateMgr.getAnalyzeManager().replayAddAnalyzeJob(analyzeJob);
@@ -1440,6 +1445,10 @@ public class EditLog {
         logEdit(OperationType.OP_SWAP_TABLE, log);
     }
 
+    public void logModifyTableAddOrDropColumns(TableAddOrDropColumnsInfo info) {
+        logEdit(OperationType.OP_MODIFY_TABLE_ADD_OR_DROP_COLUMNS, info);
+    }
+
     public void logAddAnalyzeJob(AnalyzeJob job) {
         logEdit(OperationType.OP_ADD_ANALYZER_JOB, job);
     }
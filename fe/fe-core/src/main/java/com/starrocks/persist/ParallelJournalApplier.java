@@ -0,0 +1,96 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist;
+
+import com.google.common.base.Preconditions;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.meta.MetaContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.TransactionState;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Apply the journals of different databases concurrently when replaying.
+ * <p>
+ * The transaction state journals make up most of the journals during load bursts, and replaying one of them only
+ * touches its own database: the transaction manager and the partition versions of the database, and the load job
+ * registered as the callback of the transaction. They are applied by the lane of their database, which is a
+ * single thread executor, so the journals of a database are applied in the journal order. Any other journal is a
+ * barrier, it waits for all the submitted journals to finish and is applied by the caller thread.
+ * <p>
+ * Only used by the replayer of the serving GlobalStateMgr, the checkpoint GlobalStateMgr is got by the thread id
+ * of the checkpoint thread.
+ */
+public class ParallelJournalApplier {
+    private static final Logger LOG = LogManager.getLogger(ParallelJournalApplier.class);
+
+    // wait for the submitted journals if too many are not applied yet
+    private static final int MAX_PENDING_NUM = 4096;
+
+    private final ExecutorService[] lanes;
+    private final List<Future<?>> pending = new ArrayList<>();
+
+    public ParallelJournalApplier(int laneNum) {
+        Preconditions.checkArgument(laneNum > 0);
+        lanes = new ExecutorService[laneNum];
+        for (int i = 0; i < laneNum; i++) {
+            lanes[i] = ThreadPoolManager.newDaemonFixedThreadPool(1, MAX_PENDING_NUM, "journal-apply-" + i, false);
+        }
+    }
+
+    public static boolean canApplyConcurrently(JournalEntity journal) {
+        short opCode = journal.getOpCode();
+        return (opCode == OperationType.OP_UPSERT_TRANSACTION_STATE
+                || opCode == OperationType.OP_DELETE_TRANSACTION_STATE)
+                && journal.getData() instanceof TransactionState;
+    }
+
+    /**
+     * Apply the journal by the lane of its database, or by the caller thread after all the submitted journals
+     * are applied. Returns true if all the journals are applied, including this one.
+     */
+    public boolean apply(GlobalStateMgr globalStateMgr, JournalEntity journal) throws InterruptedException {
+        if (!canApplyConcurrently(journal)) {
+            waitAll();
+            EditLog.loadJournal(globalStateMgr, journal);
+            return true;
+        }
+        if (pending.size() >= MAX_PENDING_NUM) {
+            waitAll();
+        }
+        long dbId = ((TransactionState) journal.getData()).getDbId();
+        MetaContext metaContext = MetaContext.get();
+        ExecutorService lane = lanes[(int) Math.floorMod(dbId, (long) lanes.length)];
+        pending.add(lane.submit(() -> {
+            if (metaContext != null) {
+                metaContext.setThreadLocalInfo();
+            }
+            EditLog.loadJournal(globalStateMgr, journal);
+        }));
+        return false;
+    }
+
+    /**
+     * Wait for all the submitted journals to be applied.
+     */
+    public void waitAll() throws InterruptedException {
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // same as a failure of EditLog.loadJournal
+                LOG.error("failed to apply journal", e.getCause());
+                System.exit(-1);
+            }
+        }
+        pending.clear();
+    }
+}
@@ -0,0 +1,62 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist;
+
+import com.google.gson.annotations.SerializedName;
+import com.starrocks.catalog.Column;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.io.Writable;
+import com.starrocks.persist.gson.GsonUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The new schemas of the indexes changed by a metadata-only ADD/DROP COLUMN.
+ */
+public class TableAddOrDropColumnsInfo implements Writable {
+    @SerializedName(value = "dbId")
+    private final long dbId;
+    @SerializedName(value = "tableId")
+    private final long tableId;
+    @SerializedName(value = "indexIdToSchema")
+    private final Map<Long, List<Column>> indexIdToSchema;
+    @SerializedName(value = "indexIdToSchemaVersion")
+    private final Map<Long, Integer> indexIdToSchemaVersion;
+
+    public TableAddOrDropColumnsInfo(long dbId, long tableId, Map<Long, List<Column>> indexIdToSchema,
+                                     Map<Long, Integer> indexIdToSchemaVersion) {
+        this.dbId = dbId;
+        this.tableId = tableId;
+        this.indexIdToSchema = indexIdToSchema;
+        this.indexIdToSchemaVersion = indexIdToSchemaVersion;
+    }
+
+    public long getDbId() {
+        return dbId;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public Map<Long, List<Column>> getIndexIdToSchema() {
+        return indexIdToSchema;
+    }
+
+    public Map<Long, Integer> getIndexIdToSchemaVersion() {
+        return indexIdToSchemaVersion;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        Text.writeString(out, GsonUtils.GSON.toJson(this));
+    }
+
+    public static TableAddOrDropColumnsInfo read(DataInput in) throws IOException {
+        return GsonUtils.GSON.fromJson(Text.readString(in), TableAddOrDropColumnsInfo.class);
+    }
+}
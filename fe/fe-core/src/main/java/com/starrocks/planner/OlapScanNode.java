@@ -284,6 +284,12 @@ public class OlapScanNode extends ScanNode {
         long visibleVersion = partition.getVisibleVersion();
         String visibleVersionStr = String.valueOf(visibleVersion);
 
+        if (olapTable.isLakeTable() && Config.shard_location_cache_expire_second > 0) {
+            // get the replicas of all the shards from StarMgr by one request, and then each tablet hits the cache
+            GlobalStateMgr.getCurrentState().getStarOSAgent()
+                    .getShardReplicas(tablets.stream().map(Tablet::getId).collect(Collectors.toList()));
+        }
+
         for (Tablet tablet : tablets) {
             long tabletId = tablet.getId();
             LOG.debug("{} tabletId={}", (logNum++), tabletId);
@@ -93,6 +93,10 @@ public class AuditEvent {
     public double planCpuCosts = 0.0;
     @AuditField(value = "PlanMemCost")
     public double planMemCosts = 0.0;
+    @AuditField(value = "PlanMemoGroupExprs")
+    public long planMemoGroupExpressions = 0;
+    @AuditField(value = "PlanMemoBytes")
+    public long planMemoBytes = 0;
 
     public static class AuditEventBuilder {
 
@@ -218,6 +222,16 @@ public class AuditEvent {
             return this;
         }
 
+        public AuditEventBuilder setPlanMemoGroupExpressions(long groupExpressions) {
+            auditEvent.planMemoGroupExpressions = groupExpressions;
+            return this;
+        }
+
+        public AuditEventBuilder setPlanMemoBytes(long memoBytes) {
+            auditEvent.planMemoBytes = memoBytes;
+            return this;
+        }
+
         public AuditEvent build() {
             return this.auditEvent;
         }
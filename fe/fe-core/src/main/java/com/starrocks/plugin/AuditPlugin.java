@@ -17,6 +17,8 @@
 
 package com.starrocks.plugin;
 
+import java.util.List;
+
 /**
  * Audit plugin interface describe.
  */
@@ -32,4 +34,17 @@ public interface AuditPlugin {
      * Because it will be called after each query. So it must be efficient.
      */
     public void exec(AuditEvent event);
+
+    /**
+     * process a batch of events in the order they are audited.
+     * The plugins which write to files or remote systems should override this method
+     * to flush once per batch instead of once per event.
+     */
+    public default void exec(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            if (eventFilter(event.type)) {
+                exec(event);
+            }
+        }
+    }
 }
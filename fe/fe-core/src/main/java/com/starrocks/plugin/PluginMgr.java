@@ -34,6 +34,7 @@ import com.starrocks.common.io.Writable;
 import com.starrocks.common.util.PrintableMap;
 import com.starrocks.plugin.PluginInfo.PluginType;
 import com.starrocks.plugin.PluginLoader.PluginStatus;
+import com.starrocks.qe.AuditBinaryLogBuilder;
 import com.starrocks.qe.AuditLogBuilder;
 import com.starrocks.server.GlobalStateMgr;
 import org.apache.logging.log4j.LogManager;
@@ -107,6 +108,10 @@ public class PluginMgr implements Writable {
         if (!registerBuiltinPlugin(auditLogBuilder.getPluginInfo(), auditLogBuilder)) {
             LOG.warn("failed to register audit log builder");
         }
+        AuditBinaryLogBuilder auditBinaryLogBuilder = new AuditBinaryLogBuilder();
+        if (!registerBuiltinPlugin(auditBinaryLogBuilder.getPluginInfo(), auditBinaryLogBuilder)) {
+            LOG.warn("failed to register binary audit log builder");
+        }
 
         // other builtin plugins
     }
@@ -0,0 +1,236 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.io.DataOutputBuffer;
+import com.starrocks.common.io.Text;
+import com.starrocks.common.util.DigitalVersion;
+import com.starrocks.plugin.AuditEvent;
+import com.starrocks.plugin.AuditEvent.AuditField;
+import com.starrocks.plugin.AuditEvent.EventType;
+import com.starrocks.plugin.AuditPlugin;
+import com.starrocks.plugin.Plugin;
+import com.starrocks.plugin.PluginInfo;
+import com.starrocks.plugin.PluginInfo.PluginType;
+import com.starrocks.plugin.PluginMgr;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A builtin audit plugin, which appends the "AFTER_QUERY" audit events to the local binary file fe.audit.bin
+ * if enable_audit_binary_log is true. The binary records are much cheaper to write than the text audit log,
+ * and the file is flushed once per batch of events.
+ * <p>
+ * File format:
+ * header: magic(int), version(int), field num(int), [field name(string), field type(byte)] * field num
+ * record: record length(int), the values of the fields, long/double/boolean in binary and the others by
+ * Text.writeString
+ * <p>
+ * An existing file is rotated when opened, so each file starts with a header. When the file exceeds
+ * audit_binary_log_max_size_mb, fe.audit.bin.N is renamed to fe.audit.bin.N+1, fe.audit.bin to fe.audit.bin.1,
+ * and the files beyond audit_binary_log_roll_num are deleted.
+ */
+public class AuditBinaryLogBuilder extends Plugin implements AuditPlugin {
+    private static final Logger LOG = LogManager.getLogger(AuditBinaryLogBuilder.class);
+
+    public static final String FILE_NAME = "fe.audit.bin";
+    public static final int MAGIC = 0x53524144;
+    public static final int VERSION = 1;
+
+    public static final byte TYPE_LONG = 1;
+    public static final byte TYPE_DOUBLE = 2;
+    public static final byte TYPE_BOOLEAN = 3;
+    public static final byte TYPE_STRING = 4;
+
+    private static final List<Field> AUDIT_FIELDS = getAuditFields();
+
+    private final PluginInfo pluginInfo;
+    private final String dir;
+    private final DataOutputBuffer recordBuffer = new DataOutputBuffer(1024);
+
+    private DataOutputStream out;
+    private long fileSize = 0;
+
+    public AuditBinaryLogBuilder() {
+        this(Config.audit_log_dir);
+    }
+
+    @VisibleForTesting
+    AuditBinaryLogBuilder(String dir) {
+        this.dir = dir;
+        pluginInfo = new PluginInfo(PluginMgr.BUILTIN_PLUGIN_PREFIX + "AuditBinaryLogBuilder", PluginType.AUDIT,
+                "builtin binary audit logger", DigitalVersion.fromString("2.2.0"),
+                DigitalVersion.fromString("1.8.31"), AuditBinaryLogBuilder.class.getName(), null, null);
+    }
+
+    public PluginInfo getPluginInfo() {
+        return pluginInfo;
+    }
+
+    @Override
+    public boolean eventFilter(EventType type) {
+        return Config.enable_audit_binary_log && type == EventType.AFTER_QUERY;
+    }
+
+    @Override
+    public void exec(AuditEvent event) {
+        exec(Collections.singletonList(event));
+    }
+
+    @Override
+    public synchronized void exec(List<AuditEvent> events) {
+        if (!Config.enable_audit_binary_log) {
+            closeFile();
+            return;
+        }
+        try {
+            for (AuditEvent event : events) {
+                if (event.type != EventType.AFTER_QUERY) {
+                    continue;
+                }
+                if (out == null || fileSize >= Config.audit_binary_log_max_size_mb * 1024 * 1024) {
+                    openFile();
+                }
+                writeRecord(event);
+            }
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException | IllegalAccessException e) {
+            LOG.warn("failed to write binary audit log", e);
+            closeFile();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeFile();
+        super.close();
+    }
+
+    private void writeRecord(AuditEvent event) throws IOException, IllegalAccessException {
+        recordBuffer.reset();
+        for (Field f : AUDIT_FIELDS) {
+            Class<?> type = f.getType();
+            if (type == long.class) {
+                recordBuffer.writeLong(f.getLong(event));
+            } else if (type == double.class) {
+                recordBuffer.writeDouble(f.getDouble(event));
+            } else if (type == boolean.class) {
+                recordBuffer.writeBoolean(f.getBoolean(event));
+            } else {
+                Object value = f.get(event);
+                Text.writeString(recordBuffer, value == null ? "" : value.toString());
+            }
+        }
+        out.writeInt(recordBuffer.getLength());
+        out.write(recordBuffer.getData(), 0, recordBuffer.getLength());
+        fileSize += 4 + recordBuffer.getLength();
+    }
+
+    private void openFile() throws IOException {
+        closeFile();
+        File file = new File(dir, FILE_NAME);
+        if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+            throw new IOException("failed to create " + dir);
+        }
+        if (file.exists() && file.length() > 0) {
+            rotate();
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, false), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(AUDIT_FIELDS.size());
+        for (Field f : AUDIT_FIELDS) {
+            Text.writeString(out, f.getAnnotation(AuditField.class).value());
+            out.writeByte(getFieldType(f));
+        }
+        fileSize = out.size();
+    }
+
+    private void rotate() throws IOException {
+        int rollNum = Math.max(0, Config.audit_binary_log_roll_num);
+        File[] files = new File(dir).listFiles((d, name) -> name.startsWith(FILE_NAME + "."));
+        if (files != null) {
+            for (File f : files) {
+                if (getRollIndex(f) > rollNum - 1) {
+                    deleteFile(f);
+                }
+            }
+        }
+        for (int i = rollNum - 1; i >= 1; i--) {
+            File f = new File(dir, FILE_NAME + "." + i);
+            if (f.exists() && !f.renameTo(new File(dir, FILE_NAME + "." + (i + 1)))) {
+                throw new IOException("failed to rename " + f);
+            }
+        }
+        File file = new File(dir, FILE_NAME);
+        if (rollNum == 0) {
+            deleteFile(file);
+        } else if (!file.renameTo(new File(dir, FILE_NAME + ".1"))) {
+            throw new IOException("failed to rename " + file);
+        }
+    }
+
+    private static int getRollIndex(File file) {
+        try {
+            return Integer.parseInt(file.getName().substring(FILE_NAME.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteFile(File file) {
+        if (!file.delete()) {
+            LOG.warn("failed to delete binary audit log {}", file);
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOG.warn("failed to close binary audit log", e);
+        }
+        out = null;
+        fileSize = 0;
+    }
+
+    private static byte getFieldType(Field f) {
+        Class<?> type = f.getType();
+        if (type == long.class) {
+            return TYPE_LONG;
+        } else if (type == double.class) {
+            return TYPE_DOUBLE;
+        } else if (type == boolean.class) {
+            return TYPE_BOOLEAN;
+        } else {
+            return TYPE_STRING;
+        }
+    }
+
+    private static List<Field> getAuditFields() {
+        List<Field> auditFields = new ArrayList<>();
+        for (Field f : AuditEvent.class.getFields()) {
+            if (f.getAnnotation(AuditField.class) != null) {
+                auditFields.add(f);
+            }
+        }
+        return auditFields;
+    }
+}
@@ -17,7 +17,10 @@
 
 package com.starrocks.qe;
 
-import com.google.common.collect.Queues;
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.util.MpscRingBuffer;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.plugin.AuditEvent;
 import com.starrocks.plugin.AuditPlugin;
 import com.starrocks.plugin.Plugin;
@@ -26,30 +29,49 @@ import com.starrocks.plugin.PluginMgr;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Class for processing all audit events.
  * It will receive audit events and handle them to all AUDIT type plugins.
+ * <p>
+ * The events are put into a lock-free ring buffer by the query threads, and drained in batches by a single
+ * worker, which passes each batch to all the plugins. An event is dropped instead of blocking the query if
+ * the ring buffer is full, and counted by the metric audit_event_dropped.
  */
 public class AuditEventProcessor {
     private static final Logger LOG = LogManager.getLogger(AuditEventProcessor.class);
     private static final long UPDATE_PLUGIN_INTERVAL_MS = 60 * 1000; // 1min
+    private static final long IDLE_WAIT_NS = TimeUnit.MILLISECONDS.toNanos(10);
 
     private PluginMgr pluginMgr;
 
     private List<Plugin> auditPlugins;
     private long lastUpdateTime = 0;
 
-    private BlockingQueue<AuditEvent> eventQueue = Queues.newLinkedBlockingDeque(10000);
+    private final MpscRingBuffer<QueuedEvent> eventQueue;
+    private final AtomicLong droppedEvents = new AtomicLong();
     private Thread workerThread;
 
     private volatile boolean isStopped = false;
 
+    private static class QueuedEvent {
+        private final AuditEvent event;
+        private final long enqueueTimeNs;
+
+        private QueuedEvent(AuditEvent event) {
+            this.event = event;
+            this.enqueueTimeNs = System.nanoTime();
+        }
+    }
+
     public AuditEventProcessor(PluginMgr pluginMgr) {
         this.pluginMgr = pluginMgr;
+        this.eventQueue = new MpscRingBuffer<>(Math.max(1, Config.audit_event_queue_size));
     }
 
     public void start() {
@@ -70,18 +92,34 @@ public class AuditEventProcessor {
     }
 
     public void handleAuditEvent(AuditEvent auditEvent) {
-        try {
-            eventQueue.put(auditEvent);
-        } catch (InterruptedException e) {
-            LOG.debug("encounter exception when handle audit event, ignore", e);
+        if (!eventQueue.offer(new QueuedEvent(auditEvent))) {
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_AUDIT_EVENT_DROPPED.increase(1L);
+            }
+            // log the first dropped event of every 10000, to avoid flooding the log
+            if (droppedEvents.getAndIncrement() % 10000 == 0) {
+                LOG.warn("audit event queue is full, drop audit event of query {}, total dropped: {}",
+                        auditEvent.queryId, droppedEvents.get());
+            }
         }
     }
 
+    @VisibleForTesting
+    long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @VisibleForTesting
+    int getQueueSize() {
+        return eventQueue.size();
+    }
+
     public class Worker implements Runnable {
         @Override
         public void run() {
-            AuditEvent auditEvent;
-            while (!isStopped) {
+            List<QueuedEvent> queuedEvents = new ArrayList<>();
+            List<AuditEvent> events = new ArrayList<>();
+            while (!isStopped || !eventQueue.isEmpty()) {
                 // update audit plugin list every UPDATE_PLUGIN_INTERVAL_MS.
                 // because some of plugins may be installed or uninstalled at runtime.
                 if (auditPlugins == null || System.currentTimeMillis() - lastUpdateTime > UPDATE_PLUGIN_INTERVAL_MS) {
@@ -90,24 +128,29 @@ public class AuditEventProcessor {
                     LOG.debug("update audit plugins. num: {}", auditPlugins.size());
                 }
 
-                try {
-                    auditEvent = eventQueue.poll(5, TimeUnit.SECONDS);
-                    if (auditEvent == null) {
-                        continue;
-                    }
-                } catch (InterruptedException e) {
-                    LOG.debug("encounter exception when getting audit event from queue, ignore", e);
+                queuedEvents.clear();
+                events.clear();
+                if (eventQueue.drainTo(queuedEvents, Math.max(1, Config.audit_event_batch_size)) == 0) {
+                    LockSupport.parkNanos(IDLE_WAIT_NS);
                     continue;
                 }
 
-                try {
-                    for (Plugin plugin : auditPlugins) {
-                        if (((AuditPlugin) plugin).eventFilter(auditEvent.type)) {
-                            ((AuditPlugin) plugin).exec(auditEvent);
-                        }
+                long now = System.nanoTime();
+                for (QueuedEvent queuedEvent : queuedEvents) {
+                    events.add(queuedEvent.event);
+                }
+                if (MetricRepo.isInit) {
+                    // the latency of the oldest event in the batch
+                    MetricRepo.HISTO_AUDIT_EVENT_QUEUE_LATENCY.update(
+                            TimeUnit.NANOSECONDS.toMillis(now - queuedEvents.get(0).enqueueTimeNs));
+                }
+
+                for (Plugin plugin : auditPlugins) {
+                    try {
+                        ((AuditPlugin) plugin).exec(events);
+                    } catch (Exception e) {
+                        LOG.debug("encounter exception when processing audit event.", e);
                     }
-                } catch (Exception e) {
-                    LOG.debug("encounter exception when processing audit event.", e);
                 }
             }
         }
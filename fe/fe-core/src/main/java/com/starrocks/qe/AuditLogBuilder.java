@@ -36,12 +36,19 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 // A builtin Audit plugin, registered when FE start.
 // it will receive "AFTER_QUERY" AuditEventy and print it as a log in fe.audit.log
 public class AuditLogBuilder extends Plugin implements AuditPlugin {
     private static final Logger LOG = LogManager.getLogger(AuditLogBuilder.class);
 
+    private static final Field[] AUDIT_FIELDS = getAuditFields();
+    private static final String[] AUDIT_FIELD_NAMES = Arrays.stream(AUDIT_FIELDS)
+            .map(f -> f.getAnnotation(AuditField.class).value()).toArray(String[]::new);
+
     private PluginInfo pluginInfo;
 
     public AuditLogBuilder() {
@@ -63,34 +70,54 @@ public class AuditLogBuilder extends Plugin implements AuditPlugin {
     public void exec(AuditEvent event) {
         try {
             StringBuilder sb = new StringBuilder();
-            long queryTime = 0;
-            // get each field with annotation "AuditField" in AuditEvent
-            // and assemble them into a string.
-            Field[] fields = event.getClass().getFields();
-            for (Field f : fields) {
-                AuditField af = f.getAnnotation(AuditField.class);
-                if (af == null) {
-                    continue;
-                }
-
-                if (af.value().equals("Timestamp")) {
-                    continue;
-                }
+            logAuditEvent(event, sb);
+        } catch (Exception e) {
+            LOG.debug("failed to process audit event", e);
+        }
+    }
 
-                if (af.value().equals("Time")) {
-                    queryTime = (long) f.get(event);
-                }
-                sb.append("|").append(af.value()).append("=").append(String.valueOf(f.get(event)));
+    @Override
+    public void exec(List<AuditEvent> events) {
+        StringBuilder sb = new StringBuilder();
+        for (AuditEvent event : events) {
+            if (!eventFilter(event.type)) {
+                continue;
             }
+            try {
+                sb.setLength(0);
+                logAuditEvent(event, sb);
+            } catch (Exception e) {
+                LOG.debug("failed to process audit event", e);
+            }
+        }
+    }
+
+    private void logAuditEvent(AuditEvent event, StringBuilder sb) throws IllegalAccessException {
+        // assemble the fields with annotation "AuditField" in AuditEvent into a string.
+        for (int i = 0; i < AUDIT_FIELDS.length; i++) {
+            sb.append("|").append(AUDIT_FIELD_NAMES[i]).append("=").append(String.valueOf(AUDIT_FIELDS[i].get(event)));
+        }
+
+        String auditLog = sb.toString();
+        AuditLog.getQueryAudit().log(auditLog);
+        // slow query
+        if (event.queryTime > Config.qe_slow_log_ms) {
+            AuditLog.getSlowAudit().log(auditLog);
+        }
+    }
 
-            String auditLog = sb.toString();
-            AuditLog.getQueryAudit().log(auditLog);
-            // slow query
-            if (queryTime > Config.qe_slow_log_ms) {
-                AuditLog.getSlowAudit().log(auditLog);
+    /**
+     * The fields with annotation "AuditField" in AuditEvent except Timestamp, in declared order.
+     * Looking up the annotations of all the fields for each event is costly.
+     */
+    private static Field[] getAuditFields() {
+        List<Field> auditFields = new ArrayList<>();
+        for (Field f : AuditEvent.class.getFields()) {
+            AuditField af = f.getAnnotation(AuditField.class);
+            if (af != null && !af.value().equals("Timestamp")) {
+                auditFields.add(f);
             }
-        } catch (Exception e) {
-            LOG.debug("failed to process audit event", e);
         }
+        return auditFields.toArray(new Field[0]);
     }
 }
@@ -22,6 +22,7 @@
 package com.starrocks.qe;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.starrocks.analysis.UserIdentity;
 import com.starrocks.catalog.InternalCatalog;
@@ -43,6 +44,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.nio.channels.SocketChannel;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -152,6 +154,10 @@ public class ConnectContext {
 
     protected WorkGroup workGroup;
 
+    // statement id -> the statements prepared by COM_STMT_PREPARE
+    protected Map<Integer, ServerPreparedStatement> preparedStatements = Maps.newHashMap();
+    protected int nextPreparedStatementId = 1;
+
     public static ConnectContext get() {
         return threadLocalInfo.get();
     }
@@ -272,6 +278,30 @@ public class ConnectContext {
         this.sessionVariable = VariableMgr.newSessionVariable();
     }
 
+    public int getNextPreparedStatementId() {
+        return nextPreparedStatementId++;
+    }
+
+    public void addPreparedStatement(ServerPreparedStatement statement) {
+        preparedStatements.put(statement.getId(), statement);
+    }
+
+    public ServerPreparedStatement getPreparedStatement(int id) {
+        return preparedStatements.get(id);
+    }
+
+    public ServerPreparedStatement removePreparedStatement(int id) {
+        return preparedStatements.remove(id);
+    }
+
+    public int getPreparedStatementNum() {
+        return preparedStatements.size();
+    }
+
+    public void clearPreparedStatements() {
+        preparedStatements.clear();
+    }
+
     public void setSessionVariable(SessionVariable sessionVariable) {
         this.sessionVariable = sessionVariable;
     }
@@ -23,12 +23,14 @@ package com.starrocks.qe;
 
 import com.google.common.base.Strings;
 import com.starrocks.analysis.KillStmt;
+import com.starrocks.analysis.LiteralExpr;
 import com.starrocks.analysis.QueryStmt;
 import com.starrocks.analysis.StatementBase;
 import com.starrocks.analysis.UserIdentity;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Type;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
@@ -41,6 +43,7 @@ import com.starrocks.metric.MetricRepo;
 import com.starrocks.metric.ResourceGroupMetricMgr;
 import com.starrocks.mysql.MysqlChannel;
 import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.mysql.MysqlEofPacket;
 import com.starrocks.mysql.MysqlPacket;
 import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.MysqlSerializer;
@@ -65,6 +68,7 @@ import java.nio.channels.AsynchronousCloseException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -131,6 +135,7 @@ public class ConnectProcessor {
         ctx.getSerializer().setCapability(ctx.getCapability());
         // reset session variable
         ctx.resetSessionVariable();
+        ctx.clearPreparedStatements();
     }
 
     public void auditAfterExec(String origStmt, StatementBase parsedStmt, PQueryStatistics statistics) {
@@ -230,17 +235,30 @@ public class ConnectProcessor {
         QueryDetailQueue.addAndRemoveTimeoutQueryDetail(queryDetail);
     }
 
-    // process COM_QUERY statement,
-    private void handleQuery() {
-        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
-        // convert statement to Java string
-        String originStmt = null;
+    // convert the statement after the command code to Java string
+    private String getStatementText() {
         byte[] bytes = packetBuf.array();
         int ending = packetBuf.limit() - 1;
         while (ending >= 1 && bytes[ending] == '\0') {
             ending--;
         }
-        originStmt = new String(bytes, 1, ending, StandardCharsets.UTF_8);
+        return new String(bytes, 1, ending, StandardCharsets.UTF_8);
+    }
+
+    // process COM_QUERY statement,
+    private void handleQuery() {
+        executeQuery(getStatementText());
+    }
+
+    private void executeQuery(String originStmt) {
+        executeQuery(originStmt, null, null);
+    }
+
+    // Execute the statements of the text, or the query of the prepared statement bound to the params,
+    // whose bound text is the originStmt.
+    private void executeQuery(String originStmt, ServerPreparedStatement preparedStatement,
+                              List<LiteralExpr> params) {
+        MetricRepo.COUNTER_REQUEST_ALL.increase(1L);
         ctx.getAuditEventBuilder().reset();
         ctx.getAuditEventBuilder()
                 .setTimestamp(System.currentTimeMillis())
@@ -254,10 +272,15 @@ public class ConnectProcessor {
         try {
             ctx.setQueryId(UUIDUtil.genUUID());
             List<StatementBase> stmts;
-            try {
-                stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt, ctx.getSessionVariable().getSqlMode());
-            } catch (ParsingException parsingException) {
-                throw new AnalysisException(parsingException.getMessage());
+            if (preparedStatement != null) {
+                stmts = Collections.singletonList(preparedStatement.bindQuery(ctx, params));
+            } else {
+                try {
+                    stmts = com.starrocks.sql.parser.SqlParser.parse(originStmt,
+                            ctx.getSessionVariable().getSqlMode());
+                } catch (ParsingException parsingException) {
+                    throw new AnalysisException(parsingException.getMessage());
+                }
             }
 
             for (int i = 0; i < stmts.size(); ++i) {
@@ -270,6 +293,7 @@ public class ConnectProcessor {
                 parsedStmt.setOrigStmt(new OriginStatement(originStmt, i));
 
                 executor = new StmtExecutor(ctx, parsedStmt);
+                executor.setPreparedStatement(preparedStatement);
                 ctx.setExecutor(executor);
 
                 ctx.setIsLastStmt(i == stmts.size() - 1);
@@ -324,6 +348,122 @@ public class ConnectProcessor {
         addFinishedQueryDetail();
     }
 
+    // COM_STMT_PREPARE: parse the statement and send the id and the number of parameters of it.
+    // The columns of the result are sent by COM_STMT_EXECUTE, so no column is sent here.
+    private void handleStmtPrepare() throws IOException {
+        String sql = getStatementText();
+        if (ctx.getPreparedStatementNum() >= Config.max_prepared_statements_per_connection) {
+            ctx.getState().setError("Can't create more than max_prepared_statements_per_connection statements ("
+                    + Config.max_prepared_statements_per_connection + ")");
+            return;
+        }
+        ServerPreparedStatement statement = new ServerPreparedStatement(ctx.getNextPreparedStatementId(), sql);
+        try {
+            statement.prepare(ctx.getSessionVariable().getSqlMode());
+        } catch (ParsingException e) {
+            ctx.getState().setError(e.getMessage());
+            return;
+        }
+        ctx.addPreparedStatement(statement);
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_PREPARED_STMT_PREPARE.increase(1L);
+        }
+
+        // COM_STMT_PREPARE_OK
+        MysqlSerializer serializer = ctx.getSerializer();
+        MysqlChannel channel = ctx.getMysqlChannel();
+        serializer.reset();
+        serializer.writeInt1(0x00);
+        serializer.writeInt4(statement.getId());
+        // number of columns
+        serializer.writeInt2(0);
+        serializer.writeInt2(statement.getParamNum());
+        // filler
+        serializer.writeInt1(0);
+        // number of warnings
+        serializer.writeInt2(0);
+        channel.sendOnePacket(serializer.toByteBuffer());
+        if (statement.getParamNum() > 0) {
+            for (int i = 0; i < statement.getParamNum(); i++) {
+                serializer.reset();
+                serializer.writeField("?", Type.VARCHAR);
+                channel.sendOnePacket(serializer.toByteBuffer());
+            }
+            serializer.reset();
+            new MysqlEofPacket(ctx.getState()).writeTo(serializer);
+            channel.sendOnePacket(serializer.toByteBuffer());
+        }
+        channel.flush();
+        ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+    }
+
+    // COM_STMT_EXECUTE: bind the parameters to the prepared statement and execute it,
+    // the result set is sent in the binary protocol. A query is executed without being parsed again,
+    // the bound text is only used by the audit log.
+    private void handleStmtExecute() {
+        int id = MysqlProto.readInt4(packetBuf);
+        ServerPreparedStatement statement = ctx.getPreparedStatement(id);
+        if (statement == null) {
+            ctx.getState().setError("Unknown prepared statement handler (" + id + ") given to COM_STMT_EXECUTE");
+            return;
+        }
+        // flags, cursor is not supported
+        MysqlProto.readInt1(packetBuf);
+        // iteration count, always 1
+        MysqlProto.readInt4(packetBuf);
+        List<LiteralExpr> params;
+        String sql;
+        try {
+            params = statement.readParams(packetBuf);
+            sql = statement.bind(params);
+        } catch (RuntimeException e) {
+            LOG.warn("read parameters of prepared statement {} failed", id, e);
+            ctx.getState().setError("Invalid parameters of prepared statement: " + e.getMessage());
+            return;
+        }
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_PREPARED_STMT_EXECUTE.increase(1L);
+            if (statement.getExecuteCount() > 0) {
+                MetricRepo.COUNTER_PREPARED_STMT_REEXECUTE.increase(1L);
+            }
+        }
+        statement.increaseExecuteCount();
+        if (statement.isQuery()) {
+            executeQuery(sql, statement, params);
+        } else {
+            executeQuery(sql);
+        }
+    }
+
+    // COM_STMT_SEND_LONG_DATA: append the data to a parameter, no response.
+    private void handleStmtSendLongData() {
+        int id = MysqlProto.readInt4(packetBuf);
+        int paramIndex = MysqlProto.readInt2(packetBuf);
+        ServerPreparedStatement statement = ctx.getPreparedStatement(id);
+        if (statement != null && paramIndex < statement.getParamNum()) {
+            statement.appendLongData(paramIndex, MysqlProto.readEofString(packetBuf));
+        }
+        ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+    }
+
+    // COM_STMT_CLOSE: remove the prepared statement, no response.
+    private void handleStmtClose() {
+        ctx.removePreparedStatement(MysqlProto.readInt4(packetBuf));
+        ctx.getState().setStateType(QueryState.MysqlStateType.NOOP);
+    }
+
+    // COM_STMT_RESET: clear the data sent by COM_STMT_SEND_LONG_DATA.
+    private void handleStmtReset() {
+        int id = MysqlProto.readInt4(packetBuf);
+        ServerPreparedStatement statement = ctx.getPreparedStatement(id);
+        if (statement == null) {
+            ctx.getState().setError("Unknown prepared statement handler (" + id + ") given to COM_STMT_RESET");
+            return;
+        }
+        statement.reset();
+        ctx.getState().setOk();
+    }
+
     // Get the column definitions of a table
     private void handleFieldList() throws IOException {
         // Already get command code.
@@ -407,6 +547,22 @@ public class ConnectProcessor {
             case COM_PING:
                 handlePing();
                 break;
+            case COM_STMT_PREPARE:
+                handleStmtPrepare();
+                break;
+            case COM_STMT_EXECUTE:
+                handleStmtExecute();
+                ctx.setStartTime();
+                break;
+            case COM_STMT_SEND_LONG_DATA:
+                handleStmtSendLongData();
+                break;
+            case COM_STMT_CLOSE:
+                handleStmtClose();
+                break;
+            case COM_STMT_RESET:
+                handleStmtReset();
+                break;
             default:
                 ctx.getState().setError("Unsupported command(" + command + ")");
                 LOG.warn("Unsupported command(" + command + ")");
@@ -477,8 +633,8 @@ public class ConnectProcessor {
         MysqlChannel channel = ctx.getMysqlChannel();
         channel.sendAndFlush(packet);
 
-        // only change lastQueryId when current command is COM_QUERY
-        if (ctx.getCommand() == MysqlCommand.COM_QUERY) {
+        // only change lastQueryId when current command is COM_QUERY or COM_STMT_EXECUTE
+        if (ctx.getCommand() == MysqlCommand.COM_QUERY || ctx.getCommand() == MysqlCommand.COM_STMT_EXECUTE) {
             ctx.setLastQueryId(ctx.queryId);
             ctx.setQueryId(null);
         }
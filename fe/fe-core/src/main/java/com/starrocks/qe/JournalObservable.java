@@ -17,12 +17,15 @@
 
 package com.starrocks.qe;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.TreeMultiset;
 import com.starrocks.common.DdlException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+
 public class JournalObservable {
     private static final Logger LOG = LogManager.getLogger(JournalObservable.class);
     private Multiset<JournalObserver> obs;
@@ -58,38 +61,27 @@ public class JournalObservable {
         }
     }
 
-    // return min pos which is bigger than value
-    public static int upperBound(Object[] array, int size, Long value) {
-        int left = 0;
-        int right = size - 1;
-        while (left < right) {
-            int middle = left + ((right - left) >> 1);
-            if (value >= ((JournalObserver) array[middle]).getTargetJournalVersion()) {
-                left = middle + 1;
-            } else {
-                right = middle - 1;
-            }
-        }
-        if (right == -1) {
-            return 0;
-        }
-        Long rightValue = ((JournalObserver) array[right]).getTargetJournalVersion();
-        return value >= rightValue ? right + 1 : right;
-    }
-
+    // notify the observers whose target journal version is not bigger than the replayed journal id, it's called
+    // for each replayed journal, so only the notified observers are visited
     public void notifyObservers(Long journalId) {
-        Object[] arrLocal;
-        int size;
+        List<JournalObserver> notified = null;
         synchronized (this) {
-            size = obs.size();
-            arrLocal = obs.toArray();
+            for (JournalObserver observer : obs.elementSet()) {
+                if (observer.getTargetJournalVersion() > journalId) {
+                    break;
+                }
+                if (notified == null) {
+                    notified = Lists.newArrayList();
+                }
+                notified.add(observer);
+            }
         }
+        if (notified == null) {
+            return;
+        }
+        LOG.debug("notify observers: journal: {}, num: {}", journalId, notified.size());
 
-        int pos = upperBound(arrLocal, size, journalId);
-        LOG.debug("notify observers: journal: {}, pos: {}, size: {}, obs: {}", journalId, pos, size, obs);
-
-        for (int i = 0; i < pos; i++) {
-            JournalObserver observer = ((JournalObserver) arrLocal[i]);
+        for (JournalObserver observer : notified) {
             observer.update();
         }
     }
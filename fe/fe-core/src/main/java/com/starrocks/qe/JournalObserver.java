@@ -55,43 +55,26 @@ public class JournalObserver implements Comparable<JournalObserver> {
 
     /*
      * We are waiting for this FE to replay journal to 'expectedJournalVersion' using JournalObserver.
-     * Each time a journal is replayed, JournalObserver will be notified and check if the replayed
-     * journal version >= 'expectedJournalVersion'. If satisfy, latch is counted down.
-     * But this is not a atomic operation, the replayed journal version may already larger than expected
-     * version before waiting the latch.
-     * So, we wait for the latch with a small timeout in a loop until the total timeout, to avoid
-     * waiting unnecessary long time.
+     * The observer is added to JournalObservable before this method is called, and the replayed journal id is
+     * updated before the observers are notified, so either the replayed journal id checked here is already
+     * larger than the expected version, or the latch is counted down by the replay thread later, no need to
+     * check the replayed journal id periodically.
      */
     public void waitForReplay(int timeoutMs) throws DdlException {
-        long leftTimeoutMs = timeoutMs;
-        final long minIntervalMs = 1000;
+        // check if the replayed journal version is already larger than the expected version
+        long replayedJournalId = GlobalStateMgr.getCurrentState().getReplayedJournalId();
+        if (replayedJournalId >= targetJournalVersion || timeoutMs <= 0) {
+            LOG.debug("the replayed journal version {} already large than expected version: {}",
+                    replayedJournalId, targetJournalVersion);
+            return;
+        }
 
         try {
-            boolean ok = false;
-            do {
-                // check if the replayed journal version is already larger than the expected version
-                long replayedJournalId = GlobalStateMgr.getCurrentState().getReplayedJournalId();
-                if (replayedJournalId >= targetJournalVersion || timeoutMs <= 0) {
-                    LOG.debug("the replayed journal version {} already large than expected version: {}",
-                            replayedJournalId, targetJournalVersion);
-                    return;
-                }
-
-                // waiting for notification
-                ok = latch.await(minIntervalMs, TimeUnit.MILLISECONDS);
-                if (ok) {
-                    break;
-                }
-
-                // decrease the left timeout
-                leftTimeoutMs -= minIntervalMs;
-            } while (leftTimeoutMs > 0);
-
-            if (!ok) {
+            // waiting for notification
+            if (!latch.await(timeoutMs, TimeUnit.MILLISECONDS)) {
                 LOG.warn("timeout waiting result from master. timeout ms: {}", timeoutMs);
                 throw new DdlException("Execute timeout, the command may be succeed, you'd better retry");
             }
-
         } catch (InterruptedException e) {
             throw new DdlException("Interrupted exception happens, "
                     + "the command may be succeed, you'd better retry");
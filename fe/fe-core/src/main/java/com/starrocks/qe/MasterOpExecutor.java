@@ -27,6 +27,7 @@ import com.starrocks.analysis.StatementBase;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
 import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.qe.QueryState.MysqlStateType;
 import com.starrocks.rpc.FrontendServiceProxy;
 import com.starrocks.thrift.TMasterOpRequest;
@@ -70,9 +71,20 @@ public class MasterOpExecutor {
     }
 
     public void execute() throws Exception {
+        long startTime = System.currentTimeMillis();
         forward();
+        long forwardTime = System.currentTimeMillis();
         LOG.info("forwarding to master get result max journal id: {}", result.maxJournalId);
-        ctx.getGlobalStateMgr().getJournalObservable().waitOn(result.maxJournalId, waitTimeoutMs);
+        if (MetricRepo.isInit) {
+            MetricRepo.HISTO_FORWARD_RPC_LATENCY.update(forwardTime - startTime);
+        }
+        try {
+            ctx.getGlobalStateMgr().getJournalObservable().waitOn(result.maxJournalId, waitTimeoutMs);
+        } finally {
+            if (MetricRepo.isInit) {
+                MetricRepo.HISTO_FORWARD_REPLAY_WAIT_LATENCY.update(System.currentTimeMillis() - forwardTime);
+            }
+        }
 
         if (result.state != null) {
             MysqlStateType state = MysqlStateType.fromString(result.state);
@@ -21,21 +21,37 @@
 
 package com.starrocks.qe;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
 
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 // Queue of QueryDetail.
 // It's used to collect queries for monitor.
+//
+// The query details are kept in a fixed-capacity ring buffer in the order of event time, the entries in
+// [head, tail) are valid. Writers are serialized by the class lock, which is held for O(1) work per query.
+// Readers do not take the lock: they binary search the first entry after the given event time and copy
+// the entries till the tail, then check that the head has not passed the copied entries, which means
+// the slots may have been reused by new entries during the copy, and retry in that case.
 public class QueryDetailQueue {
-    private static final LinkedList<QueryDetail> totalQueries = new LinkedList<QueryDetail>();
-
     //starrocks-manager pull queries every 1 second
     //metrics calculate query latency every 15 second
     //do not set cacheTime lower than these time
     private static final long cacheTimeNS = 30000000000L;
+    private static final int MAX_READ_RETRIES = 3;
+
+    private static final int capacity = Math.max(1, Config.query_detail_queue_max_num);
+    private static final AtomicReferenceArray<QueryDetail> ring = new AtomicReferenceArray<>(capacity);
+    // estimated memory of the entries, only accessed by the writers
+    private static final long[] sizes = new long[capacity];
+    private static long totalBytes = 0;
+    // the sequence of the first valid entry and the next entry
+    private static volatile long head = 0;
+    private static volatile long tail = 0;
+
     private static long latestMS;
     private static long latestMSCnt;
 
@@ -43,30 +59,114 @@ public class QueryDetailQueue {
         //set event time here to guarantee order
         long now = getCurrentTimeNS();
         queryDetail.setEventTime(now);
-        totalQueries.add(queryDetail);
 
-        Iterator<QueryDetail> it = totalQueries.iterator();
+        if (tail - head >= capacity) {
+            removeHead();
+        }
+        int index = (int) (tail % capacity);
+        long size = estimateSize(queryDetail);
+        ring.set(index, queryDetail);
+        sizes[index] = size;
+        totalBytes += size;
+        // publish the entry
+        tail = tail + 1;
+
         long deleteTime = now - cacheTimeNS;
-        while (it.hasNext()) {
-            QueryDetail detail = it.next();
-            if (detail.getEventTime() < deleteTime) {
-                it.remove();
+        while (head < tail) {
+            QueryDetail detail = ring.get((int) (head % capacity));
+            // keep the latest entry even if it exceeds the max bytes
+            if (detail.getEventTime() < deleteTime
+                    || (totalBytes > Config.query_detail_queue_max_bytes && tail - head > 1)) {
+                removeHead();
             } else {
                 break;
             }
         }
     }
 
-    public static synchronized List<QueryDetail> getQueryDetailsAfterTime(long eventTime) {
-        List<QueryDetail> results = Lists.newArrayList();
-        for (QueryDetail queryDetail : totalQueries) {
-            if (queryDetail.getEventTime() > eventTime) {
-                results.add(queryDetail);
+    // must get lock before call
+    private static void removeHead() {
+        int index = (int) (head % capacity);
+        totalBytes -= sizes[index];
+        sizes[index] = 0;
+        // move the head before clearing the slot, so the readers of the slot find it invalid
+        head = head + 1;
+        ring.set(index, null);
+    }
+
+    public static List<QueryDetail> getQueryDetailsAfterTime(long eventTime) {
+        for (int i = 0; i < MAX_READ_RETRIES; i++) {
+            List<QueryDetail> results = tryGetQueryDetailsAfterTime(eventTime);
+            if (results != null) {
+                return results;
             }
         }
+        // the writers keep overrunning the reader, read under the lock
+        synchronized (QueryDetailQueue.class) {
+            return tryGetQueryDetailsAfterTime(eventTime);
+        }
+    }
+
+    // returns null if the entries to copy are removed during the copy
+    private static List<QueryDetail> tryGetQueryDetailsAfterTime(long eventTime) {
+        long start = head;
+        long end = tail;
+        // binary search the first entry whose event time is larger than eventTime
+        long low = start;
+        long high = end;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            QueryDetail detail = ring.get((int) (mid % capacity));
+            if (detail == null) {
+                return null;
+            }
+            if (detail.getEventTime() > eventTime) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        List<QueryDetail> results = Lists.newArrayListWithCapacity((int) (end - low));
+        for (long seq = low; seq < end; seq++) {
+            QueryDetail detail = ring.get((int) (seq % capacity));
+            if (detail == null) {
+                return null;
+            }
+            results.add(detail);
+        }
+        // the slots of the entries before the head may be reused by the new entries
+        if (head > low) {
+            return null;
+        }
         return results;
     }
 
+    private static long estimateSize(QueryDetail queryDetail) {
+        // the fixed fields and the object headers
+        long size = 200;
+        size += stringSize(queryDetail.getQueryId()) + stringSize(queryDetail.getRemoteIP())
+                + stringSize(queryDetail.getDatabase()) + stringSize(queryDetail.getSql())
+                + stringSize(queryDetail.getUser()) + stringSize(queryDetail.getErrorMessage())
+                + stringSize(queryDetail.getExplain()) + stringSize(queryDetail.getProfile())
+                + stringSize(queryDetail.getWorkGroupName());
+        return size;
+    }
+
+    private static long stringSize(String str) {
+        return str == null ? 0 : 40 + 2L * str.length();
+    }
+
+    @VisibleForTesting
+    static synchronized int size() {
+        return (int) (tail - head);
+    }
+
+    @VisibleForTesting
+    static synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
     //must get lock before call
     //NOTICE: this is not precise nano seconds, but good enough to make eventTime in order and unique
     private static long getCurrentTimeNS() {
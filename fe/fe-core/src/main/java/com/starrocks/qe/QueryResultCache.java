@@ -0,0 +1,276 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.FunctionCallExpr;
+import com.starrocks.analysis.InformationFunction;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.analysis.Subquery;
+import com.starrocks.catalog.Function;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.common.Config;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.planner.ScanNode;
+import com.starrocks.sql.ast.AstVisitor;
+import com.starrocks.sql.ast.CTERelation;
+import com.starrocks.sql.ast.JoinRelation;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.SetOperationRelation;
+import com.starrocks.sql.ast.SubqueryRelation;
+import com.starrocks.sql.ast.TableFunctionRelation;
+import com.starrocks.sql.ast.ValuesRelation;
+import com.starrocks.sql.ast.ViewRelation;
+import com.starrocks.thrift.TInternalScanRange;
+import com.starrocks.thrift.TScanRangeLocations;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The results of the queries on the olap tables, cached in the FE.
+ * <p>
+ * A result is cached by the text of the query, the definitions of the views it reads and the session settings which
+ * affect the result, and it's valid only if the versions of all the scanned tablets, which are fixed in the scan
+ * ranges when the query is planned, are the same as when it's cached. So a result is invalidated once a scanned
+ * partition is loaded or a view is altered, and it's removed when it's queried again. The queries calling the
+ * functions whose results depend on the time or the session, and the user defined functions, are not cached.
+ * The results are evicted in LRU order when their total size exceeds query_result_cache_max_size_mb.
+ */
+public class QueryResultCache {
+    public static final QueryResultCache INSTANCE = new QueryResultCache();
+
+    // the functions whose results depend on the time or the session rather than the data, besides the ones
+    // prefixed by current_, utc_ and localtime
+    private static final Set<String> NON_CACHEABLE_FUNCTIONS = ImmutableSet.<String>builder()
+            .addAll(FunctionSet.nonDeterministicFunctions)
+            .add(FunctionSet.NOW, FunctionSet.CURDATE, "curtime", "sysdate", "unix_timestamp", "uuid_numeric",
+                    "connection_id", "user", "session_user", "database", "schema", "last_query_id")
+            .build();
+
+    private static class Entry {
+        private final String versions;
+        private final List<ByteBuffer> rows;
+        private final long bytes;
+
+        private Entry(String versions, List<ByteBuffer> rows, long bytes) {
+            this.versions = versions;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+    }
+
+    // in access order, the eldest is evicted first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes = 0;
+
+    /**
+     * Return the key of the query, or null if the result of the query can't be cached.
+     * The sql is the text of this statement only, not the multi statements which contain it, and the stmt is the
+     * analyzed statement, whose functions and views, including the ones in the views, are checked.
+     */
+    public static String getKey(ConnectContext context, String sql, List<String> colNames, StatementBase stmt) {
+        if (!(stmt instanceof QueryStatement)) {
+            return null;
+        }
+        CacheableChecker checker = new CacheableChecker();
+        checker.visit(stmt);
+        if (!checker.cacheable) {
+            return null;
+        }
+        SessionVariable sessionVariable = context.getSessionVariable();
+        return context.getCurrentUserIdentity() + "\n" + context.getCurrentCatalog() + "." + context.getDatabase()
+                + "\n" + sessionVariable.getSqlMode() + "\n" + sessionVariable.getTimeZone()
+                + "\n" + sessionVariable.getSqlSelectLimit() + "\n" + colNames + "\n" + sql.trim()
+                + checker.viewDefinitions;
+    }
+
+    // Check whether the result of the analyzed query could be cached, and collect the definitions of the views,
+    // so that the result is not used once a view is altered.
+    private static class CacheableChecker extends AstVisitor<Void, Void> {
+        private boolean cacheable = true;
+        private final StringBuilder viewDefinitions = new StringBuilder();
+
+        @Override
+        public Void visitQueryStatement(QueryStatement node, Void context) {
+            return visit(node.getQueryRelation());
+        }
+
+        @Override
+        public Void visitSelect(SelectRelation node, Void context) {
+            if (node.hasWithClause()) {
+                node.getCteRelations().forEach(this::visit);
+            }
+            visit(node.getRelation());
+            checkExprs(node.getOutputExpression());
+            checkExpr(node.getPredicate());
+            checkExprs(node.getGroupBy());
+            checkExpr(node.getHaving());
+            checkExprs(node.getOrderByExpressions());
+            return null;
+        }
+
+        @Override
+        public Void visitSetOp(SetOperationRelation node, Void context) {
+            if (node.hasWithClause()) {
+                node.getCteRelations().forEach(this::visit);
+            }
+            node.getRelations().forEach(this::visit);
+            return null;
+        }
+
+        @Override
+        public Void visitJoin(JoinRelation node, Void context) {
+            visit(node.getLeft());
+            visit(node.getRight());
+            checkExpr(node.getOnPredicate());
+            return null;
+        }
+
+        @Override
+        public Void visitSubquery(SubqueryRelation node, Void context) {
+            return visit(node.getQueryStatement());
+        }
+
+        @Override
+        public Void visitCTE(CTERelation node, Void context) {
+            return visit(node.getCteQueryStatement());
+        }
+
+        @Override
+        public Void visitView(ViewRelation node, Void context) {
+            viewDefinitions.append('\n').append(node.getView().getId()).append(':')
+                    .append(node.getView().getInlineViewDef());
+            return visit(node.getQueryStatement());
+        }
+
+        @Override
+        public Void visitValues(ValuesRelation node, Void context) {
+            node.getRows().forEach(this::checkExprs);
+            return null;
+        }
+
+        @Override
+        public Void visitTableFunction(TableFunctionRelation node, Void context) {
+            checkExprs(node.getChildExpressions());
+            return null;
+        }
+
+        private void checkExprs(List<Expr> exprs) {
+            if (exprs != null) {
+                exprs.forEach(this::checkExpr);
+            }
+        }
+
+        private void checkExpr(Expr expr) {
+            if (expr == null || !cacheable) {
+                return;
+            }
+            List<Expr> calls = Lists.newArrayList();
+            expr.collectAll((Predicate<Expr>) e -> e instanceof FunctionCallExpr || e instanceof InformationFunction
+                    || e instanceof Subquery, calls);
+            for (Expr call : calls) {
+                if (call instanceof Subquery) {
+                    visit(((Subquery) call).getQueryStatement());
+                } else if (call instanceof InformationFunction || !isCacheable((FunctionCallExpr) call)) {
+                    cacheable = false;
+                }
+            }
+        }
+
+        private static boolean isCacheable(FunctionCallExpr call) {
+            Function fn = call.getFn();
+            // the user defined functions may not be deterministic
+            if (fn != null && fn.isUdf()) {
+                return false;
+            }
+            String name = call.getFnName().getFunction().toLowerCase();
+            return !NON_CACHEABLE_FUNCTIONS.contains(name) && !name.startsWith("current_") && !name.startsWith("utc_")
+                    && !name.startsWith("localtime");
+        }
+    }
+
+    /**
+     * Return the versions of the scanned tablets, or null if some table isn't an olap table.
+     * The versions are read from the scan ranges, which are built with the db lock held when the query is planned,
+     * so they are the versions of the data actually read by the query.
+     */
+    public static String getVersions(List<ScanNode> scanNodes) {
+        if (scanNodes.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (ScanNode scanNode : scanNodes) {
+            if (!(scanNode instanceof OlapScanNode)) {
+                return null;
+            }
+            sb.append(((OlapScanNode) scanNode).getOlapTable().getId()).append('[');
+            for (TScanRangeLocations locations : scanNode.getScanRangeLocations(0)) {
+                TInternalScanRange range = locations.getScan_range().getInternal_scan_range();
+                sb.append(range.getTablet_id()).append(':').append(range.getVersion()).append(',');
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Return the cached rows of the key if the versions of the scanned tablets are not changed.
+     */
+    public synchronized List<ByteBuffer> get(String key, String versions) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.versions.equals(versions)) {
+            // the data is changed
+            entries.remove(key);
+            totalBytes -= entry.bytes;
+            return null;
+        }
+        List<ByteBuffer> rows = new ArrayList<>(entry.rows.size());
+        for (ByteBuffer row : entry.rows) {
+            rows.add(row.duplicate());
+        }
+        return rows;
+    }
+
+    public synchronized void put(String key, String versions, List<ByteBuffer> rows, long bytes) {
+        long maxBytes = Config.query_result_cache_max_size_mb * 1024 * 1024;
+        if (bytes > Config.query_result_cache_max_entry_size_kb * 1024 || bytes > maxBytes) {
+            return;
+        }
+        Entry old = entries.put(key, new Entry(versions, rows, bytes));
+        if (old != null) {
+            totalBytes -= old.bytes;
+        }
+        totalBytes += bytes;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            totalBytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+        }
+    }
+
+    public synchronized int getEntryNum() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+}
@@ -0,0 +1,444 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.FloatLiteral;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.LargeIntLiteral;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.Parameter;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.analysis.StringLiteral;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.mysql.MysqlColType;
+import com.starrocks.mysql.MysqlProto;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.StatementPlanner;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.analyzer.AnalyzerUtils;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.parser.ParsingException;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.ExecPlan;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A statement prepared by COM_STMT_PREPARE of a connection.
+ * <p>
+ * The statement is parsed when it's prepared. A query is kept with its parameter markers parsed as the
+ * parameters. When it's executed by COM_STMT_EXECUTE, the parameters sent in the binary protocol are converted to
+ * literals and bound to the parameters, and the query is planned without being parsed again. It's analyzed by the
+ * first execution, and it's analyzed again only if the types of the parameters, the current database or the
+ * schemas of the tables are changed. The plan is not reused, because the partitions and the tablets are pruned
+ * by the values of the parameters.
+ * <p>
+ * The other statements are executed as texts, the parameters are bound to the markers of the text and the bound
+ * text is parsed by each execution.
+ */
+public class ServerPreparedStatement {
+    private static final int UNSIGNED_FLAG = 0x80;
+
+    // what the query is analyzed with, the analyzed query is planned directly only if none of them is changed
+    private static class AnalyzedState {
+        private final String catalog;
+        private final String db;
+        private final List<Type> paramTypes;
+        private final List<Database> databases = Lists.newArrayList();
+        private final List<OlapTable> tables = Lists.newArrayList();
+        private final List<List<Column>> schemas = Lists.newArrayList();
+
+        private AnalyzedState(ConnectContext context, List<Parameter> parameters) {
+            this.catalog = context.getCurrentCatalog();
+            this.db = context.getDatabase();
+            this.paramTypes = Lists.newArrayListWithCapacity(parameters.size());
+            for (Parameter parameter : parameters) {
+                paramTypes.add(parameter.getValue().getType());
+            }
+        }
+
+        // return null if the query reads the views or the external tables, which are not checked for the changes
+        private static AnalyzedState create(ConnectContext context, QueryStatement query, List<Parameter> parameters) {
+            AnalyzedState state = new AnalyzedState(context, parameters);
+            Map<String, Database> dbs = AnalyzerUtils.collectAllDatabase(context, query);
+            for (Table table : AnalyzerUtils.collectAllTableAndViewWithAlias(query).values()) {
+                if (!(table instanceof OlapTable)) {
+                    return null;
+                }
+                Database database = dbs.values().stream()
+                        .filter(d -> d != null && d.getTable(table.getId()) == table).findFirst().orElse(null);
+                if (database == null) {
+                    return null;
+                }
+                state.databases.add(database);
+                state.tables.add((OlapTable) table);
+                state.schemas.add(Lists.newArrayList(table.getFullSchema()));
+            }
+            return state;
+        }
+
+        private boolean isValid(ConnectContext context, List<LiteralExpr> params) {
+            if (!Objects.equals(catalog, context.getCurrentCatalog()) || !Objects.equals(db, context.getDatabase())) {
+                return false;
+            }
+            for (int i = 0; i < params.size(); i++) {
+                if (!params.get(i).getType().equals(paramTypes.get(i))) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < tables.size(); i++) {
+                Database database = databases.get(i);
+                OlapTable table = tables.get(i);
+                // the table is not dropped or replaced, and its schema is not changed
+                if (GlobalStateMgr.getCurrentState().getDb(database.getId()) != database
+                        || database.getTable(table.getId()) != table
+                        || !table.getFullSchema().equals(schemas.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final int id;
+    private final String sql;
+    // offsets of the '?' in the sql
+    private final List<Integer> paramMarkers;
+    // the query kept with its parameters, null if the statement isn't a query
+    private QueryStatement query;
+    private List<Parameter> parameters;
+    // the query has been analyzed, it's parsed again before being analyzed again, because the analyzer changes it
+    private boolean queryAnalyzed = false;
+    // null if the query isn't analyzed successfully or the analyzed query can't be reused
+    private AnalyzedState analyzedState;
+    // the types of the parameters, sent by the first execution, and the executions which rebind the parameters
+    private int[] paramTypes;
+    // param index -> the data sent by COM_STMT_SEND_LONG_DATA
+    private final Map<Integer, ByteArrayOutputStream> longData = Maps.newHashMap();
+    private long executeCount = 0;
+
+    public ServerPreparedStatement(int id, String sql) {
+        this.id = id;
+        this.sql = sql;
+        this.paramMarkers = findParamMarkers(sql);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int getParamNum() {
+        return paramMarkers.size();
+    }
+
+    public long getExecuteCount() {
+        return executeCount;
+    }
+
+    public void increaseExecuteCount() {
+        executeCount++;
+    }
+
+    /**
+     * Parse the statement when it's prepared, throw ParsingException if it's invalid or there are multiple
+     * statements.
+     */
+    public void prepare(long sqlMode) {
+        List<Parameter> params = Lists.newArrayList();
+        StatementBase statement;
+        try {
+            statement = SqlParser.parsePreparedStatement(sql, sqlMode, params);
+        } catch (ParsingException e) {
+            // the statements not supported by the new parser are validated the same as the executions parse them
+            List<StatementBase> statements = SqlParser.parse(
+                    bind(Collections.nCopies(getParamNum(), new NullLiteral())), sqlMode);
+            if (statements.size() != 1) {
+                throw new ParsingException("Only one statement can be prepared");
+            }
+            return;
+        }
+        if (statement instanceof QueryStatement && params.size() == paramMarkers.size()) {
+            query = (QueryStatement) statement;
+            parameters = params;
+        }
+    }
+
+    public boolean isQuery() {
+        return query != null;
+    }
+
+    /**
+     * Bind the parameters to the query and return it. The query is parsed again if it has been analyzed but
+     * the analyzed query can't be reused.
+     */
+    public QueryStatement bindQuery(ConnectContext context, List<LiteralExpr> params) {
+        if (queryAnalyzed && (analyzedState == null || !analyzedState.isValid(context, params))) {
+            List<Parameter> newParameters = Lists.newArrayList();
+            query = (QueryStatement) SqlParser.parsePreparedStatement(sql,
+                    context.getSessionVariable().getSqlMode(), newParameters);
+            parameters = newParameters;
+            queryAnalyzed = false;
+            analyzedState = null;
+        }
+        for (int i = 0; i < parameters.size(); i++) {
+            parameters.get(i).setValue(params.get(i));
+        }
+        return query;
+    }
+
+    /**
+     * Plan the query bound by bindQuery, it's analyzed if it's not analyzed yet.
+     */
+    public ExecPlan planQuery(ConnectContext context) throws AnalysisException {
+        if (!queryAnalyzed) {
+            queryAnalyzed = true;
+            Analyzer.analyze(query, context);
+            analyzedState = AnalyzedState.create(context, query, parameters);
+        }
+        return new StatementPlanner().planAnalyzed(query, context);
+    }
+
+    public void appendLongData(int paramIndex, byte[] data) {
+        longData.computeIfAbsent(paramIndex, k -> new ByteArrayOutputStream()).write(data, 0, data.length);
+    }
+
+    public void reset() {
+        longData.clear();
+    }
+
+    /**
+     * Bind the parameters to the markers of the text, e.g. NULL, 1, 'abc'.
+     */
+    public String bind(List<LiteralExpr> params) {
+        StringBuilder sb = new StringBuilder(sql.length() + params.size() * 8);
+        int start = 0;
+        for (int i = 0; i < paramMarkers.size(); i++) {
+            int marker = paramMarkers.get(i);
+            sb.append(sql, start, marker).append(toSql(params.get(i)));
+            start = marker + 1;
+        }
+        return sb.append(sql, start, sql.length()).toString();
+    }
+
+    /**
+     * Read the parameters of COM_STMT_EXECUTE after the iteration count, and convert them to literals.
+     * https://dev.mysql.com/doc/internals/en/com-stmt-execute.html
+     */
+    public List<LiteralExpr> readParams(ByteBuffer packet) {
+        int paramNum = getParamNum();
+        List<LiteralExpr> params = Lists.newArrayListWithCapacity(paramNum);
+        if (paramNum == 0) {
+            return params;
+        }
+        byte[] nullBitmap = MysqlProto.readFixedString(packet, (paramNum + 7) / 8);
+        boolean newParamsBound = MysqlProto.readInt1(packet) == 1;
+        if (newParamsBound) {
+            paramTypes = new int[paramNum];
+            for (int i = 0; i < paramNum; i++) {
+                paramTypes[i] = MysqlProto.readInt2(packet);
+            }
+        } else if (paramTypes == null) {
+            throw new IllegalArgumentException("the types of the parameters are not sent");
+        }
+        for (int i = 0; i < paramNum; i++) {
+            if ((nullBitmap[i / 8] & (1 << (i % 8))) != 0) {
+                params.add(new NullLiteral());
+            } else if (longData.containsKey(i)) {
+                // the value is not in the packet if it's sent by COM_STMT_SEND_LONG_DATA
+                params.add(new StringLiteral(new String(longData.get(i).toByteArray(), StandardCharsets.UTF_8)));
+            } else {
+                params.add(readParam(packet, paramTypes[i]));
+            }
+        }
+        longData.clear();
+        return params;
+    }
+
+    private static LiteralExpr readParam(ByteBuffer packet, int type) {
+        boolean isUnsigned = (type & (UNSIGNED_FLAG << 8)) != 0;
+        int typeCode = type & 0xFF;
+        if (typeCode == MysqlColType.MYSQL_TYPE_TINY.getCode()) {
+            byte value = MysqlProto.readByte(packet);
+            return new IntLiteral(isUnsigned ? value & 0xFF : value);
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_SHORT.getCode()
+                || typeCode == MysqlColType.MYSQL_TYPE_YEAR.getCode()) {
+            int value = MysqlProto.readInt2(packet);
+            return new IntLiteral(isUnsigned ? value : (short) value);
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_LONG.getCode()
+                || typeCode == MysqlColType.MYSQL_TYPE_INT24.getCode()) {
+            int value = MysqlProto.readInt4(packet);
+            return new IntLiteral(isUnsigned ? Integer.toUnsignedLong(value) : value);
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_LONGLONG.getCode()) {
+            long value = MysqlProto.readInt8(packet);
+            if (isUnsigned && value < 0) {
+                try {
+                    return new LargeIntLiteral(Long.toUnsignedString(value));
+                } catch (AnalysisException e) {
+                    throw new IllegalArgumentException(e.getMessage());
+                }
+            }
+            return new IntLiteral(value);
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_FLOAT.getCode()) {
+            return toDoubleLiteral(Float.intBitsToFloat(MysqlProto.readInt4(packet)));
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_DOUBLE.getCode()) {
+            return toDoubleLiteral(Double.longBitsToDouble(MysqlProto.readInt8(packet)));
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_DATE.getCode()
+                || typeCode == MysqlColType.MYSQL_TYPE_DATETIME.getCode()
+                || typeCode == MysqlColType.MYSQL_TYPE_TIMESTAMP.getCode()) {
+            return new StringLiteral(readDateTime(packet));
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_TIME.getCode()) {
+            return new StringLiteral(readTime(packet));
+        } else if (typeCode == MysqlColType.MYSQL_TYPE_NULL.getCode()) {
+            return new NullLiteral();
+        } else {
+            // strings, decimals, blobs and the others are sent as length encoded strings
+            return new StringLiteral(new String(MysqlProto.readLenEncodedString(packet), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static LiteralExpr toDoubleLiteral(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return new StringLiteral(String.valueOf(value));
+        }
+        try {
+            return new FloatLiteral(value, Type.DOUBLE);
+        } catch (AnalysisException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private static String readDateTime(ByteBuffer packet) {
+        int length = MysqlProto.readInt1(packet);
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int microsecond = 0;
+        if (length >= 4) {
+            year = MysqlProto.readInt2(packet);
+            month = MysqlProto.readInt1(packet);
+            day = MysqlProto.readInt1(packet);
+        }
+        if (length >= 7) {
+            hour = MysqlProto.readInt1(packet);
+            minute = MysqlProto.readInt1(packet);
+            second = MysqlProto.readInt1(packet);
+        }
+        if (length >= 11) {
+            microsecond = MysqlProto.readInt4(packet);
+        }
+        if (length <= 4) {
+            return String.format("%04d-%02d-%02d", year, month, day);
+        }
+        if (microsecond == 0) {
+            return String.format("%04d-%02d-%02d %02d:%02d:%02d", year, month, day, hour, minute, second);
+        }
+        return String.format("%04d-%02d-%02d %02d:%02d:%02d.%06d", year, month, day, hour, minute, second,
+                microsecond);
+    }
+
+    private static String readTime(ByteBuffer packet) {
+        int length = MysqlProto.readInt1(packet);
+        if (length == 0) {
+            return "00:00:00";
+        }
+        boolean isNegative = MysqlProto.readInt1(packet) == 1;
+        long days = MysqlProto.readInt4(packet) & 0xFFFFFFFFL;
+        int hour = MysqlProto.readInt1(packet);
+        int minute = MysqlProto.readInt1(packet);
+        int second = MysqlProto.readInt1(packet);
+        int microsecond = length >= 12 ? MysqlProto.readInt4(packet) : 0;
+        String time = String.format("%s%02d:%02d:%02d", isNegative ? "-" : "", days * 24 + hour, minute, second);
+        if (microsecond != 0) {
+            time += String.format(".%06d", microsecond);
+        }
+        return time;
+    }
+
+    private static String toSql(LiteralExpr literal) {
+        if (literal instanceof NullLiteral) {
+            return "NULL";
+        } else if (literal instanceof StringLiteral) {
+            return toStringLiteral(literal.getStringValue());
+        } else if (literal instanceof FloatLiteral) {
+            return String.valueOf(literal.getDoubleValue());
+        } else {
+            return literal.getStringValue();
+        }
+    }
+
+    private static String toStringLiteral(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '\'') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append('\'').toString();
+    }
+
+    /**
+     * Find the '?' out of the quoted strings, quoted identifiers and comments, the same as the lexer.
+     */
+    static List<Integer> findParamMarkers(String sql) {
+        List<Integer> markers = Lists.newArrayList();
+        int pos = 0;
+        int length = sql.length();
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if (c == '\'' || c == '"' || c == '`') {
+                pos++;
+                while (pos < length) {
+                    char ch = sql.charAt(pos);
+                    if (ch == '\\' && c != '`') {
+                        pos += 2;
+                    } else if (ch == c) {
+                        if (pos + 1 < length && sql.charAt(pos + 1) == c) {
+                            pos += 2;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        pos++;
+                    }
+                }
+                pos++;
+            } else if (c == '-' && sql.startsWith("--", pos)) {
+                int end = sql.indexOf('\n', pos);
+                pos = end < 0 ? length : end + 1;
+            } else if (c == '/' && sql.startsWith("/*", pos)) {
+                int end = sql.indexOf("*/", pos + 2);
+                pos = end < 0 ? length : end + 2;
+            } else {
+                if (c == '?') {
+                    markers.add(pos);
+                }
+                pos++;
+            }
+        }
+        return markers;
+    }
+}
@@ -198,6 +198,11 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String CBO_ENABLE_DP_JOIN_REORDER = "cbo_enable_dp_join_reorder";
     public static final String CBO_MAX_REORDER_NODE_USE_DP = "cbo_max_reorder_node_use_dp";
     public static final String CBO_ENABLE_GREEDY_JOIN_REORDER = "cbo_enable_greedy_join_reorder";
+    public static final String CBO_ENABLE_DPHYP_JOIN_REORDER = "cbo_enable_dphyp_join_reorder";
+    public static final String CBO_MAX_REORDER_NODE_USE_DPHYP = "cbo_max_reorder_node_use_dphyp";
+    public static final String CBO_DPHYP_MAX_JOIN_PAIRS = "cbo_dphyp_max_join_pairs";
+    public static final String CBO_DPHYP_TIMEOUT_MS = "cbo_dphyp_timeout_ms";
+    public static final String CBO_MAX_MEMO_GROUP_EXPRESSIONS = "cbo_max_memo_group_expressions";
     public static final String CBO_ENABLE_REPLICATED_JOIN = "cbo_enable_replicated_join";
     public static final String CBO_USE_CORRELATED_JOIN_ESTIMATE = "cbo_use_correlated_join_estimate";
     public static final String CBO_ENABLE_LOW_CARDINALITY_OPTIMIZE = "cbo_enable_low_cardinality_optimize";
@@ -239,6 +244,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
 
     public static final String ENABLE_SHOW_ALL_VARIABLES = "enable_show_all_variables";
 
+    public static final String ENABLE_SHORT_CIRCUIT_POINT_QUERY = "enable_short_circuit_point_query";
+
+    public static final String ENABLE_QUERY_RESULT_CACHE = "enable_query_result_cache";
+
     public static final List<String> DEPRECATED_VARIABLES = ImmutableList.<String>builder()
             .add(CODEGEN_LEVEL)
             .add(ENABLE_SPILLING)
@@ -485,6 +494,25 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VariableMgr.VarAttr(name = CBO_ENABLE_GREEDY_JOIN_REORDER, flag = VariableMgr.INVISIBLE)
     private boolean cboEnableGreedyJoinReorder = true;
 
+    // DPhyp is used when the atoms of multi join exceed cbo_max_reorder_node_use_dp
+    @VariableMgr.VarAttr(name = CBO_ENABLE_DPHYP_JOIN_REORDER)
+    private boolean cboEnableDPHypJoinReorder = false;
+
+    @VariableMgr.VarAttr(name = CBO_MAX_REORDER_NODE_USE_DPHYP)
+    private long cboMaxReorderNodeUseDPHyp = 50;
+
+    // DPhyp falls back to linearized DP when it enumerates more join pairs or takes longer than below
+    @VariableMgr.VarAttr(name = CBO_DPHYP_MAX_JOIN_PAIRS)
+    private long cboDPHypMaxJoinPairs = 10000;
+
+    @VariableMgr.VarAttr(name = CBO_DPHYP_TIMEOUT_MS)
+    private long cboDPHypTimeoutMs = 1000;
+
+    // When the memo holds more group expressions than below, the optimizer stops exploring join orders
+    // and only implements the expressions already in the memo. Non-positive value means no limit.
+    @VariableMgr.VarAttr(name = CBO_MAX_MEMO_GROUP_EXPRESSIONS)
+    private long cboMaxMemoGroupExpressions = 200000;
+
     @VariableMgr.VarAttr(name = TRANSACTION_VISIBLE_WAIT_TIMEOUT)
     private long transactionVisibleWaitTimeout = 10;
 
@@ -562,6 +590,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VarAttr(name = ENABLE_SHOW_ALL_VARIABLES, flag = VariableMgr.INVISIBLE)
     private boolean enableShowAllVariables = false;
 
+    // plan the point queries on the primary key tables without the optimizer
+    @VarAttr(name = ENABLE_SHORT_CIRCUIT_POINT_QUERY)
+    private boolean enableShortCircuitPointQuery = true;
+
+    // cache the results of the queries on the olap tables in FE, see QueryResultCache
+    @VarAttr(name = ENABLE_QUERY_RESULT_CACHE)
+    private boolean enableQueryResultCache = false;
+
     @VarAttr(name = CBO_PRUNE_SHUFFLE_COLUMN_RATE, flag = VariableMgr.INVISIBLE)
     private double cboPruneShuffleColumnRate = 0.1;
 
@@ -798,6 +834,38 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return cboEnableGreedyJoinReorder;
     }
 
+    public boolean isCboEnableDPHypJoinReorder() {
+        return cboEnableDPHypJoinReorder;
+    }
+
+    public void setCboEnableDPHypJoinReorder(boolean cboEnableDPHypJoinReorder) {
+        this.cboEnableDPHypJoinReorder = cboEnableDPHypJoinReorder;
+    }
+
+    public long getCboMaxReorderNodeUseDPHyp() {
+        return cboMaxReorderNodeUseDPHyp;
+    }
+
+    public long getCboDPHypMaxJoinPairs() {
+        return cboDPHypMaxJoinPairs;
+    }
+
+    public void setCboDPHypMaxJoinPairs(long cboDPHypMaxJoinPairs) {
+        this.cboDPHypMaxJoinPairs = cboDPHypMaxJoinPairs;
+    }
+
+    public long getCboDPHypTimeoutMs() {
+        return cboDPHypTimeoutMs;
+    }
+
+    public long getCboMaxMemoGroupExpressions() {
+        return cboMaxMemoGroupExpressions;
+    }
+
+    public void setCboMaxMemoGroupExpressions(long cboMaxMemoGroupExpressions) {
+        this.cboMaxMemoGroupExpressions = cboMaxMemoGroupExpressions;
+    }
+
     public void disableGreedyJoinReorder() {
         this.cboEnableGreedyJoinReorder = false;
     }
@@ -1017,6 +1085,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return enableOptimizerTraceLog;
     }
 
+    public boolean isEnableShortCircuitPointQuery() {
+        return enableShortCircuitPointQuery;
+    }
+
+    public void setEnableShortCircuitPointQuery(boolean enableShortCircuitPointQuery) {
+        this.enableShortCircuitPointQuery = enableShortCircuitPointQuery;
+    }
+
+    public boolean isEnableQueryResultCache() {
+        return enableQueryResultCache;
+    }
+
+    public void setEnableQueryResultCache(boolean enableQueryResultCache) {
+        this.enableQueryResultCache = enableQueryResultCache;
+    }
+
     // Serialize to thrift object
     // used for rest api
     public TQueryOptions toThrift() {
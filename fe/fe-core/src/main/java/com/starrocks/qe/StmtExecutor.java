@@ -78,7 +78,10 @@ import com.starrocks.meta.SqlBlackList;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.metric.TableMetricsEntity;
 import com.starrocks.metric.TableMetricsRegistry;
+import com.starrocks.mysql.MysqlBinaryRow;
 import com.starrocks.mysql.MysqlChannel;
+import com.starrocks.mysql.MysqlColType;
+import com.starrocks.mysql.MysqlCommand;
 import com.starrocks.mysql.MysqlEofPacket;
 import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.mysql.privilege.PrivPredicate;
@@ -164,6 +167,10 @@ public class StmtExecutor {
     private final boolean isProxy;
     private ShowResultSet proxyResultSet = null;
     private PQueryStatistics statisticsForAuditLog;
+    // the types of the columns of the result set in the binary protocol, null for the text protocol
+    private List<MysqlColType> binaryColumnTypes = null;
+    // the prepared statement whose query is the parsedStmt, the query is planned by it
+    private ServerPreparedStatement preparedStatement = null;
 
     // this constructor is mainly for proxy
     public StmtExecutor(ConnectContext context, OriginStatement originStmt, boolean isProxy) {
@@ -187,6 +194,10 @@ public class StmtExecutor {
         this.isProxy = false;
     }
 
+    public void setPreparedStatement(ServerPreparedStatement preparedStatement) {
+        this.preparedStatement = preparedStatement;
+    }
+
     // At the end of query execution, we begin to add up profile
     public void initProfile(long beginTimeInNanoSecond) {
         profile = new RuntimeProfile("Query");
@@ -348,6 +359,8 @@ public class StmtExecutor {
                                 parsedStmt = selectStmt;
                                 execPlan = new StatementPlanner().plan(parsedStmt, context);
                             }
+                        } else if (preparedStatement != null) {
+                            execPlan = preparedStatement.planQuery(context);
                         } else {
                             execPlan = new StatementPlanner().plan(parsedStmt, context);
                         }
@@ -717,6 +730,29 @@ public class StmtExecutor {
             context.getQueryDetail().setExplain(explainString);
         }
 
+        boolean isOutfileQuery = false;
+        if (queryStmt instanceof QueryStmt) {
+            isOutfileQuery = ((QueryStmt) queryStmt).hasOutFileClause();
+        } else if (queryStmt instanceof QueryStatement) {
+            isOutfileQuery = ((QueryStatement) queryStmt).hasOutFileClause();
+        }
+
+        // send the result from the query result cache if the scanned partitions are not changed
+        String cacheKey = null;
+        String cacheVersions = null;
+        if (!isOutfileQuery && context.getSessionVariable().isEnableQueryResultCache()) {
+            cacheVersions = QueryResultCache.getVersions(scanNodes);
+            if (cacheVersions != null) {
+                // the origin statement may contain multi statements, only this one is the key
+                String sql = com.starrocks.sql.parser.SqlParser.getStatementText(originStmt.originStmt,
+                        originStmt.idx);
+                cacheKey = QueryResultCache.getKey(context, sql, colNames, parsedStmt);
+            }
+            if (cacheKey != null && sendCachedResult(cacheKey, cacheVersions, colNames, outputExprs)) {
+                return;
+            }
+        }
+
         coord = new Coordinator(context, fragments, scanNodes, descTable);
 
         QeProcessorImpl.INSTANCE.registerQuery(context.getExecutionId(),
@@ -734,13 +770,10 @@ public class StmtExecutor {
         // 2. If this is a query, send the result expr fields first, and send result data back to client.
         RowBatch batch;
         MysqlChannel channel = context.getMysqlChannel();
-        boolean isOutfileQuery = false;
-        if (queryStmt instanceof QueryStmt) {
-            isOutfileQuery = ((QueryStmt) queryStmt).hasOutFileClause();
-        } else if (queryStmt instanceof QueryStatement) {
-            isOutfileQuery = ((QueryStatement) queryStmt).hasOutFileClause();
-        }
         boolean isSendFields = false;
+        // the rows to be cached, null if the result is too large to cache
+        List<ByteBuffer> cachedRows = cacheKey == null ? null : Lists.newArrayList();
+        long cachedBytes = 0;
         while (true) {
             batch = coord.getNext();
             // for outfile query, there will be only one empty batch send back with eos flag
@@ -761,7 +794,18 @@ public class StmtExecutor {
                 }
 
                 for (ByteBuffer row : batch.getBatch().getRows()) {
-                    channel.sendOnePacket(row);
+                    if (cachedRows != null) {
+                        cachedBytes += row.remaining();
+                        if (cachedBytes > Config.query_result_cache_max_entry_size_kb * 1024) {
+                            cachedRows = null;
+                        } else {
+                            ByteBuffer cachedRow = ByteBuffer.allocate(row.remaining());
+                            cachedRow.put(row.duplicate());
+                            cachedRow.flip();
+                            cachedRows.add(cachedRow);
+                        }
+                    }
+                    sendRow(row);
                 }
                 context.updateReturnRows(batch.getBatch().getRows().size());
             }
@@ -776,6 +820,9 @@ public class StmtExecutor {
         statisticsForAuditLog = batch.getQueryStatistics();
         if (!isOutfileQuery) {
             context.getState().setEof();
+            if (cachedRows != null) {
+                QueryResultCache.INSTANCE.put(cacheKey, cacheVersions, cachedRows, cachedBytes);
+            }
         } else {
             context.getState().setOk(statisticsForAuditLog.returnedRows, 0, "");
         }
@@ -797,6 +844,31 @@ public class StmtExecutor {
         }
     }
 
+    // send the result from the query result cache, return false if it's not cached
+    private boolean sendCachedResult(String cacheKey, String cacheVersions, List<String> colNames,
+                                     List<Expr> outputExprs) throws IOException {
+        List<ByteBuffer> rows = QueryResultCache.INSTANCE.get(cacheKey, cacheVersions);
+        if (rows == null) {
+            if (MetricRepo.isInit) {
+                MetricRepo.COUNTER_QUERY_RESULT_CACHE_MISS.increase(1L);
+            }
+            return false;
+        }
+        sendFields(colNames, outputExprs);
+        long bytes = 0;
+        for (ByteBuffer row : rows) {
+            bytes += row.remaining();
+            sendRow(row);
+        }
+        context.updateReturnRows(rows.size());
+        context.getState().setEof();
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_QUERY_RESULT_CACHE_HIT.increase(1L);
+            MetricRepo.COUNTER_QUERY_RESULT_CACHE_HIT_BYTES.increase(bytes);
+        }
+        return true;
+    }
+
     private void handleAnalyzeStmt() {
         AnalyzeStmt analyzeStmt = (AnalyzeStmt) parsedStmt;
         Database db = MetaUtils.getDatabase(context, analyzeStmt.getTableName());
@@ -883,11 +955,15 @@ public class StmtExecutor {
         serializer.writeVInt(metaData.getColumnCount());
         context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
         // send field one by one
+        binaryColumnTypes = isBinaryProtocol() ? Lists.newArrayList() : null;
         for (Column col : metaData.getColumns()) {
             serializer.reset();
             // TODO(zhaochun): only support varchar type
             serializer.writeField(col.getName(), col.getType());
             context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
+            if (binaryColumnTypes != null) {
+                binaryColumnTypes.add(col.getType().getMysqlResultType());
+            }
         }
         // send EOF
         serializer.reset();
@@ -902,10 +978,14 @@ public class StmtExecutor {
         serializer.writeVInt(colNames.size());
         context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
         // send field one by one
+        binaryColumnTypes = isBinaryProtocol() ? Lists.newArrayList() : null;
         for (int i = 0; i < colNames.size(); ++i) {
             serializer.reset();
             serializer.writeField(colNames.get(i), exprs.get(i).getOriginType());
             context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
+            if (binaryColumnTypes != null) {
+                binaryColumnTypes.add(exprs.get(i).getOriginType().getMysqlResultType());
+            }
         }
         // send EOF
         serializer.reset();
@@ -929,12 +1009,25 @@ public class StmtExecutor {
                     serializer.writeLenEncodedString(item);
                 }
             }
-            context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
+            sendRow(serializer.toByteBuffer());
         }
 
         context.getState().setEof();
     }
 
+    // the result of COM_STMT_EXECUTE is in the binary protocol
+    private boolean isBinaryProtocol() {
+        return context.getCommand() == MysqlCommand.COM_STMT_EXECUTE;
+    }
+
+    // send a row of the text protocol, which is converted if the result is in the binary protocol
+    private void sendRow(ByteBuffer row) throws IOException {
+        if (binaryColumnTypes != null) {
+            row = MysqlBinaryRow.encode(row, binaryColumnTypes);
+        }
+        context.getMysqlChannel().sendOnePacket(row);
+    }
+
     // Process show statement
     private void handleShow() throws IOException, AnalysisException, DdlException {
         ShowExecutor executor = new ShowExecutor(context, (ShowStmt) parsedStmt);
@@ -963,7 +1056,7 @@ public class StmtExecutor {
         for (String item : result.split("\n")) {
             serializer.reset();
             serializer.writeLenEncodedString(item);
-            context.getMysqlChannel().sendOnePacket(serializer.toByteBuffer());
+            sendRow(serializer.toByteBuffer());
         }
         context.getState().setEof();
     }
@@ -170,6 +170,7 @@ import com.starrocks.load.loadv2.LoadJobScheduler;
 import com.starrocks.load.loadv2.LoadLoadingChecker;
 import com.starrocks.load.loadv2.LoadManager;
 import com.starrocks.load.loadv2.LoadTimeoutChecker;
+import com.starrocks.load.routineload.KafkaOffsetTracker;
 import com.starrocks.load.routineload.RoutineLoadManager;
 import com.starrocks.load.routineload.RoutineLoadScheduler;
 import com.starrocks.load.routineload.RoutineLoadTaskScheduler;
@@ -187,6 +188,7 @@ import com.starrocks.persist.GlobalVarPersistInfo;
 import com.starrocks.persist.ModifyTableColumnOperationLog;
 import com.starrocks.persist.ModifyTablePropertyOperationLog;
 import com.starrocks.persist.MultiEraseTableInfo;
+import com.starrocks.persist.ParallelJournalApplier;
 import com.starrocks.persist.PartitionPersistInfo;
 import com.starrocks.persist.RecoverInfo;
 import com.starrocks.persist.RenameMaterializedViewLog;
@@ -252,6 +254,7 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -335,6 +338,10 @@ public class GlobalStateMgr {
 
     private JournalObservable journalObservable;
 
+    // created by the replayer of the serving GlobalStateMgr
+    private ExecutorService journalDeserializePool;
+    private ParallelJournalApplier journalApplier;
+
     private TabletInvertedIndex tabletInvertedIndex;
     private ColocateTableIndex colocateTableIndex;
 
@@ -373,6 +380,8 @@ public class GlobalStateMgr {
 
     private RoutineLoadTaskScheduler routineLoadTaskScheduler;
 
+    private KafkaOffsetTracker kafkaOffsetTracker;
+
     private SmallFileMgr smallFileMgr;
 
     private DynamicPartitionScheduler dynamicPartitionScheduler;
@@ -543,6 +552,7 @@ public class GlobalStateMgr {
         this.loadLoadingChecker = new LoadLoadingChecker(loadManager);
         this.routineLoadScheduler = new RoutineLoadScheduler(routineLoadManager);
         this.routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+        this.kafkaOffsetTracker = new KafkaOffsetTracker(routineLoadManager);
 
         this.smallFileMgr = new SmallFileMgr();
 
@@ -1012,6 +1022,7 @@ public class GlobalStateMgr {
         // start routine load scheduler
         routineLoadScheduler.start();
         routineLoadTaskScheduler.start();
+        kafkaOffsetTracker.start();
         // start dynamic partition task
         dynamicPartitionScheduler.start();
         // start daemon thread to update db used data quota for db txn manager periodly
@@ -1688,44 +1699,97 @@ public class GlobalStateMgr {
             return false;
         }
 
+        // the checkpoint GlobalStateMgr is got by the thread id, so the journals are deserialized and applied
+        // by other threads only for the serving GlobalStateMgr
+        ParallelJournalApplier applier = null;
+        if (!isCheckpointThread()) {
+            if (Config.replay_journal_prefetch_num > 0 && Config.replay_journal_deserialize_threads > 0) {
+                if (journalDeserializePool == null) {
+                    journalDeserializePool = ThreadPoolManager.newDaemonFixedThreadPool(
+                            Config.replay_journal_deserialize_threads, Integer.MAX_VALUE, "journal-deserialize", true);
+                }
+                cursor.setPrefetch(journalDeserializePool, Config.replay_journal_prefetch_num);
+            }
+            if (Config.replay_journal_apply_threads > 0) {
+                if (journalApplier == null) {
+                    journalApplier = new ParallelJournalApplier(Config.replay_journal_apply_threads);
+                }
+                applier = journalApplier;
+            }
+        }
+
         long startTime = System.currentTimeMillis();
+        long startJournalId = replayedJournalId.get();
+        long journalId = startJournalId;
         boolean hasLog = false;
-        while (true) {
-            JournalEntity entity = null;
-            try {
-                entity = cursor.next();
-            } catch (InterruptedException | JournalInconsistentException e) {
-                LOG.warn("got interrupt exception or inconsistent exception when get next, will exit, ", e);
-                // TODO exit gracefully
-                Util.stdoutWithTime(e.getMessage());
-                System.exit(-1);
-            }
+        try {
+            while (true) {
+                JournalEntity entity = null;
+                try {
+                    entity = cursor.next();
+                } catch (InterruptedException | JournalInconsistentException e) {
+                    LOG.warn("got interrupt exception or inconsistent exception when get next, will exit, ", e);
+                    // TODO exit gracefully
+                    Util.stdoutWithTime(e.getMessage());
+                    System.exit(-1);
+                }
 
-            // EOF or aggressive retry
-            if (entity == null) {
-                break;
-            }
+                // EOF or aggressive retry
+                if (entity == null) {
+                    break;
+                }
 
-            hasLog = true;
-            EditLog.loadJournal(this, entity);
-            replayedJournalId.incrementAndGet();
-            LOG.debug("journal {} replayed.", replayedJournalId);
-            if (feType != FrontendNodeType.MASTER) {
-                journalObservable.notifyObservers(replayedJournalId.get());
+                hasLog = true;
+                journalId++;
+                boolean applied = true;
+                if (applier == null) {
+                    EditLog.loadJournal(this, entity);
+                } else {
+                    applied = applier.apply(this, entity);
+                }
+                if (applied) {
+                    setReplayedJournalId(journalId);
+                }
+                if (MetricRepo.isInit) {
+                    // Metric repo may not init after this replay thread start
+                    MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+                }
             }
-            if (MetricRepo.isInit) {
-                // Metric repo may not init after this replay thread start
-                MetricRepo.COUNTER_EDIT_LOG_READ.increase(1L);
+            if (applier != null) {
+                applier.waitAll();
+                setReplayedJournalId(journalId);
             }
+        } catch (InterruptedException e) {
+            LOG.warn("got interrupt exception when apply journal, will exit, ", e);
+            Util.stdoutWithTime(e.getMessage());
+            System.exit(-1);
+        } finally {
+            cursor.close();
         }
+
         long cost = System.currentTimeMillis() - startTime;
+        if (MetricRepo.isInit && hasLog) {
+            MetricRepo.HISTO_EDIT_LOG_REPLAY_LATENCY.update(cost);
+        }
         if (cost >= 1000) {
-            LOG.warn("replay journal cost too much time: {} replayedJournalId: {}", cost, replayedJournalId);
+            LOG.warn("replay journal cost too much time: {} replayedJournalId: {}, {} journals/s", cost,
+                    replayedJournalId, (journalId - startJournalId) * 1000 / cost);
         }
 
         return hasLog;
     }
 
+    private void setReplayedJournalId(long journalId) {
+        if (replayedJournalId.get() == journalId) {
+            return;
+        }
+        replayedJournalId.set(journalId);
+        LOG.debug("journal {} replayed.", journalId);
+        if (feType != FrontendNodeType.MASTER) {
+            journalObservable.notifyObservers(journalId);
+        }
+    }
+
     public void createTimePrinter() {
         // time printer will write timestamp edit log every 10 seconds
         timePrinter = new MasterDaemon("timePrinter", 10 * 1000L) {
@@ -2395,6 +2459,10 @@ public class GlobalStateMgr {
         return routineLoadTaskScheduler;
     }
 
+    public KafkaOffsetTracker getKafkaOffsetTracker() {
+        return kafkaOffsetTracker;
+    }
+
     public ExportMgr getExportMgr() {
         return this.exportMgr;
     }
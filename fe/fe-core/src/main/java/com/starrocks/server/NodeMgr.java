@@ -635,13 +635,10 @@ public class NodeMgr {
         StorageInfo info = getStorageInfo(infoUrl);
         long version = info.getImageJournalId();
         if (version > localImageVersion) {
-            String url = "http://" + helperNode.first + ":" + Config.http_port
-                    + "/image?version=" + version;
-            LOG.info("start to download image.{} from {}", version, url);
-            String filename = Storage.IMAGE + "." + version;
+            String hostPort = helperNode.first + ":" + Config.http_port;
+            LOG.info("start to download image.{} from {}", version, hostPort);
             File dir = new File(this.imageDir);
-            MetaHelper.getRemoteFile(url, HTTP_TIMEOUT_SECOND * 1000, MetaHelper.getOutputStream(filename, dir));
-            MetaHelper.complete(filename, dir);
+            MetaHelper.downloadImage(hostPort, version, dir, HTTP_TIMEOUT_SECOND * 1000);
         } else {
             LOG.info("skip download image, current version {} >= version {} from {}", localImageVersion, version, helperNode);
         }
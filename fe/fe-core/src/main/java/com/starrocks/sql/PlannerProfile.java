@@ -62,6 +62,9 @@ public class PlannerProfile {
 
     private final Map<String, ScopedTimer> timers = new ConcurrentHashMap<>();
 
+    // Counters of the planner, such as the memo size, named in the same hierarchical way as timers
+    private final Map<String, String> customProperties = new ConcurrentHashMap<>();
+
     public PlannerProfile() {
     }
 
@@ -87,6 +90,13 @@ public class PlannerProfile {
         return t;
     }
 
+    public static void addCustomProperties(String name, String value) {
+        ConnectContext ctx = ConnectContext.get();
+        if (ctx != null) {
+            ctx.getPlannerProfile().customProperties.put(name, value);
+        }
+    }
+
     private RuntimeProfile getRuntimeProfile(RuntimeProfile parent, Map<String, RuntimeProfile> cache,
                                              String prefix) {
         if (cache.containsKey(prefix)) {
@@ -119,11 +129,15 @@ public class PlannerProfile {
     }
 
     public void buildTimers(RuntimeProfile parent) {
+        Map<String, RuntimeProfile> profilers = new HashMap<>();
+        profilers.put("", parent);
+        buildTimers(parent, profilers);
+    }
+
+    private void buildTimers(RuntimeProfile parent, Map<String, RuntimeProfile> profilers) {
         List<String> keys = new ArrayList<>(timers.keySet());
         Collections.sort(keys);
 
-        Map<String, RuntimeProfile> profilers = new HashMap<>();
-        profilers.put("", parent);
         for (String key : keys) {
             String prefix = getKeyPrefix(key);
             String name = key.substring(prefix.length());
@@ -133,11 +147,28 @@ public class PlannerProfile {
         }
     }
 
+    private void buildCustomProperties(RuntimeProfile parent, Map<String, RuntimeProfile> profilers) {
+        List<String> keys = new ArrayList<>(customProperties.keySet());
+        Collections.sort(keys);
+
+        for (String key : keys) {
+            String prefix = getKeyPrefix(key);
+            String name = key.substring(prefix.length());
+            RuntimeProfile p = getRuntimeProfile(parent, profilers, prefix);
+            p.addInfoString(name, customProperties.get(key));
+        }
+    }
+
     public void build(RuntimeProfile parent) {
-        buildTimers(parent);
+        // timers and custom properties share the same hierarchy
+        Map<String, RuntimeProfile> profilers = new HashMap<>();
+        profilers.put("", parent);
+        buildTimers(parent, profilers);
+        buildCustomProperties(parent, profilers);
     }
 
     public void reset() {
         timers.clear();
+        customProperties.clear();
     }
 }
@@ -0,0 +1,143 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql;
+
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.KeysType;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.Utils;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.operator.Operator;
+import com.starrocks.sql.optimizer.operator.Projection;
+import com.starrocks.sql.optimizer.operator.logical.LogicalFilterOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.logical.LogicalProjectOperator;
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriter;
+import com.starrocks.sql.optimizer.rule.transformation.DistributionPruneRule;
+import com.starrocks.sql.optimizer.rule.transformation.PartitionPruneRule;
+import com.starrocks.sql.optimizer.statistics.Statistics;
+import com.starrocks.sql.optimizer.transformer.LogicalPlan;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.PlanFragmentBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plan the point queries on the primary key tables without the optimizer.
+ * <p>
+ * A point query selects the columns of a primary key table, and its where clause specifies all the primary key
+ * columns by equal predicates, e.g. select * from t where pk = 1. It reads at most one row of one tablet, so the
+ * partition and the tablet are pruned by the predicates directly, and the plan is a single fragment which scans
+ * the tablet and sends the row to the client, without the cost based optimization and the exchange.
+ */
+public class PointQueryPlanner {
+
+    /**
+     * Return null if the logical plan isn't a point query, which should be planned by the optimizer.
+     */
+    public ExecPlan plan(LogicalPlan logicalPlan, ColumnRefFactory columnRefFactory, ConnectContext session,
+                         List<String> colNames) {
+        OptExpression root = logicalPlan.getRoot();
+        Projection projection = null;
+        if (root.getOp() instanceof LogicalProjectOperator) {
+            LogicalProjectOperator project = (LogicalProjectOperator) root.getOp();
+            if (project.hasLimit() || !project.getColumnRefMap().values().stream()
+                    .allMatch(ScalarOperator::isColumnRef)) {
+                return null;
+            }
+            // no project node for the columns output by the scan directly
+            if (!project.getColumnRefMap().entrySet().stream().allMatch(e -> e.getKey().equals(e.getValue()))) {
+                projection = new Projection(project.getColumnRefMap());
+            }
+            root = root.inputAt(0);
+        }
+        if (!(root.getOp() instanceof LogicalFilterOperator) || root.getOp().hasLimit()
+                || !(root.inputAt(0).getOp() instanceof LogicalOlapScanOperator)) {
+            return null;
+        }
+        LogicalOlapScanOperator scan = (LogicalOlapScanOperator) root.inputAt(0).getOp();
+        OlapTable table = (OlapTable) scan.getTable();
+        if (table.getKeysType() != KeysType.PRIMARY_KEYS || scan.hasLimit() || scan.getPredicate() != null
+                || scan.getSelectedIndexId() != table.getBaseIndexId()) {
+            return null;
+        }
+
+        ScalarOperator predicate = new ScalarOperatorRewriter().rewrite(root.getOp().getPredicate(),
+                ScalarOperatorRewriter.DEFAULT_REWRITE_RULES);
+        if (!isPointPredicate(predicate, scan, table)) {
+            return null;
+        }
+
+        // prune the partitions and the tablets by the primary key
+        OptExpression scanExpression = OptExpression.create(new LogicalOlapScanOperator.Builder()
+                .withOperator(scan).setPredicate(predicate).build());
+        List<OptExpression> result = new PartitionPruneRule().transform(scanExpression, null);
+        if (!result.isEmpty()) {
+            scanExpression = result.get(0);
+        }
+        result = new DistributionPruneRule().transform(scanExpression, null);
+        if (!result.isEmpty()) {
+            scanExpression = result.get(0);
+        }
+        scan = (LogicalOlapScanOperator) scanExpression.getOp();
+        if (scan.getSelectedPartitionId().size() != 1 || scan.getSelectedTabletId().size() != 1) {
+            return null;
+        }
+
+        // only scan the output columns and the predicate columns
+        ColumnRefSet usedColumns = predicate.getUsedColumns();
+        usedColumns.union(logicalPlan.getOutputColumn());
+        Map<ColumnRefOperator, Column> colRefToColumnMetaMap = Maps.newHashMap();
+        for (Map.Entry<ColumnRefOperator, Column> entry : scan.getColRefToColumnMetaMap().entrySet()) {
+            if (usedColumns.contains(entry.getKey())) {
+                colRefToColumnMetaMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        PhysicalOlapScanOperator physicalScan = new PhysicalOlapScanOperator(table, colRefToColumnMetaMap,
+                scan.getDistributionSpec(), Operator.DEFAULT_LIMIT, predicate, scan.getSelectedIndexId(),
+                scan.getSelectedPartitionId(), scan.getSelectedTabletId(), projection);
+        // there is no aggregation on a primary key table
+        physicalScan.setPreAggregation(true);
+        physicalScan.setTurnOffReason("");
+        OptExpression physicalPlan = OptExpression.create(physicalScan);
+        physicalPlan.setStatistics(Statistics.builder().setOutputRowCount(1).build());
+
+        return new PlanFragmentBuilder().createPhysicalPlan(
+                physicalPlan, session, logicalPlan.getOutputColumn(), columnRefFactory, colNames);
+    }
+
+    // all the primary key columns are equal to the non-null constants
+    private boolean isPointPredicate(ScalarOperator predicate, LogicalOlapScanOperator scan, OlapTable table) {
+        Map<Column, ConstantOperator> keyValues = Maps.newHashMap();
+        for (ScalarOperator conjunct : Utils.extractConjuncts(predicate)) {
+            if (!(conjunct instanceof BinaryPredicateOperator)
+                    || ((BinaryPredicateOperator) conjunct).getBinaryType() != BinaryPredicateOperator.BinaryType.EQ) {
+                continue;
+            }
+            ScalarOperator left = conjunct.getChild(0);
+            ScalarOperator right = conjunct.getChild(1);
+            if (right.isColumnRef() && left.isConstantRef()) {
+                left = conjunct.getChild(1);
+                right = conjunct.getChild(0);
+            }
+            if (!left.isColumnRef() || !(right instanceof ConstantOperator) || ((ConstantOperator) right).isNull()) {
+                continue;
+            }
+            Column column = scan.getColRefToColumnMetaMap().get((ColumnRefOperator) left);
+            if (column != null && column.isKey()) {
+                keyValues.put(column, (ConstantOperator) right);
+            }
+        }
+        return table.getKeyColumnsByIndexId(table.getBaseIndexId()).stream().allMatch(keyValues::containsKey);
+    }
+}
@@ -41,6 +41,13 @@ public class StatementPlanner {
             OptimizerTraceUtil.logQueryStatement(session, "after parse:\n%s", (QueryStatement) stmt);
         }
         Analyzer.analyze(stmt, session);
+        return planAnalyzed(stmt, session);
+    }
+
+    /**
+     * Plan the statement which is analyzed already, e.g. the query of a prepared statement executed again.
+     */
+    public ExecPlan planAnalyzed(StatementBase stmt, ConnectContext session) throws AnalysisException {
         PrivilegeChecker.check(stmt, session);
         if (stmt instanceof QueryStatement) {
             OptimizerTraceUtil.logQueryStatement(session, "after analyze:\n%s", (QueryStatement) stmt);
@@ -84,6 +91,15 @@ public class StatementPlanner {
         ColumnRefFactory columnRefFactory = new ColumnRefFactory();
         LogicalPlan logicalPlan = new RelationTransformer(columnRefFactory, session).transformWithSelectLimit(query);
 
+        // The point query on a primary key table is planned without the optimizer
+        if (session.getSessionVariable().isEnableShortCircuitPointQuery()
+                && !session.getSessionVariable().isSingleNodeExecPlan()) {
+            ExecPlan pointQueryPlan = new PointQueryPlanner().plan(logicalPlan, columnRefFactory, session, colNames);
+            if (pointQueryPlan != null) {
+                return pointQueryPlan;
+            }
+        }
+
         //2. Optimize logical plan and build physical plan
         Optimizer optimizer = new Optimizer();
         OptExpression optimizedPlan = optimizer.optimize(
@@ -30,6 +30,7 @@ import com.starrocks.analysis.LargeIntLiteral;
 import com.starrocks.analysis.LikePredicate;
 import com.starrocks.analysis.LiteralExpr;
 import com.starrocks.analysis.OrderByElement;
+import com.starrocks.analysis.Parameter;
 import com.starrocks.analysis.Predicate;
 import com.starrocks.analysis.SlotRef;
 import com.starrocks.analysis.StringLiteral;
@@ -456,6 +457,16 @@ public class ExpressionAnalyzer {
             return null;
         }
 
+        @Override
+        public Void visitParameter(Parameter node, Scope scope) {
+            if (node.getValue() == null) {
+                throw new SemanticException("The parameter markers '?' are only supported in prepared statements");
+            }
+            visit(node.getValue(), scope);
+            node.setType(node.getValue().getType());
+            return null;
+        }
+
         @Override
         public Void visitIsNullPredicate(IsNullPredicate node, Scope scope) {
             predicateBaseAndCheck(node);
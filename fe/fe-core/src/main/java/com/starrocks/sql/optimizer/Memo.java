@@ -35,6 +35,11 @@ import java.util.Set;
 public class Memo {
     private static final Logger LOG = LogManager.getLogger(Memo.class);
 
+    // Rough heap footprint of a group and a group expression, including the owned maps and lists,
+    // used to report the memory of the memo, not to enforce a precise limit
+    private static final long ESTIMATED_GROUP_BYTES = 512;
+    private static final long ESTIMATED_GROUP_EXPRESSION_BYTES = 256;
+
     private int nextGroupId = 0;
 
     // The group id is same with the group index in groups List
@@ -49,6 +54,11 @@ public class Memo {
      */
     private final Map<GroupExpression, GroupExpression> groupExpressions;
 
+    // The max number of groups and group expressions ever in the memo, groups and group expressions
+    // may be removed by rewrite and merge, so the current size is less than the peak size
+    private int peakGroupCount = 0;
+    private int peakGroupExpressionCount = 0;
+
     public List<Group> getGroups() {
         return groups;
     }
@@ -66,6 +76,22 @@ public class Memo {
         return rootGroup;
     }
 
+    public int getPeakGroupCount() {
+        return peakGroupCount;
+    }
+
+    public int getPeakGroupExpressionCount() {
+        return peakGroupExpressionCount;
+    }
+
+    public long getEstimatedBytes() {
+        return groups.size() * ESTIMATED_GROUP_BYTES + groupExpressions.size() * ESTIMATED_GROUP_EXPRESSION_BYTES;
+    }
+
+    public long getPeakEstimatedBytes() {
+        return peakGroupCount * ESTIMATED_GROUP_BYTES + peakGroupExpressionCount * ESTIMATED_GROUP_EXPRESSION_BYTES;
+    }
+
     /**
      * Copy an expression into search space, this function will add an GroupExpression for
      * this Expression. If this Expression has children, this function will be called
@@ -97,9 +123,11 @@ public class Memo {
         if (targetGroup == null) {
             targetGroup = newGroup();
             groups.add(targetGroup);
+            peakGroupCount = Math.max(peakGroupCount, groups.size());
         }
 
         groupExpressions.put(groupExpression, groupExpression);
+        peakGroupExpressionCount = Math.max(peakGroupExpressionCount, groupExpressions.size());
 
         targetGroup.addExpression(groupExpression);
 
@@ -3,9 +3,11 @@ package com.starrocks.sql.optimizer;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.starrocks.common.util.DebugUtil;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.Explain;
+import com.starrocks.sql.PlannerProfile;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.base.ColumnRefSet;
 import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
@@ -118,7 +120,10 @@ public class Optimizer {
         // we need set plan costs before physical rewrite stage.
         final CostEstimate costs = Explain.buildCost(result);
         connectContext.getAuditEventBuilder().setPlanCpuCosts(costs.getCpuCost())
-                .setPlanMemCosts(costs.getMemoryCost());
+                .setPlanMemCosts(costs.getMemoryCost())
+                .setPlanMemoGroupExpressions(memo.getPeakGroupExpressionCount())
+                .setPlanMemoBytes(memo.getPeakEstimatedBytes());
+        recordMemoStatistics(memo);
 
         OptExpression finalPlan = physicalRuleRewrite(rootTaskContext, result);
         OptimizerTraceUtil.logOptExpression(connectContext, "final plan after physical rewrite:\n%s", finalPlan);
@@ -126,12 +131,24 @@ public class Optimizer {
         return finalPlan;
     }
 
+    private void recordMemoStatistics(Memo memo) {
+        PlannerProfile.addCustomProperties("Optimizer.MemoGroups",
+                memo.getGroups().size() + " / peak " + memo.getPeakGroupCount());
+        PlannerProfile.addCustomProperties("Optimizer.MemoGroupExpressions",
+                memo.getGroupExpressions().size() + " / peak " + memo.getPeakGroupExpressionCount());
+        PlannerProfile.addCustomProperties("Optimizer.MemoEstimatedBytes",
+                DebugUtil.getPrettyStringBytes(memo.getPeakEstimatedBytes()));
+        if (context.isMemoBudgetExceeded()) {
+            PlannerProfile.addCustomProperties("Optimizer.MemoBudgetExceeded", "true");
+        }
+    }
+
     void memoOptimize(ConnectContext connectContext, Memo memo, TaskContext rootTaskContext) {
         OptExpression tree = memo.getRootGroup().extractLogicalTree();
 
         // Join reorder
         SessionVariable sessionVariable = connectContext.getSessionVariable();
-        if (!sessionVariable.isDisableJoinReorder()
+        if (!sessionVariable.isDisableJoinReorder() && !context.isMemoBudgetExceeded()
                 && Utils.countInnerJoinNodeSize(tree) < sessionVariable.getCboMaxReorderNode()) {
             if (Utils.countInnerJoinNodeSize(tree) > sessionVariable.getCboMaxReorderNodeUseExhaustive()) {
                 new ReorderJoinRule().transform(tree, context);
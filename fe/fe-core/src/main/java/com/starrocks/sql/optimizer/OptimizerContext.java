@@ -12,8 +12,12 @@ import com.starrocks.sql.optimizer.rule.RuleSet;
 import com.starrocks.sql.optimizer.task.SeriallyTaskScheduler;
 import com.starrocks.sql.optimizer.task.TaskContext;
 import com.starrocks.sql.optimizer.task.TaskScheduler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class OptimizerContext {
+    private static final Logger LOG = LogManager.getLogger(OptimizerContext.class);
+
     private final Memo memo;
     private final RuleSet ruleSet;
     private final GlobalStateMgr globalStateMgr;
@@ -24,6 +28,7 @@ public class OptimizerContext {
     private CTEContext cteContext;
     private TaskContext currentTaskContext;
     private OptimizerTraceInfo traceInfo;
+    private boolean memoBudgetExceeded = false;
 
     public OptimizerContext(Memo memo, ColumnRefFactory columnRefFactory) {
         this.memo = memo;
@@ -99,4 +104,20 @@ public class OptimizerContext {
     public OptimizerTraceInfo getTraceInfo() {
         return traceInfo;
     }
+
+    /**
+     * Whether the memo has exceeded cbo_max_memo_group_expressions. Once exceeded, it keeps exceeded
+     * for the rest of the optimization even if the memo shrinks, and the join exploration is skipped.
+     */
+    public boolean isMemoBudgetExceeded() {
+        if (!memoBudgetExceeded) {
+            long limit = sessionVariable.getCboMaxMemoGroupExpressions();
+            if (limit > 0 && memo.getGroupExpressions().size() > limit) {
+                memoBudgetExceeded = true;
+                LOG.warn("memo exceeds the budget of {} group expressions, groups: {}, estimated bytes: {}, " +
+                        "stop exploring join orders", limit, memo.getGroups().size(), memo.getEstimatedBytes());
+            }
+        }
+        return memoBudgetExceeded;
+    }
 }
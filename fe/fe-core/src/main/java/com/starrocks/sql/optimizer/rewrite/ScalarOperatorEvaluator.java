@@ -4,8 +4,8 @@ package com.starrocks.sql.optimizer.rewrite;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.starrocks.catalog.Function;
 import com.starrocks.catalog.PrimitiveType;
@@ -21,7 +21,8 @@ import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -124,17 +125,16 @@ public enum ScalarOperatorEvaluator {
             }
         }
 
-        List<Type> argTypes = new ArrayList<>(Arrays.asList(fn.getArgs()));
+        List<Type> argTypes = Arrays.asList(fn.getArgs());
 
         FunctionSignature signature =
                 new FunctionSignature(fn.functionName().toUpperCase(), argTypes, fn.getReturnType());
 
-        if (!functions.containsKey(signature)) {
+        FunctionInvoker invoker = functions.get(signature);
+        if (invoker == null) {
             return root;
         }
 
-        FunctionInvoker invoker = functions.get(signature);
-
         try {
             ConstantOperator operator = invoker.invoke(root.getChildren());
 
@@ -153,13 +153,32 @@ public enum ScalarOperatorEvaluator {
         return root;
     }
 
+    /**
+     * Invoke the FE function through a MethodHandle spread over an Object array, which avoids the
+     * access checks and argument boxing of Method.invoke. The parameter types are resolved once when
+     * the function is registered, and the arguments of fixed arity functions are copied directly.
+     */
     private static class FunctionInvoker {
         private final Method method;
         private final FunctionSignature signature;
+        private final MethodHandle methodHandle;
+        private final int parameterCount;
+        private final boolean isVarArgs;
 
         public FunctionInvoker(Method method, FunctionSignature signature) {
             this.method = method;
             this.signature = signature;
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            this.parameterCount = parameterTypes.length;
+            this.isVarArgs = parameterCount > 0 && parameterTypes[parameterCount - 1].isArray();
+            try {
+                // the handle of a varargs method collects the trailing arguments into an array, but the array is
+                // already created in createInvokeArgs
+                MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+                this.methodHandle = handle.asType(handle.type().generic()).asSpreader(Object[].class, parameterCount);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("failed to register FE function " + method.getName(), e);
+            }
         }
 
         public Method getMethod() {
@@ -172,56 +191,67 @@ public enum ScalarOperatorEvaluator {
 
         // Function doesn't support array type
         public ConstantOperator invoke(List<ScalarOperator> args) throws AnalysisException {
-            final List<Object> invokeArgs = createInvokeArgs(args);
+            final Object[] invokeArgs = createInvokeArgs(args);
             try {
-                return (ConstantOperator) method.invoke(null, invokeArgs.toArray());
-            } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
+                Object result = methodHandle.invokeExact(invokeArgs);
+                return (ConstantOperator) result;
+            } catch (Exception e) {
                 throw new AnalysisException(e.getLocalizedMessage());
+            } catch (Throwable e) {
+                // the errors, e.g. OutOfMemoryError, are not the failures of the function, don't swallow them
+                Throwables.throwIfUnchecked(e);
+                throw new IllegalStateException(e);
             }
         }
 
-        private List<Object> createInvokeArgs(List<ScalarOperator> args) throws AnalysisException {
-            final List<Object> invokeArgs = Lists.newArrayList();
-            for (int index = 0; index < method.getParameterTypes().length; index++) {
-                final Class<?> argType = method.getParameterTypes()[index];
-
-                if (argType.isArray()) {
-                    Preconditions.checkArgument(method.getParameterTypes().length == index + 1);
-                    final List<ConstantOperator> variableArgs = Lists.newArrayList();
-                    Set<Type> checkSet = Sets.newHashSet();
+        private Object[] createInvokeArgs(List<ScalarOperator> args) throws AnalysisException {
+            final Object[] invokeArgs = new Object[parameterCount];
+            if (!isVarArgs) {
+                if (args.size() < parameterCount) {
+                    throw new AnalysisException("Function's args does't match.");
+                }
+                for (int index = 0; index < parameterCount; index++) {
+                    invokeArgs[index] = args.get(index);
+                }
+                return invokeArgs;
+            }
 
-                    for (int variableArgIndex = index; variableArgIndex < args.size(); variableArgIndex++) {
-                        ConstantOperator arg = (ConstantOperator) args.get(variableArgIndex);
-                        variableArgs.add(arg);
-                        checkSet.add(arg.getType());
-                    }
+            int index = parameterCount - 1;
+            for (int i = 0; i < index; i++) {
+                invokeArgs[i] = args.get(i);
+            }
 
-                    // Array data must keep same kinds
-                    if (checkSet.size() > 1) {
-                        throw new AnalysisException("Function's args does't match.");
-                    }
+            ConstantOperator[] variableArgs = new ConstantOperator[Math.max(0, args.size() - index)];
+            Set<Type> checkSet = Sets.newHashSet();
+            for (int variableArgIndex = index; variableArgIndex < args.size(); variableArgIndex++) {
+                ConstantOperator arg = (ConstantOperator) args.get(variableArgIndex);
+                variableArgs[variableArgIndex - index] = arg;
+                checkSet.add(arg.getType());
+            }
 
-                    ConstantOperator[] argsArray = new ConstantOperator[variableArgs.size()];
-                    argsArray = variableArgs.toArray(argsArray);
-                    invokeArgs.add(argsArray);
-                } else {
-                    invokeArgs.add(args.get(index));
-                }
+            // Array data must keep same kinds
+            if (checkSet.size() > 1) {
+                throw new AnalysisException("Function's args does't match.");
             }
+            invokeArgs[index] = variableArgs;
             return invokeArgs;
         }
-
     }
 
     private static class FunctionSignature {
         private final String name;
         private final List<Type> argTypes;
         private final Type returnType;
+        // signatures are compared by primitive types, resolve them once for the map lookup
+        private final List<PrimitiveType> argPrimitiveTypes;
+        private final int hashCode;
 
         public FunctionSignature(String name, List<Type> argTypes, Type returnType) {
             this.name = name;
             this.argTypes = argTypes;
             this.returnType = returnType;
+            this.argPrimitiveTypes = argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
+            this.hashCode = Objects.hash(name, argPrimitiveTypes, returnType.getPrimitiveType());
         }
 
         public List<Type> getArgTypes() {
@@ -253,21 +283,15 @@ public enum ScalarOperatorEvaluator {
             }
 
             ScalarOperatorEvaluator.FunctionSignature signature = (ScalarOperatorEvaluator.FunctionSignature) o;
-
-            List<PrimitiveType> primitiveTypes =
-                    argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
-            List<PrimitiveType> sigPrimitiveTypes =
-                    signature.argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
-            return Objects.equals(name, signature.name) &&
-                    primitiveTypes.equals(sigPrimitiveTypes) &&
+            return hashCode == signature.hashCode &&
+                    Objects.equals(name, signature.name) &&
+                    argPrimitiveTypes.equals(signature.argPrimitiveTypes) &&
                     returnType.matchesType(signature.returnType);
         }
 
         @Override
         public int hashCode() {
-            List<PrimitiveType> primitiveTypes =
-                    argTypes.stream().map(Type::getPrimitiveType).collect(Collectors.toList());
-            return Objects.hash(name, primitiveTypes, returnType.getPrimitiveType());
+            return hashCode;
         }
     }
 }
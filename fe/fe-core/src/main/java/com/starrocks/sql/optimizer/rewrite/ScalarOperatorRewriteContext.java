@@ -2,10 +2,20 @@
 
 package com.starrocks.sql.optimizer.rewrite;
 
+import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+
+import java.util.HashMap;
+import java.util.Map;
+
 public class ScalarOperatorRewriteContext {
     // mark operator rewrite nums
     private int changeNum;
 
+    // the results of constant calls folded in one rewrite, the same constant expression could appear many
+    // times, e.g. in generated predicates, and the rewriter applies the rules until nothing changes
+    private final Map<CallOperator, ScalarOperator> foldedCalls = new HashMap<>();
+
     public void reset() {
         changeNum = 0;
     }
@@ -21,4 +31,12 @@ public class ScalarOperatorRewriteContext {
     public int changeNum() {
         return changeNum;
     }
+
+    public ScalarOperator getFoldedCall(CallOperator call) {
+        return foldedCalls.get(call);
+    }
+
+    public void putFoldedCall(CallOperator call, ScalarOperator result) {
+        foldedCalls.put(call, result);
+    }
 }
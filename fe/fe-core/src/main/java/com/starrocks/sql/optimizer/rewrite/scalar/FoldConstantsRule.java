@@ -2,6 +2,7 @@
 
 package com.starrocks.sql.optimizer.rewrite.scalar;
 
+import com.starrocks.catalog.FunctionSet;
 import com.starrocks.catalog.Type;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
@@ -26,7 +27,22 @@ public class FoldConstantsRule extends BottomUpScalarOperatorRewriteRule {
         if (call.isAggregate() || notAllConstant(call.getChildren())) {
             return call;
         }
-        return ScalarOperatorEvaluator.INSTANCE.evaluation(call);
+        if (context == null || FunctionSet.nonDeterministicFunctions.contains(call.getFnName())) {
+            return ScalarOperatorEvaluator.INSTANCE.evaluation(call);
+        }
+
+        ScalarOperator result = context.getFoldedCall(call);
+        if (result == null) {
+            result = ScalarOperatorEvaluator.INSTANCE.evaluation(call);
+            // copy the key, the children of the call may be replaced by the following rewrites
+            context.putFoldedCall((CallOperator) call.clone(), result);
+        }
+        // the call can't be folded, keep the original operator to not be counted as a change
+        if (!result.isConstantRef()) {
+            return call;
+        }
+        // the folded constant may be shared by several calls, copy it as operators could be modified in place
+        return result.clone();
     }
 
     @Override
@@ -191,11 +207,22 @@ public class FoldConstantsRule extends BottomUpScalarOperatorRewriteRule {
         return predicate;
     }
 
+    // IN predicates may have thousands of children, so avoid the streams in the checks below
     private boolean notAllConstant(List<ScalarOperator> operators) {
-        return !operators.stream().allMatch(ScalarOperator::isConstantRef);
+        for (ScalarOperator operator : operators) {
+            if (!operator.isConstantRef()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private boolean hasNull(List<ScalarOperator> operators) {
-        return operators.stream().anyMatch(d -> (d.isConstantRef()) && ((ConstantOperator) d).isNull());
+        for (ScalarOperator operator : operators) {
+            if (operator.isConstantRef() && ((ConstantOperator) operator).isNull()) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,335 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.optimizer.rule.join;
+
+import com.google.common.collect.Lists;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.OptimizerContext;
+import com.starrocks.sql.optimizer.statistics.Statistics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reorder multi join node by enumerating connected subgraph and complement pairs (DPhyp),
+ * refer to "Dynamic Programming Strikes Back" by Guido Moerkotte and Thomas Neumann.
+ * <p>
+ * Unlike {@link JoinReorderDP}, which enumerates every partition of every subset, only the pairs of
+ * connected sub graphs joined by at least one predicate are enumerated, so that chain and snowflake
+ * shaped join graphs with tens of tables could be reordered.
+ * The statistics of each atom set are estimated only once, because the output row count
+ * of a set of joined atoms doesn't depend on the join order.
+ * <p>
+ * The enumeration stops when the number of enumerated pairs or the elapsed time exceeds the budget,
+ * e.g. for a big star join, then we fall back to the linearized DP: atoms are put into a linear order
+ * and only the joins of consecutive atoms are enumerated, which costs O(n^3).
+ * Refer to "Adaptive Optimization of Very Large Join Queries" by Thomas Neumann and Bernhard Radke.
+ */
+public class JoinReorderDPHyp extends JoinOrder {
+    private static final Logger LOG = LogManager.getLogger(JoinReorderDPHyp.class);
+
+    private final Map<BitSet, GroupInfo> bestPlanMemo = new HashMap<>();
+    private final Map<BitSet, Statistics> statisticsMemo = new HashMap<>();
+
+    private final long maxJoinPairs;
+    private final long timeoutMs;
+    private long startTime;
+    private long enumeratedPairs = 0;
+    private long enumeratedSets = 0;
+
+    private GroupInfo bestGroup;
+
+    private static class BudgetExceededException extends RuntimeException {
+    }
+
+    public JoinReorderDPHyp(OptimizerContext context) {
+        super(context);
+        this.maxJoinPairs = context.getSessionVariable().getCboDPHypMaxJoinPairs();
+        this.timeoutMs = context.getSessionVariable().getCboDPHypTimeoutMs();
+    }
+
+    @Override
+    protected void enumerate() {
+        startTime = System.currentTimeMillis();
+        List<GroupInfo> atoms = joinLevels.get(1).groups;
+        for (GroupInfo atom : atoms) {
+            bestPlanMemo.put(atom.atoms, atom);
+        }
+
+        BitSet allAtoms = new BitSet();
+        allAtoms.set(0, atomSize);
+        try {
+            for (int i = atomSize - 1; i >= 0; i--) {
+                BitSet start = new BitSet();
+                start.set(i);
+                emitCsg(start);
+
+                BitSet excluded = new BitSet();
+                excluded.set(0, i + 1);
+                enumerateCsgRec(start, excluded);
+            }
+            bestGroup = bestPlanMemo.get(allAtoms);
+        } catch (BudgetExceededException e) {
+            LOG.debug("DPhyp join reorder exceeds the budget, enumerated pairs: {}, elapsed: {}ms",
+                    enumeratedPairs, System.currentTimeMillis() - startTime);
+        }
+
+        // The budget is exceeded, or the join graph is not connected
+        if (bestGroup == null) {
+            bestGroup = linearizedDP();
+        }
+    }
+
+    @Override
+    public List<OptExpression> getResult() {
+        if (bestGroup == null) {
+            return Collections.emptyList();
+        }
+        return Lists.newArrayList(bestGroup.bestExprInfo.expr);
+    }
+
+    private void enumerateCsgRec(BitSet s1, BitSet excluded) {
+        BitSet neighbors = neighborhood(s1, excluded);
+        if (neighbors.isEmpty()) {
+            return;
+        }
+        List<BitSet> subsets = subsets(neighbors);
+        for (BitSet subset : subsets) {
+            BitSet newSet = union(s1, subset);
+            if (bestPlanMemo.containsKey(newSet)) {
+                emitCsg(newSet);
+            }
+        }
+
+        BitSet newExcluded = union(excluded, neighbors);
+        for (BitSet subset : subsets) {
+            enumerateCsgRec(union(s1, subset), newExcluded);
+        }
+    }
+
+    private void emitCsg(BitSet s1) {
+        BitSet excluded = (BitSet) s1.clone();
+        excluded.set(0, s1.nextSetBit(0) + 1);
+        BitSet neighbors = neighborhood(s1, excluded);
+
+        for (int i = neighbors.length() - 1; i >= 0; i = neighbors.previousSetBit(i - 1)) {
+            BitSet s2 = new BitSet();
+            s2.set(i);
+            if (isConnected(s1, s2)) {
+                emitCsgCmp(s1, s2);
+            }
+
+            BitSet lowerNeighbors = (BitSet) neighbors.clone();
+            lowerNeighbors.clear(i, neighbors.length());
+            enumerateCmpRec(s1, s2, union(excluded, lowerNeighbors));
+        }
+    }
+
+    private void enumerateCmpRec(BitSet s1, BitSet s2, BitSet excluded) {
+        BitSet neighbors = neighborhood(s2, excluded);
+        if (neighbors.isEmpty()) {
+            return;
+        }
+        List<BitSet> subsets = subsets(neighbors);
+        for (BitSet subset : subsets) {
+            BitSet newSet = union(s2, subset);
+            if (bestPlanMemo.containsKey(newSet) && isConnected(s1, newSet)) {
+                emitCsgCmp(s1, newSet);
+            }
+        }
+
+        BitSet newExcluded = union(excluded, neighbors);
+        for (BitSet subset : subsets) {
+            enumerateCmpRec(s1, union(s2, subset), newExcluded);
+        }
+    }
+
+    private void emitCsgCmp(BitSet s1, BitSet s2) {
+        if (++enumeratedPairs > maxJoinPairs || isTimeout()) {
+            throw new BudgetExceededException();
+        }
+
+        GroupInfo leftGroup = bestPlanMemo.get(s1);
+        GroupInfo rightGroup = bestPlanMemo.get(s2);
+        ExpressionInfo joinExpr = buildJoinExprWithStatistics(leftGroup, rightGroup);
+        computeCost(joinExpr, false);
+        updateBestPlan(union(s1, s2), joinExpr);
+    }
+
+    /**
+     * Put the atoms in a linear order and enumerate the bushy trees of the consecutive atoms.
+     * The plans found by DPhyp before the budget exceeded are reused.
+     */
+    private GroupInfo linearizedDP() {
+        int[] order = linearize();
+        GroupInfo[][] best = new GroupInfo[atomSize][atomSize];
+        for (int i = 0; i < atomSize; i++) {
+            best[i][i] = joinLevels.get(1).groups.get(order[i]);
+        }
+
+        for (int length = 2; length <= atomSize; length++) {
+            for (int i = 0; i + length - 1 < atomSize; i++) {
+                int j = i + length - 1;
+                GroupInfo bestInterval = null;
+                // Avoid cross join if there is any split joined by predicates
+                boolean hasConnectedSplit = false;
+                for (int k = i; k < j; k++) {
+                    if (isConnected(best[i][k].atoms, best[k + 1][j].atoms)) {
+                        hasConnectedSplit = true;
+                        break;
+                    }
+                }
+
+                for (int k = i; k < j; k++) {
+                    GroupInfo left = best[i][k];
+                    GroupInfo right = best[k + 1][j];
+                    if (hasConnectedSplit && !isConnected(left.atoms, right.atoms)) {
+                        continue;
+                    }
+                    ExpressionInfo joinExpr = buildJoinExprWithStatistics(left, right);
+                    computeCost(joinExpr, true);
+                    GroupInfo group = updateBestPlan(union(left.atoms, right.atoms), joinExpr);
+                    if (bestInterval == null || group.lowestExprCost < bestInterval.lowestExprCost) {
+                        bestInterval = group;
+                    }
+                }
+                best[i][j] = bestInterval;
+            }
+        }
+        return best[0][atomSize - 1];
+    }
+
+    /**
+     * Start with the atom with the smallest row count, then repeatedly append the smallest atom
+     * connected to the atoms already in the order, so that the joins of consecutive atoms are selective.
+     */
+    private int[] linearize() {
+        List<GroupInfo> atoms = joinLevels.get(1).groups;
+        int[] order = new int[atomSize];
+        BitSet chosen = new BitSet();
+        for (int n = 0; n < atomSize; n++) {
+            int next = -1;
+            boolean nextConnected = false;
+            for (int i = 0; i < atomSize; i++) {
+                if (chosen.get(i)) {
+                    continue;
+                }
+                BitSet candidate = new BitSet();
+                candidate.set(i);
+                boolean connected = !chosen.isEmpty() && isConnected(chosen, candidate);
+                if (next == -1 || (connected && !nextConnected) || (connected == nextConnected &&
+                        atoms.get(i).bestExprInfo.rowCount < atoms.get(next).bestExprInfo.rowCount)) {
+                    next = i;
+                    nextConnected = connected;
+                }
+            }
+            order[n] = next;
+            chosen.set(next);
+        }
+        return order;
+    }
+
+    private ExpressionInfo buildJoinExprWithStatistics(GroupInfo leftGroup, GroupInfo rightGroup) {
+        ExpressionInfo joinExpr = buildJoinExpr(leftGroup, rightGroup);
+        joinExpr.expr.deriveLogicalPropertyItself();
+
+        BitSet joinAtoms = union(leftGroup.atoms, rightGroup.atoms);
+        Statistics statistics = statisticsMemo.get(joinAtoms);
+        if (statistics != null && statistics.getUsedColumns().containsAll(joinExpr.expr.getOutputColumns())) {
+            joinExpr.expr.setStatistics(statistics);
+        } else {
+            calculateStatistics(joinExpr.expr);
+            statisticsMemo.put(joinAtoms, joinExpr.expr.getStatistics());
+        }
+        return joinExpr;
+    }
+
+    private GroupInfo updateBestPlan(BitSet atoms, ExpressionInfo joinExpr) {
+        GroupInfo group = bestPlanMemo.get(atoms);
+        if (group == null) {
+            group = new GroupInfo(atoms);
+            bestPlanMemo.put(atoms, group);
+        }
+        if (joinExpr.cost < group.lowestExprCost) {
+            group.bestExprInfo = joinExpr;
+            group.lowestExprCost = joinExpr.cost;
+        }
+        return group;
+    }
+
+    /**
+     * The neighborhood of s is the atoms connected to s by an edge and not in excluded.
+     * For an edge referencing more than two atoms, the smallest atom outside s represents the edge.
+     */
+    private BitSet neighborhood(BitSet s, BitSet excluded) {
+        BitSet neighbors = new BitSet();
+        for (Edge edge : edges) {
+            if (!edge.vertexes.intersects(s)) {
+                continue;
+            }
+            BitSet rest = (BitSet) edge.vertexes.clone();
+            rest.andNot(s);
+            if (!rest.isEmpty() && !rest.intersects(excluded)) {
+                neighbors.set(rest.nextSetBit(0));
+            }
+        }
+        return neighbors;
+    }
+
+    // Whether there is an edge between s1 and s2 which only references the atoms in s1 and s2
+    private boolean isConnected(BitSet s1, BitSet s2) {
+        for (Edge edge : edges) {
+            if (edge.vertexes.intersects(s1) && edge.vertexes.intersects(s2)) {
+                BitSet rest = (BitSet) edge.vertexes.clone();
+                rest.andNot(s1);
+                rest.andNot(s2);
+                if (rest.isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Non-empty subsets of s, a subset is always ahead of its supersets
+    private List<BitSet> subsets(BitSet s) {
+        int[] bits = s.stream().toArray();
+        if (bits.length >= Long.SIZE - 1) {
+            throw new BudgetExceededException();
+        }
+        List<BitSet> subsets = Lists.newArrayList();
+        for (long mask = 1; mask < (1L << bits.length); mask++) {
+            if (++enumeratedSets % 1024 == 0 && isTimeout()) {
+                throw new BudgetExceededException();
+            }
+            // Enumerating subsets is far cheaper than building join expressions, but the number of
+            // subsets grows exponentially for star join, so it is also limited by the budget
+            if (enumeratedSets > maxJoinPairs * 64) {
+                throw new BudgetExceededException();
+            }
+            BitSet subset = new BitSet();
+            for (int i = 0; i < bits.length; i++) {
+                if ((mask & (1L << i)) != 0) {
+                    subset.set(bits[i]);
+                }
+            }
+            subsets.add(subset);
+        }
+        return subsets;
+    }
+
+    private boolean isTimeout() {
+        return System.currentTimeMillis() - startTime > timeoutMs;
+    }
+
+    private static BitSet union(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        result.or(right);
+        return result;
+    }
+}
@@ -154,6 +154,11 @@ public class ReorderJoinRule extends Rule {
                     // 10 table join reorder takes more than 100ms,
                     // so the join reorder using dp is currently controlled below 10.
                     enumerate(new JoinReorderDP(context), context, innerJoinRoot, multiJoinNode);
+                } else if (context.getSessionVariable().isCboEnableDPHypJoinReorder() &&
+                        multiJoinNode.getAtoms().size() <= context.getSessionVariable().getCboMaxReorderNodeUseDPHyp()) {
+                    // DPhyp only enumerates the connected sub graphs, and falls back to linearized DP
+                    // when exceeding the budget, so it could be used for much more tables.
+                    enumerate(new JoinReorderDPHyp(context), context, innerJoinRoot, multiJoinNode);
                 }
 
                 if (context.getSessionVariable().isCboEnableGreedyJoinReorder()) {
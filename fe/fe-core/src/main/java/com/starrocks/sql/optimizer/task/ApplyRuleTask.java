@@ -13,10 +13,13 @@ import com.starrocks.sql.optimizer.OptimizerTraceUtil;
 import com.starrocks.sql.optimizer.operator.pattern.Pattern;
 import com.starrocks.sql.optimizer.rule.Binder;
 import com.starrocks.sql.optimizer.rule.Rule;
+import com.starrocks.sql.optimizer.rule.RuleType;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * ApplyRuleTask firstly applies a rule, then
@@ -33,6 +36,11 @@ import java.util.List;
 
 public class ApplyRuleTask extends OptimizerTask {
     private static final Logger LOG = LogManager.getLogger(Optimizer.class);
+    // The join exploration rules are the main source of memo growth, and the plan is still complete
+    // without them, so they are skipped once the memo exceeds the budget
+    private static final Set<RuleType> JOIN_EXPLORATION_RULES = EnumSet.of(RuleType.TF_JOIN_ASSOCIATIVITY,
+            RuleType.TF_JOIN_COMMUTATIVITY, RuleType.TF_JOIN_COMMUTATIVITY_WITHOUT_INNER,
+            RuleType.TF_JOIN_SEMI_REORDER);
     private final GroupExpression groupExpression;
     private final Rule rule;
 
@@ -54,6 +62,9 @@ public class ApplyRuleTask extends OptimizerTask {
                 groupExpression.isUnused()) {
             return;
         }
+        if (JOIN_EXPLORATION_RULES.contains(rule.type()) && context.getOptimizerContext().isMemoBudgetExceeded()) {
+            return;
+        }
         SessionVariable sessionVariable = context.getOptimizerContext().getSessionVariable();
         // Apply rule and get all new OptExpressions
         Pattern pattern = rule.getPattern();
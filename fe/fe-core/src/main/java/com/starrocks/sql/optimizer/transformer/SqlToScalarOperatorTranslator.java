@@ -26,6 +26,7 @@ import com.starrocks.analysis.IsNullPredicate;
 import com.starrocks.analysis.LikePredicate;
 import com.starrocks.analysis.LiteralExpr;
 import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.Parameter;
 import com.starrocks.analysis.ParseNode;
 import com.starrocks.analysis.SlotRef;
 import com.starrocks.analysis.Subquery;
@@ -457,6 +458,11 @@ public final class SqlToScalarOperatorTranslator {
                     ConstantOperator.createBigint(node.getIntValue())));
         }
 
+        @Override
+        public ScalarOperator visitParameter(Parameter node, Void context) {
+            return visit(node.getValue());
+        }
+
         @Override
         public ScalarOperator visitSysVariableDesc(SysVariableDesc node, Void context) {
             switch (node.getType().getPrimitiveType()) {
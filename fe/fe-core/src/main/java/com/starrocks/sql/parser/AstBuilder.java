@@ -91,6 +91,7 @@ import com.starrocks.analysis.NullLiteral;
 import com.starrocks.analysis.OdbcScalarFunctionCall;
 import com.starrocks.analysis.OrderByElement;
 import com.starrocks.analysis.OutFileClause;
+import com.starrocks.analysis.Parameter;
 import com.starrocks.analysis.ParseNode;
 import com.starrocks.analysis.PartitionDesc;
 import com.starrocks.analysis.PartitionKeyDesc;
@@ -225,11 +226,17 @@ import static java.util.stream.Collectors.toList;
 
 public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
     private final long sqlMode;
+    // the parameter markers of the statement, in the order they are visited
+    private final List<Parameter> parameters = new ArrayList<>();
 
     public AstBuilder(long sqlMode) {
         this.sqlMode = sqlMode;
     }
 
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
     @Override
     public ParseNode visitSingleStatement(StarRocksParser.SingleStatementContext context) {
         return visit(context.statement());
@@ -2111,12 +2118,7 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
         switch (context.operator.getType()) {
             case StarRocksLexer.MINUS_SYMBOL:
                 if (child.isLiteral() && child.getType().isNumericType()) {
-                    try {
-                        ((LiteralExpr) child).swapSign();
-                    } catch (NotImplementedException e) {
-                        throw new ParsingException(e.getMessage());
-                    }
-                    return child;
+                    return negate((LiteralExpr) child);
                 } else {
                     return new ArithmeticExpr(ArithmeticExpr.Operator.MULTIPLY, new IntLiteral(-1), child);
                 }
@@ -2131,6 +2133,15 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
         }
     }
 
+    static LiteralExpr negate(LiteralExpr literal) {
+        try {
+            literal.swapSign();
+        } catch (NotImplementedException e) {
+            throw new ParsingException(e.getMessage());
+        }
+        return literal;
+    }
+
     @Override
     public ParseNode visitArithmeticBinary(StarRocksParser.ArithmeticBinaryContext context) {
         Expr left = (Expr) visit(context.left);
@@ -2376,6 +2387,13 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
         return new FunctionCallExpr("concat", new FunctionParams(Lists.newArrayList(left, right)));
     }
 
+    @Override
+    public ParseNode visitParameter(StarRocksParser.ParameterContext context) {
+        Parameter parameter = new Parameter(context.start.getStartIndex());
+        parameters.add(parameter);
+        return parameter;
+    }
+
     @Override
     public ParseNode visitNullLiteral(StarRocksParser.NullLiteralContext context) {
         return new NullLiteral();
@@ -2402,8 +2420,12 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
 
     @Override
     public ParseNode visitIntegerValue(StarRocksParser.IntegerValueContext context) {
+        return createIntegerLiteral(context.getText());
+    }
+
+    static LiteralExpr createIntegerLiteral(String text) {
         try {
-            BigInteger intLiteral = new BigInteger(context.getText());
+            BigInteger intLiteral = new BigInteger(text);
             // Note: val is positive, because we do not recognize minus character in 'IntegerLiteral'
             // -2^63 will be recognized as large int(__int128)
             if (intLiteral.compareTo(LONG_MAX) <= 0) {
@@ -2414,22 +2436,26 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
                 throw new ParsingException("Numeric overflow " + intLiteral);
             }
         } catch (NumberFormatException | AnalysisException e) {
-            throw new ParsingException("Invalid numeric literal: " + context.getText());
+            throw new ParsingException("Invalid numeric literal: " + text);
         }
     }
 
     @Override
     public ParseNode visitDoubleValue(StarRocksParser.DoubleValueContext context) {
+        return createDoubleLiteral(context.getText());
+    }
+
+    LiteralExpr createDoubleLiteral(String text) {
         try {
             if (SqlModeHelper.check(sqlMode, SqlModeHelper.MODE_DOUBLE_LITERAL)) {
-                return new FloatLiteral(context.getText());
+                return new FloatLiteral(text);
             } else {
-                BigDecimal decimal = new BigDecimal(context.getText());
+                BigDecimal decimal = new BigDecimal(text);
                 int precision = DecimalLiteral.getRealPrecision(decimal);
                 int scale = DecimalLiteral.getRealScale(decimal);
                 int integerPartWidth = precision - scale;
                 if (integerPartWidth > 38) {
-                    return new FloatLiteral(context.getText());
+                    return new FloatLiteral(text);
                 }
                 return new DecimalLiteral(decimal);
             }
@@ -2441,11 +2467,15 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
 
     @Override
     public ParseNode visitDecimalValue(StarRocksParser.DecimalValueContext context) {
+        return createDecimalLiteral(context.getText());
+    }
+
+    LiteralExpr createDecimalLiteral(String text) {
         try {
             if (SqlModeHelper.check(sqlMode, SqlModeHelper.MODE_DOUBLE_LITERAL)) {
-                return new FloatLiteral(context.getText());
+                return new FloatLiteral(text);
             } else {
-                return new DecimalLiteral(context.getText());
+                return new DecimalLiteral(text);
             }
         } catch (AnalysisException e) {
             throw new ParsingException(e.getMessage());
@@ -2470,17 +2500,24 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
 
     @Override
     public ParseNode visitString(StarRocksParser.StringContext context) {
-        String quotedString;
         if (context.SINGLE_QUOTED_TEXT() != null) {
-            quotedString = context.SINGLE_QUOTED_TEXT().getText();
+            return createStringLiteral(context.SINGLE_QUOTED_TEXT().getText());
+        } else {
+            return createStringLiteral(context.DOUBLE_QUOTED_TEXT().getText());
+        }
+    }
+
+    // text is the quoted text of SINGLE_QUOTED_TEXT or DOUBLE_QUOTED_TEXT
+    static StringLiteral createStringLiteral(String text) {
+        String quotedString;
+        if (text.charAt(0) == '\'') {
             // For support mysql embedded quotation
             // In a single-quoted string, two single-quotes are combined into one single-quote
-            quotedString = quotedString.substring(1, quotedString.length() - 1).replace("''", "'");
+            quotedString = text.substring(1, text.length() - 1).replace("''", "'");
         } else {
-            quotedString = context.DOUBLE_QUOTED_TEXT().getText();
             // For support mysql embedded quotation
             // In a double-quoted string, two double-quotes are combined into one double-quote
-            quotedString = quotedString.substring(1, quotedString.length() - 1).replace("\"\"", "\"");
+            quotedString = text.substring(1, text.length() - 1).replace("\"\"", "\"");
         }
         return new StringLiteral(escapeBackSlash(quotedString));
     }
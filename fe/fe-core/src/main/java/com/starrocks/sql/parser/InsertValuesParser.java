@@ -0,0 +1,290 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.parser;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.BoolLiteral;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.InsertStmt;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.sql.ast.QueryRelation;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.ValuesRelation;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parse the rows of a large INSERT ... VALUES statement without building the ANTLR parse tree of each literal.
+ * <p>
+ * The statement is lexed until the VALUES keyword, then the rows are scanned by hand, each value must be a
+ * NULL, TRUE, FALSE, optionally signed number or quoted string literal. The part before the second row is
+ * parsed by the ANTLR parser as usual, and its rows are replaced by the scanned rows. The literals are created
+ * by the same methods of AstBuilder, so the result is the same as the one of the ANTLR parser.
+ * <p>
+ * Returns null if the statement is not such a statement, e.g. there is a DEFAULT or an expression in the rows,
+ * and the caller parses it by the ANTLR parser.
+ */
+class InsertValuesParser {
+    // statements shorter than this are cheap enough for the ANTLR parser
+    static final int MIN_SQL_LENGTH = 16 * 1024;
+
+    private final String sql;
+    private final long sqlMode;
+    private final AstBuilder astBuilder;
+    private int pos;
+
+    private InsertValuesParser(String sql, long sqlMode) {
+        this.sql = sql;
+        this.sqlMode = sqlMode;
+        this.astBuilder = new AstBuilder(sqlMode);
+    }
+
+    static StatementBase parse(String sql, long sqlMode) {
+        if (sql.length() < MIN_SQL_LENGTH) {
+            return null;
+        }
+        try {
+            return new InsertValuesParser(sql, sqlMode).parse();
+        } catch (ParsingException e) {
+            // let the ANTLR parser report the error
+            return null;
+        }
+    }
+
+    private StatementBase parse() {
+        int valuesEnd = findValuesKeyword();
+        if (valuesEnd < 0) {
+            return null;
+        }
+        pos = valuesEnd;
+        List<ArrayList<Expr>> rows = new ArrayList<>();
+        int firstRowEnd = -1;
+        do {
+            ArrayList<Expr> row = scanRow();
+            if (row == null) {
+                return null;
+            }
+            rows.add(row);
+            if (firstRowEnd < 0) {
+                firstRowEnd = pos;
+            }
+            skipWhitespace();
+        } while (consume(','));
+        if (pos != sql.length()) {
+            return null;
+        }
+
+        StatementBase statement = SqlParser.parseSingleStatement(sql.substring(0, firstRowEnd), sqlMode);
+        if (!(statement instanceof InsertStmt)) {
+            return null;
+        }
+        InsertStmt insertStmt = (InsertStmt) statement;
+        QueryStatement queryStatement = insertStmt.getQueryStatement();
+        QueryRelation relation = queryStatement.getQueryRelation();
+        if (!(relation instanceof ValuesRelation) || ((ValuesRelation) relation).getRows().size() != 1) {
+            return null;
+        }
+        ValuesRelation valuesRelation = new ValuesRelation(rows, relation.getColumnOutputNames());
+        QueryStatement newQueryStatement = new QueryStatement(valuesRelation);
+        newQueryStatement.setIsExplain(queryStatement.isExplain(), queryStatement.getExplainLevel());
+        insertStmt.setQueryStatement(newQueryStatement);
+        return insertStmt;
+    }
+
+    /**
+     * Lex the statement until the VALUES keyword out of any parentheses, returns the offset after it, or -1 if
+     * it's not an INSERT statement or there is no such keyword.
+     */
+    private int findValuesKeyword() {
+        StarRocksLexer lexer = new StarRocksLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
+        lexer.removeErrorListeners();
+        int depth = 0;
+        boolean first = true;
+        for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+                continue;
+            }
+            int type = token.getType();
+            if (first) {
+                if (type != StarRocksLexer.INSERT && type != StarRocksLexer.EXPLAIN
+                        && type != StarRocksLexer.DESC && type != StarRocksLexer.DESCRIBE) {
+                    return -1;
+                }
+                first = false;
+            } else if (type == StarRocksLexer.SELECT) {
+                // INSERT ... SELECT
+                return -1;
+            }
+            String text = token.getText();
+            if (text.equals("(")) {
+                depth++;
+            } else if (text.equals(")")) {
+                depth--;
+            } else if (type == StarRocksLexer.VALUES && depth == 0) {
+                return token.getStopIndex() + 1;
+            }
+        }
+        return -1;
+    }
+
+    private ArrayList<Expr> scanRow() {
+        skipWhitespace();
+        if (!consume('(')) {
+            return null;
+        }
+        ArrayList<Expr> row = Lists.newArrayList();
+        do {
+            skipWhitespace();
+            Expr value = scanLiteral();
+            if (value == null) {
+                return null;
+            }
+            row.add(value);
+            skipWhitespace();
+        } while (consume(','));
+        return consume(')') ? row : null;
+    }
+
+    private Expr scanLiteral() {
+        if (pos >= sql.length()) {
+            return null;
+        }
+        char c = sql.charAt(pos);
+        if (c == '\'' || c == '"') {
+            return scanString(c);
+        }
+        if (c == '-' || c == '+') {
+            pos++;
+            skipWhitespace();
+            LiteralExpr number = scanNumber();
+            if (number == null) {
+                return null;
+            }
+            return c == '-' ? AstBuilder.negate(number) : number;
+        }
+        if (isDigit(c) || c == '.') {
+            return scanNumber();
+        }
+        if (consumeKeyword("NULL")) {
+            return new NullLiteral();
+        }
+        if (consumeKeyword("TRUE")) {
+            return new BoolLiteral(true);
+        }
+        if (consumeKeyword("FALSE")) {
+            return new BoolLiteral(false);
+        }
+        return null;
+    }
+
+    // same as SINGLE_QUOTED_TEXT and DOUBLE_QUOTED_TEXT of the lexer
+    private Expr scanString(char quote) {
+        int start = pos++;
+        while (pos < sql.length()) {
+            char c = sql.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+            } else if (c == quote) {
+                if (pos + 1 < sql.length() && sql.charAt(pos + 1) == quote) {
+                    pos += 2;
+                } else {
+                    pos++;
+                    return AstBuilder.createStringLiteral(sql.substring(start, pos));
+                }
+            } else {
+                pos++;
+            }
+        }
+        return null;
+    }
+
+    // same as INTEGER_VALUE, DECIMAL_VALUE and DOUBLE_VALUE of the lexer
+    private LiteralExpr scanNumber() {
+        int start = pos;
+        int intDigits = skipDigits();
+        boolean isDecimal = false;
+        if (pos < sql.length() && sql.charAt(pos) == '.') {
+            pos++;
+            isDecimal = true;
+            if (skipDigits() == 0 && intDigits == 0) {
+                return null;
+            }
+        } else if (intDigits == 0) {
+            return null;
+        }
+        boolean isDouble = false;
+        if (pos < sql.length() && (sql.charAt(pos) == 'E' || sql.charAt(pos) == 'e')) {
+            pos++;
+            if (pos < sql.length() && (sql.charAt(pos) == '+' || sql.charAt(pos) == '-')) {
+                pos++;
+            }
+            if (skipDigits() == 0) {
+                return null;
+            }
+            isDouble = true;
+        }
+        // e.g. 1abc is an identifier
+        if (pos < sql.length() && isIdentifierPart(sql.charAt(pos))) {
+            return null;
+        }
+        String text = sql.substring(start, pos);
+        if (isDouble) {
+            return astBuilder.createDoubleLiteral(text);
+        } else if (isDecimal) {
+            return astBuilder.createDecimalLiteral(text);
+        } else {
+            return AstBuilder.createIntegerLiteral(text);
+        }
+    }
+
+    private int skipDigits() {
+        int start = pos;
+        while (pos < sql.length() && isDigit(sql.charAt(pos))) {
+            pos++;
+        }
+        return pos - start;
+    }
+
+    private boolean consumeKeyword(String keyword) {
+        int end = pos + keyword.length();
+        if (sql.regionMatches(true, pos, keyword, 0, keyword.length())
+                && (end == sql.length() || !isIdentifierPart(sql.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean consume(char c) {
+        if (pos < sql.length() && sql.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    // same as WS of the lexer
+    private void skipWhitespace() {
+        while (pos < sql.length()) {
+            char c = sql.charAt(pos);
+            if (c != ' ' && c != '\r' && c != '\n' && c != '\t') {
+                break;
+            }
+            pos++;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // same as LETTER and DIGIT of the lexer, '.' is not allowed either, e.g. 1.2.3
+    private static boolean isIdentifierPart(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$'
+                || c >= '\u0080' || c == '.';
+    }
+}
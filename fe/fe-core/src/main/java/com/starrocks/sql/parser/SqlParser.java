@@ -3,20 +3,54 @@ package com.starrocks.sql.parser;
 
 import com.clearspring.analytics.util.Lists;
 import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.Parameter;
 import com.starrocks.analysis.QueryStmt;
 import com.starrocks.analysis.SqlScanner;
 import com.starrocks.analysis.StatementBase;
 import com.starrocks.common.AnalysisException;
+import com.starrocks.common.Config;
 import com.starrocks.common.util.SqlParserUtils;
 import com.starrocks.qe.OriginStatement;
+import com.starrocks.qe.SqlModeHelper;
 import com.starrocks.sql.StatementPlanner;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.io.StringReader;
+import java.util.Comparator;
 import java.util.List;
 
 public class SqlParser {
+    private static final Logger LOG = LogManager.getLogger(SqlParser.class);
+
+    private static final String[] WARM_UP_STATEMENTS = {
+            "select a, b + 1, count(*) from db.t where c > 1 and d in ('x', 'y') group by a, b " +
+                    "having count(*) > 1 order by a desc limit 10",
+            "select * from t1 left join t2 on t1.a = t2.a and t1.b < t2.b join t3 using (c) " +
+                    "where t1.d is not null or t2.e like 'x%'",
+            "with w as (select a, sum(b) over (partition by c order by d) s from t) " +
+                    "select a, case when s > 0 then 1 else 0 end from w union all select 1, 2",
+            "select a from t where b = (select max(b) from t2) and exists (select 1 from t3 where t3.c = t.c)",
+            "select cast(a as varchar(10)), date_trunc('day', b), if(c, 1, null), [1, 2][1] from t",
+            "insert into db.t (a, b) values (1, 'x'), (-2.5, null)",
+            "insert overwrite t partition (p1) with label l select * from t2",
+            "update t set a = a + 1 where b = 2",
+            "delete from t where a = 1",
+            "explain select a from t",
+            "show tables from db",
+            "use db",
+            "set a = 1",
+            "create table t (a int, b varchar(10)) duplicate key(a) distributed by hash(a) buckets 1",
+            "create view v as select a from t",
+            "drop table if exists t",
+    };
+
     public static List<StatementBase> parse(String originSql, long sqlMode) {
         List<String> splitSql = splitSQL(originSql);
         List<StatementBase> statements = Lists.newArrayList();
@@ -24,15 +58,13 @@ public class SqlParser {
         for (int idx = 0; idx < splitSql.size(); ++idx) {
             String sql = splitSql.get(idx);
             try {
-                StarRocksLexer lexer = new StarRocksLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
-                CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-                StarRocksParser parser = new StarRocksParser(tokenStream);
-                StarRocksParser.sqlMode = sqlMode;
-                parser.removeErrorListeners();
-                parser.addErrorListener(new ErrorHandler());
-                StarRocksParser.SqlStatementsContext sqlStatements = parser.sqlStatements();
-                StatementBase statement = (StatementBase) new AstBuilder(sqlMode)
-                        .visitSingleStatement(sqlStatements.singleStatement(0));
+                StatementBase statement = null;
+                if (Config.enable_fast_parse_insert_values) {
+                    statement = InsertValuesParser.parse(sql, sqlMode);
+                }
+                if (statement == null) {
+                    statement = parseSingleStatement(sql, sqlMode);
+                }
                 statement.setOrigStmt(new OriginStatement(sql, idx));
                 statements.add(statement);
             } catch (ParsingException parsingException) {
@@ -47,6 +79,71 @@ public class SqlParser {
         return statements;
     }
 
+    static StatementBase parseSingleStatement(String sql, long sqlMode) {
+        StarRocksParser.SqlStatementsContext sqlStatements = parseStatements(sql, sqlMode);
+        return (StatementBase) new AstBuilder(sqlMode).visitSingleStatement(sqlStatements.singleStatement(0));
+    }
+
+    /**
+     * Parse the statement prepared by COM_STMT_PREPARE, whose parameter markers '?' are parsed as the parameters.
+     * The parameters are added to the list in the order they appear in the statement.
+     */
+    public static StatementBase parsePreparedStatement(String sql, long sqlMode, List<Parameter> parameters) {
+        StarRocksParser.SqlStatementsContext sqlStatements = parseStatements(sql, sqlMode);
+        if (sqlStatements.singleStatement().size() != 1) {
+            throw new ParsingException("Only one statement can be prepared");
+        }
+        AstBuilder astBuilder = new AstBuilder(sqlMode);
+        StatementBase statement = (StatementBase) astBuilder.visitSingleStatement(sqlStatements.singleStatement(0));
+        statement.setOrigStmt(new OriginStatement(sql, 0));
+        parameters.addAll(astBuilder.getParameters());
+        parameters.sort(Comparator.comparingInt(Parameter::getOffset));
+        return statement;
+    }
+
+    /**
+     * Parse the statement in SLL mode first, which is much faster but may fail on some valid statements,
+     * and parse it again in LL mode only if SLL mode fails.
+     */
+    private static StarRocksParser.SqlStatementsContext parseStatements(String sql, long sqlMode) {
+        StarRocksLexer lexer = new StarRocksLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
+        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        StarRocksParser parser = new StarRocksParser(tokenStream);
+        StarRocksParser.sqlMode = sqlMode;
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        StarRocksParser.SqlStatementsContext sqlStatements;
+        try {
+            sqlStatements = parser.sqlStatements();
+        } catch (ParseCancellationException e) {
+            // the statement is invalid or needs the full context to parse, the error is reported by LL mode
+            tokenStream.seek(0);
+            parser.reset();
+            parser.addErrorListener(new ErrorHandler());
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            sqlStatements = parser.sqlStatements();
+        }
+        return sqlStatements;
+    }
+
+    /**
+     * Parse some common statements to fill the DFA cache of the parser, which is shared by all the parsers,
+     * so that the first statements of users are not slow.
+     */
+    public static void warmUp() {
+        long startTime = System.currentTimeMillis();
+        for (String sql : WARM_UP_STATEMENTS) {
+            try {
+                parseSingleStatement(sql, SqlModeHelper.MODE_DEFAULT);
+            } catch (Exception e) {
+                LOG.warn("failed to parse warm up statement: {}", sql, e);
+            }
+        }
+        LOG.info("warm up sql parser cost {} ms", System.currentTimeMillis() - startTime);
+    }
+
     /**
      * parse sql to expression, only supports new parser
      *
@@ -93,6 +190,14 @@ public class SqlParser {
         }
     }
 
+    /**
+     * Return the text of the idx-th statement of the multi statements, the same as it's parsed.
+     */
+    public static String getStatementText(String originSql, int idx) {
+        List<String> splitSql = splitSQL(originSql);
+        return idx < splitSql.size() ? splitSql.get(idx) : originSql;
+    }
+
     private static List<String> splitSQL(String sql) {
         sql = removeComment(sql);
 
@@ -356,6 +356,7 @@ BITNOT: '~';
 
 ARROW: '->';
 AT: '@';
+PARAMETER: '?';
 
 INTEGER_VALUE
     : DIGIT+
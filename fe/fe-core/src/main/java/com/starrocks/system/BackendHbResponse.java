@@ -48,6 +48,10 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
     @SerializedName(value = "cpuCores")
     private int cpuCores;
 
+    // load memory usage, only used by the master to choose backends for loads, not persisted
+    private long loadMemConsumption = -1;
+    private long loadMemLimit = -1;
+
     public BackendHbResponse() {
         super(HeartbeatResponse.Type.BACKEND);
     }
@@ -101,6 +105,19 @@ public class BackendHbResponse extends HeartbeatResponse implements Writable {
         return cpuCores;
     }
 
+    public void setLoadMemUsage(long loadMemConsumption, long loadMemLimit) {
+        this.loadMemConsumption = loadMemConsumption;
+        this.loadMemLimit = loadMemLimit;
+    }
+
+    public long getLoadMemConsumption() {
+        return loadMemConsumption;
+    }
+
+    public long getLoadMemLimit() {
+        return loadMemLimit;
+    }
+
     public static BackendHbResponse read(DataInput in) throws IOException {
         BackendHbResponse result = new BackendHbResponse();
         result.readFields(in);
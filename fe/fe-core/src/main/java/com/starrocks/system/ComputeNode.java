@@ -73,6 +73,10 @@ public class ComputeNode implements IComputable, Writable {
     // port of starlet on BE
     private volatile int starletPort;
 
+    // load memory usage reported by heartbeat, -1 if unknown
+    private volatile long loadMemConsumption = -1;
+    private volatile long loadMemLimit = -1;
+
     public ComputeNode() {
         this.host = "";
         this.version = "";
@@ -114,6 +118,18 @@ public class ComputeNode implements IComputable, Writable {
         return starletPort;
     }
 
+    public int getCpuCores() {
+        return cpuCores;
+    }
+
+    public long getLoadMemConsumption() {
+        return loadMemConsumption;
+    }
+
+    public long getLoadMemLimit() {
+        return loadMemLimit;
+    }
+
     // for test only
     public void setStarletPort(int starletPort) {
         this.starletPort = starletPort;
@@ -378,6 +394,10 @@ public class ComputeNode implements IComputable, Writable {
                 this.starletPort = hbResponse.getStarletPort();
             }
 
+            // changes frequently and does not need to be persisted
+            this.loadMemConsumption = hbResponse.getLoadMemConsumption();
+            this.loadMemLimit = hbResponse.getLoadMemLimit();
+
             this.lastUpdateMs = hbResponse.getHbTime();
             if (!isAlive.get()) {
                 isChanged = true;
@@ -22,7 +22,6 @@
 package com.starrocks.system;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.starrocks.catalog.FsBroker;
 import com.starrocks.common.ClientPool;
@@ -32,6 +31,7 @@ import com.starrocks.common.Version;
 import com.starrocks.common.util.MasterDaemon;
 import com.starrocks.common.util.Util;
 import com.starrocks.http.rest.BootstrapFinishAction;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.persist.HbPackage;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.FrontendOptions;
@@ -54,10 +54,15 @@ import org.json.JSONObject;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Heartbeat manager run as a daemon at a fix interval.
@@ -67,9 +72,15 @@ public class HeartbeatMgr extends MasterDaemon {
     private static final Logger LOG = LogManager.getLogger(HeartbeatMgr.class);
 
     private final ExecutorService executor;
+    private final CompletionService<HeartbeatResponse> completionService;
     private final SystemInfoService nodeMgr;
     private final HeartbeatFlags heartbeatFlags;
 
+    // node -> the heartbeat state of the node, only accessed by the heartbeat daemon
+    private Map<String, NodeHbState> nodeHbStates = Maps.newHashMap();
+    // the heartbeats in flight, which may be sent in the previous rounds
+    private final Map<Future<HeartbeatResponse>, NodeHbState> inFlightStates = Maps.newHashMap();
+
     private static AtomicReference<TMasterInfo> masterInfo = new AtomicReference<>();
 
     public HeartbeatMgr(SystemInfoService nodeMgr, boolean needRegisterMetric) {
@@ -77,6 +88,7 @@ public class HeartbeatMgr extends MasterDaemon {
         this.nodeMgr = nodeMgr;
         this.executor = ThreadPoolManager.newDaemonFixedThreadPool(Config.heartbeat_mgr_threads_num,
                 Config.heartbeat_mgr_blocking_queue_size, "heartbeat-mgr-pool", needRegisterMetric);
+        this.completionService = new ExecutorCompletionService<>(executor);
         this.heartbeatFlags = new HeartbeatFlags();
     }
 
@@ -92,23 +104,34 @@ public class HeartbeatMgr extends MasterDaemon {
 
     /**
      * At each round:
-     * 1. send heartbeat to all nodes
-     * 2. collect the heartbeat response from all nodes, and handle them
+     * 1. send heartbeat to all nodes, except the ones whose heartbeat of the previous rounds is still in flight,
+     *    or the stable ones which are skipped for this round
+     * 2. handle the heartbeat responses as they arrive, until all of them arrive or the deadline of the round,
+     *    the nodes which have not responded until the deadline are regarded as failed for this round, and their
+     *    responses are handled when they arrive in the following rounds
      */
     @Override
     protected void runAfterCatalogReady() {
-        List<Future<HeartbeatResponse>> hbResponses = Lists.newArrayList();
+        Map<String, Callable<HeartbeatResponse>> handlers = Maps.newHashMap();
+        Map<String, Supplier<HeartbeatResponse>> timeoutResponses = Maps.newHashMap();
+        Map<String, NodeHbState> newNodeHbStates = Maps.newHashMap();
+        String timeoutMsg = "heartbeat timeout";
 
         // send backend heartbeat
         for (Backend backend : nodeMgr.getIdToBackend().values()) {
-            BackendHeartbeatHandler handler = new BackendHeartbeatHandler(backend);
-            hbResponses.add(executor.submit(handler));
+            String key = "be_" + backend.getId();
+            handlers.put(key, new BackendHeartbeatHandler(backend));
+            timeoutResponses.put(key, () -> new BackendHbResponse(backend.getId(), timeoutMsg));
+            newNodeHbStates.put(key, getNodeHbState(key, "backend", backend.getHost(), backend.getHeartbeatPort()));
         }
 
         // send compute node heartbeat
         for (ComputeNode computeNode : nodeMgr.getIdComputeNode().values()) {
-            BackendHeartbeatHandler handler = new BackendHeartbeatHandler(computeNode);
-            hbResponses.add(executor.submit(handler));
+            String key = "cn_" + computeNode.getId();
+            handlers.put(key, new BackendHeartbeatHandler(computeNode));
+            timeoutResponses.put(key, () -> new BackendHbResponse(computeNode.getId(), timeoutMsg));
+            newNodeHbStates.put(key, getNodeHbState(key, "compute_node", computeNode.getHost(),
+                    computeNode.getHeartbeatPort()));
         }
 
         // send frontend heartbeat
@@ -118,10 +141,15 @@ public class HeartbeatMgr extends MasterDaemon {
             if (frontend.getHost().equals(masterInfo.get().getNetwork_address().getHostname())) {
                 masterFeNodeName = frontend.getNodeName();
             }
-            FrontendHeartbeatHandler handler = new FrontendHeartbeatHandler(frontend,
+            String key = "fe_" + frontend.getNodeName();
+            handlers.put(key, new FrontendHeartbeatHandler(frontend,
                     GlobalStateMgr.getCurrentState().getClusterId(),
-                    GlobalStateMgr.getCurrentState().getToken());
-            hbResponses.add(executor.submit(handler));
+                    GlobalStateMgr.getCurrentState().getToken()));
+            timeoutResponses.put(key, () -> new FrontendHbResponse(frontend.getNodeName(), timeoutMsg));
+            NodeHbState state = getNodeHbState(key, "frontend", frontend.getHost(), frontend.getEditLogPort());
+            // the replayed journal id of the frontends is always needed
+            state.skippable = false;
+            newNodeHbStates.put(key, state);
         }
 
         // send broker heartbeat;
@@ -129,34 +157,95 @@ public class HeartbeatMgr extends MasterDaemon {
                 GlobalStateMgr.getCurrentState().getBrokerMgr().getBrokerListMap());
         for (Map.Entry<String, List<FsBroker>> entry : brokerMap.entrySet()) {
             for (FsBroker brokerAddress : entry.getValue()) {
-                BrokerHeartbeatHandler handler = new BrokerHeartbeatHandler(entry.getKey(), brokerAddress,
-                        masterInfo.get().getNetwork_address().getHostname());
-                hbResponses.add(executor.submit(handler));
+                String key = "broker_" + entry.getKey() + "_" + brokerAddress.ip + ":" + brokerAddress.port;
+                handlers.put(key, new BrokerHeartbeatHandler(entry.getKey(), brokerAddress,
+                        masterInfo.get().getNetwork_address().getHostname()));
+                timeoutResponses.put(key, () -> new BrokerHbResponse(entry.getKey(), brokerAddress.ip,
+                        brokerAddress.port, timeoutMsg));
+                newNodeHbStates.put(key, getNodeHbState(key, "broker", brokerAddress.ip, brokerAddress.port));
+            }
+        }
+
+        // the dropped nodes
+        for (NodeHbState state : nodeHbStates.values()) {
+            if (!newNodeHbStates.containsKey(state.key) && MetricRepo.isInit) {
+                MetricRepo.removeHeartbeatRttHistogram(state.nodeType, state.host, state.port);
+            }
+        }
+        nodeHbStates = newNodeHbStates;
+
+        long startTime = System.currentTimeMillis();
+        for (Map.Entry<String, Callable<HeartbeatResponse>> entry : handlers.entrySet()) {
+            NodeHbState state = nodeHbStates.get(entry.getKey());
+            if (state.future != null || state.shouldSkip()) {
+                continue;
+            }
+            Callable<HeartbeatResponse> handler = entry.getValue();
+            try {
+                state.future = completionService.submit(() -> {
+                    long start = System.nanoTime();
+                    HeartbeatResponse response = handler.call();
+                    state.rttMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    return response;
+                });
+            } catch (RejectedExecutionException e) {
+                LOG.warn("failed to send heartbeat to {}", state.key, e);
+                continue;
             }
+            state.sendTime = startTime;
+            state.timedOut = false;
+            inFlightStates.put(state.future, state);
         }
 
-        // collect all heartbeat responses and handle them.
+        // collect the heartbeat responses and handle them as they arrive.
         // and also we find which node's info is changed, if is changed, we need collect them and write
         // an edit log to synchronize the info to other Frontends
         HbPackage hbPackage = new HbPackage();
-        for (Future<HeartbeatResponse> future : hbResponses) {
-            boolean isChanged = false;
+        long timeoutMs = Config.heartbeat_timeout_second * 1000L;
+        long deadline = startTime + timeoutMs;
+        while (!inFlightStates.isEmpty()) {
+            long waitMs = deadline - System.currentTimeMillis();
+            Future<HeartbeatResponse> future;
+            try {
+                future = waitMs > 0 ? completionService.poll(waitMs, TimeUnit.MILLISECONDS)
+                        : completionService.poll();
+            } catch (InterruptedException e) {
+                LOG.warn("got exception when waiting heartbeat", e);
+                break;
+            }
+            if (future == null) {
+                break;
+            }
+            NodeHbState state = inFlightStates.remove(future);
+            if (state == null) {
+                continue;
+            }
+            state.future = null;
             try {
-                // the heartbeat rpc's timeout is 5 seconds, so we will not be blocked here very long.
                 HeartbeatResponse response = future.get();
-                if (response.getStatus() != HbStatus.OK) {
-                    LOG.warn("get bad heartbeat response: {}", response);
-                }
-                isChanged = handleHbResponse(response, false);
-
-                if (isChanged) {
-                    hbPackage.addHbResponse(response);
+                state.onResponse(response.getStatus() == HbStatus.OK);
+                if (MetricRepo.isInit && nodeHbStates.get(state.key) == state) {
+                    MetricRepo.getHeartbeatRttHistogram(state.nodeType, state.host, state.port).update(state.rttMs);
                 }
+                handleResponse(response, hbPackage);
             } catch (InterruptedException | ExecutionException e) {
                 LOG.warn("got exception when doing heartbeat", e);
+            }
+        }
+
+        // the nodes which have not responded in time
+        for (NodeHbState state : inFlightStates.values()) {
+            if (state.timedOut || nodeHbStates.get(state.key) != state
+                    || System.currentTimeMillis() - state.sendTime < timeoutMs) {
                 continue;
             }
-        } // end for all results
+            Supplier<HeartbeatResponse> timeoutResponse = timeoutResponses.get(state.key);
+            if (timeoutResponse != null) {
+                state.timedOut = true;
+                state.onResponse(false);
+                handleResponse(timeoutResponse.get(), hbPackage);
+            }
+        }
 
         // we also add a 'mocked' master Frontends heartbeat response to synchronize master info to other Frontends.
         hbPackage.addHbResponse(new FrontendHbResponse(masterFeNodeName, Config.query_port, Config.rpc_port,
@@ -168,6 +257,26 @@ public class HeartbeatMgr extends MasterDaemon {
         GlobalStateMgr.getCurrentState().getEditLog().logHeartbeat(hbPackage);
     }
 
+    private NodeHbState getNodeHbState(String key, String nodeType, String host, int port) {
+        NodeHbState state = nodeHbStates.get(key);
+        if (state == null || !state.host.equals(host) || state.port != port) {
+            if (state != null && MetricRepo.isInit) {
+                MetricRepo.removeHeartbeatRttHistogram(state.nodeType, state.host, state.port);
+            }
+            state = new NodeHbState(key, nodeType, host, port);
+        }
+        return state;
+    }
+
+    private void handleResponse(HeartbeatResponse response, HbPackage hbPackage) {
+        if (response.getStatus() != HbStatus.OK) {
+            LOG.warn("get bad heartbeat response: {}", response);
+        }
+        if (handleHbResponse(response, false)) {
+            hbPackage.addHbResponse(response);
+        }
+    }
+
     private boolean handleHbResponse(HeartbeatResponse response, boolean isReplay) {
         switch (response.getType()) {
             case FRONTEND: {
@@ -276,8 +385,13 @@ public class HeartbeatMgr extends MasterDaemon {
                     }
 
                     // backend.updateOnce(bePort, httpPort, beRpcPort, brpcPort);
-                    return new BackendHbResponse(computeNodeId, bePort, httpPort, brpcPort, starletPort,
-                            System.currentTimeMillis(), version, cpuCores);
+                    BackendHbResponse backendHbResponse = new BackendHbResponse(computeNodeId, bePort, httpPort,
+                            brpcPort, starletPort, System.currentTimeMillis(), version, cpuCores);
+                    if (tBackendInfo.isSetLoad_mem_consumption() && tBackendInfo.isSetLoad_mem_limit()) {
+                        backendHbResponse.setLoadMemUsage(tBackendInfo.getLoad_mem_consumption(),
+                                tBackendInfo.getLoad_mem_limit());
+                    }
+                    return backendHbResponse;
                 } else {
                     return new BackendHbResponse(computeNodeId,
                             result.getStatus().getError_msgs().isEmpty() ? "Unknown error"
@@ -395,6 +509,47 @@ public class HeartbeatMgr extends MasterDaemon {
         }
     }
 
+    // the heartbeat state of a node
+    static class NodeHbState {
+        final String key;
+        final String nodeType;
+        final String host;
+        final int port;
+        // whether the heartbeat of this node can be skipped when it's stable
+        boolean skippable = true;
+
+        Future<HeartbeatResponse> future;
+        long sendTime;
+        boolean timedOut;
+        // set by the heartbeat thread before the future is done
+        long rttMs;
+
+        int continuousOkNum;
+        int skippedRoundNum;
+
+        NodeHbState(String key, String nodeType, String host, int port) {
+            this.key = key;
+            this.nodeType = nodeType;
+            this.host = host;
+            this.port = port;
+        }
+
+        void onResponse(boolean ok) {
+            continuousOkNum = ok ? continuousOkNum + 1 : 0;
+            skippedRoundNum = 0;
+        }
+
+        // the stable node skips heartbeat_max_skip_rounds rounds after each heartbeat
+        boolean shouldSkip() {
+            if (!skippable || continuousOkNum < Config.heartbeat_stable_rounds
+                    || skippedRoundNum >= Config.heartbeat_max_skip_rounds) {
+                return false;
+            }
+            skippedRoundNum++;
+            return true;
+        }
+    }
+
     public void replayHearbeat(HbPackage hbPackage) {
         for (HeartbeatResponse hbResult : hbPackage.getHbResults()) {
             handleHbResponse(hbResult, true);
@@ -1120,6 +1120,19 @@ public class DatabaseTransactionMgr {
         return txnInfos;
     }
 
+    public void countRunningTransactionByCoordinateBe(Map<String, Integer> hostToTxnNum) {
+        readLock();
+        try {
+            for (TransactionState transactionState : idToRunningTransactionState.values()) {
+                if (transactionState.getCoordinator().sourceType == TransactionState.TxnSourceType.BE) {
+                    hostToTxnNum.merge(transactionState.getCoordinator().ip, 1, Integer::sum);
+                }
+            }
+        } finally {
+            readUnlock();
+        }
+    }
+
     // get show info of a specified txnId
     public List<List<String>> getSingleTranInfo(long dbId, long txnId) throws AnalysisException {
         List<List<String>> infos = new ArrayList<List<String>>();
@@ -57,6 +57,7 @@ import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -615,6 +616,17 @@ public class GlobalTransactionMgr implements Writable {
         return txnInfos.size() > limit ? new ArrayList<>(txnInfos.subList(0, limit)) : txnInfos;
     }
 
+    /**
+     * Get the number of running transactions coordinated by each BE host, such as stream loads.
+     */
+    public Map<String, Integer> getRunningTxnNumByCoordinateBe() {
+        Map<String, Integer> hostToTxnNum = new HashMap<>();
+        for (DatabaseTransactionMgr databaseTransactionMgr : dbIdToDatabaseTransactionMgrs.values()) {
+            databaseTransactionMgr.countRunningTransactionByCoordinateBe(hostToTxnNum);
+        }
+        return hostToTxnNum;
+    }
+
     /**
      * If a Coordinate BE is down when running txn, the txn will remain in FE until killed by timeout
      * So when FE identify the Coordiante BE is down, FE should cancel it initiative
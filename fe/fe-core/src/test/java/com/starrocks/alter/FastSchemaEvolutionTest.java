@@ -0,0 +1,135 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.alter;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.AlterTableStmt;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.MaterializedIndexMeta;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.persist.TableAddOrDropColumnsInfo;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.Map;
+
+public class FastSchemaEvolutionTest {
+    private static ConnectContext connectContext;
+    private static boolean enableFastSchemaEvolution;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        FeConstants.runningUnitTest = true;
+        UtFrameUtils.createMinStarRocksCluster();
+        connectContext = UtFrameUtils.createDefaultCtx();
+        new StarRocksAssert(connectContext).withDatabase("test").useDatabase("test")
+                .withTable("CREATE TABLE test.fast_dup(k1 int, k2 int, v1 int, v2 int) duplicate key(k1, k2) " +
+                        "distributed by hash(k1) buckets 3 properties('replication_num' = '1');")
+                .withTable("CREATE TABLE test.fast_key(k1 int, k2 int, v1 int) duplicate key(k1, k2) " +
+                        "distributed by hash(k1) buckets 3 properties('replication_num' = '1');")
+                .withTable("CREATE TABLE test.fast_replay(k1 int, v1 int) duplicate key(k1) " +
+                        "distributed by hash(k1) buckets 3 properties('replication_num' = '1');");
+        enableFastSchemaEvolution = Config.enable_fast_schema_evolution;
+        Config.enable_fast_schema_evolution = true;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.enable_fast_schema_evolution = enableFastSchemaEvolution;
+    }
+
+    private static void alterTable(String sql) throws Exception {
+        AlterTableStmt stmt = (AlterTableStmt) UtFrameUtils.parseAndAnalyzeStmt(sql, connectContext);
+        GlobalStateMgr.getCurrentState().getAlterInstance().processAlterTable(stmt);
+    }
+
+    private static OlapTable getTable(String tableName) {
+        return (OlapTable) GlobalStateMgr.getCurrentState().getDb("default_cluster:test").getTable(tableName);
+    }
+
+    private static int getJobNum(OlapTable table) {
+        Map<Long, AlterJobV2> alterJobs = GlobalStateMgr.getCurrentState().getSchemaChangeHandler().getAlterJobsV2();
+        return (int) alterJobs.values().stream().filter(job -> job.getTableId() == table.getId()).count();
+    }
+
+    @Test
+    public void testAddAndDropValueColumns() throws Exception {
+        OlapTable table = getTable("fast_dup");
+        MaterializedIndexMeta indexMeta = table.getIndexMetaByIndexId(table.getBaseIndexId());
+        int schemaVersion = indexMeta.getSchemaVersion();
+        int schemaHash = indexMeta.getSchemaHash();
+
+        alterTable("alter table test.fast_dup add column v3 bigint default '1'");
+        Assert.assertEquals(0, getJobNum(table));
+        Assert.assertEquals(OlapTable.OlapTableState.NORMAL, table.getState());
+        indexMeta = table.getIndexMetaByIndexId(table.getBaseIndexId());
+        Assert.assertEquals(schemaVersion + 1, indexMeta.getSchemaVersion());
+        Assert.assertEquals(schemaHash, indexMeta.getSchemaHash());
+        Assert.assertNotNull(table.getColumn("v3"));
+
+        alterTable("alter table test.fast_dup drop column v1");
+        Assert.assertEquals(0, getJobNum(table));
+        indexMeta = table.getIndexMetaByIndexId(table.getBaseIndexId());
+        Assert.assertEquals(schemaVersion + 2, indexMeta.getSchemaVersion());
+        Assert.assertNull(table.getColumn("v1"));
+        Assert.assertEquals(Lists.newArrayList("k1", "k2", "v2", "v3"),
+                Lists.transform(indexMeta.getSchema(), Column::getName));
+    }
+
+    @Test
+    public void testKeyColumnChanged() throws Exception {
+        OlapTable table = getTable("fast_key");
+        int schemaVersion = table.getIndexMetaByIndexId(table.getBaseIndexId()).getSchemaVersion();
+        // a key column is added by a schema change job
+        alterTable("alter table test.fast_key add column k3 int key default '0' after k2");
+        Assert.assertEquals(1, getJobNum(table));
+        Assert.assertEquals(schemaVersion, table.getIndexMetaByIndexId(table.getBaseIndexId()).getSchemaVersion());
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        OlapTable table = getTable("fast_replay");
+        Database db = GlobalStateMgr.getCurrentState().getDb("default_cluster:test");
+        long indexId = table.getBaseIndexId();
+        int schemaVersion = table.getIndexMetaByIndexId(indexId).getSchemaVersion();
+
+        List<Column> schema = Lists.newArrayList(table.getSchemaByIndexId(indexId));
+        schema.add(new Column("v2", Type.INT, true));
+        Map<Long, List<Column>> indexIdToSchema = Maps.newHashMap();
+        indexIdToSchema.put(indexId, schema);
+        Map<Long, Integer> indexIdToSchemaVersion = Maps.newHashMap();
+        indexIdToSchemaVersion.put(indexId, schemaVersion + 1);
+        TableAddOrDropColumnsInfo info = new TableAddOrDropColumnsInfo(db.getId(), table.getId(),
+                indexIdToSchema, indexIdToSchemaVersion);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        info.write(new DataOutputStream(out));
+        TableAddOrDropColumnsInfo readInfo =
+                TableAddOrDropColumnsInfo.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+        Assert.assertEquals(info.getTableId(), readInfo.getTableId());
+        Assert.assertEquals(Integer.valueOf(schemaVersion + 1), readInfo.getIndexIdToSchemaVersion().get(indexId));
+
+        GlobalStateMgr.getCurrentState().getSchemaChangeHandler().replayModifyTableAddOrDropColumns(readInfo);
+        MaterializedIndexMeta indexMeta = table.getIndexMetaByIndexId(indexId);
+        Assert.assertEquals(schemaVersion + 1, indexMeta.getSchemaVersion());
+        Assert.assertEquals(3, indexMeta.getSchema().size());
+        Assert.assertNotNull(table.getColumn("v2"));
+        Assert.assertTrue(table.getColumn("v2").isAllowNull());
+    }
+}
@@ -177,4 +177,37 @@ public class BackupJobInfoTest {
             tmpFile.delete();
         }
     }
+
+    @Test
+    public void testSnapshotLabel() throws IOException {
+        BackupJobInfo jobInfo = BackupJobInfo.fromFile(fileName);
+        // partition1 of table1 is not changed since the base snapshot
+        BackupJobInfo.BackupPartitionInfo partInfo = jobInfo.getPartInfo(10001L, 10002L);
+        Assert.assertNotNull(partInfo);
+        Assert.assertNull(partInfo.snapshot);
+        partInfo.snapshot = "base_snapshot";
+        Assert.assertNull(jobInfo.getPartInfo(10001L, 10011L));
+        Assert.assertEquals(10009L, partInfo.getIdx(10009L).id);
+
+        File tmpFile = new File("./tmp_snapshot_label");
+        try {
+            DataOutputStream out = new DataOutputStream(new FileOutputStream(tmpFile));
+            jobInfo.write(out);
+            out.flush();
+            out.close();
+
+            DataInputStream in = new DataInputStream(new FileInputStream(tmpFile));
+            BackupJobInfo newInfo = BackupJobInfo.read(in);
+            in.close();
+
+            Assert.assertEquals("base_snapshot",
+                    newInfo.getSnapshotLabel(new RestoreFileMapping.IdChain(10001L, 10002L, 10001L, 10004L, -1L)));
+            Assert.assertEquals("snapshot1",
+                    newInfo.getSnapshotLabel(new RestoreFileMapping.IdChain(10001L, 10007L, 10001L, 10004L, -1L)));
+            Assert.assertEquals("snapshot1",
+                    newInfo.getSnapshotLabel(new RestoreFileMapping.IdChain(10010L, 10011L, 10012L, 10004L, -1L)));
+        } finally {
+            tmpFile.delete();
+        }
+    }
 }
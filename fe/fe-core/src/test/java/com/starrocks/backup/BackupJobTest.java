@@ -26,11 +26,14 @@ import com.google.common.collect.Maps;
 import com.starrocks.analysis.TableName;
 import com.starrocks.analysis.TableRef;
 import com.starrocks.backup.BackupJob.BackupJobState;
+import com.starrocks.backup.BackupJobInfo.BackupPartitionInfo;
+import com.starrocks.backup.RestoreFileMapping.IdChain;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.FsBroker;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
+import com.starrocks.common.StarRocksFEMetaVersion;
 import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.common.util.UnitTestUtil;
 import com.starrocks.persist.EditLog;
@@ -57,6 +60,10 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitOption;
@@ -342,4 +349,106 @@ public class BackupJobTest {
         Assert.assertEquals(Status.ErrCode.NOT_FOUND, job.getStatus().getErrCode());
         Assert.assertEquals(BackupJobState.CANCELLED, job.getState());
     }
+
+    // the job info of the base snapshot in which the partition has the same version as the catalog
+    private BackupJobInfo createBaseJobInfo() {
+        Map<Long, SnapshotInfo> snapshotInfos = Maps.newHashMap();
+        snapshotInfos.put(tabletId, new SnapshotInfo(dbId, tblId, partId, idxId, tabletId, backendId, 0,
+                "/path/to/snapshot", Lists.newArrayList("1.dat.md5", "1.idx.md5", "1.hdr.md5")));
+        return BackupJobInfo.fromCatalog(System.currentTimeMillis(), "base_label", UnitTestUtil.DB_NAME, dbId,
+                Lists.newArrayList(db.getTable(tblId)), snapshotInfos);
+    }
+
+    @Test
+    public void testIncrementalBackupSkipUnchangedPartition() throws IOException {
+        AgentTaskQueue.clearAllTasks();
+        job.setBaseJobInfo(createBaseJobInfo());
+
+        // no snapshot for the partition not changed since the base snapshot
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.SNAPSHOTING, job.getState());
+        Assert.assertEquals(0, AgentTaskQueue.getTaskNum());
+        job.run();
+        Assert.assertEquals(BackupJobState.UPLOAD_SNAPSHOT, job.getState());
+
+        // nothing to upload
+        job.run();
+        Assert.assertEquals(BackupJobState.UPLOADING, job.getState());
+        Assert.assertEquals(0, AgentTaskQueue.getTaskNum());
+        job.run();
+        Assert.assertEquals(BackupJobState.SAVE_META, job.getState());
+
+        // the partition references the files of the base snapshot
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.UPLOAD_INFO, job.getState());
+        BackupJobInfo jobInfo = BackupJobInfo.fromFile(job.getLocalJobInfoFilePath());
+        Assert.assertEquals(job.getLabel(), jobInfo.name);
+        BackupPartitionInfo partInfo = jobInfo.getPartInfo(tblId, partId);
+        Assert.assertEquals(version, partInfo.version);
+        Assert.assertEquals("base_label", partInfo.snapshot);
+        Assert.assertEquals(Lists.newArrayList("1.dat.md5", "1.idx.md5", "1.hdr.md5"),
+                partInfo.getIdx(idxId).getTablet(tabletId).files);
+        Assert.assertEquals("base_label", jobInfo.getSnapshotLabel(new IdChain(tblId, partId, idxId, tabletId, -1L)));
+    }
+
+    @Test
+    public void testIncrementalBackupChangedPartition() {
+        AgentTaskQueue.clearAllTasks();
+        BackupJobInfo baseJobInfo = createBaseJobInfo();
+        // the partition is loaded after the base snapshot
+        baseJobInfo.getPartInfo(tblId, partId).version = version - 1;
+        job.setBaseJobInfo(baseJobInfo);
+
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.SNAPSHOTING, job.getState());
+        Assert.assertEquals(1, AgentTaskQueue.getTaskNum());
+        Assert.assertTrue(AgentTaskQueue.getTask(backendId, TTaskType.MAKE_SNAPSHOT, tabletId) instanceof SnapshotTask);
+        AgentTaskQueue.clearAllTasks();
+    }
+
+    @Test
+    public void testPersistBaseJobInfo() throws IOException {
+        new Expectations() {
+            {
+                GlobalStateMgr.getCurrentStateStarRocksJournalVersion();
+                minTimes = 0;
+                result = StarRocksFEMetaVersion.VERSION_4;
+            }
+        };
+
+        job.setBaseJobInfo(createBaseJobInfo());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        job.write(new DataOutputStream(out));
+        BackupJob readJob = (BackupJob) AbstractJob.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+        BackupJobInfo baseJobInfo = readJob.getBaseJobInfo();
+        Assert.assertNotNull(baseJobInfo);
+        Assert.assertEquals("base_label", baseJobInfo.name);
+        Assert.assertEquals(version, baseJobInfo.getPartInfo(tblId, partId).version);
+        Assert.assertEquals(1, baseJobInfo.getPartInfo(tblId, partId).getIdx(idxId).tablets.size());
+    }
+
+    @Test
+    public void testReadBaseJobInfoBeforeVersion4() throws IOException {
+        new Expectations() {
+            {
+                GlobalStateMgr.getCurrentStateStarRocksJournalVersion();
+                minTimes = 0;
+                result = StarRocksFEMetaVersion.VERSION_3;
+            }
+        };
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        job.write(new DataOutputStream(out));
+        // the image of the old version ends before the base job info
+        byte[] bytes = out.toByteArray();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+        BackupJob readJob = (BackupJob) AbstractJob.read(in);
+        Assert.assertEquals(0, in.available());
+        Assert.assertNull(readJob.getBaseJobInfo());
+        Assert.assertEquals(job.getLabel(), readJob.getLabel());
+        Assert.assertEquals(BackupJobState.PENDING, readJob.getState());
+    }
 }
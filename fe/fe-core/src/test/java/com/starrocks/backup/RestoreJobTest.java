@@ -27,12 +27,16 @@ import com.starrocks.backup.BackupJobInfo.BackupIndexInfo;
 import com.starrocks.backup.BackupJobInfo.BackupPartitionInfo;
 import com.starrocks.backup.BackupJobInfo.BackupTableInfo;
 import com.starrocks.backup.BackupJobInfo.BackupTabletInfo;
+import com.starrocks.backup.RestoreFileMapping.IdChain;
 import com.starrocks.backup.RestoreJob.RestoreJobState;
 import com.starrocks.catalog.Database;
+import com.starrocks.catalog.FsBroker;
+import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.MaterializedIndex;
 import com.starrocks.catalog.MaterializedIndex.IndexExtState;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Tablet;
 import com.starrocks.common.AnalysisException;
@@ -42,7 +46,9 @@ import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.persist.EditLog;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.SystemInfoService;
+import com.starrocks.task.AgentBatchTask;
 import com.starrocks.task.AgentTask;
+import com.starrocks.task.AgentTaskExecutor;
 import com.starrocks.task.AgentTaskQueue;
 import com.starrocks.task.DirMoveTask;
 import com.starrocks.task.DownloadTask;
@@ -388,5 +394,75 @@ public class RestoreJobTest {
         System.out.println("tbl signature: " + tbl.getSignature(BackupHandler.SIGNATURE_VERSION, partNames));
     }
 
-}
+    @Test
+    public void testDownloadFromBaseSnapshot() {
+        new MockUp<AgentTaskExecutor>() {
+            @Mock
+            public void submit(AgentBatchTask task) {
+            }
+        };
+        // the injectable repo is mocked, the path of the snapshot is built by a real one
+        Repository repository = new Repository(repoId, "repo", false, "bos://my_repo",
+                new BlobStorage("broker", Maps.newHashMap())) {
+            @Override
+            public Status getBrokerAddress(Long beId, GlobalStateMgr globalStateMgr, List<FsBroker> brokerAddrs) {
+                brokerAddrs.add(new FsBroker());
+                return Status.OK;
+            }
+        };
+
+        // the table is restored from the table 1 of the snapshot, whose partition 2 is not changed since the
+        // base snapshot of the incremental backup
+        OlapTable tbl = (OlapTable) db.getTable(CatalogMocker.TEST_TBL_ID);
+        Partition partition = tbl.getPartition(CatalogMocker.TEST_SINGLE_PARTITION_ID);
+        MaterializedIndex index = partition.getBaseIndex();
+        LocalTablet tablet = (LocalTablet) index.getTablets().get(0);
+        Replica replica = tablet.getReplicas().get(0);
+        BackupJobInfo incrementalJobInfo = new BackupJobInfo();
+        incrementalJobInfo.dbId = CatalogMocker.TEST_DB_ID;
+        incrementalJobInfo.dbName = CatalogMocker.TEST_DB_NAME;
+        incrementalJobInfo.name = label;
+        BackupTableInfo tblInfo = new BackupTableInfo();
+        tblInfo.id = 1;
+        tblInfo.name = tbl.getName();
+        incrementalJobInfo.tables.put(tblInfo.name, tblInfo);
+        BackupPartitionInfo partInfo = new BackupPartitionInfo();
+        partInfo.id = 2;
+        partInfo.name = partition.getName();
+        partInfo.snapshot = "base_label";
+        tblInfo.partitions.put(partInfo.name, partInfo);
+
+        IdChain repoIds = new IdChain(1L, 2L, 3L, 4L, -1L);
+        job.getFileMapping().putMapping(new IdChain(tbl.getId(), partition.getId(), index.getId(), tablet.getId(),
+                replica.getId()), repoIds, true);
+        com.google.common.collect.Table<Long, Long, SnapshotInfo> snapshotInfos =
+                Deencapsulation.getField(job, "snapshotInfos");
+        snapshotInfos.put(tablet.getId(), replica.getBackendId(), new SnapshotInfo(db.getId(), tbl.getId(),
+                partition.getId(), index.getId(), tablet.getId(), replica.getBackendId(), CatalogMocker.SCHEMA_HASH,
+                "/path/to/snapshot", Lists.newArrayList()));
+        Deencapsulation.setField(job, "jobInfo", incrementalJobInfo);
+        Deencapsulation.setField(job, "repo", repository);
 
+        AgentTaskQueue.clearAllTasks();
+        Deencapsulation.invoke(job, "downloadSnapshots");
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(RestoreJobState.DOWNLOADING, job.getState());
+        List<AgentTask> downloadTasks = AgentTaskQueue.getTask(TTaskType.DOWNLOAD);
+        Assert.assertEquals(1, downloadTasks.size());
+        Map<String, String> srcToDest = ((DownloadTask) downloadTasks.get(0)).getSrcToDestPath();
+        Assert.assertEquals(1, srcToDest.size());
+        Assert.assertEquals(repository.getRepoPath("base_label", incrementalJobInfo.getFilePath(repoIds)),
+                srcToDest.keySet().iterator().next());
+
+        // the files of a changed partition are in the snapshot itself
+        partInfo.snapshot = null;
+        AgentTaskQueue.clearAllTasks();
+        Deencapsulation.invoke(job, "downloadSnapshots");
+        downloadTasks = AgentTaskQueue.getTask(TTaskType.DOWNLOAD);
+        Assert.assertEquals(1, downloadTasks.size());
+        srcToDest = ((DownloadTask) downloadTasks.get(0)).getSrcToDestPath();
+        Assert.assertEquals(repository.getRepoPath(label, incrementalJobInfo.getFilePath(repoIds)),
+                srcToDest.keySet().iterator().next());
+        AgentTaskQueue.clearAllTasks();
+    }
+}
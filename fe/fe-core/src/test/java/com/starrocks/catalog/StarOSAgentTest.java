@@ -22,6 +22,7 @@ import com.starrocks.common.UserException;
 import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.SystemInfoService;
+import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mock;
 import mockit.MockUp;
@@ -32,6 +33,7 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StarOSAgentTest {
     private StarOSAgent starosAgent;
@@ -322,4 +324,57 @@ public class StarOSAgentTest {
         starosAgent.removeWorkerFromMap(5L, workerHost);
         ExceptionChecker.expectThrows(NullPointerException.class, () -> starosAgent.getWorkerId(workerHost));
     }
+
+    @Test
+    public void testGetBackendsByShardsInBatch() throws Exception {
+        // a stand-in of StarMgr, shard i is on worker i % 3
+        AtomicInteger requestNum = new AtomicInteger();
+        new Expectations() {
+            {
+                client.getShardInfo(1L, (List<Long>) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    public List<ShardInfo> getShardInfo(long serviceId, List<Long> shardIds) {
+                        requestNum.incrementAndGet();
+                        List<ShardInfo> shardInfos = Lists.newArrayList();
+                        for (long shardId : shardIds) {
+                            WorkerInfo worker = WorkerInfo.newBuilder().setWorkerId(shardId % 3).build();
+                            ReplicaInfo replica = ReplicaInfo.newBuilder().setReplicaRole(ReplicaRole.PRIMARY)
+                                    .setWorkerInfo(worker).build();
+                            shardInfos.add(ShardInfo.newBuilder().setShardId(shardId).addReplicaInfo(replica).build());
+                        }
+                        return shardInfos;
+                    }
+                };
+            }
+        };
+
+        starosAgent.setServiceId(1L);
+        Map<Long, Long> workerToBackend = Maps.newConcurrentMap();
+        workerToBackend.put(0L, 10000L);
+        workerToBackend.put(1L, 10001L);
+        workerToBackend.put(2L, 10002L);
+        Deencapsulation.setField(starosAgent, "workerToBackend", workerToBackend);
+
+        List<Long> shardIds = Lists.newArrayList();
+        for (long i = 0; i < 10000; i++) {
+            shardIds.add(i);
+        }
+        Map<Long, Long> shardToBackend = starosAgent.getPrimaryBackendIdsByShards(shardIds);
+        Assert.assertEquals(10000, shardToBackend.size());
+        Assert.assertEquals(10002L, (long) shardToBackend.get(5L));
+        Assert.assertEquals(1, requestNum.get());
+
+        // hit the cache
+        for (long shardId : shardIds) {
+            Assert.assertEquals(10000L + shardId % 3, starosAgent.getPrimaryBackendIdByShard(shardId));
+        }
+        Assert.assertEquals(Sets.newHashSet(10001L), starosAgent.getBackendIdsByShards(Lists.newArrayList(1L)).get(1L));
+        Assert.assertEquals(1, requestNum.get());
+
+        // the cache is stale after the workers are changed
+        starosAgent.removeWorkerFromMap(3L, "127.0.0.1:8090");
+        Assert.assertEquals(10001L, starosAgent.getPrimaryBackendIdByShard(1L));
+        Assert.assertEquals(2, requestNum.get());
+    }
 }
@@ -0,0 +1,81 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.common.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+        Assert.assertEquals(4, ring.capacity());
+        Assert.assertNull(ring.poll());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(ring.offer(i));
+        }
+        // full
+        Assert.assertFalse(ring.offer(4));
+        Assert.assertEquals(4, ring.size());
+
+        Assert.assertEquals(0, (int) ring.poll());
+        Assert.assertTrue(ring.offer(4));
+        List<Integer> list = new ArrayList<>();
+        Assert.assertEquals(3, ring.drainTo(list, 3));
+        Assert.assertEquals(2, ring.drainTo(list, 3));
+        Assert.assertEquals(0, ring.drainTo(list, 3));
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(i + 1, (int) list.get(i));
+        }
+        Assert.assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void testMultipleProducers() throws Exception {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(1024);
+        int producerNum = 4;
+        int numPerProducer = 100000;
+        AtomicInteger dropped = new AtomicInteger();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerNum; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < numPerProducer; i++) {
+                    if (!ring.offer(producer * numPerProducer + i)) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+
+        // the elements of each producer are consumed in order
+        int[] lastElements = new int[producerNum];
+        Arrays.fill(lastElements, -1);
+        int consumed = 0;
+        List<Integer> batch = new ArrayList<>();
+        while (producers.stream().anyMatch(Thread::isAlive) || !ring.isEmpty()) {
+            batch.clear();
+            ring.drainTo(batch, 100);
+            for (int element : batch) {
+                int producer = element / numPerProducer;
+                Assert.assertTrue(element % numPerProducer > lastElements[producer]);
+                lastElements[producer] = element % numPerProducer;
+                consumed++;
+            }
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        batch.clear();
+        consumed += ring.drainTo(batch, Integer.MAX_VALUE);
+        Assert.assertEquals(producerNum * numPerProducer, consumed + dropped.get());
+    }
+}
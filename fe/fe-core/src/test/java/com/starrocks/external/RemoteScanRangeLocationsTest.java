@@ -0,0 +1,111 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.external;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.DescriptorTable;
+import com.starrocks.catalog.HiveTable;
+import com.starrocks.catalog.PartitionKey;
+import com.starrocks.common.Config;
+import com.starrocks.external.hive.HdfsFileBlockDesc;
+import com.starrocks.external.hive.HdfsFileDesc;
+import com.starrocks.external.hive.HdfsFileFormat;
+import com.starrocks.external.hive.HiveMetaClient;
+import com.starrocks.external.hive.HivePartition;
+import com.starrocks.external.hive.text.TextFileFormatDesc;
+import com.starrocks.sql.plan.HDFSScanNodePredicates;
+import com.starrocks.thrift.TScanRangeLocations;
+import mockit.Expectations;
+import mockit.Mocked;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class RemoteScanRangeLocationsTest {
+    private static final long MB = 1024L * 1024L;
+
+    @Mocked
+    private HiveTable table;
+    @Mocked
+    private HiveMetaClient metaClient;
+
+    private List<TScanRangeLocations> generate(int partitionNum) throws Exception {
+        Map<Long, PartitionKey> idToPartitionKey = Maps.newHashMap();
+        List<HivePartition> partitions = Lists.newArrayList();
+        for (long i = 0; i < partitionNum; i++) {
+            idToPartitionKey.put(i, new PartitionKey());
+            // 2 files per partition, the first file has 1 block of 100MB, the second file is empty
+            HdfsFileBlockDesc blockDesc = new HdfsFileBlockDesc(0, 100 * MB, new long[] {0, 1}, null, metaClient);
+            HdfsFileDesc fileDesc = new HdfsFileDesc("file" + i, "", 100 * MB, ImmutableList.of(blockDesc),
+                    true, new TextFileFormatDesc(",", "\n"));
+            HdfsFileDesc emptyFileDesc = new HdfsFileDesc("empty" + i, "", 0, ImmutableList.of(),
+                    true, new TextFileFormatDesc(",", "\n"));
+            partitions.add(new HivePartition(HdfsFileFormat.TEXT, ImmutableList.of(fileDesc, emptyFileDesc),
+                    "hdfs://path/p" + i));
+        }
+
+        new Expectations() {
+            {
+                table.getPartitions((List<PartitionKey>) any);
+                result = partitions;
+                metaClient.getHdfsDataNodeIp(0);
+                result = "host0";
+                minTimes = 0;
+                metaClient.getHdfsDataNodeIp(1);
+                result = "host1";
+                minTimes = 0;
+            }
+        };
+
+        HDFSScanNodePredicates predicates = new HDFSScanNodePredicates();
+        predicates.setIdToPartitionKey(idToPartitionKey);
+        predicates.setSelectedPartitionIds(Lists.newArrayList(idToPartitionKey.keySet()));
+        RemoteScanRangeLocations scanRangeLocations = new RemoteScanRangeLocations();
+        scanRangeLocations.setupScanRangeLocations(new DescriptorTable(), table, predicates);
+        return scanRangeLocations.getScanRangeLocations(0);
+    }
+
+    private void checkScanRanges(List<TScanRangeLocations> locations, int partitionNum) {
+        // the block of 100MB is split to 2 ranges of 50MB
+        Assert.assertEquals(partitionNum * 2, locations.size());
+        for (int i = 0; i < locations.size(); i++) {
+            TScanRangeLocations location = locations.get(i);
+            Assert.assertEquals(i / 2, location.getScan_range().getHdfs_scan_range().getPartition_id());
+            Assert.assertEquals("file" + i / 2, location.getScan_range().getHdfs_scan_range().getRelative_path());
+            Assert.assertEquals(i % 2 * 50 * MB, location.getScan_range().getHdfs_scan_range().getOffset());
+            Assert.assertEquals(50 * MB, location.getScan_range().getHdfs_scan_range().getLength());
+            Assert.assertEquals(2, location.getLocationsSize());
+            Assert.assertEquals("host0", location.getLocations().get(0).getServer().getHostname());
+            Assert.assertEquals("host1", location.getLocations().get(1).getServer().getHostname());
+        }
+    }
+
+    @Test
+    public void testSetupScanRangeLocations() throws Exception {
+        long splitSize = Config.hive_max_split_size;
+        try {
+            Config.hive_max_split_size = 64 * MB;
+            checkScanRanges(generate(3), 3);
+        } finally {
+            Config.hive_max_split_size = splitSize;
+        }
+    }
+
+    @Test
+    public void testSetupScanRangeLocationsInParallel() throws Exception {
+        long splitSize = Config.hive_max_split_size;
+        int minPartitions = Config.hive_scan_range_parallel_min_partitions;
+        try {
+            Config.hive_max_split_size = 64 * MB;
+            Config.hive_scan_range_parallel_min_partitions = 10;
+            checkScanRanges(generate(1000), 1000);
+        } finally {
+            Config.hive_max_split_size = splitSize;
+            Config.hive_scan_range_parallel_min_partitions = minPartitions;
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class HiveMetaCacheTest {
     private int clientMethodGetPartitionCalledTimes = 0;
     private int clientMethodGetTableStatsCalledTimes = 0;
     private int clientMethodGetPartitionStatsCalledTimes = 0;
+    private List<String> invalidatedFileListings = Lists.newArrayList();
     private String partitionPath = "hdfs://nameservice1/hive/db/tbl/k1=1/k2=1/k3=3";
 
     HiveMetaStoreTableInfo hmsTable = new HiveMetaStoreTableInfo("resource", "db", "tbl",
@@ -243,6 +244,8 @@ public class HiveMetaCacheTest {
         Assert.assertEquals(1, clientMethodGetPartitionStatsCalledTimes);
 
         metaCache.clearCache(hmsTable);
+        // the file listing of the cleared partition is invalidated too
+        Assert.assertEquals(Lists.newArrayList(partitionPath), invalidatedFileListings);
 
         metaCache.getPartitionKeys(hmsTable);
         metaCache.getPartition(hmsTable,
@@ -284,8 +287,8 @@ public class HiveMetaCacheTest {
         }
 
         @Override
-        public HivePartition getPartition(String dbName, String tableName, List<String> partValues)
-                throws DdlException {
+        public HivePartition getPartition(String dbName, String tableName, List<String> partValues,
+                                          boolean forceRefresh) throws DdlException {
             clientMethodGetPartitionCalledTimes++;
             return new HivePartition(HdfsFileFormat.PARQUET,
                     ImmutableList.of(new HdfsFileDesc("file1",
@@ -295,6 +298,11 @@ public class HiveMetaCacheTest {
                     partitionPath);
         }
 
+        @Override
+        public void invalidateFileListing(String dirPath) {
+            invalidatedFileListings.add(dirPath);
+        }
+
         @Override
         public HiveTableStats getTableStats(String dbName, String tableName) throws DdlException {
             clientMethodGetTableStatsCalledTimes++;
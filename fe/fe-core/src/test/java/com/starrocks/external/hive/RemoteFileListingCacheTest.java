@@ -0,0 +1,118 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.external.hive;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RemoteFileListingCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static long fingerprint(FileSystem fileSystem, Path dirPath) throws IOException {
+        long fingerprint = 0;
+        for (FileStatus status : fileSystem.listStatus(dirPath)) {
+            fingerprint += RemoteFileListingCache.fingerprint(status);
+        }
+        return fingerprint;
+    }
+
+    private static void write(File file, boolean append) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, append)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+    }
+
+    @Test
+    public void testGetFiles() throws Exception {
+        FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+        File dir = folder.newFolder("p1");
+        File file = new File(dir, "file1");
+        write(file, false);
+        Path dirPath = new Path(dir.getAbsolutePath());
+        AtomicInteger listTimes = new AtomicInteger();
+        RemoteFileListingCache.Lister lister = () -> {
+            listTimes.incrementAndGet();
+            return new RemoteFileListingCache.Listing(
+                    ImmutableList.of(new RemoteFileListingCache.RemoteFile("file1", file.length(), ImmutableList.of())),
+                    ImmutableMap.of(dirPath, fingerprint(fileSystem, dirPath)));
+        };
+
+        RemoteFileListingCache cache = new RemoteFileListingCache(10);
+        Assert.assertEquals(1, cache.getFiles(fileSystem, dir.getPath(), false, lister, false).size());
+        Assert.assertEquals(1, listTimes.get());
+
+        // the directory is unchanged
+        Assert.assertEquals("file1", cache.getFiles(fileSystem, dir.getPath(), false, lister, false).get(0).getName());
+        Assert.assertEquals(1, listTimes.get());
+
+        // force refresh
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, true);
+        Assert.assertEquals(2, listTimes.get());
+
+        // the modification time of the directory is changed
+        long dirModificationTime = fileSystem.getFileStatus(dirPath).getModificationTime();
+        fileSystem.setTimes(dirPath, dirModificationTime + 10000, -1);
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, false);
+        Assert.assertEquals(2, listTimes.get());
+
+        // the file is appended, the directory is unchanged
+        write(file, true);
+        fileSystem.setTimes(dirPath, dirModificationTime, -1);
+        Assert.assertEquals(6, cache.getFiles(fileSystem, dir.getPath(), false, lister, false).get(0).getLength());
+        Assert.assertEquals(3, listTimes.get());
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, false);
+        Assert.assertEquals(3, listTimes.get());
+
+        // the file is overwritten with the same length
+        Path filePath = new Path(file.getAbsolutePath());
+        long fileModificationTime = fileSystem.getFileStatus(filePath).getModificationTime();
+        fileSystem.setTimes(filePath, fileModificationTime + 10000, -1);
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, false);
+        Assert.assertEquals(4, listTimes.get());
+
+        // a file is added
+        write(new File(dir, "file2"), false);
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, false);
+        Assert.assertEquals(5, listTimes.get());
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, false);
+        Assert.assertEquals(5, listTimes.get());
+
+        cache.invalidate(dir.getPath());
+        Assert.assertEquals(0, cache.size());
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, false);
+        Assert.assertEquals(6, listTimes.get());
+
+        // listed recursively
+        cache.getFiles(fileSystem, dir.getPath(), true, lister, false);
+        Assert.assertEquals(7, listTimes.get());
+        cache.getFiles(fileSystem, dir.getPath(), true, lister, false);
+        Assert.assertEquals(7, listTimes.get());
+        cache.getFiles(fileSystem, dir.getPath(), false, lister, false);
+        Assert.assertEquals(8, listTimes.get());
+
+        // the directory is deleted
+        Assert.assertTrue(fileSystem.delete(dirPath, true));
+        RemoteFileListingCache.Lister emptyLister = () -> {
+            listTimes.incrementAndGet();
+            return new RemoteFileListingCache.Listing(ImmutableList.of(), ImmutableMap.of());
+        };
+        Assert.assertTrue(cache.getFiles(fileSystem, dir.getPath(), false, emptyLister, false).isEmpty());
+        Assert.assertEquals(9, listTimes.get());
+        // listing without fingerprint is not cached
+        Assert.assertEquals(0, cache.size());
+    }
+}
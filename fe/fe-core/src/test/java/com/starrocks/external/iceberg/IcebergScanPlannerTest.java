@@ -0,0 +1,129 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.external.iceberg;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.starrocks.common.Config;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.Metrics;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.hadoop.HadoopTables;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class IcebergScanPlannerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final Schema SCHEMA = new Schema(
+            Types.NestedField.required(1, "k", Types.IntegerType.get()),
+            Types.NestedField.required(2, "v", Types.IntegerType.get()));
+    private static final PartitionSpec SPEC = PartitionSpec.builderFor(SCHEMA).identity("k").build();
+
+    private Table table;
+
+    private DataFile newDataFile(String name, int k, int minV, int maxV) {
+        return DataFiles.builder(SPEC)
+                .withPath(table.location() + "/data/k=" + k + "/" + name)
+                .withFormat(FileFormat.PARQUET)
+                .withPartitionPath("k=" + k)
+                .withFileSizeInBytes(100)
+                .withMetrics(new Metrics(10L, null, null, null,
+                        ImmutableMap.of(2, Conversions.toByteBuffer(Types.IntegerType.get(), minV)),
+                        ImmutableMap.of(2, Conversions.toByteBuffer(Types.IntegerType.get(), maxV))))
+                .build();
+    }
+
+    private List<String> planFiles(Expression... predicates) {
+        List<DataFile> files = new ArrayList<>();
+        new IcebergScanPlanner(table, table.currentSnapshot(), ImmutableList.copyOf(predicates)).planFiles(files::add);
+        return files.stream().map(file -> file.path().toString().substring(file.path().toString().lastIndexOf('/') + 1))
+                .sorted().collect(Collectors.toList());
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        IcebergScanPlanner.invalidateManifestCache();
+        table = new HadoopTables(new Configuration()).create(SCHEMA, SPEC, folder.newFolder("t").getAbsolutePath());
+        // 2 snapshots with 1 manifest each
+        table.newAppend().appendFile(newDataFile("f1", 1, 0, 10)).appendFile(newDataFile("f2", 2, 20, 30)).commit();
+        table.newAppend().appendFile(newDataFile("f3", 1, 40, 50)).commit();
+    }
+
+    @Test
+    public void testPlanFiles() {
+        Assert.assertEquals(ImmutableList.of("f1", "f2", "f3"), planFiles());
+        Assert.assertEquals(2, IcebergScanPlanner.getManifestCacheSize());
+
+        // pruned by partition values
+        Assert.assertEquals(ImmutableList.of("f1", "f3"), planFiles(Expressions.equal("k", 1)));
+        // pruned by column bounds
+        Assert.assertEquals(ImmutableList.of("f3"), planFiles(Expressions.greaterThan("v", 35)));
+        Assert.assertEquals(ImmutableList.of("f2"),
+                planFiles(Expressions.equal("k", 2), Expressions.lessThan("v", 35)));
+        // pruned by partition summaries of manifests
+        Assert.assertEquals(ImmutableList.of(), planFiles(Expressions.equal("k", 3)));
+
+        // the manifest of the first snapshot is shared by the new snapshot
+        table.newAppend().appendFile(newDataFile("f4", 3, 0, 10)).commit();
+        Assert.assertEquals(ImmutableList.of("f4"), planFiles(Expressions.equal("k", 3)));
+        Assert.assertEquals(3, IcebergScanPlanner.getManifestCacheSize());
+
+        // deleted files are skipped, the same as TableScan
+        table.newDelete().deleteFile(table.location() + "/data/k=1/f1").commit();
+        Assert.assertEquals(ImmutableList.of("f2", "f3", "f4"), planFiles(Expressions.lessThan("v", 45)));
+        Config.enable_iceberg_manifest_cache = false;
+        try {
+            Assert.assertEquals(ImmutableList.of("f2", "f3", "f4"), planFiles(Expressions.lessThan("v", 45)));
+        } finally {
+            Config.enable_iceberg_manifest_cache = true;
+        }
+    }
+
+    @Test
+    public void testSplitFile() {
+        DataFile file = DataFiles.builder(SPEC)
+                .withPath(table.location() + "/data/k=1/f5")
+                .withFormat(FileFormat.PARQUET)
+                .withPartitionPath("k=1")
+                .withFileSizeInBytes(100)
+                .withRecordCount(10)
+                .withSplitOffsets(ImmutableList.of(4L, 30L, 60L, 90L))
+                .build();
+        List<IcebergScanPlanner.FileSplit> splits = new ArrayList<>();
+        IcebergScanPlanner.splitFile(file, 50, splits::add);
+        Assert.assertEquals(2, splits.size());
+        Assert.assertEquals(4, splits.get(0).getStart());
+        Assert.assertEquals(56, splits.get(0).getLength());
+        Assert.assertEquals(60, splits.get(1).getStart());
+        Assert.assertEquals(40, splits.get(1).getLength());
+
+        splits.clear();
+        IcebergScanPlanner.splitFile(newDataFile("f6", 1, 0, 10), 40, splits::add);
+        Assert.assertEquals(3, splits.size());
+        Assert.assertEquals(80, splits.get(2).getStart());
+        Assert.assertEquals(20, splits.get(2).getLength());
+
+        splits.clear();
+        IcebergScanPlanner.splitFile(file, 100, splits::add);
+        Assert.assertEquals(1, splits.size());
+        Assert.assertEquals(100, splits.get(0).getLength());
+    }
+}
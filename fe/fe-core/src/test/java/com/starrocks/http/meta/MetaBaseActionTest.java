@@ -0,0 +1,145 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.http.meta;
+
+import com.starrocks.http.ActionController;
+import com.starrocks.http.BaseRequest;
+import com.starrocks.http.BaseResponse;
+import com.starrocks.master.MetaHelper;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.InflaterInputStream;
+
+public class MetaBaseActionTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private EmbeddedChannel channel;
+    private ChannelHandlerContext ctx;
+    private MetaBaseAction action;
+    private File file;
+    private byte[] data;
+
+    @Before
+    public void setUp() throws IOException {
+        ChannelInboundHandlerAdapter handler = new ChannelInboundHandlerAdapter();
+        // the chunked content is written by ChunkedWriteHandler as HttpServer does
+        channel = new EmbeddedChannel(new ChunkedWriteHandler(), handler);
+        ctx = channel.pipeline().context(handler);
+        action = new MetaBaseAction(new ActionController(), folder.getRoot());
+
+        data = new byte[300 * 1024];
+        new Random(1).nextBytes(data);
+        file = folder.newFile("image.1");
+        Files.write(file.toPath(), data);
+    }
+
+    @After
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    private BaseRequest newRequest() {
+        return new BaseRequest(ctx, new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET,
+                "/image?version=1"));
+    }
+
+    // read the response written to the channel, and add its content to the content
+    private HttpResponse readResponse(ByteArrayOutputStream content) throws IOException {
+        channel.flush();
+        HttpResponse response = channel.readOutbound();
+        WritableByteChannel out = Channels.newChannel(content);
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            if (msg instanceof HttpContent) {
+                ByteBuf buf = ((HttpContent) msg).content();
+                buf.readBytes(out, buf.readableBytes());
+                ((HttpContent) msg).release();
+            } else if (msg instanceof FileRegion) {
+                FileRegion region = (FileRegion) msg;
+                long transferred = 0;
+                while (transferred < region.count()) {
+                    transferred += region.transferTo(out, transferred);
+                }
+                region.release();
+            }
+        }
+        return response;
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        action.writeFileRangeResponse(newRequest(), new BaseResponse(), file, 1000, 5000, false);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        HttpResponse response = readResponse(content);
+        Assert.assertEquals(HttpResponseStatus.OK, response.status());
+        Assert.assertEquals("5000", response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+        Assert.assertEquals(String.valueOf(data.length), response.headers().get(MetaHelper.X_IMAGE_SIZE));
+        Assert.assertNull(response.headers().get(MetaHelper.X_IMAGE_ENCODING));
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 1000, 6000), content.toByteArray());
+    }
+
+    @Test
+    public void testCompressedRange() throws IOException {
+        // larger than a chunk of the chunked content
+        int offset = 100 * 1024;
+        int length = 150 * 1024;
+        action.writeFileRangeResponse(newRequest(), new BaseResponse(), file, offset, length, true);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        HttpResponse response = readResponse(content);
+        Assert.assertEquals(HttpResponseStatus.OK, response.status());
+        Assert.assertEquals(MetaHelper.DEFLATE, response.headers().get(MetaHelper.X_IMAGE_ENCODING));
+        Assert.assertTrue(HttpUtil.isTransferEncodingChunked(response));
+        Assert.assertNull(response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(content.toByteArray()))) {
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                inflated.write(buf, 0, n);
+            }
+        }
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, offset, offset + length), inflated.toByteArray());
+    }
+
+    @Test
+    public void testInvalidRange() throws IOException {
+        action.writeFileRangeResponse(newRequest(), new BaseResponse(), file, data.length - 10, 100, false);
+        HttpResponse response = readResponse(new ByteArrayOutputStream());
+        Assert.assertEquals(HttpResponseStatus.BAD_REQUEST, response.status());
+
+        action.writeFileRangeResponse(newRequest(), new BaseResponse(), new File(folder.getRoot(), "image.2"),
+                0, 100, false);
+        response = readResponse(new ByteArrayOutputStream());
+        Assert.assertEquals(HttpResponseStatus.NOT_FOUND, response.status());
+    }
+}
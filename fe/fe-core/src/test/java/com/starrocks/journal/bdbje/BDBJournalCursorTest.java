@@ -25,6 +25,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BDBJournalCursorTest {
     private static final Logger LOG = LogManager.getLogger(BDBJournalCursorTest.class);
@@ -382,4 +385,105 @@ public class BDBJournalCursorTest {
         BDBJournalCursor.getJournalCursor(environment, 9, 9);
         Assert.fail();
     }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        // db = [10]
+        // from 10 -> 12, read ahead by 2
+        new Expectations(environment) {
+            {
+                environment.openDatabase("10");
+                times = 1;
+                result = database;
+
+                environment.getDatabaseNames();
+                minTimes = 0;
+                result = Arrays.asList(Long.valueOf(10));
+            }
+        };
+        new Expectations(database) {
+            {
+                database.get(null, (DatabaseEntry) any, (DatabaseEntry) any, (LockMode) any);
+                times = 3;
+                result = new Delegate() {
+                    public OperationStatus fakeGet(
+                            final Transaction txn, final DatabaseEntry key, final DatabaseEntry data,
+                            LockMode lockMode) {
+                        data.setData(fakeJournalEntityBytes);
+                        return OperationStatus.SUCCESS;
+                    }
+                };
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            BDBJournalCursor bdbJournalCursor = new BDBJournalCursor(environment, 10, 12);
+            bdbJournalCursor.setPrefetch(pool, 2);
+            for (int i = 0; i < 3; i++) {
+                JournalEntity entity = bdbJournalCursor.next();
+                Assert.assertEquals(entity.getOpCode(), fakeJournalEntity.getOpCode());
+                Assert.assertEquals(entity.getData().toString(), fakeJournalEntity.getData().toString());
+            }
+            Assert.assertNull(bdbJournalCursor.next());
+            bdbJournalCursor.close();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPrefetchStopAtMetaVersion() throws Exception {
+        // db = [10]
+        // from 10 -> 13, read ahead by 3, 11 is a meta version journal
+        DataOutputBuffer buffer = new DataOutputBuffer();
+        buffer.writeShort(OperationType.OP_META_VERSION);
+        new Text("90").write(buffer);
+        byte[] metaVersionBytes = buffer.getData();
+        AtomicInteger readNum = new AtomicInteger(0);
+        new Expectations(environment) {
+            {
+                environment.openDatabase("10");
+                times = 1;
+                result = database;
+
+                environment.getDatabaseNames();
+                minTimes = 0;
+                result = Arrays.asList(Long.valueOf(10));
+            }
+        };
+        new Expectations(database) {
+            {
+                database.get(null, (DatabaseEntry) any, (DatabaseEntry) any, (LockMode) any);
+                times = 4;
+                result = new Delegate() {
+                    public OperationStatus fakeGet(
+                            final Transaction txn, final DatabaseEntry key, final DatabaseEntry data,
+                            LockMode lockMode) {
+                        readNum.incrementAndGet();
+                        long journalId = TupleBinding.getPrimitiveBinding(Long.class).entryToObject(key);
+                        data.setData(journalId == 11 ? metaVersionBytes : fakeJournalEntityBytes);
+                        return OperationStatus.SUCCESS;
+                    }
+                };
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            BDBJournalCursor bdbJournalCursor = new BDBJournalCursor(environment, 10, 13);
+            bdbJournalCursor.setPrefetch(pool, 3);
+            Assert.assertEquals(OperationType.OP_SAVE_NEXTID, bdbJournalCursor.next().getOpCode());
+            // not read after the meta version journal
+            Assert.assertEquals(2, readNum.get());
+            Assert.assertEquals(OperationType.OP_META_VERSION, bdbJournalCursor.next().getOpCode());
+            Assert.assertEquals(2, readNum.get());
+            // the meta version journal is applied, go on reading ahead
+            Assert.assertEquals(OperationType.OP_SAVE_NEXTID, bdbJournalCursor.next().getOpCode());
+            Assert.assertEquals(4, readNum.get());
+            Assert.assertEquals(OperationType.OP_SAVE_NEXTID, bdbJournalCursor.next().getOpCode());
+            Assert.assertNull(bdbJournalCursor.next());
+            bdbJournalCursor.close();
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
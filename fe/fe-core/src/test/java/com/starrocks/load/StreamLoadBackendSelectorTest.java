@@ -0,0 +1,68 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.starrocks.system.Backend;
+import com.starrocks.system.BackendHbResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class StreamLoadBackendSelectorTest {
+
+    private static Backend createBackend(long id, long loadMemConsumption) {
+        Backend backend = new Backend(id, "host" + id, 9050);
+        BackendHbResponse hbResponse = new BackendHbResponse(id, 9060, 8040, 8060, 0,
+                System.currentTimeMillis(), "version", 8);
+        hbResponse.setLoadMemUsage(loadMemConsumption, 100);
+        backend.handleHbResponse(hbResponse);
+        return backend;
+    }
+
+    @Test
+    public void testChooseIdleBackends() {
+        List<Backend> backends = ImmutableList.of(createBackend(1, 0), createBackend(2, 0), createBackend(3, 0));
+        StreamLoadBackendSelector selector = new StreamLoadBackendSelector();
+        selector.setRunningLoads(ImmutableMap.of());
+
+        // the redirected loads are counted, so the idle backends are chosen in turn
+        Set<Long> chosen = Sets.newHashSet();
+        for (int i = 0; i < 3; i++) {
+            chosen.add(selector.chooseBackend(backends, ImmutableMap.of()).getId());
+        }
+        Assert.assertEquals(Sets.newHashSet(1L, 2L, 3L), chosen);
+    }
+
+    @Test
+    public void testChooseByLoad() {
+        List<Backend> backends = ImmutableList.of(createBackend(1, 0), createBackend(2, 90), createBackend(3, 0));
+        StreamLoadBackendSelector selector = new StreamLoadBackendSelector();
+        // 16 running loads on 8 cores of backend 1, load memory of backend 2 is almost full
+        selector.setRunningLoads(ImmutableMap.of("host1", 16));
+        Assert.assertEquals(3L, selector.chooseBackend(backends, ImmutableMap.of()).getId());
+
+        // 7 more loads are redirected to backend 3
+        for (int i = 0; i < 7; i++) {
+            selector.chooseBackend(backends, ImmutableMap.of());
+        }
+        selector.setRunningLoads(ImmutableMap.of("host1", 16, "host3", 8));
+        Assert.assertEquals(2L, selector.chooseBackend(backends, ImmutableMap.of()).getId());
+    }
+
+    @Test
+    public void testChooseByLocality() {
+        List<Backend> backends = ImmutableList.of(createBackend(1, 0), createBackend(2, 0), createBackend(3, 0));
+        StreamLoadBackendSelector selector = new StreamLoadBackendSelector();
+        selector.setRunningLoads(ImmutableMap.of());
+        Assert.assertEquals(2L, selector.chooseBackend(backends, ImmutableMap.of(2L, 1.0, 3L, 0.5)).getId());
+
+        // locality does not outweigh heavy load
+        selector.setRunningLoads(ImmutableMap.of("host2", 16));
+        Assert.assertEquals(3L, selector.chooseBackend(backends, ImmutableMap.of(2L, 1.0, 3L, 0.5)).getId());
+    }
+}
@@ -0,0 +1,101 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.load.routineload;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class KafkaOffsetTrackerTest {
+
+    @Test
+    public void testCalculateLag() {
+        KafkaProgress progress = new KafkaProgress();
+        progress.addPartitionOffset(new Pair<>(0, 90L));
+        progress.addPartitionOffset(new Pair<>(1, KafkaProgress.OFFSET_BEGINNING_VAL));
+        progress.addPartitionOffset(new Pair<>(2, KafkaProgress.OFFSET_END_VAL));
+
+        Map<Integer, Long> beginningOffsets = Maps.newHashMap();
+        beginningOffsets.put(1, 10L);
+        Map<Integer, Long> latestOffsets = Maps.newHashMap();
+        latestOffsets.put(0, 100L);
+        latestOffsets.put(1, 40L);
+        latestOffsets.put(2, 1000L);
+
+        KafkaOffsetTracker.JobLag lag = KafkaOffsetTracker.calculateLag(progress,
+                new KafkaOffsetTracker.TopicOffsets(beginningOffsets, latestOffsets, 1L));
+        Assert.assertEquals(30L, lag.getMaxLag());
+        Assert.assertEquals(40L, lag.getTotalLag());
+        Assert.assertEquals(1L, lag.getUpdateTimeMs());
+    }
+
+    @Test
+    public void testCachedLatestOffsets() {
+        KafkaOffsetTracker tracker = new KafkaOffsetTracker(new RoutineLoadManager());
+        KafkaRoutineLoadJob job1 = new KafkaRoutineLoadJob(1L, "job1", "default_cluster", 1L, 1L,
+                "127.0.0.1:9092", "topic1");
+        KafkaRoutineLoadJob job2 = new KafkaRoutineLoadJob(2L, "job2", "default_cluster", 1L, 2L,
+                "127.0.0.1:9092", "topic1");
+        KafkaRoutineLoadJob job3 = new KafkaRoutineLoadJob(3L, "job3", "default_cluster", 1L, 3L,
+                "127.0.0.1:9092", "topic2");
+
+        Assert.assertNull(tracker.getCachedLatestOffsets(job1, Lists.newArrayList(0)));
+
+        Map<Integer, Long> latestOffsets = Maps.newHashMap();
+        latestOffsets.put(0, 100L);
+        tracker.updateLatestOffsets(job1, latestOffsets);
+
+        // jobs consuming the same topic share the cached offsets
+        Assert.assertEquals(Long.valueOf(100L), tracker.getCachedLatestOffsets(job2, Lists.newArrayList(0)).get(0));
+        Assert.assertNull(tracker.getCachedLatestOffsets(job2, Lists.newArrayList(0, 1)));
+        Assert.assertNull(tracker.getCachedLatestOffsets(job3, Lists.newArrayList(0)));
+
+        boolean enabled = Config.enable_routine_load_kafka_offset_tracker;
+        try {
+            Config.enable_routine_load_kafka_offset_tracker = false;
+            Assert.assertNull(tracker.getCachedLatestOffsets(job1, Lists.newArrayList(0)));
+        } finally {
+            Config.enable_routine_load_kafka_offset_tracker = enabled;
+        }
+    }
+
+    @Test
+    public void testPartialUpdateNotRefreshed() throws Exception {
+        KafkaOffsetTracker tracker = new KafkaOffsetTracker(new RoutineLoadManager());
+        KafkaRoutineLoadJob job = new KafkaRoutineLoadJob(1L, "job1", "default_cluster", 1L, 1L,
+                "127.0.0.1:9092", "topic1");
+        long interval = Config.routine_load_kafka_offset_refresh_interval_ms;
+        try {
+            Config.routine_load_kafka_offset_refresh_interval_ms = 50;
+            Map<Integer, Long> latestOffsets = Maps.newHashMap();
+            latestOffsets.put(0, 100L);
+            latestOffsets.put(1, 200L);
+            tracker.updateLatestOffsets(job, latestOffsets);
+            Assert.assertNotNull(tracker.getCachedLatestOffsets(job, Lists.newArrayList(0, 1)));
+
+            // stale
+            Thread.sleep(150);
+            Assert.assertNull(tracker.getCachedLatestOffsets(job, Lists.newArrayList(1)));
+
+            // only partition 0 is fetched again, the offset of partition 1 is still stale
+            latestOffsets = Maps.newHashMap();
+            latestOffsets.put(0, 110L);
+            tracker.updateLatestOffsets(job, latestOffsets);
+            Assert.assertNull(tracker.getCachedLatestOffsets(job, Lists.newArrayList(1)));
+
+            // all the partitions are fetched again
+            latestOffsets.put(1, 210L);
+            tracker.updateLatestOffsets(job, latestOffsets);
+            Map<Integer, Long> cached = tracker.getCachedLatestOffsets(job, Lists.newArrayList(0, 1));
+            Assert.assertEquals(Long.valueOf(110L), cached.get(0));
+            Assert.assertEquals(Long.valueOf(210L), cached.get(1));
+        } finally {
+            Config.routine_load_kafka_offset_refresh_interval_ms = interval;
+        }
+    }
+}
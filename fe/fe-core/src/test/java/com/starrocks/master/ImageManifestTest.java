@@ -0,0 +1,56 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.master;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ImageManifestTest {
+
+    @Test
+    public void testChunks() throws Exception {
+        byte[] data = new byte[1024 * 1024];
+        new Random(1).nextBytes(data);
+        ImageManifest manifest = ImageManifest.compute(new ByteArrayInputStream(data), 4096);
+        Assert.assertEquals(data.length, manifest.getFileSize());
+        Assert.assertEquals(DigestUtils.md5Hex(data), manifest.getMd5());
+
+        long offset = 0;
+        for (ImageManifest.Chunk chunk : manifest.getChunks()) {
+            Assert.assertEquals(offset, chunk.getOffset());
+            Assert.assertTrue(chunk.getLength() <= 4096 * 4);
+            offset = chunk.getEnd();
+        }
+        Assert.assertEquals(data.length, offset);
+        Assert.assertTrue(manifest.getChunks().size() > 100);
+
+        ImageManifest copied = ImageManifest.fromJson(manifest.toJson());
+        Assert.assertEquals(manifest.getMd5(), copied.getMd5());
+        Assert.assertEquals(manifest.getChunks().size(), copied.getChunks().size());
+    }
+
+    @Test
+    public void testShiftedContent() throws Exception {
+        byte[] data = new byte[1024 * 1024];
+        new Random(2).nextBytes(data);
+        // insert 100 bytes in the middle, the offsets of the following bytes are shifted
+        byte[] newData = new byte[data.length + 100];
+        System.arraycopy(data, 0, newData, 0, 300000);
+        System.arraycopy(data, 300000, newData, 300100, data.length - 300000);
+
+        ImageManifest manifest = ImageManifest.compute(new ByteArrayInputStream(data), 4096);
+        ImageManifest newManifest = ImageManifest.compute(new ByteArrayInputStream(newData), 4096);
+        Set<String> md5s = manifest.getChunks().stream().map(ImageManifest.Chunk::getMd5).collect(Collectors.toSet());
+        long changedBytes = newManifest.getChunks().stream().filter(c -> !md5s.contains(c.getMd5()))
+                .mapToLong(ImageManifest.Chunk::getLength).sum();
+        // only the chunks around the inserted bytes are changed
+        Assert.assertTrue(changedBytes > 0);
+        Assert.assertTrue("changed bytes: " + changedBytes, changedBytes <= 4096 * 4 * 2);
+    }
+}
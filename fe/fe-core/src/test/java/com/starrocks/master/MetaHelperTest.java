@@ -0,0 +1,242 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.master;
+
+import com.starrocks.common.Config;
+import com.starrocks.persist.Storage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.DeflaterOutputStream;
+
+public class MetaHelperTest {
+    private static final int AVG_CHUNK_SIZE = 4096;
+    private static final int TIMEOUT_MS = 10000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String hostPort;
+    private File dir;
+    private boolean enableCompression;
+    private boolean enableDedup;
+
+    // version -> image and manifest served by the /image and /image_manifest of the master
+    private final Map<Long, byte[]> images = new HashMap<>();
+    private final Map<Long, String> manifests = new HashMap<>();
+    // the offsets and lengths of the range requests
+    private final List<long[]> ranges = new CopyOnWriteArrayList<>();
+    private final List<String> encodings = new CopyOnWriteArrayList<>();
+    // the number of the range requests to be cut in the middle
+    private volatile int truncatedRequests = 0;
+
+    @Before
+    public void setUp() throws IOException {
+        enableCompression = Config.enable_image_transfer_compression;
+        enableDedup = Config.enable_image_chunk_dedup;
+        dir = folder.newFolder("image");
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/image_manifest", exchange -> {
+            String manifest = manifests.get(Long.parseLong(getParams(exchange).get("version")));
+            if (manifest == null) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                byte[] bytes = manifest.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        server.createContext("/image", this::handleImage);
+        server.start();
+        hostPort = "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        Config.enable_image_transfer_compression = enableCompression;
+        Config.enable_image_chunk_dedup = enableDedup;
+    }
+
+    private static Map<String, String> getParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        for (String param : exchange.getRequestURI().getQuery().split("&")) {
+            String[] kv = param.split("=");
+            params.put(kv[0], kv[1]);
+        }
+        return params;
+    }
+
+    // the same protocol as MetaService.ImageAction
+    private void handleImage(HttpExchange exchange) throws IOException {
+        Map<String, String> params = getParams(exchange);
+        byte[] image = images.get(Long.parseLong(params.get("version")));
+        exchange.getResponseHeaders().add(MetaHelper.X_IMAGE_SIZE, String.valueOf(image.length));
+        if (!params.containsKey("offset")) {
+            exchange.sendResponseHeaders(200, image.length);
+            exchange.getResponseBody().write(image);
+            exchange.close();
+            return;
+        }
+
+        int offset = Integer.parseInt(params.get("offset"));
+        int length = Integer.parseInt(params.get("length"));
+        ranges.add(new long[] {offset, length});
+        String encoding = params.get("compress");
+        encodings.add(String.valueOf(encoding));
+        if (truncatedRequests > 0) {
+            truncatedRequests--;
+            length /= 2;
+        }
+        if (encoding != null) {
+            exchange.getResponseHeaders().add(MetaHelper.X_IMAGE_ENCODING, encoding);
+        }
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        if (encoding != null) {
+            out = new DeflaterOutputStream(out);
+        }
+        out.write(image, offset, length);
+        out.close();
+        exchange.close();
+    }
+
+    private byte[] addImage(long version, byte[] image) throws IOException {
+        images.put(version, image);
+        manifests.put(version, ImageManifest.compute(new ByteArrayInputStream(image), AVG_CHUNK_SIZE).toJson());
+        return image;
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private byte[] readImage(long version) throws IOException {
+        Assert.assertFalse(new File(dir, Storage.IMAGE + "." + version + ".part").exists());
+        return Files.readAllBytes(Storage.getImageFile(dir, version).toPath());
+    }
+
+    private long rangeBytes() {
+        return ranges.stream().mapToLong(range -> range[1]).sum();
+    }
+
+    @Test
+    public void testDownloadImage() throws IOException {
+        byte[] image = addImage(2, randomBytes(256 * 1024, 1));
+        Config.enable_image_transfer_compression = true;
+        MetaHelper.downloadImage(hostPort, 2, dir, TIMEOUT_MS);
+        Assert.assertArrayEquals(image, readImage(2));
+        // all the chunks are downloaded by one compressed request
+        Assert.assertEquals(1, ranges.size());
+        Assert.assertEquals(0, ranges.get(0)[0]);
+        Assert.assertEquals(image.length, ranges.get(0)[1]);
+        Assert.assertEquals(MetaHelper.DEFLATE, encodings.get(0));
+
+        image = addImage(3, randomBytes(256 * 1024, 2));
+        Config.enable_image_transfer_compression = false;
+        MetaHelper.downloadImage(hostPort, 3, dir, TIMEOUT_MS);
+        Assert.assertArrayEquals(image, readImage(3));
+        Assert.assertEquals("null", encodings.get(1));
+    }
+
+    @Test
+    public void testDownloadWithoutManifest() throws IOException {
+        byte[] image = addImage(2, randomBytes(256 * 1024, 1));
+        // the master of the old version
+        manifests.clear();
+        MetaHelper.downloadImage(hostPort, 2, dir, TIMEOUT_MS);
+        Assert.assertArrayEquals(image, readImage(2));
+        Assert.assertTrue(ranges.isEmpty());
+    }
+
+    @Test
+    public void testRetryFromDownloadedBytes() throws IOException {
+        byte[] image = addImage(2, randomBytes(256 * 1024, 1));
+        truncatedRequests = 1;
+        MetaHelper.downloadImage(hostPort, 2, dir, TIMEOUT_MS);
+        Assert.assertArrayEquals(image, readImage(2));
+        Assert.assertEquals(2, ranges.size());
+        // the second request is sent from the end of the half downloaded by the first one
+        Assert.assertEquals(image.length / 2, ranges.get(1)[0]);
+        Assert.assertEquals(image.length - image.length / 2, ranges.get(1)[1]);
+    }
+
+    @Test
+    public void testResumeDownload() throws IOException {
+        byte[] image = addImage(2, randomBytes(256 * 1024, 1));
+        // left by the last failed download
+        Files.write(new File(dir, Storage.IMAGE + ".2.part").toPath(), Arrays.copyOf(image, 100000));
+        MetaHelper.downloadImage(hostPort, 2, dir, TIMEOUT_MS);
+        Assert.assertArrayEquals(image, readImage(2));
+        Assert.assertEquals(1, ranges.size());
+        Assert.assertEquals(100000, ranges.get(0)[0]);
+        Assert.assertEquals(image.length - 100000, ranges.get(0)[1]);
+    }
+
+    @Test
+    public void testDedupLocalChunks() throws IOException {
+        byte[] localImage = randomBytes(512 * 1024, 1);
+        Files.write(Storage.getImageFile(dir, 1).toPath(), localImage);
+        // 100 bytes are inserted in the middle of the local image
+        byte[] image = new byte[localImage.length + 100];
+        System.arraycopy(localImage, 0, image, 0, 300000);
+        System.arraycopy(localImage, 300000, image, 300100, localImage.length - 300000);
+        addImage(2, image);
+
+        Config.enable_image_chunk_dedup = true;
+        MetaHelper.downloadImage(hostPort, 2, dir, TIMEOUT_MS);
+        Assert.assertArrayEquals(image, readImage(2));
+        // only the chunks around the inserted bytes are downloaded
+        Assert.assertTrue("downloaded bytes: " + rangeBytes(), rangeBytes() > 0);
+        Assert.assertTrue("downloaded bytes: " + rangeBytes(), rangeBytes() <= AVG_CHUNK_SIZE * 4 * 2);
+
+        // download all the chunks without dedup
+        Files.delete(Storage.getImageFile(dir, 2).toPath());
+        ranges.clear();
+        Config.enable_image_chunk_dedup = false;
+        MetaHelper.downloadImage(hostPort, 2, dir, TIMEOUT_MS);
+        Assert.assertArrayEquals(image, readImage(2));
+        Assert.assertEquals(image.length, rangeBytes());
+    }
+
+    @Test
+    public void testMd5Mismatch() throws IOException {
+        byte[] image = addImage(2, randomBytes(256 * 1024, 1));
+        String md5 = DigestUtils.md5Hex(image);
+        manifests.put(2L, manifests.get(2L).replace(md5, DigestUtils.md5Hex("another image")));
+        try {
+            MetaHelper.downloadImage(hostPort, 2, dir, TIMEOUT_MS);
+            Assert.fail("the md5 of the downloaded image is checked");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Unexpected image.2"));
+        }
+        Assert.assertFalse(Storage.getImageFile(dir, 2).exists());
+        // downloaded again from the beginning next time
+        Assert.assertFalse(new File(dir, Storage.IMAGE + ".2.part").exists());
+    }
+}
@@ -17,12 +17,18 @@
 
 package com.starrocks.metric;
 
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.UniformReservoir;
+import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
+import com.starrocks.monitor.jvm.JvmStats;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MetricsTest {
 
@@ -52,4 +58,106 @@ public class MetricsTest {
             }
         }
     }
+
+    @Test
+    public void testPrometheusLabels() {
+        LongCounterMetric metric = new LongCounterMetric("test_labels", Metric.MetricUnit.NOUNIT, "test");
+        Assert.assertEquals("", metric.getPrometheusLabels());
+        metric.addLabel(new MetricLabel("job", "load"));
+        Assert.assertEquals("{job=\"load\"}", metric.getPrometheusLabels());
+        metric.addLabel(new MetricLabel("type", "mini"));
+        Assert.assertEquals("{job=\"load\", type=\"mini\"}", metric.getPrometheusLabels());
+    }
+
+    @Test
+    public void testTableLabels() {
+        TableMetricsEntity entity = new TableMetricsEntity();
+        entity.setTableLabels("db", "tbl1", 1);
+        Metric metric = entity.getMetrics().get(0);
+        Assert.assertEquals("{db_name=\"db\", tbl_name=\"tbl1\", tbl_id=\"1\"}", metric.getPrometheusLabels());
+        // renamed
+        entity.setTableLabels("db", "tbl2", 1);
+        Assert.assertEquals(3, metric.getLabels().size());
+        Assert.assertEquals("{db_name=\"db\", tbl_name=\"tbl2\", tbl_id=\"1\"}", metric.getPrometheusLabels());
+    }
+
+    @Test
+    public void testHeartbeatRttHistogram() {
+        Histogram histogram = MetricRepo.getHeartbeatRttHistogram("backend", "192.168.1.1", 9050);
+        Assert.assertSame(histogram, MetricRepo.getHeartbeatRttHistogram("backend", "192.168.1.1", 9050));
+        histogram.update(10);
+
+        PrometheusMetricVisitor visitor = new PrometheusMetricVisitor("starrocks_fe");
+        visitor.visitHistogram("heartbeat_rtt_ms", Arrays.asList(new MetricLabel("type", "backend"),
+                new MetricLabel("node", "192.168.1.1:9050")), histogram);
+        visitor.visitHistogram("heartbeat_rtt_ms", Arrays.asList(new MetricLabel("type", "backend"),
+                new MetricLabel("node", "192.168.1.2:9050")), new Histogram(new UniformReservoir()));
+        String metrics = visitor.build();
+        // one metric for all the nodes
+        Assert.assertEquals(metrics, 1, metrics.split("# TYPE ").length - 1);
+        Assert.assertTrue(metrics, metrics.contains(
+                "starrocks_fe_heartbeat_rtt_ms{type=\"backend\", node=\"192.168.1.1:9050\", quantile=\"0.99\"} 10.0\n"));
+        Assert.assertTrue(metrics, metrics.contains(
+                "starrocks_fe_heartbeat_rtt_ms_count{type=\"backend\", node=\"192.168.1.1:9050\"} 1\n"));
+        Assert.assertTrue(metrics, metrics.contains(
+                "starrocks_fe_heartbeat_rtt_ms_count{type=\"backend\", node=\"192.168.1.2:9050\"} 0\n"));
+
+        MetricRepo.removeHeartbeatRttHistogram("backend", "192.168.1.1", 9050);
+        Assert.assertNotSame(histogram, MetricRepo.getHeartbeatRttHistogram("backend", "192.168.1.1", 9050));
+        MetricRepo.removeHeartbeatRttHistogram("backend", "192.168.1.1", 9050);
+    }
+
+    private static class CountingMetricVisitor extends MetricVisitor {
+        private final AtomicInteger buildTimes;
+
+        CountingMetricVisitor(AtomicInteger buildTimes) {
+            super("test");
+            this.buildTimes = buildTimes;
+        }
+
+        @Override
+        public void visitJvm(JvmStats jvmStats) {
+        }
+
+        @Override
+        public void visit(Metric metric) {
+        }
+
+        @Override
+        public void visitHistogram(String name, Histogram histogram) {
+        }
+
+        @Override
+        public void getNodeInfo() {
+        }
+
+        @Override
+        public String build() {
+            return String.valueOf(buildTimes.incrementAndGet());
+        }
+    }
+
+    @Test
+    public void testMetricSnapshot() {
+        long ttlMs = Config.metrics_snapshot_ttl_ms;
+        AtomicInteger buildTimes = new AtomicInteger();
+        try {
+            Config.metrics_snapshot_ttl_ms = 600000;
+            Assert.assertEquals("1", new String(MetricRepo.getMetricSnapshot("test", () -> new CountingMetricVisitor(
+                    buildTimes), false, false, null, null)));
+            // served by the snapshot
+            Assert.assertEquals("1", new String(MetricRepo.getMetricSnapshot("test", () -> new CountingMetricVisitor(
+                    buildTimes), false, false, null, null)));
+            Assert.assertEquals("2", new String(MetricRepo.getMetricSnapshot("test2", () -> new CountingMetricVisitor(
+                    buildTimes), false, false, null, null)));
+
+            Config.metrics_snapshot_ttl_ms = 0;
+            Assert.assertEquals("3", new String(MetricRepo.getMetricSnapshot("test", () -> new CountingMetricVisitor(
+                    buildTimes), false, false, null, null)));
+            Assert.assertEquals("4", new String(MetricRepo.getMetricSnapshot("test", () -> new CountingMetricVisitor(
+                    buildTimes), false, false, null, null)));
+        } finally {
+            Config.metrics_snapshot_ttl_ms = ttlMs;
+        }
+    }
 }
@@ -0,0 +1,45 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql;
+
+import com.starrocks.common.Config;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class MysqlBufferPoolTest {
+
+    @Test
+    public void testBorrowAndGiveBack() {
+        int oldPoolSize = Config.mysql_channel_buffer_pool_size;
+        try {
+            Config.mysql_channel_buffer_pool_size = 2;
+            MysqlBufferPool pool = new MysqlBufferPool(1024);
+            ByteBuffer buffer1 = pool.borrow();
+            ByteBuffer buffer2 = pool.borrow();
+            ByteBuffer buffer3 = pool.borrow();
+            Assert.assertEquals(1024, buffer1.capacity());
+            Assert.assertNotSame(buffer1, buffer2);
+
+            buffer1.putInt(1);
+            pool.giveBack(buffer1);
+            pool.giveBack(buffer2);
+            // the pool is full
+            pool.giveBack(buffer3);
+            // not the same size
+            pool.giveBack(ByteBuffer.allocate(16));
+            Assert.assertEquals(2, pool.getBufferNum());
+
+            ByteBuffer buffer = pool.borrow();
+            Assert.assertSame(buffer1, buffer);
+            Assert.assertEquals(0, buffer.position());
+            Assert.assertEquals(1024, buffer.limit());
+            Assert.assertSame(buffer2, pool.borrow());
+            Assert.assertEquals(0, pool.getBufferNum());
+            Assert.assertNotSame(buffer3, pool.borrow());
+        } finally {
+            Config.mysql_channel_buffer_pool_size = oldPoolSize;
+        }
+    }
+}
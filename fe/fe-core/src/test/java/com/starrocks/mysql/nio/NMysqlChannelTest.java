@@ -0,0 +1,60 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.mysql.nio;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class NMysqlChannelTest {
+
+    private static void putPacket(ByteBuffer buffer, int len, int seq) {
+        buffer.put((byte) len).put((byte) (len >> 8)).put((byte) (len >> 16)).put((byte) seq);
+        buffer.position(buffer.position() + len);
+    }
+
+    @Test
+    public void testCommandPacketLength() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        Assert.assertEquals(-1, NMysqlChannel.commandPacketLength(buffer));
+        buffer.put((byte) 10).put((byte) 0);
+        // incomplete header
+        Assert.assertEquals(-1, NMysqlChannel.commandPacketLength(buffer));
+
+        buffer.clear();
+        putPacket(buffer, 10, 0);
+        Assert.assertEquals(14, NMysqlChannel.commandPacketLength(buffer));
+        // incomplete body
+        buffer.position(13);
+        Assert.assertEquals(-1, NMysqlChannel.commandPacketLength(buffer));
+
+        // followed by the next command
+        buffer.clear();
+        putPacket(buffer, 10, 0);
+        putPacket(buffer, 5, 0);
+        Assert.assertEquals(14, NMysqlChannel.commandPacketLength(buffer));
+
+        // empty packet
+        buffer.clear();
+        putPacket(buffer, 0, 0);
+        Assert.assertEquals(4, NMysqlChannel.commandPacketLength(buffer));
+    }
+
+    @Test
+    public void testCommandPacketLengthOfLargePacket() {
+        int maxLen = 0xffffff;
+        ByteBuffer buffer = ByteBuffer.allocate(2 * maxLen + 64);
+        putPacket(buffer, maxLen, 0);
+        // the following physical packet is not arrived
+        Assert.assertEquals(-1, NMysqlChannel.commandPacketLength(buffer));
+        putPacket(buffer, 3, 1);
+        Assert.assertEquals(maxLen + 4 + 7, NMysqlChannel.commandPacketLength(buffer));
+
+        buffer.clear();
+        putPacket(buffer, maxLen, 0);
+        putPacket(buffer, maxLen, 1);
+        putPacket(buffer, 0, 2);
+        Assert.assertEquals(2 * (maxLen + 4) + 4, NMysqlChannel.commandPacketLength(buffer));
+    }
+}
@@ -2322,4 +2322,48 @@ public class AuthTest {
         newAuth.replayRevokeImpersonate(infos.get(0));
         Assert.assertFalse(newAuth.canImpersonate(harry, gregory));
     }
- }
+
+    @Test
+    public void testPrivCache() throws Exception {
+        UserIdentity lisi = new UserIdentity("lisi", "%");
+        lisi.analyze(SystemInfoService.DEFAULT_CLUSTER);
+        CreateUserStmt createUserStmt = new CreateUserStmt(false, new UserDesc(lisi, "12345", true), null);
+        createUserStmt.analyze(analyzer);
+        auth.createUser(createUserStmt);
+        String db1 = SystemInfoService.DEFAULT_CLUSTER + ":db1";
+
+        GrantStmt grantStmt = new GrantStmt(lisi, null, new TablePattern("db1", "tbl1"),
+                Lists.newArrayList(AccessPrivilege.SELECT_PRIV));
+        grantStmt.analyze(analyzer);
+        auth.grant(grantStmt);
+        // check twice, the second time is answered by the cache
+        for (int i = 0; i < 2; i++) {
+            Assert.assertTrue(auth.checkTblPriv(lisi, db1, "tbl1", PrivPredicate.SELECT));
+            Assert.assertFalse(auth.checkTblPriv(lisi, db1, "tbl1", PrivPredicate.DROP));
+            for (int j = 2; j < 1000; j++) {
+                Assert.assertFalse(auth.checkTblPriv(lisi, db1, "tbl" + j, PrivPredicate.SELECT));
+            }
+            Assert.assertFalse(auth.checkDbPriv(lisi, db1, PrivPredicate.SELECT));
+            Assert.assertTrue(auth.checkDbPriv(lisi, db1, PrivPredicate.SHOW));
+            Assert.assertFalse(auth.checkDbPriv(lisi, SystemInfoService.DEFAULT_CLUSTER + ":db2", PrivPredicate.SHOW));
+        }
+
+        // the cache is dropped after grant
+        grantStmt = new GrantStmt(lisi, null, new TablePattern("db1", "*"),
+                Lists.newArrayList(AccessPrivilege.SELECT_PRIV, AccessPrivilege.DROP_PRIV));
+        grantStmt.analyze(analyzer);
+        auth.grant(grantStmt);
+        Assert.assertTrue(auth.checkTblPriv(lisi, db1, "tbl2", PrivPredicate.SELECT));
+        Assert.assertTrue(auth.checkTblPriv(lisi, db1, "tbl1", PrivPredicate.DROP));
+        Assert.assertTrue(auth.checkDbPriv(lisi, db1, PrivPredicate.SELECT));
+
+        // and after revoke
+        RevokeStmt revokeStmt = new RevokeStmt(lisi, null, new TablePattern("db1", "*"),
+                Lists.newArrayList(AccessPrivilege.DROP_PRIV));
+        revokeStmt.analyze(analyzer);
+        auth.revoke(revokeStmt);
+        Assert.assertTrue(auth.checkTblPriv(lisi, db1, "tbl2", PrivPredicate.SELECT));
+        Assert.assertFalse(auth.checkTblPriv(lisi, db1, "tbl2", PrivPredicate.DROP));
+        Assert.assertFalse(auth.checkDbPriv(lisi, db1, PrivPredicate.DROP));
+    }
+}
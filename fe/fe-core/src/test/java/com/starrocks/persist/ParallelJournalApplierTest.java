@@ -0,0 +1,74 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.persist;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.io.Text;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.transaction.TransactionState;
+import com.starrocks.transaction.TransactionState.LoadJobSourceType;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelJournalApplierTest {
+
+    private static JournalEntity createTxnJournal(long dbId, long txnId) {
+        JournalEntity journal = new JournalEntity();
+        journal.setOpCode(OperationType.OP_UPSERT_TRANSACTION_STATE);
+        journal.setData(new TransactionState(dbId, Lists.newArrayList(), txnId, "label" + txnId, null,
+                LoadJobSourceType.FRONTEND, null, -1, 1000));
+        return journal;
+    }
+
+    @Test
+    public void testApply() throws Exception {
+        List<Long> appliedTxnIds = Collections.synchronizedList(Lists.newArrayList());
+        AtomicInteger appliedTxnNum = new AtomicInteger();
+        List<Integer> appliedTxnNumAtBarrier = Lists.newArrayList();
+        new MockUp<EditLog>() {
+            @Mock
+            public void loadJournal(GlobalStateMgr globalStateMgr, JournalEntity journal) {
+                if (journal.getData() instanceof TransactionState) {
+                    appliedTxnIds.add(((TransactionState) journal.getData()).getTransactionId());
+                    appliedTxnNum.incrementAndGet();
+                } else {
+                    appliedTxnNumAtBarrier.add(appliedTxnNum.get());
+                }
+            }
+        };
+
+        ParallelJournalApplier applier = new ParallelJournalApplier(4);
+        // txn id = db id * 1000 + seq
+        for (int seq = 0; seq < 100; seq++) {
+            for (long dbId = 1; dbId <= 8; dbId++) {
+                Assert.assertFalse(applier.apply(null, createTxnJournal(dbId, dbId * 1000 + seq)));
+            }
+        }
+        JournalEntity barrier = new JournalEntity();
+        barrier.setOpCode(OperationType.OP_SAVE_NEXTID);
+        barrier.setData(new Text("1"));
+        Assert.assertTrue(applier.apply(null, barrier));
+        // all the txn journals before the barrier are applied
+        Assert.assertEquals(Lists.newArrayList(800), appliedTxnNumAtBarrier);
+
+        Assert.assertFalse(applier.apply(null, createTxnJournal(1, 1100)));
+        applier.waitAll();
+        Assert.assertEquals(801, appliedTxnIds.size());
+
+        // the journals of a db are applied in order
+        long[] lastSeq = new long[9];
+        for (long txnId : appliedTxnIds) {
+            int dbId = (int) (txnId / 1000);
+            long seq = txnId % 1000;
+            Assert.assertTrue(seq >= lastSeq[dbId]);
+            lastSeq[dbId] = seq;
+        }
+    }
+}
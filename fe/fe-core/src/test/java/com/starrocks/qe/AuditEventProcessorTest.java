@@ -21,6 +21,8 @@
 
 package com.starrocks.qe;
 
+import com.starrocks.common.Config;
+import com.starrocks.common.io.Text;
 import com.starrocks.common.util.DigitalVersion;
 import com.starrocks.plugin.AuditEvent;
 import com.starrocks.plugin.AuditEvent.EventType;
@@ -29,11 +31,20 @@ import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.utframe.UtFrameUtils;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class AuditEventProcessorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
 
     @BeforeClass
     public static void beforeClass() throws Exception {
@@ -110,4 +121,84 @@ public class AuditEventProcessorTest {
         long total = System.currentTimeMillis() - start;
         System.out.println("total(ms): " + total + ", avg: " + total / 10000.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAuditBinaryLogBuilder() throws IOException {
+        File dir = folder.newFolder("audit");
+        boolean enable = Config.enable_audit_binary_log;
+        long maxSizeMb = Config.audit_binary_log_max_size_mb;
+        int rollNum = Config.audit_binary_log_roll_num;
+        Config.enable_audit_binary_log = true;
+        Config.audit_binary_log_max_size_mb = 0;
+        Config.audit_binary_log_roll_num = 2;
+        try (AuditBinaryLogBuilder builder = new AuditBinaryLogBuilder(dir.getAbsolutePath())) {
+            List<AuditEvent> events = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                events.add(new AuditEvent.AuditEventBuilder().setEventType(EventType.AFTER_QUERY)
+                        .setUser("user1")
+                        .setQueryTime(i)
+                        .setStmt("select " + i).build());
+            }
+            events.add(new AuditEvent.AuditEventBuilder().setEventType(EventType.CONNECTION).build());
+            // each record exceeds the max size, so the file is rotated for each record
+            builder.exec(events);
+        } finally {
+            Config.enable_audit_binary_log = enable;
+            Config.audit_binary_log_max_size_mb = maxSizeMb;
+            Config.audit_binary_log_roll_num = rollNum;
+        }
+
+        Assert.assertEquals(3, dir.list().length);
+        Assert.assertFalse(new File(dir, AuditBinaryLogBuilder.FILE_NAME + ".3").exists());
+        try (DataInputStream in = new DataInputStream(
+                new FileInputStream(new File(dir, AuditBinaryLogBuilder.FILE_NAME)))) {
+            Assert.assertEquals(AuditBinaryLogBuilder.MAGIC, in.readInt());
+            Assert.assertEquals(AuditBinaryLogBuilder.VERSION, in.readInt());
+            int fieldNum = in.readInt();
+            long queryTime = -1;
+            String stmt = null;
+            List<Byte> types = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < fieldNum; i++) {
+                names.add(Text.readString(in));
+                types.add(in.readByte());
+            }
+            in.readInt();
+            for (int i = 0; i < fieldNum; i++) {
+                switch (types.get(i)) {
+                    case AuditBinaryLogBuilder.TYPE_LONG:
+                        long value = in.readLong();
+                        if (names.get(i).equals("Time")) {
+                            queryTime = value;
+                        }
+                        break;
+                    case AuditBinaryLogBuilder.TYPE_DOUBLE:
+                        in.readDouble();
+                        break;
+                    case AuditBinaryLogBuilder.TYPE_BOOLEAN:
+                        in.readBoolean();
+                        break;
+                    default:
+                        String str = Text.readString(in);
+                        if (names.get(i).equals("Stmt")) {
+                            stmt = str;
+                        }
+                }
+            }
+            Assert.assertEquals(3, queryTime);
+            Assert.assertEquals("select 3", stmt);
+            Assert.assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void testDropEventsWhenQueueIsFull() {
+        AuditEventProcessor processor = new AuditEventProcessor(GlobalStateMgr.getCurrentState().getPluginMgr());
+        // the worker is not started
+        for (int i = 0; i < Config.audit_event_queue_size + 10; i++) {
+            processor.handleAuditEvent(new AuditEvent.AuditEventBuilder().setEventType(EventType.AFTER_QUERY).build());
+        }
+        Assert.assertTrue(processor.getDroppedEvents() >= 10);
+        Assert.assertTrue(processor.getQueueSize() >= Config.audit_event_queue_size);
+    }
+}
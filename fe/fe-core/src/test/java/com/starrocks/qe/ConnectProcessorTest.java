@@ -21,7 +21,12 @@
 
 package com.starrocks.qe;
 
+import com.google.common.collect.Lists;
 import com.starrocks.analysis.AccessTestUtil;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
 import com.starrocks.common.jmockit.Deencapsulation;
 import com.starrocks.metric.MetricRepo;
 import com.starrocks.mysql.MysqlCapability;
@@ -30,13 +35,16 @@ import com.starrocks.mysql.MysqlCommand;
 import com.starrocks.mysql.MysqlEofPacket;
 import com.starrocks.mysql.MysqlErrPacket;
 import com.starrocks.mysql.MysqlOkPacket;
+import com.starrocks.mysql.MysqlProto;
 import com.starrocks.mysql.MysqlSerializer;
 import com.starrocks.plugin.AuditEvent.AuditEventBuilder;
 import com.starrocks.proto.PQueryStatistics;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.thrift.TUniqueId;
+import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mocked;
+import mockit.Verifications;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -45,6 +53,8 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Map;
 
 public class ConnectProcessorTest {
     private static ByteBuffer initDbPacket;
@@ -191,6 +201,63 @@ public class ConnectProcessorTest {
         }
     }
 
+    // the packets are received in order, the sent packets are added to the sent
+    private static MysqlChannel mockStmtChannel(List<ByteBuffer> sent, ByteBuffer packet, ByteBuffer... packets) {
+        try {
+            MysqlChannel channel = new MysqlChannel(socketChannel);
+            new Expectations(channel) {
+                {
+                    channel.fetchOnePacket();
+                    minTimes = 0;
+                    returns(packet, (Object[]) packets);
+
+                    channel.setSequenceId(0);
+                    minTimes = 0;
+
+                    channel.sendOnePacket((ByteBuffer) any);
+                    minTimes = 0;
+                    result = new Delegate() {
+                        void sendOnePacket(ByteBuffer buffer) {
+                            sent.add(buffer.duplicate());
+                        }
+                    };
+
+                    channel.sendAndFlush((ByteBuffer) any);
+                    minTimes = 0;
+                    result = new Delegate() {
+                        void sendAndFlush(ByteBuffer buffer) {
+                            sent.add(buffer.duplicate());
+                        }
+                    };
+
+                    channel.flush();
+                    minTimes = 0;
+
+                    channel.getRemoteHostPortString();
+                    minTimes = 0;
+                    result = "127.0.0.1:12345";
+                }
+            };
+            return channel;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer stmtPacket(MysqlCommand command, int stmtId) {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(command.getCommandCode());
+        serializer.writeInt4(stmtId);
+        return serializer.toByteBuffer();
+    }
+
+    private static ServerPreparedStatement prepare(ConnectContext ctx, String sql) {
+        ServerPreparedStatement statement = new ServerPreparedStatement(ctx.getNextPreparedStatementId(), sql);
+        statement.prepare(ctx.getSessionVariable().getSqlMode());
+        ctx.addPreparedStatement(statement);
+        return statement;
+    }
+
     private static ConnectContext initMockContext(MysqlChannel channel, GlobalStateMgr globalStateMgr) {
         ConnectContext context = new ConnectContext(socketChannel) {
             private boolean firstTimeToSetCommand = true;
@@ -517,6 +584,200 @@ public class ConnectProcessorTest {
         Assert.assertFalse(myContext.isKilled());
     }
 
+    @Test
+    public void testStmtPrepare() throws Exception {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(22);
+        serializer.writeEofString("select * from testTbl where k1 = ? and k2 = ?");
+        List<ByteBuffer> sent = Lists.newArrayList();
+        ConnectContext ctx = initMockContext(mockStmtChannel(sent, serializer.toByteBuffer()),
+                AccessTestUtil.fetchAdminCatalog());
+
+        ConnectProcessor processor = new ConnectProcessor(ctx);
+        processor.processOnce();
+        Assert.assertEquals(MysqlCommand.COM_STMT_PREPARE, myContext.getCommand());
+        Assert.assertEquals(QueryState.MysqlStateType.NOOP, myContext.getState().getStateType());
+        Assert.assertEquals(1, ctx.getPreparedStatementNum());
+        Assert.assertEquals(2, ctx.getPreparedStatement(1).getParamNum());
+
+        // COM_STMT_PREPARE_OK, the definitions of the 2 parameters and EOF
+        Assert.assertEquals(4, sent.size());
+        ByteBuffer prepareOk = sent.get(0);
+        Assert.assertEquals(12, prepareOk.remaining());
+        Assert.assertEquals(0x00, MysqlProto.readInt1(prepareOk));
+        Assert.assertEquals(1, MysqlProto.readInt4(prepareOk));
+        // no column
+        Assert.assertEquals(0, MysqlProto.readInt2(prepareOk));
+        Assert.assertEquals(2, MysqlProto.readInt2(prepareOk));
+        // filler
+        Assert.assertEquals(0, MysqlProto.readInt1(prepareOk));
+        // no warning
+        Assert.assertEquals(0, MysqlProto.readInt2(prepareOk));
+
+        serializer.reset();
+        serializer.writeField("?", Type.VARCHAR);
+        ByteBuffer paramDef = serializer.toByteBuffer();
+        Assert.assertEquals(paramDef, sent.get(1));
+        Assert.assertEquals(paramDef, sent.get(2));
+        Assert.assertEquals(0xFE, MysqlProto.readInt1(sent.get(3)));
+    }
+
+    @Test
+    public void testStmtPrepareTooMany() throws Exception {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(22);
+        serializer.writeEofString("select 1");
+        List<ByteBuffer> sent = Lists.newArrayList();
+        ConnectContext ctx = initMockContext(mockStmtChannel(sent, serializer.toByteBuffer()),
+                AccessTestUtil.fetchAdminCatalog());
+        prepare(ctx, "select 1");
+        prepare(ctx, "select 2");
+
+        int maxPreparedStatements = Config.max_prepared_statements_per_connection;
+        Config.max_prepared_statements_per_connection = 2;
+        try {
+            ConnectProcessor processor = new ConnectProcessor(ctx);
+            processor.processOnce();
+        } finally {
+            Config.max_prepared_statements_per_connection = maxPreparedStatements;
+        }
+        Assert.assertEquals(MysqlCommand.COM_STMT_PREPARE, myContext.getCommand());
+        Assert.assertEquals(QueryState.MysqlStateType.ERR, myContext.getState().getStateType());
+        Assert.assertEquals("Can't create more than max_prepared_statements_per_connection statements (2)",
+                myContext.getState().getErrorMessage());
+        Assert.assertEquals(2, ctx.getPreparedStatementNum());
+        // only the error packet is sent
+        Assert.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testStmtExecuteUnknownStatement() throws Exception {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(23);
+        serializer.writeInt4(100);
+        // flags
+        serializer.writeInt1(0);
+        // iteration count
+        serializer.writeInt4(1);
+        List<ByteBuffer> sent = Lists.newArrayList();
+        ConnectContext ctx = initMockContext(mockStmtChannel(sent, serializer.toByteBuffer()),
+                AccessTestUtil.fetchAdminCatalog());
+
+        ConnectProcessor processor = new ConnectProcessor(ctx);
+        processor.processOnce();
+        Assert.assertEquals(MysqlCommand.COM_STMT_EXECUTE, myContext.getCommand());
+        Assert.assertTrue(myContext.getState().toResponsePacket() instanceof MysqlErrPacket);
+        Assert.assertEquals("Unknown prepared statement handler (100) given to COM_STMT_EXECUTE",
+                myContext.getState().getErrorMessage());
+    }
+
+    @Test
+    public void testStmtExecute(@Mocked StmtExecutor executor) throws Exception {
+        List<ByteBuffer> sent = Lists.newArrayList();
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(23);
+        serializer.writeInt4(1);
+        // flags
+        serializer.writeInt1(0);
+        // iteration count
+        serializer.writeInt4(1);
+        // null bitmap
+        serializer.writeInt1(0);
+        // new params bound
+        serializer.writeInt1(1);
+        // MYSQL_TYPE_LONGLONG
+        serializer.writeInt2(8);
+        serializer.writeInt8(41);
+        ConnectContext ctx = initMockContext(mockStmtChannel(sent, serializer.toByteBuffer()),
+                AccessTestUtil.fetchAdminCatalog());
+        ServerPreparedStatement statement = prepare(ctx, "select ? + 1");
+        Assert.assertTrue(statement.isQuery());
+
+        new Expectations() {
+            {
+                executor.getQueryStatisticsForAuditLog();
+                minTimes = 0;
+                result = statistics;
+            }
+        };
+
+        ConnectProcessor processor = new ConnectProcessor(ctx);
+        processor.processOnce();
+        Assert.assertEquals(MysqlCommand.COM_STMT_EXECUTE, myContext.getCommand());
+        Assert.assertEquals(1, statement.getExecuteCount());
+        new Verifications() {
+            {
+                executor.setPreparedStatement(statement);
+                times = 1;
+                executor.execute();
+                times = 1;
+            }
+        };
+    }
+
+    @Test
+    public void testStmtExecuteBinaryRow() throws Exception {
+        List<ByteBuffer> sent = Lists.newArrayList();
+        ConnectContext ctx = new ConnectContext(socketChannel);
+        Deencapsulation.setField(ctx, "mysqlChannel", mockStmtChannel(sent, null));
+        ctx.setCommand(MysqlCommand.COM_STMT_EXECUTE);
+        StmtExecutor executor = new StmtExecutor(ctx, "select 42");
+
+        List<Expr> exprs = Lists.newArrayList(new IntLiteral(42, Type.BIGINT));
+        Deencapsulation.invoke(executor, "sendFields", Lists.newArrayList("c"), exprs);
+        // the row of the text protocol is converted to the binary protocol
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeLenEncodedString("42");
+        Deencapsulation.invoke(executor, "sendRow", serializer.toByteBuffer());
+
+        // the number of columns, the column definition, EOF and the row
+        Assert.assertEquals(4, sent.size());
+        ByteBuffer row = sent.get(3);
+        Assert.assertEquals(10, row.remaining());
+        // header
+        Assert.assertEquals(0x00, MysqlProto.readInt1(row));
+        // null bitmap
+        Assert.assertEquals(0x00, MysqlProto.readInt1(row));
+        Assert.assertEquals(42L, MysqlProto.readInt8(row));
+    }
+
+    @Test
+    public void testStmtSendLongDataResetAndClose() throws Exception {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(24);
+        serializer.writeInt4(1);
+        // param index
+        serializer.writeInt2(0);
+        serializer.writeEofString("abc");
+        ByteBuffer sendLongDataPacket = serializer.toByteBuffer();
+        List<ByteBuffer> sent = Lists.newArrayList();
+        ConnectContext ctx = initMockContext(mockStmtChannel(sent, sendLongDataPacket,
+                stmtPacket(MysqlCommand.COM_STMT_RESET, 1), stmtPacket(MysqlCommand.COM_STMT_CLOSE, 1)),
+                AccessTestUtil.fetchAdminCatalog());
+        ServerPreparedStatement statement = prepare(ctx, "select * from testTbl where k1 = ?");
+        Map<Integer, ?> longData = Deencapsulation.getField(statement, "longData");
+
+        ConnectProcessor processor = new ConnectProcessor(ctx);
+        // COM_STMT_SEND_LONG_DATA has no response
+        processor.processOnce();
+        Assert.assertEquals(QueryState.MysqlStateType.NOOP, myContext.getState().getStateType());
+        Assert.assertEquals(1, longData.size());
+        Assert.assertTrue(sent.isEmpty());
+
+        // COM_STMT_RESET clears the data and responds OK
+        processor.processOnce();
+        Assert.assertTrue(myContext.getState().toResponsePacket() instanceof MysqlOkPacket);
+        Assert.assertTrue(longData.isEmpty());
+        Assert.assertEquals(1, sent.size());
+        Assert.assertEquals(0x00, MysqlProto.readInt1(sent.get(0)));
+
+        // COM_STMT_CLOSE has no response
+        processor.processOnce();
+        Assert.assertEquals(QueryState.MysqlStateType.NOOP, myContext.getState().getStateType());
+        Assert.assertNull(ctx.getPreparedStatement(1));
+        Assert.assertEquals(1, sent.size());
+    }
+
     @Test
     public void testNullPacket() throws Exception {
         ConnectContext ctx = initMockContext(mockChannel(null), AccessTestUtil.fetchAdminCatalog());
@@ -17,132 +17,37 @@
 
 package com.starrocks.qe;
 
-import com.google.common.collect.Multiset;
-import com.google.common.collect.TreeMultiset;
+import com.starrocks.server.GlobalStateMgr;
+import mockit.Mocked;
 import org.junit.Assert;
 import org.junit.Test;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class JournalObservableTest {
     @Test
-    public void testUpperBound() {
-        Multiset<JournalObserver> elements = TreeMultiset.create();
-        JournalObserver ovserver2 = new JournalObserver(2L);
-        JournalObserver ovserver4 = new JournalObserver(4L);
-        JournalObserver ovserver41 = new JournalObserver(4L);
-        JournalObserver ovserver42 = new JournalObserver(4L);
-        JournalObserver ovserver6 = new JournalObserver(6L);
-
-        // empty
-        {
-            Assert.assertEquals(0, JournalObservable.upperBound(elements.toArray(), 0, 1L));
-        }
-
-        // one element
-        {
-            elements.add(ovserver2);
-            int size = elements.size();
-            Assert.assertEquals(0, JournalObservable.upperBound(elements.toArray(), size, 1L));
-            Assert.assertEquals(1, JournalObservable.upperBound(elements.toArray(), size, 2L));
-            Assert.assertEquals(1, JournalObservable.upperBound(elements.toArray(), size, 3L));
-        }
-
-        // same element
-        {
-            elements.clear();
-            elements.add(ovserver2);
-            elements.add(ovserver6);
-            elements.add(ovserver4);
-            elements.add(ovserver41);
-            elements.add(ovserver42);
-
-            for (JournalObserver journalObserver : elements) {
-                System.out.println(journalObserver);
+    public void testWaitOn(@Mocked GlobalStateMgr globalStateMgr) throws Exception {
+        JournalObservable journalObservable = new JournalObservable();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                journalObservable.waitOn(5L, 60000);
+            } catch (Exception e) {
+                error.set(e);
             }
+        });
+        waiter.start();
 
-            int size = elements.size();
-            Assert.assertEquals(0, JournalObservable.upperBound(elements.toArray(), size, 1L));
-            Assert.assertEquals(1, JournalObservable.upperBound(elements.toArray(), size, 2L));
-            Assert.assertEquals(1, JournalObservable.upperBound(elements.toArray(), size, 3L));
-            Assert.assertEquals(4, JournalObservable.upperBound(elements.toArray(), size, 4L));
-            elements.remove(ovserver41);
-            Assert.assertEquals(3, JournalObservable.upperBound(elements.toArray(), elements.size(), 4L));
-            elements.remove(ovserver4);
-            Assert.assertEquals(2, JournalObservable.upperBound(elements.toArray(), elements.size(), 4L));
-            elements.remove(ovserver42);
-            Assert.assertEquals(1, JournalObservable.upperBound(elements.toArray(), elements.size(), 4L));
+        for (int i = 0; i < 10; i++) {
+            journalObservable.notifyObservers(4L);
+            Thread.sleep(10);
         }
+        Assert.assertTrue(waiter.isAlive());
 
-        // same element 2
-        {
-            elements.clear();
-            elements.add(ovserver4);
-            elements.add(ovserver41);
-
-            int size = elements.size();
-            Assert.assertEquals(2, JournalObservable.upperBound(elements.toArray(), size, 4L));
-            elements.remove(ovserver41);
-            Assert.assertEquals(1, JournalObservable.upperBound(elements.toArray(), elements.size(), 4L));
-            elements.remove(ovserver4);
-            Assert.assertEquals(0, JournalObservable.upperBound(elements.toArray(), elements.size(), 4L));
+        while (waiter.isAlive()) {
+            journalObservable.notifyObservers(5L);
+            waiter.join(10);
         }
-
-        // odd elements
-        {
-            elements.clear();
-            elements.add(ovserver2);
-            elements.add(ovserver2);
-            elements.add(ovserver4);
-            elements.add(ovserver4);
-            elements.add(ovserver6);
-            elements.add(ovserver6);
-            int size = elements.size();
-            //            System.out.println("size=" + size);
-            //            for(int i = 0; i < size; i ++) {
-            //                System.out.println("array " + i + " = " + ((MasterOpExecutor)elements.get(i)).getTargetJournalId());
-            //            }
-            Assert.assertEquals(0, JournalObservable.upperBound(elements.toArray(), size, 1L));
-            Assert.assertEquals(2, JournalObservable.upperBound(elements.toArray(), size, 2L));
-            Assert.assertEquals(2, JournalObservable.upperBound(elements.toArray(), size, 3L));
-            Assert.assertEquals(4, JournalObservable.upperBound(elements.toArray(), size, 4L));
-            Assert.assertEquals(4, JournalObservable.upperBound(elements.toArray(), size, 5L));
-            Assert.assertEquals(6, JournalObservable.upperBound(elements.toArray(), size, 6L));
-            Assert.assertEquals(6, JournalObservable.upperBound(elements.toArray(), size, 7L));
-        }
-        // even elements
-        {
-            elements.clear();
-            elements.add(ovserver2);
-            elements.add(ovserver2);
-            elements.add(ovserver4);
-            elements.add(ovserver4);
-            elements.add(ovserver4);
-            elements.add(ovserver6);
-            elements.add(ovserver6);
-            int size = elements.size();
-            Assert.assertEquals(0, JournalObservable.upperBound(elements.toArray(), size, 1L));
-            Assert.assertEquals(2, JournalObservable.upperBound(elements.toArray(), size, 2L));
-            Assert.assertEquals(2, JournalObservable.upperBound(elements.toArray(), size, 3L));
-            Assert.assertEquals(5, JournalObservable.upperBound(elements.toArray(), size, 4L));
-            Assert.assertEquals(5, JournalObservable.upperBound(elements.toArray(), size, 5L));
-            Assert.assertEquals(7, JournalObservable.upperBound(elements.toArray(), size, 6L));
-            Assert.assertEquals(7, JournalObservable.upperBound(elements.toArray(), size, 7L));
-        }
-        {
-            CountDownLatch latch = new CountDownLatch(1);
-            System.out.println(latch.getCount());
-
-            latch.countDown();
-            System.out.println(latch.getCount());
-
-            latch.countDown();
-            System.out.println(latch.getCount());
-
-            latch.countDown();
-            System.out.println(latch.getCount());
-        }
-        System.out.println("success");
+        Assert.assertNull(error.get());
     }
 }
-
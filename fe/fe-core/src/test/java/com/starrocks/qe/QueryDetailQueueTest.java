@@ -22,9 +22,11 @@
 package com.starrocks.qe;
 
 import com.google.gson.Gson;
+import com.starrocks.common.Config;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class QueryDetailQueueTest {
@@ -70,4 +72,57 @@ public class QueryDetailQueueTest {
         queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(startQueryDetail.getEventTime() - 1);
         Assert.assertEquals(2, queryDetails.size());
     }
+
+    @Test
+    public void testRemoveByBytes() {
+        long maxBytes = Config.query_detail_queue_max_bytes;
+        Config.query_detail_queue_max_bytes = 1;
+        try {
+            QueryDetail lastQueryDetail = null;
+            for (int i = 0; i < 3; i++) {
+                lastQueryDetail = new QueryDetail();
+                lastQueryDetail.setSql("select " + i);
+                QueryDetailQueue.addAndRemoveTimeoutQueryDetail(lastQueryDetail);
+            }
+            // the latest one is kept
+            Assert.assertEquals(1, QueryDetailQueue.size());
+            List<QueryDetail> queryDetails = QueryDetailQueue.getQueryDetailsAfterTime(0);
+            Assert.assertEquals(1, queryDetails.size());
+            Assert.assertSame(lastQueryDetail, queryDetails.get(0));
+            Assert.assertTrue(QueryDetailQueue.getTotalBytes() > 0);
+        } finally {
+            Config.query_detail_queue_max_bytes = maxBytes;
+        }
+    }
+
+    @Test
+    public void testConcurrentReadAndWrite() throws Exception {
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    QueryDetailQueue.addAndRemoveTimeoutQueryDetail(new QueryDetail());
+                }
+            });
+            writers.add(thread);
+            thread.start();
+        }
+
+        // the readers see the new entries in the order of event time, without duplicates
+        long lastEventTime = 0;
+        int readNum = 0;
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            for (QueryDetail queryDetail : QueryDetailQueue.getQueryDetailsAfterTime(lastEventTime)) {
+                Assert.assertTrue(queryDetail.getEventTime() > lastEventTime);
+                lastEventTime = queryDetail.getEventTime();
+                readNum++;
+            }
+        }
+        for (Thread thread : writers) {
+            thread.join();
+        }
+        readNum += QueryDetailQueue.getQueryDetailsAfterTime(lastEventTime).size();
+        Assert.assertTrue(readNum > 0);
+        Assert.assertTrue(QueryDetailQueue.size() <= Config.query_detail_queue_max_num);
+    }
 }
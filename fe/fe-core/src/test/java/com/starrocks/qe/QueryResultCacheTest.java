@@ -0,0 +1,244 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Replica;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.thrift.TResultBatch;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class QueryResultCacheTest {
+    private static ConnectContext ctx;
+    private static StarRocksAssert starRocksAssert;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        FeConstants.runningUnitTest = true;
+        UtFrameUtils.createMinStarRocksCluster();
+        ctx = UtFrameUtils.createDefaultCtx();
+        starRocksAssert = new StarRocksAssert(ctx);
+        starRocksAssert.withDatabase("test").useDatabase("test")
+                .withTable("CREATE TABLE test.t0(k1 int, v1 int) duplicate key(k1) " +
+                        "distributed by hash(k1) buckets 3 properties('replication_num' = '1');")
+                .withTable("CREATE TABLE test.t1(k1 int, v1 int) duplicate key(k1) " +
+                        "distributed by hash(k1) buckets 3 properties('replication_num' = '1');")
+                .withView("CREATE VIEW test.v0 AS SELECT k1, v1 FROM test.t0")
+                .withView("CREATE VIEW test.v_now AS SELECT k1, now() AS t FROM test.t0");
+    }
+
+    private static ByteBuffer row(int size) {
+        return ByteBuffer.wrap(new byte[size]);
+    }
+
+    private static String getKey(String sql, List<String> colNames) throws Exception {
+        return QueryResultCache.getKey(ctx, sql, colNames, UtFrameUtils.parseStmtWithNewParser(sql, ctx));
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        List<String> colNames = Lists.newArrayList("k1", "cnt");
+        String sql = "select k1, count(*) from t0 group by k1";
+        String key = getKey(sql, colNames);
+        Assert.assertNotNull(key);
+        Assert.assertEquals(key, getKey(sql + " ", colNames));
+
+        ctx.setDatabase("default_cluster:other");
+        try {
+            Assert.assertNotEquals(key, QueryResultCache.getKey(ctx, sql, colNames,
+                    UtFrameUtils.parseStmtWithNewParser("select k1, count(*) from test.t0 group by k1", ctx)));
+        } finally {
+            ctx.setDatabase("default_cluster:test");
+        }
+
+        // the results depend on the time or the session
+        Assert.assertNull(getKey("select * from t0 where k1 = dayofmonth(curdate())", colNames));
+        Assert.assertNull(getKey("select NOW(), k1 from t0", colNames));
+        Assert.assertNull(getKey("select current_timestamp(), k1 from t0", colNames));
+        Assert.assertNull(getKey("select rand() from t0", colNames));
+        Assert.assertNull(getKey("select database(), k1 from t0", colNames));
+        Assert.assertNull(getKey("select k1 from t0 where k1 in (select k1 from t1 where v1 < rand())", colNames));
+        Assert.assertNull(getKey("with w as (select k1, uuid() from t0) select * from w", colNames));
+        // only the functions are checked, not the text
+        Assert.assertNotNull(getKey("select k1 as `now()` from t0 where 'rand()' = 'rand()'", colNames));
+        // not a query
+        StatementBase insert = UtFrameUtils.parseStmtWithNewParser("insert into t1 select * from t0", ctx);
+        Assert.assertNull(QueryResultCache.getKey(ctx, "insert into t1 select * from t0", colNames, insert));
+    }
+
+    @Test
+    public void testKeyOfView() throws Exception {
+        List<String> colNames = Lists.newArrayList("k1", "v1");
+        String sql = "select * from v0";
+        String key = getKey(sql, colNames);
+        Assert.assertNotNull(key);
+        // the function in the view is checked
+        Assert.assertNull(getKey("select * from v_now", colNames));
+        Assert.assertNull(getKey("select k1 from t0 where k1 in (select k1 from v_now)", colNames));
+
+        // the view is altered
+        starRocksAssert.dropView("test.v0").withView("CREATE VIEW test.v0 AS SELECT k1, v1 + 1 AS v1 FROM test.t0");
+        Assert.assertNotEquals(key, getKey(sql, colNames));
+    }
+
+    @Test
+    public void testKeyOfMultiStatements() throws Exception {
+        List<String> colNames = Lists.newArrayList("count(*)");
+        String sql = "select count(*) from t0 where k1 = 1; select count(*) from t0 where v1 < rand()";
+        List<StatementBase> stmts = SqlParser.parse(sql, ctx.getSessionVariable().getSqlMode());
+        stmts.forEach(stmt -> Analyzer.analyze(stmt, ctx));
+        String first = SqlParser.getStatementText(sql, 0);
+        Assert.assertEquals("select count(*) from t0 where k1 = 1", first.trim());
+        Assert.assertNotNull(QueryResultCache.getKey(ctx, first, colNames, stmts.get(0)));
+        // only the 2nd statement is not deterministic
+        Assert.assertNull(QueryResultCache.getKey(ctx, SqlParser.getStatementText(sql, 1), colNames, stmts.get(1)));
+
+        sql = "select count(*) from t0 where k1 = 1; select count(*) from t0 where k1 = 2";
+        stmts = SqlParser.parse(sql, ctx.getSessionVariable().getSqlMode());
+        stmts.forEach(stmt -> Analyzer.analyze(stmt, ctx));
+        Assert.assertNotEquals(QueryResultCache.getKey(ctx, SqlParser.getStatementText(sql, 0), colNames, stmts.get(0)),
+                QueryResultCache.getKey(ctx, SqlParser.getStatementText(sql, 1), colNames, stmts.get(1)));
+    }
+
+    private static void execute(String sql) throws Exception {
+        ctx.setQueryId(UUIDUtil.genUUID());
+        ctx.getState().reset();
+        StatementBase stmt = SqlParser.parse(sql, ctx.getSessionVariable().getSqlMode()).get(0);
+        new StmtExecutor(ctx, stmt).execute();
+        Assert.assertEquals(QueryState.MysqlStateType.EOF, ctx.getState().getStateType());
+    }
+
+    // the data of the partition is loaded
+    private static void load(OlapTable table) {
+        Partition partition = table.getPartitions().iterator().next();
+        long version = partition.getVisibleVersion() + 1;
+        for (Tablet tablet : partition.getBaseIndex().getTablets()) {
+            for (Replica replica : ((LocalTablet) tablet).getReplicas()) {
+                replica.updateVersionInfo(version, -1, version);
+            }
+        }
+        partition.updateVisibleVersion(version);
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        int[] execNum = {0};
+        new MockUp<Coordinator>() {
+            @Mock
+            public void exec() {
+                execNum[0]++;
+            }
+
+            @Mock
+            public RowBatch getNext() {
+                TResultBatch resultBatch = new TResultBatch();
+                resultBatch.setRows(Lists.newArrayList(ByteBuffer.wrap("\u00011".getBytes(StandardCharsets.UTF_8))));
+                RowBatch batch = new RowBatch();
+                batch.setBatch(resultBatch);
+                batch.setEos(true);
+                return batch;
+            }
+        };
+
+        QueryResultCache.INSTANCE.clear();
+        ctx.getSessionVariable().setEnableQueryResultCache(true);
+        try {
+            String sql = "select k1, sum(v1) from t1 group by k1";
+            execute(sql);
+            Assert.assertEquals(1, execNum[0]);
+            Assert.assertEquals(1, QueryResultCache.INSTANCE.getEntryNum());
+
+            // hit
+            long returnRows = ctx.getReturnRows();
+            execute(sql);
+            Assert.assertEquals(1, execNum[0]);
+            Assert.assertEquals(returnRows + 1, ctx.getReturnRows());
+
+            // miss, the partition is loaded
+            load((OlapTable) GlobalStateMgr.getCurrentState().getDb("default_cluster:test").getTable("t1"));
+            execute(sql);
+            Assert.assertEquals(2, execNum[0]);
+            execute(sql);
+            Assert.assertEquals(2, execNum[0]);
+
+            // not cached
+            execute("select k1, rand() from t1");
+            execute("select k1, rand() from t1");
+            Assert.assertEquals(4, execNum[0]);
+        } finally {
+            ctx.getSessionVariable().setEnableQueryResultCache(false);
+            QueryResultCache.INSTANCE.clear();
+        }
+    }
+
+    @Test
+    public void testGetAndPut() {
+        QueryResultCache cache = new QueryResultCache();
+        Assert.assertNull(cache.get("q1", "1:2:3,"));
+
+        cache.put("q1", "1:2:3,", Lists.newArrayList(row(10), row(20)), 30);
+        List<ByteBuffer> rows = cache.get("q1", "1:2:3,");
+        Assert.assertEquals(2, rows.size());
+        Assert.assertEquals(10, rows.get(0).remaining());
+        // the cached rows are not changed by reading
+        rows.get(0).get();
+        Assert.assertEquals(10, cache.get("q1", "1:2:3,").get(0).remaining());
+        Assert.assertEquals(30, cache.getTotalBytes());
+
+        // the partition is loaded
+        Assert.assertNull(cache.get("q1", "1:2:4,"));
+        Assert.assertEquals(0, cache.getEntryNum());
+        Assert.assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testEvict() {
+        long oldMaxSize = Config.query_result_cache_max_size_mb;
+        long oldMaxEntrySize = Config.query_result_cache_max_entry_size_kb;
+        try {
+            Config.query_result_cache_max_size_mb = 1;
+            Config.query_result_cache_max_entry_size_kb = 512;
+            QueryResultCache cache = new QueryResultCache();
+            // too large
+            cache.put("q0", "", Lists.newArrayList(row(10)), 513 * 1024);
+            Assert.assertEquals(0, cache.getEntryNum());
+
+            cache.put("q1", "", Lists.newArrayList(row(10)), 400 * 1024);
+            cache.put("q2", "", Lists.newArrayList(row(10)), 400 * 1024);
+            // q1 is used recently
+            Assert.assertNotNull(cache.get("q1", ""));
+            cache.put("q3", "", Lists.newArrayList(row(10)), 400 * 1024);
+            Assert.assertEquals(2, cache.getEntryNum());
+            Assert.assertEquals(800 * 1024, cache.getTotalBytes());
+            Assert.assertNull(cache.get("q2", ""));
+            Assert.assertNotNull(cache.get("q1", ""));
+            Assert.assertNotNull(cache.get("q3", ""));
+
+            cache.clear();
+            Assert.assertEquals(0, cache.getTotalBytes());
+        } finally {
+            Config.query_result_cache_max_size_mb = oldMaxSize;
+            Config.query_result_cache_max_entry_size_kb = oldMaxEntrySize;
+        }
+    }
+}
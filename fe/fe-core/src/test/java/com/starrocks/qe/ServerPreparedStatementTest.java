@@ -0,0 +1,149 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.qe;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.catalog.Type;
+import com.starrocks.mysql.MysqlBinaryRow;
+import com.starrocks.mysql.MysqlColType;
+import com.starrocks.mysql.MysqlProto;
+import com.starrocks.mysql.MysqlSerializer;
+import com.starrocks.sql.parser.ParsingException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class ServerPreparedStatementTest {
+
+    @Test
+    public void testFindParamMarkers() {
+        Assert.assertEquals(Lists.newArrayList(27, 38),
+                ServerPreparedStatement.findParamMarkers("select * from t where k1 = ? and k2 = ?"));
+        // the '?' in the strings, identifiers and comments are not markers
+        String sql = "select '?', \"a\\\"?\", 'it''s ?', `?` from t -- ?\n where k1 = ? /* ? */";
+        List<Integer> markers = ServerPreparedStatement.findParamMarkers(sql);
+        Assert.assertEquals(1, markers.size());
+        Assert.assertEquals(sql.indexOf("= ?") + 2, (int) markers.get(0));
+        Assert.assertTrue(ServerPreparedStatement.findParamMarkers("select 1").isEmpty());
+    }
+
+    @Test
+    public void testBindAndReadParams() {
+        ServerPreparedStatement statement = new ServerPreparedStatement(1, "select * from t where a = ? and b = ? "
+                + "and c = ? and d = ? and e in (?, ?)");
+        Assert.assertEquals(6, statement.getParamNum());
+
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        // null bitmap, the 4th is null
+        serializer.writeInt1(0x08);
+        // new params bound
+        serializer.writeInt1(1);
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_LONG.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_VAR_STRING.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_DATETIME.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_LONG.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_TINY.getCode() | 0x8000);
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_DOUBLE.getCode());
+        serializer.writeInt4(-3);
+        serializer.writeLenEncodedString("it's");
+        serializer.writeInt1(7);
+        serializer.writeInt2(2022);
+        serializer.writeInt1(1);
+        serializer.writeInt1(2);
+        serializer.writeInt1(3);
+        serializer.writeInt1(4);
+        serializer.writeInt1(5);
+        serializer.writeInt1(200);
+        serializer.writeInt8(Double.doubleToLongBits(1.5));
+
+        List<LiteralExpr> params = statement.readParams(serializer.toByteBuffer());
+        Assert.assertEquals(-3, params.get(0).getLongValue());
+        Assert.assertEquals("it's", params.get(1).getStringValue());
+        Assert.assertEquals("2022-01-02 03:04:05", params.get(2).getStringValue());
+        Assert.assertTrue(params.get(3) instanceof NullLiteral);
+        Assert.assertEquals(200, params.get(4).getLongValue());
+        Assert.assertEquals(Type.DOUBLE, params.get(5).getType());
+        Assert.assertEquals("select * from t where a = -3 and b = 'it\\'s' and c = '2022-01-02 03:04:05' "
+                + "and d = NULL and e in (200, 1.5)", statement.bind(params));
+    }
+
+    @Test
+    public void testReadLongData() {
+        ServerPreparedStatement statement = new ServerPreparedStatement(1, "insert into t values (?, ?)");
+        statement.appendLongData(1, "ab".getBytes(StandardCharsets.UTF_8));
+        statement.appendLongData(1, "cd".getBytes(StandardCharsets.UTF_8));
+
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(0);
+        serializer.writeInt1(1);
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_LONGLONG.getCode());
+        serializer.writeInt2(MysqlColType.MYSQL_TYPE_BLOB.getCode());
+        serializer.writeInt8(10);
+        Assert.assertEquals("insert into t values (10, 'abcd')",
+                statement.bind(statement.readParams(serializer.toByteBuffer())));
+
+        // the types are reused, and the long data is cleared after execution
+        serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(0);
+        serializer.writeInt1(0);
+        serializer.writeInt8(11);
+        serializer.writeLenEncodedString("x");
+        Assert.assertEquals("insert into t values (11, 'x')",
+                statement.bind(statement.readParams(serializer.toByteBuffer())));
+    }
+
+    @Test
+    public void testPrepare() {
+        ServerPreparedStatement statement = new ServerPreparedStatement(1, "select * from t where k1 = ? and k2 = ?");
+        statement.prepare(SqlModeHelper.MODE_DEFAULT);
+        Assert.assertTrue(statement.isQuery());
+
+        statement = new ServerPreparedStatement(1, "insert into t values (?, ?)");
+        statement.prepare(SqlModeHelper.MODE_DEFAULT);
+        Assert.assertFalse(statement.isQuery());
+
+        try {
+            new ServerPreparedStatement(1, "select ?; select ?").prepare(SqlModeHelper.MODE_DEFAULT);
+            Assert.fail();
+        } catch (ParsingException e) {
+            Assert.assertTrue(e.getMessage().contains("Only one statement"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadParamsWithoutTypes() {
+        ServerPreparedStatement statement = new ServerPreparedStatement(1, "select ?");
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeInt1(0);
+        serializer.writeInt1(0);
+        statement.readParams(serializer.toByteBuffer());
+    }
+
+    @Test
+    public void testEncodeBinaryRow() throws Exception {
+        MysqlSerializer serializer = MysqlSerializer.newInstance();
+        serializer.writeLenEncodedString("12");
+        serializer.writeInt1(251);
+        serializer.writeLenEncodedString("2022-01-02");
+        serializer.writeLenEncodedString("abc");
+        ByteBuffer row = MysqlBinaryRow.encode(serializer.toByteBuffer(), Lists.newArrayList(
+                MysqlColType.MYSQL_TYPE_LONGLONG, MysqlColType.MYSQL_TYPE_LONG,
+                MysqlColType.MYSQL_TYPE_DATE, MysqlColType.MYSQL_TYPE_VARCHAR));
+
+        Assert.assertEquals(0, MysqlProto.readInt1(row));
+        // the 2nd column is null, the offset of the bitmap is 2
+        Assert.assertEquals(0x08, MysqlProto.readInt1(row));
+        Assert.assertEquals(12, MysqlProto.readInt8(row));
+        Assert.assertEquals(4, MysqlProto.readInt1(row));
+        Assert.assertEquals(2022, MysqlProto.readInt2(row));
+        Assert.assertEquals(1, MysqlProto.readInt1(row));
+        Assert.assertEquals(2, MysqlProto.readInt1(row));
+        Assert.assertEquals("abc", new String(MysqlProto.readLenEncodedString(row), StandardCharsets.UTF_8));
+        Assert.assertFalse(row.hasRemaining());
+    }
+}
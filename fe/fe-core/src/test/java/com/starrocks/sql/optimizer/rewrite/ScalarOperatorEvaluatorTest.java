@@ -12,18 +12,25 @@ import com.starrocks.sql.optimizer.operator.OperatorType;
 import com.starrocks.sql.optimizer.operator.scalar.CallOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.scalar.FoldConstantsRule;
 import mockit.Expectations;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ScalarOperatorEvaluatorTest {
+    private static final Logger LOG = LogManager.getLogger(ScalarOperatorEvaluatorTest.class);
+
     @Test
     public void evaluationNotConstant() {
         CallOperator operator = new CallOperator(FunctionSet.IFNULL, Type.INT,
@@ -76,6 +83,31 @@ public class ScalarOperatorEvaluatorTest {
         assertEquals("test123", ((ConstantOperator) result).getVarchar());
     }
 
+    @Test
+    public void evaluationVarArgs() {
+        Function concatFn = new Function(new FunctionName(FunctionSet.CONCAT), new Type[] {Type.VARCHAR},
+                Type.VARCHAR, true);
+        CallOperator concat = new CallOperator(FunctionSet.CONCAT, Type.VARCHAR,
+                Lists.newArrayList(ConstantOperator.createVarchar("a"), ConstantOperator.createVarchar("b")), concatFn);
+        ScalarOperator result = ScalarOperatorEvaluator.INSTANCE.evaluation(concat);
+        assertEquals(OperatorType.CONSTANT, result.getOpType());
+        assertEquals("ab", ((ConstantOperator) result).getVarchar());
+
+        // only one variable argument
+        concat = new CallOperator(FunctionSet.CONCAT, Type.VARCHAR,
+                Lists.newArrayList(ConstantOperator.createVarchar("a")), concatFn);
+        assertEquals("a", ((ConstantOperator) ScalarOperatorEvaluator.INSTANCE.evaluation(concat)).getVarchar());
+
+        Function concatWsFn = new Function(new FunctionName(FunctionSet.CONCAT_WS),
+                new Type[] {Type.VARCHAR, Type.VARCHAR}, Type.VARCHAR, true);
+        CallOperator concatWs = new CallOperator(FunctionSet.CONCAT_WS, Type.VARCHAR,
+                Lists.newArrayList(ConstantOperator.createVarchar(","), ConstantOperator.createVarchar("a"),
+                        ConstantOperator.createVarchar("b"), ConstantOperator.createVarchar("c")), concatWsFn);
+        result = ScalarOperatorEvaluator.INSTANCE.evaluation(concatWs);
+        assertEquals(OperatorType.CONSTANT, result.getOpType());
+        assertEquals("a,b,c", ((ConstantOperator) result).getVarchar());
+    }
+
     @Test
     public void evaluationUtc() throws AnalysisException {
         CallOperator operator = new CallOperator("utc_timestamp", Type.VARCHAR, Lists.newArrayList());
@@ -141,4 +173,30 @@ public class ScalarOperatorEvaluatorTest {
         assertEquals(result, operator);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void evaluationLargeInList() {
+        Function fn = new Function(new FunctionName("days_add"), new Type[] {Type.DATETIME, Type.INT},
+                Type.DATETIME, false);
+        List<ScalarOperator> children = Lists.newArrayList(new ColumnRefOperator(1, Type.DATETIME, "dt", true));
+        for (int i = 0; i < 10000; i++) {
+            children.add(new CallOperator("days_add", Type.DATETIME, Lists.newArrayList(
+                    ConstantOperator.createDatetime(LocalDateTime.of(2021, 1, 1, 0, 0)),
+                    ConstantOperator.createInt(i % 100)), fn));
+        }
+        InPredicateOperator in = new InPredicateOperator(false, children);
+
+        long start = System.nanoTime();
+        ScalarOperator result = new ScalarOperatorRewriter().rewrite(in,
+                Lists.newArrayList(new FoldConstantsRule()));
+        long elapsed = System.nanoTime() - start;
+        LOG.info("fold IN predicate with {} calls cost {}us", children.size() - 1, elapsed / 1000);
+
+        assertEquals(OperatorType.IN, result.getOpType());
+        assertEquals(children.size(), result.getChildren().size());
+        assertEquals(children.get(0), result.getChild(0));
+        for (int i = 1; i < result.getChildren().size(); i++) {
+            ConstantOperator constant = (ConstantOperator) result.getChild(i);
+            assertEquals(LocalDateTime.of(2021, 1, 1, 0, 0).plusDays((i - 1) % 100), constant.getDatetime());
+        }
+    }
+}
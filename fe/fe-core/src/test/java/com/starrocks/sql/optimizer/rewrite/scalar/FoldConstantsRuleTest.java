@@ -25,6 +25,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class FoldConstantsRuleTest {
     private final FoldConstantsRule rule = new FoldConstantsRule();
@@ -58,6 +60,36 @@ public class FoldConstantsRuleTest {
         assertEquals("123", ((ConstantOperator) operator).getVarchar());
     }
 
+    @Test
+    public void applyCallWithFoldedCache() {
+        Function fn = new Function(new FunctionName("years_add"), new Type[] {Type.DATETIME, Type.INT},
+                Type.DATETIME, false);
+        ScalarOperatorRewriteContext context = new ScalarOperatorRewriteContext();
+
+        ScalarOperator first = null;
+        for (int i = 0; i < 1000; i++) {
+            CallOperator call = new CallOperator("years_add", Type.DATETIME, Lists.newArrayList(
+                    ConstantOperator.createDatetime(LocalDateTime.of(2021, 1, 1, 0, 0)),
+                    ConstantOperator.createInt(1)), fn);
+            ScalarOperator result = rule.apply(call, context);
+            assertEquals(OperatorType.CONSTANT, result.getOpType());
+            assertEquals(LocalDateTime.of(2022, 1, 1, 0, 0), ((ConstantOperator) result).getDatetime());
+            if (first == null) {
+                first = result;
+            } else {
+                // the folded constants are not shared between operators
+                assertNotSame(first, result);
+            }
+        }
+
+        // the call which can't be folded is kept as it is
+        CallOperator notFolded = new CallOperator("not_fe_function", Type.INT,
+                Lists.newArrayList(ConstantOperator.createInt(1)),
+                new Function(new FunctionName("not_fe_function"), new Type[] {Type.INT}, Type.INT, false));
+        assertSame(notFolded, rule.apply(notFolded, context));
+        assertSame(notFolded, rule.apply(notFolded, context));
+    }
+
     @Test
     public void applyIn() {
         InPredicateOperator ipo1 = new InPredicateOperator(ConstantOperator.createNull(Type.BOOLEAN));
@@ -0,0 +1,102 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.parser;
+
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.InsertStmt;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.qe.SqlModeHelper;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.ValuesRelation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SqlParserTest {
+
+    private static String createInsertValues(String prefix, String lastRow) {
+        StringBuilder sb = new StringBuilder(prefix);
+        String[] rows = {
+                "(1, -2, 9223372036854775808, -9223372036854775808, 'a''b\\n', \"c\"\"d\")",
+                "( 1.5 , - .5e3 , 1E-3 , 1.5e40 , NULL , true )",
+                "(+3, -170141183460469231731687303715884105728, 0.0, FALSE, '', \"\\\\x\")",
+        };
+        int i = 0;
+        while (sb.length() < InsertValuesParser.MIN_SQL_LENGTH) {
+            sb.append(rows[i++ % rows.length]).append(",\n");
+        }
+        return sb.append(lastRow).toString();
+    }
+
+    private static List<List<Expr>> getRows(StatementBase statement) {
+        QueryStatement queryStatement = ((InsertStmt) statement).getQueryStatement();
+        return ((ValuesRelation) queryStatement.getQueryRelation()).getRows();
+    }
+
+    private static void assertSameRows(List<List<Expr>> expected, List<List<Expr>> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).size(), actual.get(i).size());
+            for (int j = 0; j < expected.get(i).size(); j++) {
+                Expr e = expected.get(i).get(j);
+                Expr a = actual.get(i).get(j);
+                Assert.assertEquals(e.getClass(), a.getClass());
+                Assert.assertEquals(e.getType(), a.getType());
+                Assert.assertEquals(e.toSql(), a.toSql());
+            }
+        }
+    }
+
+    @Test
+    public void testInsertValues() {
+        for (long sqlMode : new long[] {SqlModeHelper.MODE_DEFAULT, SqlModeHelper.MODE_DOUBLE_LITERAL}) {
+            String sql = createInsertValues("explain insert into db.t (a, b) with label l values ", "(1, 2, 3)");
+            StatementBase expected = SqlParser.parseSingleStatement(sql, sqlMode);
+            StatementBase actual = InsertValuesParser.parse(sql, sqlMode);
+            Assert.assertNotNull(actual);
+            assertSameRows(getRows(expected), getRows(actual));
+
+            InsertStmt insertStmt = (InsertStmt) actual;
+            Assert.assertTrue(insertStmt.isExplain());
+            Assert.assertEquals("l", insertStmt.getLabel());
+            Assert.assertEquals("t", insertStmt.getTableName().getTbl());
+            Assert.assertEquals(2, insertStmt.getTargetColumnNames().size());
+            Assert.assertEquals(sql, SqlParser.parse(sql, sqlMode).get(0).getOrigStmt().originStmt);
+        }
+    }
+
+    @Test
+    public void testInsertValuesFallback() {
+        String[] lastRows = {"(now())", "(DEFAULT)", "(1 + 1)", "(1abc)", "(1.2.3)", "('a' 'b')", "(- 'a')",
+                "(1), ", "(1", "('a)", "(nullx)", "(1) (2)"};
+        for (String lastRow : lastRows) {
+            String sql = createInsertValues("insert into t values ", lastRow);
+            Assert.assertNull(lastRow, InsertValuesParser.parse(sql, SqlModeHelper.MODE_DEFAULT));
+        }
+
+        // parsed by the ANTLR parser
+        String sql = createInsertValues("insert into t values ", "(now())");
+        List<List<Expr>> rows = getRows(SqlParser.parse(sql, SqlModeHelper.MODE_DEFAULT).get(0));
+        Assert.assertEquals("now()", rows.get(rows.size() - 1).get(0).toSql());
+
+        sql = createInsertValues("insert into t select * from t2 where a in ", "(1)");
+        Assert.assertNull(InsertValuesParser.parse(sql, SqlModeHelper.MODE_DEFAULT));
+    }
+
+    @Test
+    public void testSyntaxError() {
+        try {
+            SqlParser.parseSingleStatement("select a from t where", SqlModeHelper.MODE_DEFAULT);
+            Assert.fail();
+        } catch (ParsingException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("You have an error in your SQL syntax"));
+        }
+    }
+
+    @Test
+    public void testWarmUp() {
+        SqlParser.warmUp();
+        StatementBase statement = SqlParser.parseSingleStatement("select 1", SqlModeHelper.MODE_DEFAULT);
+        Assert.assertTrue(statement instanceof QueryStatement);
+    }
+}
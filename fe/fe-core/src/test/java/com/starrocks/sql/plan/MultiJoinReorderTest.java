@@ -462,4 +462,23 @@ public class MultiJoinReorderTest extends PlanTestBase {
         String plan = getFragmentPlan(sql);
         Assert.assertTrue(plan.contains("<slot 27> : CAST(NULL AS VARCHAR(20))"));
     }
+
+    @Test
+    public void testMemoBudgetExceeded() throws Exception {
+        String sql = "select * from t0 join t1 on v1 = v4 join t2 on v4 = v7 join t3 on v7 = v10";
+        getFragmentPlan(sql);
+        long unlimited = connectContext.getAuditEventBuilder().build().planMemoGroupExpressions;
+
+        long maxMemoGroupExpressions = connectContext.getSessionVariable().getCboMaxMemoGroupExpressions();
+        try {
+            // join exploration is skipped, but the query is still planned
+            connectContext.getSessionVariable().setCboMaxMemoGroupExpressions(1);
+            String planFragment = getFragmentPlan(sql);
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+            long limited = connectContext.getAuditEventBuilder().build().planMemoGroupExpressions;
+            Assert.assertTrue(limited + " vs " + unlimited, limited > 0 && limited < unlimited);
+        } finally {
+            connectContext.getSessionVariable().setCboMaxMemoGroupExpressions(maxMemoGroupExpressions);
+        }
+    }
 }
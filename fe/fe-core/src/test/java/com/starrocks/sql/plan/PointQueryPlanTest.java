@@ -0,0 +1,130 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.plan;
+
+import com.starrocks.sql.optimizer.operator.physical.PhysicalOlapScanOperator;
+import com.starrocks.thrift.TExplainLevel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PointQueryPlanTest extends PlanTestBase {
+    private static final Logger LOG = LogManager.getLogger(PointQueryPlanTest.class);
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        starRocksAssert.withTable("CREATE TABLE `tprimary_multi_keys` (\n" +
+                "  `pk1` bigint NOT NULL,\n" +
+                "  `pk2` varchar(20) NOT NULL,\n" +
+                "  `v1` int NOT NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "PRIMARY KEY(`pk1`, `pk2`)\n" +
+                "DISTRIBUTED BY HASH(`pk1`) BUCKETS 3\n" +
+                "PROPERTIES (\"replication_num\" = \"1\");");
+    }
+
+    @Test
+    public void testPointQuery() throws Exception {
+        ExecPlan plan = getExecPlan("select * from tprimary where pk = 1");
+        Assert.assertEquals(1, plan.getFragments().size());
+        Assert.assertTrue(plan.getPhysicalPlan().getOp() instanceof PhysicalOlapScanOperator);
+        String explain = plan.getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("PREDICATES: 1: pk = 1"));
+        Assert.assertTrue(explain, explain.contains("tabletRatio=1/3"));
+        Assert.assertFalse(explain, explain.contains("EXCHANGE"));
+
+        // the value columns can be selected and filtered
+        plan = getExecPlan("select v1 from tprimary where 2 = pk and v2 = 3");
+        Assert.assertEquals(1, plan.getFragments().size());
+        explain = plan.getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("1: pk = 2"));
+        Assert.assertTrue(explain, explain.contains("3: v2 = 3"));
+        Assert.assertTrue(explain, explain.contains("tabletRatio=1/3"));
+    }
+
+    @Test
+    public void testMultiKeysPointQuery() throws Exception {
+        ExecPlan plan = getExecPlan("select * from tprimary_multi_keys where pk2 = 'a' and pk1 = 1");
+        Assert.assertEquals(1, plan.getFragments().size());
+        Assert.assertTrue(plan.getPhysicalPlan().getOp() instanceof PhysicalOlapScanOperator);
+        String explain = plan.getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("tabletRatio=1/3"));
+        Assert.assertFalse(explain, explain.contains("EXCHANGE"));
+    }
+
+    @Test
+    public void testPartialKeysNotPointQuery() throws Exception {
+        // the tablet is pruned by the distribution key, but pk2 isn't specified, so there may be multiple rows
+        ExecPlan plan = getExecPlan("select * from tprimary_multi_keys where pk1 = 1");
+        String explain = plan.getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("tabletRatio=1/3"));
+        Assert.assertTrue(explain, explain.contains("EXCHANGE"));
+        Assert.assertEquals(2, plan.getFragments().size());
+
+        // pk2 is compared with a non-equal predicate
+        explain = getFragmentPlan("select * from tprimary_multi_keys where pk1 = 1 and pk2 > 'a'");
+        Assert.assertTrue(explain, explain.contains("EXCHANGE"));
+
+        // only pk2 is specified
+        explain = getFragmentPlan("select * from tprimary_multi_keys where pk2 = 'a'");
+        Assert.assertTrue(explain, explain.contains("tabletRatio=3/3"));
+        Assert.assertTrue(explain, explain.contains("EXCHANGE"));
+    }
+
+    @Test
+    public void testNotPointQuery() throws Exception {
+        // not all the primary key columns are specified
+        String explain = getFragmentPlan("select * from tprimary where pk > 1");
+        Assert.assertTrue(explain, explain.contains("tabletRatio=3/3"));
+        Assert.assertTrue(explain, explain.contains("EXCHANGE"));
+
+        // aggregation
+        ExecPlan plan = getExecPlan("select count(*) from tprimary where pk = 1");
+        Assert.assertFalse(plan.getPhysicalPlan().getOp() instanceof PhysicalOlapScanOperator);
+
+        connectContext.getSessionVariable().setEnableShortCircuitPointQuery(false);
+        try {
+            plan = getExecPlan("select * from tprimary where pk = 1");
+            explain = plan.getExplainString(TExplainLevel.NORMAL);
+            Assert.assertTrue(explain, explain.contains("PREDICATES: 1: pk = 1"));
+        } finally {
+            connectContext.getSessionVariable().setEnableShortCircuitPointQuery(true);
+        }
+    }
+
+    /**
+     * Planner benchmark of the point queries, only runs with -Dpoint.query.benchmark=true, the latency is
+     * logged and not asserted.
+     */
+    @Test
+    public void testPlanningLatency() throws Exception {
+        if (!Boolean.getBoolean("point.query.benchmark")) {
+            return;
+        }
+        int rounds = Integer.getInteger("point.query.benchmark.rounds", 1000);
+        String sql = "select * from tprimary where pk = 1";
+        // warm up
+        planningTime(sql, 100);
+        long shortCircuitCost = planningTime(sql, rounds);
+        connectContext.getSessionVariable().setEnableShortCircuitPointQuery(false);
+        long optimizerCost;
+        try {
+            planningTime(sql, 100);
+            optimizerCost = planningTime(sql, rounds);
+        } finally {
+            connectContext.getSessionVariable().setEnableShortCircuitPointQuery(true);
+        }
+        LOG.info("planning latency of {} point queries, with short circuit: {}ms, with optimizer: {}ms",
+                rounds, shortCircuitCost, optimizerCost);
+    }
+
+    private long planningTime(String sql, int rounds) throws Exception {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < rounds; i++) {
+            getExecPlan(sql);
+        }
+        return System.currentTimeMillis() - start;
+    }
+}
@@ -0,0 +1,58 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.StringLiteral;
+import com.starrocks.qe.ServerPreparedStatement;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.thrift.TExplainLevel;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PreparedStatementPlanTest extends PlanTestBase {
+
+    @Test
+    public void testReuseAnalyzedQuery() throws Exception {
+        ServerPreparedStatement statement = new ServerPreparedStatement(1, "select v1 from t0 where v2 = ? and v1 = ?");
+        statement.prepare(connectContext.getSessionVariable().getSqlMode());
+        Assert.assertTrue(statement.isQuery());
+
+        QueryStatement query = statement.bindQuery(connectContext,
+                Lists.newArrayList(new IntLiteral(2), new IntLiteral(1)));
+        String explain = statement.planQuery(connectContext).getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("2: v2 = 2"));
+        Assert.assertTrue(explain, explain.contains("1: v1 = 1"));
+
+        // the analyzed query is planned with the new values
+        Assert.assertSame(query, statement.bindQuery(connectContext,
+                Lists.newArrayList(new IntLiteral(4), new IntLiteral(3))));
+        explain = statement.planQuery(connectContext).getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("2: v2 = 4"));
+        Assert.assertTrue(explain, explain.contains("1: v1 = 3"));
+
+        // the type of a parameter is changed, the query is parsed and analyzed again
+        QueryStatement newQuery = statement.bindQuery(connectContext,
+                Lists.newArrayList(new StringLiteral("5"), new IntLiteral(3)));
+        Assert.assertNotSame(query, newQuery);
+        explain = statement.planQuery(connectContext).getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("1: v1 = 3"));
+    }
+
+    @Test
+    public void testNotQuery() {
+        ServerPreparedStatement statement = new ServerPreparedStatement(1, "insert into t0 values (?, ?, ?)");
+        statement.prepare(connectContext.getSessionVariable().getSqlMode());
+        Assert.assertFalse(statement.isQuery());
+    }
+
+    @Test
+    public void testParameterNotBound() {
+        try {
+            getFragmentPlan("select v1 from t0 where v2 = ?");
+            Assert.fail();
+        } catch (Exception e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("only supported in prepared statements"));
+        }
+    }
+}
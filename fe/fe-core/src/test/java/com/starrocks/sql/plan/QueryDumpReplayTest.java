@@ -0,0 +1,124 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.FeConstants;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.utframe.QueryDumpReplayer;
+import com.starrocks.utframe.UtFrameUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replay the query dumps and report the planning latency, memo size and plan cost of each dump.
+ * The bundled dumps in sql/query_dump are replayed by default, production dumps could be replayed by:
+ * <pre>
+ * mvn test -Dtest=QueryDumpReplayTest -Ddump.replay.dir=/path/to/dumps -Ddump.replay.output=/path/to/output
+ *     [-Ddump.replay.shard.index=0 -Ddump.replay.shard.count=4] [-Ddump.replay.baseline=/path/to/baseline/output]
+ * </pre>
+ * Run one process per shard with the same output directory to replay the dumps in parallel, then run with
+ * dump.replay.baseline set to the output directory of another build to compare the plans and latency.
+ */
+public class QueryDumpReplayTest {
+    private static final Logger LOG = LogManager.getLogger(QueryDumpReplayTest.class);
+
+    private static ConnectContext connectContext;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        connectContext = UtFrameUtils.createDefaultCtx();
+        FeConstants.runningUnitTest = true;
+    }
+
+    @Test
+    public void testReplayDumps() throws Exception {
+        String dumpDir = System.getProperty("dump.replay.dir");
+        if (dumpDir == null) {
+            dumpDir = Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResource("sql")).getPath() +
+                    "/query_dump";
+        }
+        int shardIndex = Integer.getInteger("dump.replay.shard.index", 0);
+        int shardCount = Integer.getInteger("dump.replay.shard.count", 1);
+        int rounds = Integer.getInteger("dump.replay.rounds", 3);
+
+        QueryDumpReplayer replayer = new QueryDumpReplayer(connectContext, 1, rounds);
+        List<QueryDumpReplayer.ReplayResult> results = replayer.replayDirectory(new File(dumpDir),
+                shardIndex, shardCount);
+        LOG.info("replay dumps in {}\n{}", dumpDir, QueryDumpReplayer.summarize(results));
+
+        String output = System.getProperty("dump.replay.output");
+        File outputDir = output == null ? Files.createTempDirectory("dump_replay").toFile() : new File(output);
+        QueryDumpReplayer.writeReport(results, outputDir, shardIndex);
+        Assert.assertEquals(results.size(), QueryDumpReplayer.readReport(outputDir).size());
+
+        String baseline = System.getProperty("dump.replay.baseline");
+        if (baseline != null) {
+            List<String> diffs = QueryDumpReplayer.diff(new File(baseline), outputDir, 1.5);
+            LOG.info("{} differences from the baseline {}\n{}", diffs.size(), baseline, String.join("\n", diffs));
+        }
+
+        if (System.getProperty("dump.replay.dir") == null) {
+            // the bundled dumps are replayed by ReplayFromDumpTest too, and they must all be planned
+            for (QueryDumpReplayer.ReplayResult result : results) {
+                Assert.assertFalse(result.getName() + ": " + result.getError(), result.isFailed());
+                Assert.assertTrue(result.getName(), result.getPlanTimeUs() >= 0);
+            }
+            // replay the dumps again and compare with the first replay as the baseline, the plans are the same,
+            // the latency is only compared with a real baseline
+            File replayDir = Files.createTempDirectory("dump_replay_again").toFile();
+            QueryDumpReplayer.writeReport(replayer.replayDirectory(new File(dumpDir), shardIndex, shardCount),
+                    replayDir, shardIndex);
+            List<String> diffs = QueryDumpReplayer.diffPlans(outputDir, replayDir);
+            Assert.assertTrue(String.join("\n", diffs), diffs.isEmpty());
+        }
+    }
+
+    @Test
+    public void testDiffChangedBaseline() throws Exception {
+        File baselineDir = Files.createTempDirectory("dump_replay_baseline").toFile();
+        File currentDir = Files.createTempDirectory("dump_replay_current").toFile();
+        List<QueryDumpReplayer.ReplayResult> results = Lists.newArrayList(new QueryDumpReplayer.ReplayResult("q1"),
+                new QueryDumpReplayer.ReplayResult("q2"));
+        QueryDumpReplayer.writeReport(results, baselineDir, 0);
+        QueryDumpReplayer.writeReport(results, currentDir, 0);
+        Assert.assertTrue(QueryDumpReplayer.diff(baselineDir, currentDir, 2).isEmpty());
+
+        // the plan of q2 is changed in the baseline
+        Files.write(new File(baselineDir, "plans/q2.plan").toPath(), "HASH JOIN".getBytes(StandardCharsets.UTF_8));
+        List<String> diffs = QueryDumpReplayer.diff(baselineDir, currentDir, 2);
+        Assert.assertEquals(1, diffs.size());
+        Assert.assertTrue(diffs.get(0), diffs.get(0).startsWith("q2: plan changed"));
+        Assert.assertTrue(diffs.get(0), diffs.get(0).contains("- HASH JOIN"));
+        Assert.assertEquals(diffs, QueryDumpReplayer.diffPlans(baselineDir, currentDir));
+    }
+
+    @Test
+    public void testDiffLatency() throws Exception {
+        File baselineDir = Files.createTempDirectory("dump_replay_baseline").toFile();
+        File currentDir = Files.createTempDirectory("dump_replay_current").toFile();
+        List<QueryDumpReplayer.ReplayResult> results = Lists.newArrayList(new QueryDumpReplayer.ReplayResult("q1"));
+        QueryDumpReplayer.writeReport(results, baselineDir, 0);
+        QueryDumpReplayer.writeReport(results, currentDir, 0);
+        // name, planning latency, memo groups, memo expressions, cpu cost, mem cost, plan hash, error
+        Files.write(new File(baselineDir, "report-0.tsv").toPath(),
+                Lists.newArrayList("q1\t5000\t1\t1\t1.0\t1.0\t0\t"), StandardCharsets.UTF_8);
+        Files.write(new File(currentDir, "report-0.tsv").toPath(),
+                Lists.newArrayList("q1\t50000\t1\t1\t1.0\t1.0\t0\t"), StandardCharsets.UTF_8);
+
+        List<String> diffs = QueryDumpReplayer.diff(baselineDir, currentDir, 2);
+        Assert.assertEquals(1, diffs.size());
+        Assert.assertTrue(diffs.get(0), diffs.get(0).startsWith("q1: planning latency 5000us -> 50000us"));
+        Assert.assertTrue(QueryDumpReplayer.diffPlans(baselineDir, currentDir).isEmpty());
+    }
+}
@@ -0,0 +1,184 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.sql.plan;
+
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.FeConstants;
+import com.starrocks.server.GlobalStateMgr;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Join reorder on wide synthetic join graphs, which exceed cbo_max_reorder_node_use_dp.
+ * The snowflake graph is a fact table joined with DIM_NUM dimension tables, and each dimension table
+ * is joined with a sub dimension table. The chain graph joins CHAIN_NUM tables one by one.
+ */
+public class WideJoinReorderTest extends PlanTestBase {
+    private static final Logger LOG = LogManager.getLogger(WideJoinReorderTest.class);
+
+    private static final int DIM_NUM = 12;
+    private static final int CHAIN_NUM = 24;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        PlanTestBase.beforeClass();
+        GlobalStateMgr globalStateMgr = connectContext.getGlobalStateMgr();
+
+        StringBuilder factColumns = new StringBuilder();
+        for (int i = 0; i < DIM_NUM; i++) {
+            factColumns.append("  `f_d").append(i).append("` bigint NULL,\n");
+        }
+        starRocksAssert.withTable("CREATE TABLE `wide_fact` (\n" +
+                "  `f_id` bigint NULL,\n" +
+                factColumns +
+                "  `f_value` bigint NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "DUPLICATE KEY(`f_id`)\n" +
+                "DISTRIBUTED BY HASH(`f_id`) BUCKETS 3\n" +
+                "PROPERTIES (\"replication_num\" = \"1\");");
+        setTableStatistics((OlapTable) globalStateMgr.getDb("default_cluster:test").getTable("wide_fact"),
+                100000000);
+
+        for (int i = 0; i < DIM_NUM; i++) {
+            createTable("wide_dim" + i, "d" + i, 1000L * (i + 1));
+            createTable("wide_sub" + i, "s" + i, 10L * (i + 1));
+        }
+        for (int i = 0; i < CHAIN_NUM; i++) {
+            createTable("wide_chain" + i, "c" + i, 1000L * ((i * 7) % 11 + 1));
+        }
+
+        connectContext.getSessionVariable().setCboEnableDPHypJoinReorder(true);
+        FeConstants.runningUnitTest = true;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        connectContext.getSessionVariable().setCboEnableDPHypJoinReorder(false);
+        FeConstants.runningUnitTest = false;
+        PlanTestBase.afterClass();
+    }
+
+    private static void createTable(String tableName, String prefix, long rowCount) throws Exception {
+        starRocksAssert.withTable("CREATE TABLE `" + tableName + "` (\n" +
+                "  `" + prefix + "_id` bigint NULL,\n" +
+                "  `" + prefix + "_fk` bigint NULL,\n" +
+                "  `" + prefix + "_value` bigint NULL\n" +
+                ") ENGINE=OLAP\n" +
+                "DUPLICATE KEY(`" + prefix + "_id`)\n" +
+                "DISTRIBUTED BY HASH(`" + prefix + "_id`) BUCKETS 3\n" +
+                "PROPERTIES (\"replication_num\" = \"1\");");
+        OlapTable table = (OlapTable) connectContext.getGlobalStateMgr().getDb("default_cluster:test")
+                .getTable(tableName);
+        setTableStatistics(table, rowCount);
+    }
+
+    private static String snowflakeQuery() {
+        StringBuilder sql = new StringBuilder("select count(*) from wide_fact");
+        for (int i = 0; i < DIM_NUM; i++) {
+            sql.append(" join wide_dim").append(i).append(" on f_d").append(i).append(" = d").append(i).append("_id");
+            sql.append(" join wide_sub").append(i).append(" on d").append(i).append("_fk = s").append(i).append("_id");
+        }
+        return sql.toString();
+    }
+
+    private static String chainQuery() {
+        StringBuilder sql = new StringBuilder("select count(*) from wide_chain0");
+        for (int i = 1; i < CHAIN_NUM; i++) {
+            sql.append(" join wide_chain").append(i).append(" on c").append(i - 1).append("_fk = c").append(i)
+                    .append("_id");
+        }
+        return sql.toString();
+    }
+
+    @Test
+    public void testSnowflakeJoin() throws Exception {
+        String plan = getFragmentPlan(snowflakeQuery());
+        assertNotContains(plan, "CROSS JOIN");
+        for (int i = 0; i < DIM_NUM; i++) {
+            assertContains(plan, "TABLE: wide_dim" + i + "\n", "TABLE: wide_sub" + i + "\n");
+        }
+    }
+
+    @Test
+    public void testChainJoin() throws Exception {
+        String plan = getFragmentPlan(chainQuery());
+        assertNotContains(plan, "CROSS JOIN");
+        for (int i = 0; i < CHAIN_NUM; i++) {
+            assertContains(plan, "TABLE: wide_chain" + i + "\n");
+        }
+    }
+
+    @Test
+    public void testFallbackToLinearizedDP() throws Exception {
+        long maxJoinPairs = connectContext.getSessionVariable().getCboDPHypMaxJoinPairs();
+        try {
+            connectContext.getSessionVariable().setCboDPHypMaxJoinPairs(10);
+            String plan = getFragmentPlan(snowflakeQuery());
+            assertNotContains(plan, "CROSS JOIN");
+            plan = getFragmentPlan(chainQuery());
+            assertNotContains(plan, "CROSS JOIN");
+        } finally {
+            connectContext.getSessionVariable().setCboDPHypMaxJoinPairs(maxJoinPairs);
+        }
+    }
+
+    private static int countJoins(String plan) {
+        return plan.split(":HASH JOIN", -1).length - 1;
+    }
+
+    @Test
+    public void testSameJoinsAsGreedyReorder() throws Exception {
+        String[] sqls = {snowflakeQuery(), chainQuery()};
+        int[] joinNums = {DIM_NUM * 2, CHAIN_NUM - 1};
+        for (int i = 0; i < sqls.length; i++) {
+            String dphypPlan = getFragmentPlan(sqls[i]);
+            connectContext.getSessionVariable().setCboEnableDPHypJoinReorder(false);
+            String greedyPlan;
+            try {
+                greedyPlan = getFragmentPlan(sqls[i]);
+            } finally {
+                connectContext.getSessionVariable().setCboEnableDPHypJoinReorder(true);
+            }
+            // all the tables are joined by the equal predicates in both plans, only the order may differ
+            Assert.assertEquals(joinNums[i], countJoins(dphypPlan));
+            Assert.assertEquals(countJoins(greedyPlan), countJoins(dphypPlan));
+            assertNotContains(greedyPlan, "CROSS JOIN");
+        }
+    }
+
+    /**
+     * Planner benchmark of the wide join graphs, compares the planning latency with and without DPhyp.
+     * It only runs with -Djoin.reorder.benchmark=true, the latency is logged and not asserted.
+     */
+    @Test
+    public void testPlanningLatency() throws Exception {
+        if (!Boolean.getBoolean("join.reorder.benchmark")) {
+            return;
+        }
+        int rounds = Integer.getInteger("join.reorder.benchmark.rounds", 3);
+        for (String sql : new String[] {snowflakeQuery(), chainQuery()}) {
+            long dphypCost = planningTime(sql, rounds);
+            connectContext.getSessionVariable().setCboEnableDPHypJoinReorder(false);
+            long greedyCost;
+            try {
+                greedyCost = planningTime(sql, rounds);
+            } finally {
+                connectContext.getSessionVariable().setCboEnableDPHypJoinReorder(true);
+            }
+            LOG.info("planning latency of {} rounds, with DPhyp: {}ms, without DPhyp: {}ms, sql: {}",
+                    rounds, dphypCost, greedyCost, sql);
+        }
+    }
+
+    private long planningTime(String sql, int rounds) throws Exception {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < rounds; i++) {
+            getFragmentPlan(sql);
+        }
+        return System.currentTimeMillis() - start;
+    }
+}
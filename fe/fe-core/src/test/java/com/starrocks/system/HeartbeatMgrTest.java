@@ -22,6 +22,7 @@
 package com.starrocks.system;
 
 import com.starrocks.catalog.FsBroker;
+import com.starrocks.common.Config;
 import com.starrocks.common.GenericPool;
 import com.starrocks.common.Pair;
 import com.starrocks.common.util.Util;
@@ -29,6 +30,7 @@ import com.starrocks.ha.FrontendNodeType;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.system.HeartbeatMgr.BrokerHeartbeatHandler;
 import com.starrocks.system.HeartbeatMgr.FrontendHeartbeatHandler;
+import com.starrocks.system.HeartbeatMgr.NodeHbState;
 import com.starrocks.system.HeartbeatResponse.HbStatus;
 import com.starrocks.thrift.TBrokerOperationStatus;
 import com.starrocks.thrift.TBrokerOperationStatusCode;
@@ -148,4 +150,52 @@ public class HeartbeatMgrTest {
         Assert.assertEquals(HbStatus.OK, hbResponse.getStatus());
     }
 
+    @Test
+    public void testSkipStableNode() {
+        int oldMaxSkipRounds = Config.heartbeat_max_skip_rounds;
+        int oldStableRounds = Config.heartbeat_stable_rounds;
+        try {
+            Config.heartbeat_max_skip_rounds = 2;
+            Config.heartbeat_stable_rounds = 3;
+            NodeHbState state = new NodeHbState("be_1", "backend", "192.168.1.1", 9050);
+            for (int i = 0; i < 3; i++) {
+                Assert.assertFalse(state.shouldSkip());
+                state.onResponse(true);
+            }
+            // stable, skip 2 rounds after each heartbeat
+            for (int i = 0; i < 2; i++) {
+                Assert.assertTrue(state.shouldSkip());
+                Assert.assertTrue(state.shouldSkip());
+                Assert.assertFalse(state.shouldSkip());
+                state.onResponse(true);
+            }
+
+            // not stable after a failure
+            Assert.assertTrue(state.shouldSkip());
+            Assert.assertTrue(state.shouldSkip());
+            Assert.assertFalse(state.shouldSkip());
+            state.onResponse(false);
+            Assert.assertFalse(state.shouldSkip());
+            state.onResponse(true);
+            Assert.assertFalse(state.shouldSkip());
+
+            NodeHbState feState = new NodeHbState("fe_test", "frontend", "192.168.1.2", 9010);
+            feState.skippable = false;
+            for (int i = 0; i < 5; i++) {
+                feState.onResponse(true);
+            }
+            Assert.assertFalse(feState.shouldSkip());
+
+            // disabled by default
+            Config.heartbeat_max_skip_rounds = 0;
+            state = new NodeHbState("be_1", "backend", "192.168.1.1", 9050);
+            for (int i = 0; i < 5; i++) {
+                state.onResponse(true);
+            }
+            Assert.assertFalse(state.shouldSkip());
+        } finally {
+            Config.heartbeat_max_skip_rounds = oldMaxSkipRounds;
+            Config.heartbeat_stable_rounds = oldStableRounds;
+        }
+    }
 }
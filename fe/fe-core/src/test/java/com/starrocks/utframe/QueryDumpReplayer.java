@@ -0,0 +1,387 @@
+// This file is licensed under the Elastic License 2.0. Copyright 2021-present, StarRocks Limited.
+
+package com.starrocks.utframe;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.analysis.InsertStmt;
+import com.starrocks.analysis.StatementBase;
+import com.starrocks.persist.gson.GsonUtils;
+import com.starrocks.plugin.AuditEvent;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.sql.InsertPlanner;
+import com.starrocks.sql.analyzer.Analyzer;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.optimizer.Memo;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.Optimizer;
+import com.starrocks.sql.optimizer.base.ColumnRefFactory;
+import com.starrocks.sql.optimizer.base.ColumnRefSet;
+import com.starrocks.sql.optimizer.base.PhysicalPropertySet;
+import com.starrocks.sql.optimizer.dump.QueryDumpInfo;
+import com.starrocks.sql.optimizer.transformer.LogicalPlan;
+import com.starrocks.sql.optimizer.transformer.RelationTransformer;
+import com.starrocks.sql.parser.SqlParser;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.sql.plan.PlanFragmentBuilder;
+import com.starrocks.thrift.TExplainLevel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replay a directory of query dumps against the mocked frontend of {@link UtFrameUtils}, no backend is required.
+ * For each dump, the schema, statistics and session variables are mocked by the dump, then the statement is
+ * planned several times to measure the planning latency, the memo size and the cost of the chosen plan.
+ * <p>
+ * The results are written to report-{shard}.tsv and plans/{dump}.plan in an output directory, so the
+ * outputs of two builds could be compared by {@link #diff}.
+ * The mocked catalog is global in a frontend process, so the dumps are replayed one by one in a process,
+ * and replayed in parallel by running several processes, each of which replays one shard of the dumps.
+ */
+public class QueryDumpReplayer {
+    private static final Logger LOG = LogManager.getLogger(QueryDumpReplayer.class);
+
+    private static final String REPORT_PREFIX = "report-";
+    private static final String REPORT_SUFFIX = ".tsv";
+    private static final String PLAN_DIR = "plans";
+
+    public static class ReplayResult {
+        private final String name;
+        // median planning time of all the measured rounds
+        private long planTimeUs = -1;
+        private int memoGroups = -1;
+        private int memoExpressions = -1;
+        private double cpuCost = -1;
+        private double memCost = -1;
+        private String plan = "";
+        private String error = "";
+
+        public ReplayResult(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getPlanTimeUs() {
+            return planTimeUs;
+        }
+
+        public int getMemoGroups() {
+            return memoGroups;
+        }
+
+        public int getMemoExpressions() {
+            return memoExpressions;
+        }
+
+        public double getCpuCost() {
+            return cpuCost;
+        }
+
+        public double getMemCost() {
+            return memCost;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isFailed() {
+            return !error.isEmpty();
+        }
+
+        public int getPlanHash() {
+            return plan.hashCode();
+        }
+
+        String toReportLine() {
+            return Joiner.on("\t").join(name, planTimeUs, memoGroups, memoExpressions, cpuCost, memCost,
+                    getPlanHash(), error.replaceAll("\\s+", " "));
+        }
+
+        static ReplayResult fromReportLine(String line) {
+            String[] fields = line.split("\t", -1);
+            ReplayResult result = new ReplayResult(fields[0]);
+            result.planTimeUs = Long.parseLong(fields[1]);
+            result.memoGroups = Integer.parseInt(fields[2]);
+            result.memoExpressions = Integer.parseInt(fields[3]);
+            result.cpuCost = Double.parseDouble(fields[4]);
+            result.memCost = Double.parseDouble(fields[5]);
+            result.error = fields.length > 7 ? fields[7] : "";
+            return result;
+        }
+    }
+
+    private final ConnectContext connectContext;
+    private final int warmupRounds;
+    private final int rounds;
+
+    public QueryDumpReplayer(ConnectContext connectContext, int warmupRounds, int rounds) {
+        this.connectContext = connectContext;
+        this.warmupRounds = warmupRounds;
+        this.rounds = Math.max(1, rounds);
+    }
+
+    /**
+     * Replay the dumps (*.json) in the directory whose index modulo shardCount equals shardIndex.
+     */
+    public List<ReplayResult> replayDirectory(File dumpDir, int shardIndex, int shardCount) throws IOException {
+        List<File> dumps;
+        try (Stream<Path> paths = Files.list(dumpDir.toPath())) {
+            dumps = paths.map(Path::toFile)
+                    .filter(f -> f.isFile() && f.getName().endsWith(".json"))
+                    .sorted(Comparator.comparing(File::getName))
+                    .collect(Collectors.toList());
+        }
+
+        List<ReplayResult> results = Lists.newArrayList();
+        for (int i = 0; i < dumps.size(); i++) {
+            if (i % shardCount != shardIndex) {
+                continue;
+            }
+            File dump = dumps.get(i);
+            String name = dump.getName().substring(0, dump.getName().length() - ".json".length());
+            String dumpJson = new String(Files.readAllBytes(dump.toPath()), StandardCharsets.UTF_8);
+            results.add(replay(name, dumpJson));
+        }
+        return results;
+    }
+
+    public ReplayResult replay(String name, String dumpJson) {
+        ReplayResult result = new ReplayResult(name);
+        try {
+            QueryDumpInfo dumpInfo = GsonUtils.GSON.fromJson(dumpJson, QueryDumpInfo.class);
+            dumpInfo.getSessionVariable().setOptimizerExecuteTimeout(30000);
+            String sql = UtFrameUtils.initMockEnv(connectContext, dumpInfo);
+
+            long[] planTimes = new long[rounds];
+            for (int i = 0; i < warmupRounds + rounds; i++) {
+                connectContext.getAuditEventBuilder().reset();
+                long start = System.nanoTime();
+                StatementBase statement = SqlParser.parse(sql, connectContext.getSessionVariable().getSqlMode()).get(0);
+                Analyzer.analyze(statement, connectContext);
+                ExecPlan execPlan = plan(statement, result);
+                long elapsed = System.nanoTime() - start;
+                if (i >= warmupRounds) {
+                    planTimes[i - warmupRounds] = elapsed / 1000;
+                }
+
+                if (i == warmupRounds + rounds - 1) {
+                    AuditEvent event = connectContext.getAuditEventBuilder().build();
+                    result.cpuCost = event.planCpuCosts;
+                    result.memCost = event.planMemCosts;
+                    // tablet ids depend on the mocked catalog, exclude them from the plan
+                    result.plan = Arrays.stream(execPlan.getExplainString(TExplainLevel.COSTS).split("\n"))
+                            .filter(s -> !s.contains("tabletList"))
+                            .collect(Collectors.joining("\n"));
+                }
+            }
+            Arrays.sort(planTimes);
+            result.planTimeUs = planTimes[rounds / 2];
+        } catch (Throwable e) {
+            LOG.warn("failed to replay dump {}", name, e);
+            result.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        } finally {
+            UtFrameUtils.tearMockEnv();
+        }
+        return result;
+    }
+
+    private ExecPlan plan(StatementBase statement, ReplayResult result) {
+        if (statement instanceof InsertStmt) {
+            return new InsertPlanner().plan((InsertStmt) statement, connectContext);
+        }
+        if (!(statement instanceof QueryStatement)) {
+            throw new UnsupportedOperationException("Do not support the statement " + statement.getClass());
+        }
+
+        ColumnRefFactory columnRefFactory = new ColumnRefFactory();
+        LogicalPlan logicalPlan = new RelationTransformer(columnRefFactory, connectContext)
+                .transform(((QueryStatement) statement).getQueryRelation());
+        Optimizer optimizer = new Optimizer();
+        OptExpression optimizedPlan = optimizer.optimize(
+                connectContext,
+                logicalPlan.getRoot(),
+                new PhysicalPropertySet(),
+                new ColumnRefSet(logicalPlan.getOutputColumn()),
+                columnRefFactory);
+        Memo memo = optimizer.getContext().getMemo();
+        result.memoGroups = memo.getGroups().size();
+        result.memoExpressions = memo.getGroupExpressions().size();
+
+        return new PlanFragmentBuilder().createPhysicalPlan(optimizedPlan, connectContext,
+                logicalPlan.getOutputColumn(), columnRefFactory, new ArrayList<>());
+    }
+
+    public static void writeReport(List<ReplayResult> results, File outputDir, int shardIndex) throws IOException {
+        File planDir = new File(outputDir, PLAN_DIR);
+        if (!planDir.exists() && !planDir.mkdirs()) {
+            throw new IOException("failed to create " + planDir);
+        }
+        List<String> lines = Lists.newArrayList();
+        for (ReplayResult result : results) {
+            lines.add(result.toReportLine());
+            Files.write(new File(planDir, result.getName() + ".plan").toPath(),
+                    result.getPlan().getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(new File(outputDir, REPORT_PREFIX + shardIndex + REPORT_SUFFIX).toPath(), lines,
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the reports of all the shards in the output directory.
+     */
+    public static List<ReplayResult> readReport(File outputDir) throws IOException {
+        List<ReplayResult> results = Lists.newArrayList();
+        File[] reports = outputDir.listFiles((dir, name) -> name.startsWith(REPORT_PREFIX) &&
+                name.endsWith(REPORT_SUFFIX));
+        if (reports == null) {
+            return results;
+        }
+        for (File report : reports) {
+            for (String line : Files.readAllLines(report.toPath(), StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    results.add(ReplayResult.fromReportLine(line));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Planning latency percentiles, memo size and failures of the results.
+     */
+    public static String summarize(List<ReplayResult> results) {
+        List<ReplayResult> succeeded = results.stream().filter(r -> !r.isFailed()).collect(Collectors.toList());
+        List<Long> latencies = succeeded.stream().map(ReplayResult::getPlanTimeUs).sorted()
+                .collect(Collectors.toList());
+        StringBuilder sb = new StringBuilder();
+        sb.append("replayed dumps: ").append(results.size())
+                .append(", failed: ").append(results.size() - succeeded.size()).append("\n");
+        if (latencies.isEmpty()) {
+            return sb.toString();
+        }
+        sb.append("planning latency(us): p50=").append(percentile(latencies, 0.5))
+                .append(", p90=").append(percentile(latencies, 0.9))
+                .append(", p99=").append(percentile(latencies, 0.99))
+                .append(", max=").append(latencies.get(latencies.size() - 1)).append("\n");
+        ReplayResult largestMemo = Collections.max(succeeded, Comparator.comparing(ReplayResult::getMemoExpressions));
+        sb.append("largest memo: ").append(largestMemo.getName())
+                .append(", groups=").append(largestMemo.getMemoGroups())
+                .append(", expressions=").append(largestMemo.getMemoExpressions()).append("\n");
+        ReplayResult slowest = Collections.max(succeeded, Comparator.comparing(ReplayResult::getPlanTimeUs));
+        sb.append("slowest: ").append(slowest.getName()).append(", ").append(slowest.getPlanTimeUs()).append("us\n");
+        for (ReplayResult result : results) {
+            if (result.isFailed()) {
+                sb.append("failed: ").append(result.getName()).append(", ").append(result.getError()).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    static long percentile(List<Long> sortedValues, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedValues.size()) - 1;
+        return sortedValues.get(Math.max(0, Math.min(index, sortedValues.size() - 1)));
+    }
+
+    /**
+     * Compare the replay outputs of two builds. Report the dumps whose plan changed, which failed in only
+     * one build, or whose planning latency grows more than latencyRatio times (ignore the ones under 1ms).
+     */
+    public static List<String> diff(File baselineDir, File currentDir, double latencyRatio) throws IOException {
+        return diff(baselineDir, currentDir, true, latencyRatio);
+    }
+
+    /**
+     * Compare the replay outputs like {@link #diff}, but ignore the planning latency, which is too noisy to be
+     * compared in the same process.
+     */
+    public static List<String> diffPlans(File baselineDir, File currentDir) throws IOException {
+        return diff(baselineDir, currentDir, false, 0);
+    }
+
+    private static List<String> diff(File baselineDir, File currentDir, boolean compareLatency,
+                                     double latencyRatio) throws IOException {
+        Map<String, ReplayResult> baseline = Maps.newHashMap();
+        for (ReplayResult result : readReport(baselineDir)) {
+            baseline.put(result.getName(), result);
+        }
+
+        List<String> diffs = Lists.newArrayList();
+        List<ReplayResult> current = readReport(currentDir);
+        current.sort(Comparator.comparing(ReplayResult::getName));
+        for (ReplayResult result : current) {
+            ReplayResult base = baseline.get(result.getName());
+            if (base == null) {
+                continue;
+            }
+            if (base.isFailed() != result.isFailed()) {
+                diffs.add(result.getName() + ": failed in " + (result.isFailed() ? "current" : "baseline") +
+                        " build, " + (result.isFailed() ? result.getError() : base.getError()));
+                continue;
+            }
+            if (result.isFailed()) {
+                continue;
+            }
+
+            String basePlan = readPlan(baselineDir, result.getName());
+            String currentPlan = readPlan(currentDir, result.getName());
+            if (!basePlan.equals(currentPlan)) {
+                diffs.add(result.getName() + ": plan changed, cpu cost " + base.getCpuCost() + " -> " +
+                        result.getCpuCost() + ", mem cost " + base.getMemCost() + " -> " + result.getMemCost() +
+                        "\n" + diffLines(basePlan, currentPlan));
+            }
+            if (compareLatency && result.getPlanTimeUs() > 1000 &&
+                    result.getPlanTimeUs() > base.getPlanTimeUs() * latencyRatio) {
+                diffs.add(result.getName() + ": planning latency " + base.getPlanTimeUs() + "us -> " +
+                        result.getPlanTimeUs() + "us, memo expressions " + base.getMemoExpressions() + " -> " +
+                        result.getMemoExpressions());
+            }
+        }
+        return diffs;
+    }
+
+    private static String readPlan(File outputDir, String name) throws IOException {
+        File plan = new File(new File(outputDir, PLAN_DIR), name + ".plan");
+        if (!plan.exists()) {
+            return "";
+        }
+        return new String(Files.readAllBytes(plan.toPath()), StandardCharsets.UTF_8);
+    }
+
+    // Lines only in one of the plans, prefixed by - or +
+    static String diffLines(String basePlan, String currentPlan) {
+        List<String> baseLines = Lists.newArrayList(basePlan.split("\n"));
+        List<String> currentLines = Lists.newArrayList(currentPlan.split("\n"));
+        List<String> removed = new ArrayList<>(baseLines);
+        currentLines.forEach(removed::remove);
+        List<String> added = new ArrayList<>(currentLines);
+        baseLines.forEach(added::remove);
+
+        StringBuilder sb = new StringBuilder();
+        removed.forEach(line -> sb.append("- ").append(line).append("\n"));
+        added.forEach(line -> sb.append("+ ").append(line).append("\n"));
+        return sb.toString();
+    }
+}
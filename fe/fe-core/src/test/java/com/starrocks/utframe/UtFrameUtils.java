@@ -382,7 +382,7 @@ public class UtFrameUtils {
         }
     }
 
-    private static String initMockEnv(ConnectContext connectContext, QueryDumpInfo replayDumpInfo) throws Exception {
+    static String initMockEnv(ConnectContext connectContext, QueryDumpInfo replayDumpInfo) throws Exception {
         // mock statistics table
         StarRocksAssert starRocksAssert = new StarRocksAssert(connectContext);
         if (!starRocksAssert.databaseExist("_statistics_")) {
@@ -455,7 +455,7 @@ public class UtFrameUtils {
         return replaySql;
     }
 
-    private static void tearMockEnv() {
+    static void tearMockEnv() {
         int backendId = 10002;
         int backendIdSize = GlobalStateMgr.getCurrentSystemInfo().getBackendIds(true).size();
         for (int i = 1; i < backendIdSize; ++i) {
@@ -39,6 +39,9 @@ struct TBackendInfo {
     5: optional string version
     6: optional i32 num_hardware_cores
     7: optional Types.TPort starlet_port
+    // memory consumption and limit of the loads, such as the memtables
+    8: optional i64 load_mem_consumption
+    9: optional i64 load_mem_limit
 }
 
 struct THeartbeatResult {